@@ -122,27 +122,6 @@ public final class ArraySiftDownMain {
 
     }
 
-    /**
-     * Exchanges entries at indices {@code i} and {@code j} of {@code array}.
-     *
-     * @param array
-     *            the array whose entries are to be exchanged
-     * @param i
-     *            one index
-     * @param j
-     *            the other index
-     * @updates array
-     * @requires 0 <= i < |array| and 0 <= j < |array|
-     * @ensures array = [#array with entries at indices i and j exchanged]
-     */
-    private static void exchangeEntries(int[] array, int i, int j) {
-        if (i != j) {
-            int tmp = array[i];
-            array[i] = array[j];
-            array[j] = tmp;
-        }
-    }
-
     /**
      * Given an array that represents a complete binary tree and an index
      * referring to the root of a subtree that would be a heap except for its
@@ -182,22 +161,29 @@ public final class ArraySiftDownMain {
          * when using the array representation for a complete binary tree.
          */
 
-        int left, right;
-
-        left = top * 2 + 1;
-        right = top * 2 + 2;
-        int smallPos = top;
-        if (left <= last && array[left] < array[smallPos]) {
-            smallPos = left;
-        }
-        if (right <= last && array[right] < array[smallPos]) {
-            smallPos = right;
-        }
-
-        if (smallPos != top) {
-            exchangeEntries(array, smallPos, top);
-            siftDown(array, smallPos, last);
+        /*
+         * Iterative "hole" sift-down: the root entry is held aside while the
+         * smaller child of the hole is moved up, and is written back once, at
+         * the position where it no longer exceeds either child.
+         */
+        int root = array[top];
+        int hole = top;
+        int child = 2 * hole + 1;
+        boolean done = false;
+        while (!done && child <= last) {
+            int right = child + 1;
+            if (right <= last && array[right] < array[child]) {
+                child = right;
+            }
+            if (array[child] < root) {
+                array[hole] = array[child];
+                hole = child;
+                child = 2 * hole + 1;
+            } else {
+                done = true;
+            }
         }
+        array[hole] = root;
 
     }
 
@@ -242,12 +228,11 @@ public final class ArraySiftDownMain {
          */
         out.println("              initial array: " + Arrays.toString(array));
         /*
-         * Heapify the heapSize-length prefix of array by repeatedly calling
-         * siftDown (this is an iterative implementation of heapify--it should
-         * start with i = heapSize / 2 - 1, but since it is intended to test
-         * siftDown, we call it on the leaves as well)
+         * Heapify the heapSize-length prefix of array bottom-up by calling
+         * siftDown on each non-leaf index, from heapSize / 2 - 1 back to the
+         * root (leaves are already one-entry heaps)
          */
-        for (int i = heapSize - 1; i >= 0; i--) {
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
             siftDown(array, i, heapSize - 1);
         }
         /*
@@ -0,0 +1,95 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Program to run one of the JMH benchmarks in this project with JMH's GC
+ * profiler and write the results, including the bytes allocated per operation
+ * ({@code gc.alloc.rate.norm}), to a JSON file in JMH's own format, so runs
+ * can be compared between releases. The arguments are the simple name of the
+ * benchmark class, the name of the results file, and then any number of
+ * parameter settings {@code name=value,...}, each of which replaces the values
+ * in the {@code @Param} annotation of that field. For example,
+ *
+ * <pre>
+ * SetBenchmark set-jmh.json
+ * StackBenchmark stack-jmh.json depth=1024
+ * </pre>
+ *
+ * <p>
+ * The class path must hold the JMH jars (jmh-core, plus
+ * jmh-generator-annprocess as an annotation processor when compiling), the
+ * components jar, and the compiled classes of the projects whose
+ * implementations are benchmarked.
+ *
+ * @author Chris Zhao, Ko Lim
+ */
+public final class BenchmarkMain {
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private BenchmarkMain() {
+        // no code needed here
+    }
+
+    /**
+     * Reports whether every entry of {@code args} from position 2 on has the
+     * form {@code name=value,...}.
+     *
+     * @param args
+     *            the command line arguments
+     * @return true if every parameter setting is well formed
+     */
+    private static boolean settingsAreWellFormed(String[] args) {
+        boolean ok = true;
+        for (int i = 2; i < args.length; i++) {
+            int eq = args[i].indexOf('=');
+            ok = ok && eq > 0 && eq < args[i].length() - 1;
+        }
+        return ok;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments: the simple name of the benchmark
+     *            class, the name of the JSON results file, and any parameter
+     *            settings
+     * @throws RunnerException
+     *             if JMH cannot run the benchmarks
+     */
+    public static void main(String[] args) throws RunnerException {
+        SimpleWriter out = new SimpleWriter1L();
+
+        if (args.length < 2 || !settingsAreWellFormed(args)) {
+            out.println("Usage: BenchmarkMain <benchmark class> "
+                    + "<results file> [name=value,...]...");
+        } else {
+            String benchmark = BenchmarkMain.class.getPackage().getName() + "."
+                    + args[0];
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(benchmark + "\\.").addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON).result(args[1]);
+            for (int i = 2; i < args.length; i++) {
+                int eq = args[i].indexOf('=');
+                options = options.param(args[i].substring(0, eq),
+                        args[i].substring(eq + 1).split(","));
+            }
+            new Runner(options.build()).run();
+            out.println("Results written to " + args[1]);
+        }
+
+        out.close();
+    }
+
+}
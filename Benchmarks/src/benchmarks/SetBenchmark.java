@@ -0,0 +1,136 @@
+package benchmarks;
+
+import java.lang.reflect.Constructor;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import components.set.Set;
+
+/**
+ * JMH benchmarks for single operations on the tree-based {@code Set<Integer>}
+ * implementations in the SetOnBST project. Run them with JMH's GC profiler
+ * (as {@code BenchmarkMain} does) to see the bytes allocated per
+ * operation ({@code gc.alloc.rate.norm}) next to the time. The keys are added
+ * in random order, so even the unbalanced {@code Set3a} has logarithmic
+ * height.
+ *
+ * @author Chris Zhao, Ko Lim
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SetBenchmark {
+
+    /**
+     * Seed for the pseudo-random keys, so every run sees the same input.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Name of the {@code Set} class under test.
+     */
+    @Param({ "Set3a", "Set3b", "Set3c" })
+    private String impl;
+
+    /**
+     * Number of elements in the set.
+     */
+    @Param({ "1000", "100000" })
+    private int size;
+
+    /**
+     * The set under test.
+     */
+    private Set<Integer> set;
+
+    /**
+     * The elements of the set, in a random order.
+     */
+    private Integer[] keys;
+
+    /**
+     * Index in keys of the next key to use.
+     */
+    private int cursor;
+
+    /**
+     * Builds the set from keys 0 to size - 1 added in a random order.
+     *
+     * @throws ReflectiveOperationException
+     *             if the class is not on the class path
+     */
+    @SuppressWarnings("unchecked")
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        this.keys = new Integer[this.size];
+        for (int i = 0; i < this.size; i++) {
+            this.keys[i] = i;
+        }
+        Random rnd = new Random(SEED);
+        for (int i = this.size - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            Integer tmp = this.keys[i];
+            this.keys[i] = this.keys[j];
+            this.keys[j] = tmp;
+        }
+        Constructor<?> c = Class.forName(this.impl).getConstructor();
+        this.set = (Set<Integer>) c.newInstance();
+        for (Integer k : this.keys) {
+            this.set.add(k);
+        }
+        this.cursor = 0;
+    }
+
+    /**
+     * Returns the next key, cycling through all of them.
+     *
+     * @return the key
+     */
+    private Integer nextKey() {
+        Integer k = this.keys[this.cursor];
+        this.cursor++;
+        if (this.cursor == this.keys.length) {
+            this.cursor = 0;
+        }
+        return k;
+    }
+
+    /**
+     * Looks up an element of the set.
+     *
+     * @return the result of contains, so the work cannot be optimized away
+     */
+    @Benchmark
+    public boolean contains() {
+        return this.set.contains(this.nextKey());
+    }
+
+    /**
+     * Removes an element of the set and adds it back.
+     *
+     * @return the removed element, so the work cannot be optimized away
+     */
+    @Benchmark
+    public Integer removeAndAdd() {
+        Integer k = this.set.remove(this.nextKey());
+        this.set.add(k);
+        return k;
+    }
+
+}
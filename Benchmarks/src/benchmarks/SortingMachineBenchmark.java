@@ -0,0 +1,285 @@
+package benchmarks;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import components.sortingmachine.SortingMachine;
+
+/**
+ * JMH benchmarks for the {@code SortingMachine<String>} implementations in the
+ * other projects: the time to add every entry, the latency of
+ * {@code changeToExtractionMode}, and the time to remove every entry. The
+ * implementation is chosen by class name, so this project only needs the
+ * other projects' compiled classes on its class path, not their sources (and
+ * JMH requires benchmarks to be in a named package, from which the
+ * default-package implementations could not be imported anyway).
+ *
+ * <p>
+ * {@code SortingMachine3} inserts each entry into a sorted array, which is
+ * quadratic overall, so with {@code BenchmarkMain} run it on its own at the two
+ * smaller sizes and the others at all sizes:
+ *
+ * <pre>
+ * SortingMachineBenchmark sm3-jmh.json impl=SortingMachine3 size=1000,100000
+ * SortingMachineBenchmark sm-jmh.json
+ *         impl=SortingMachine4,SortingMachine5a,RadixSortingMachine
+ * </pre>
+ *
+ * @author Chris Zhao, Ko Lim
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+public class SortingMachineBenchmark {
+
+    /**
+     * Seed for the pseudo-random entries, so every run sees the same input.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Number of distinct entries in the "duplicates" input.
+     */
+    private static final int DISTINCT_DUPLICATES = 100;
+
+    /**
+     * Name of the {@code SortingMachine} class under test.
+     */
+    @Param({ "SortingMachine3", "SortingMachine4", "SortingMachine5a",
+            "RadixSortingMachine" })
+    private String impl;
+
+    /**
+     * Shape of the input: "random", "sorted", "reverse" or "duplicates".
+     */
+    @Param({ "random", "sorted", "reverse", "duplicates" })
+    private String input;
+
+    /**
+     * Number of entries.
+     */
+    @Param({ "1000", "100000", "1000000" })
+    private int size;
+
+    /**
+     * The entries, in the order they are added.
+     */
+    private String[] keys;
+
+    /**
+     * Constructor of the class under test, from a {@code Comparator}.
+     */
+    private Constructor<?> constructor;
+
+    /**
+     * Returns a random lowercase word of 4 to 16 characters.
+     *
+     * @param rnd
+     *            the source of randomness
+     * @return the word
+     */
+    private static String randomWord(Random rnd) {
+        final int minLength = 4;
+        final int extraLength = 13;
+        int length = minLength + rnd.nextInt(extraLength);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + rnd.nextInt('z' - 'a' + 1)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns {@code n} entries of the given input shape.
+     *
+     * @param shape
+     *            "random", "sorted", "reverse" or "duplicates"
+     * @param n
+     *            the number of entries
+     * @return the entries
+     */
+    private static String[] makeKeys(String shape, int n) {
+        Random rnd = new Random(SEED);
+        String[] keys = new String[n];
+        if (shape.equals("duplicates")) {
+            String[] pool = new String[DISTINCT_DUPLICATES];
+            for (int i = 0; i < pool.length; i++) {
+                pool[i] = randomWord(rnd);
+            }
+            for (int i = 0; i < n; i++) {
+                keys[i] = pool[rnd.nextInt(pool.length)];
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                keys[i] = randomWord(rnd);
+            }
+            if (shape.equals("sorted") || shape.equals("reverse")) {
+                Arrays.sort(keys);
+            }
+            if (shape.equals("reverse")) {
+                for (int i = 0, j = n - 1; i < j; i++, j--) {
+                    String tmp = keys[i];
+                    keys[i] = keys[j];
+                    keys[j] = tmp;
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns a new, empty machine of the class under test, in natural order.
+     *
+     * @return the new machine
+     */
+    @SuppressWarnings("unchecked")
+    private SortingMachine<String> newMachine() {
+        try {
+            return (SortingMachine<String>) this.constructor
+                    .newInstance(Comparator.<String>naturalOrder());
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError("Cannot construct object of type "
+                    + this.constructor.getDeclaringClass());
+        }
+    }
+
+    /**
+     * Returns a new machine of the class under test holding all the entries,
+     * still in insertion mode.
+     *
+     * @return the new machine
+     */
+    private SortingMachine<String> filledMachine() {
+        SortingMachine<String> sm = this.newMachine();
+        for (String k : this.keys) {
+            sm.add(k);
+        }
+        return sm;
+    }
+
+    /**
+     * Generates the entries and looks up the class under test.
+     *
+     * @throws ReflectiveOperationException
+     *             if the class is not on the class path
+     */
+    @Setup(Level.Trial)
+    public void setUpTrial() throws ReflectiveOperationException {
+        this.keys = makeKeys(this.input, this.size);
+        this.constructor = Class.forName(this.impl)
+                .getConstructor(Comparator.class);
+    }
+
+    /**
+     * Adds every entry to a new machine.
+     *
+     * @return the machine, so the work cannot be optimized away
+     */
+    @Benchmark
+    public SortingMachine<String> addAll() {
+        return this.filledMachine();
+    }
+
+    /**
+     * Per-invocation state: a machine of the class under test holding all the
+     * entries, in insertion mode.
+     */
+    @State(Scope.Thread)
+    public static class InsertionModeMachine {
+
+        /**
+         * The machine.
+         */
+        private SortingMachine<String> machine;
+
+        /**
+         * Fills a new machine.
+         *
+         * @param bench
+         *            the trial state
+         */
+        @Setup(Level.Invocation)
+        public void setUp(SortingMachineBenchmark bench) {
+            this.machine = bench.filledMachine();
+        }
+
+    }
+
+    /**
+     * Per-invocation state: a machine of the class under test holding all the
+     * entries, in extraction mode.
+     */
+    @State(Scope.Thread)
+    public static class ExtractionModeMachine {
+
+        /**
+         * The machine.
+         */
+        private SortingMachine<String> machine;
+
+        /**
+         * Fills a new machine and switches it to extraction mode.
+         *
+         * @param bench
+         *            the trial state
+         */
+        @Setup(Level.Invocation)
+        public void setUp(SortingMachineBenchmark bench) {
+            this.machine = bench.filledMachine();
+            this.machine.changeToExtractionMode();
+        }
+
+    }
+
+    /**
+     * Switches a filled machine to extraction mode. For machines that sort as
+     * entries are added this is nearly free; for the others it is where the
+     * sorting happens.
+     *
+     * @param state
+     *            the filled machine
+     * @return the machine, so the work cannot be optimized away
+     */
+    @Benchmark
+    public SortingMachine<String> changeToExtractionMode(
+            InsertionModeMachine state) {
+        state.machine.changeToExtractionMode();
+        return state.machine;
+    }
+
+    /**
+     * Removes every entry from a filled machine in extraction mode.
+     *
+     * @param state
+     *            the filled machine
+     * @return the last entry removed, so the work cannot be optimized away
+     */
+    @Benchmark
+    public String drain(ExtractionModeMachine state) {
+        String last = null;
+        while (state.machine.size() > 0) {
+            last = state.machine.removeFirst();
+        }
+        return last;
+    }
+
+}
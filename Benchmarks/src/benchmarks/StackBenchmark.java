@@ -0,0 +1,99 @@
+package benchmarks;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import components.stack.Stack;
+
+/**
+ * JMH benchmark for the linked-list {@code Stack2} of the StackWithLinkedList
+ * project, with and without node recycling, on a push-heavy workload of
+ * bounded depth: each operation pushes {@code depth} entries and then pops
+ * them all. Run it with JMH's GC profiler (as {@code BenchmarkMain}
+ * does) to see the bytes allocated per operation
+ * ({@code gc.alloc.rate.norm}) next to the time; with a free list at least
+ * {@code depth} nodes long, the stack allocates nothing after the first
+ * operation.
+ *
+ * @author Chris Zhao, Ko Lim
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackBenchmark {
+
+    /**
+     * Largest number of popped nodes the stack keeps for reuse; 0 turns
+     * recycling off.
+     */
+    @Param({ "0", "1024" })
+    private int maxFree;
+
+    /**
+     * Number of entries pushed and then popped in each operation.
+     */
+    @Param({ "16", "1024" })
+    private int depth;
+
+    /**
+     * The stack under test.
+     */
+    private Stack<Integer> stack;
+
+    /**
+     * The entries pushed, made in advance so boxing is not measured.
+     */
+    private Integer[] entries;
+
+    /**
+     * Creates the stack and the entries.
+     *
+     * @throws ReflectiveOperationException
+     *             if Stack2 is not on the class path
+     */
+    @SuppressWarnings("unchecked")
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        this.entries = new Integer[this.depth];
+        for (int i = 0; i < this.depth; i++) {
+            this.entries[i] = i;
+        }
+        Constructor<?> c = Class.forName("Stack2").getConstructor(int.class);
+        this.stack = (Stack<Integer>) c.newInstance(this.maxFree);
+    }
+
+    /**
+     * Pushes every entry and then pops them all.
+     *
+     * @return the sum of the entries popped, so the work cannot be optimized
+     *         away
+     */
+    @Benchmark
+    public int pushThenPop() {
+        for (Integer x : this.entries) {
+            this.stack.push(x);
+        }
+        int sum = 0;
+        for (int i = 0; i < this.depth; i++) {
+            sum += this.stack.pop();
+        }
+        return sum;
+    }
+
+}
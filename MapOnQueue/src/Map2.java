@@ -1,4 +1,5 @@
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 import components.map.Map;
 import components.map.MapSecondary;
@@ -6,32 +7,165 @@ import components.queue.Queue;
 import components.queue.Queue1L;
 
 /**
- * {@code Map} represented as a {@code Queue} of pairs with implementations of
- * primary methods.
+ * {@code Map} represented as a {@code Queue} of cells holding pairs, with
+ * implementations of primary methods. The queue is kept as a self-organizing
+ * list: {@code hasKey} and {@code value} scan it from the front, stop at the
+ * first match, and then move the pair found forward according to a
+ * {@code Heuristic} chosen at construction. A pair is moved by shifting the
+ * contents of the cells it passes, so the queue itself is never rotated and
+ * the work done is proportional to the position of the pair found. Under
+ * skewed access patterns the most used pairs gather near the front, where
+ * lookups cost almost nothing; the numbers of hits and misses are counted.
  *
  * @param <K>
  *            type of {@code Map} domain (key) entries
  * @param <V>
  *            type of {@code Map} range (associated value) entries
+ * @mathdefinitions <pre>
+ * PAIRS(
+ *   q: string of Cell
+ *  ): string of (key: K, value: V) satisfies
+ *  [the string of the entry fields of the cells of q, in the same order]
+ * </pre>
  * @convention <pre>
+ * [the cells of $this.pairsQueue are distinct objects with non-null entry
+ *  fields]  and
  * for all key1, key2: K, value1, value2: V, str1, str2: string of (key, value)
- *     where (str1 * <(key1, value1)> is prefix of $this.pairsQueue and
- *            str2 * <(key2, value2)> is prefix of $this.pairsQueue and
+ *     where (str1 * <(key1, value1)> is prefix of PAIRS($this.pairsQueue) and
+ *            str2 * <(key2, value2)> is prefix of PAIRS($this.pairsQueue) and
  *            str1 /= str2)
- *   (key1 /= key2)
+ *   (key1 /= key2)  and
+ * $this.hits >= 0  and  $this.misses >= 0
  * </pre>
- * @correspondence this = entries($this.pairsQueue)
+ * @correspondence this = entries(PAIRS($this.pairsQueue))
  */
 public class Map2<K, V> extends MapSecondary<K, V> {
 
+    /**
+     * How a pair found by a lookup is moved forward in the list.
+     */
+    public enum Heuristic {
+        /**
+         * The pair stays where it is.
+         */
+        NONE,
+        /**
+         * The pair is moved to the front of the list.
+         */
+        MOVE_TO_FRONT,
+        /**
+         * The pair trades places with the one just before it.
+         */
+        TRANSPOSE
+    }
+
     /*
      * Private members --------------------------------------------------------
      */
 
     /**
-     * Pairs included in {@code this}.
+     * Mutable holder of one entry of the list, so that entries can be moved
+     * between positions without changing the {@code Queue}.
+     *
+     * @param <E>
+     *            type of entry
+     */
+    private static final class Cell<E> {
+
+        /**
+         * The entry.
+         */
+        private E entry;
+
+        /**
+         * Constructor from entry.
+         *
+         * @param entry
+         *            the entry
+         */
+        private Cell(E entry) {
+            this.entry = entry;
+        }
+
+    }
+
+    /**
+     * Cells holding the pairs included in {@code this}.
+     */
+    private Queue<Cell<Pair<K, V>>> pairsQueue;
+
+    /**
+     * How pairs found by lookups are moved forward.
+     */
+    private final Heuristic heuristic;
+
+    /**
+     * Number of lookups that found their key.
      */
-    private Queue<Pair<K, V>> pairsQueue;
+    private long hits;
+
+    /**
+     * Number of lookups that did not find their key.
+     */
+    private long misses;
+
+    /**
+     * Moves the entry of cell {@code target} to the first cell of {@code q},
+     * shifting the entries of the cells before it back by one.
+     *
+     * @param <E>
+     *            type of entry
+     * @param q
+     *            the {@code Queue} of cells
+     * @param target
+     *            the cell whose entry is moved
+     * @updates q
+     * @requires target is one of the cells of q
+     * @ensures <pre>
+     * [the entry fields of the cells of q, from the front, are #target.entry
+     *  followed by those of the cells of #q other than target, in order]
+     * </pre>
+     */
+    private static <E> void shiftToFront(Queue<Cell<E>> q, Cell<E> target) {
+        Iterator<Cell<E>> it = q.iterator();
+        Cell<E> c = it.next();
+        E carry = target.entry;
+        while (c != target) {
+            E t = c.entry;
+            c.entry = carry;
+            carry = t;
+            c = it.next();
+        }
+        c.entry = carry;
+    }
+
+    /**
+     * Returns the cell of {@code q} holding the pair with first component
+     * {@code key}, or null if there is none, scanning from the front and
+     * stopping at the first match.
+     *
+     * @param <K>
+     *            type of {@code Pair} key
+     * @param <V>
+     *            type of {@code Pair} value
+     * @param q
+     *            the {@code Queue} to be searched
+     * @param key
+     *            the key to be searched for
+     * @return the cell holding key, or null
+     */
+    private static <K, V> Cell<Pair<K, V>> find(Queue<Cell<Pair<K, V>>> q,
+            K key) {
+        Iterator<Cell<Pair<K, V>>> it = q.iterator();
+        Cell<Pair<K, V>> found = null;
+        while (found == null && it.hasNext()) {
+            Cell<Pair<K, V>> c = it.next();
+            if (c.entry.key().equals(key)) {
+                found = c;
+            }
+        }
+        return found;
+    }
 
     /**
      * Finds pair with first component {@code key} and, if such exists, moves it
@@ -47,26 +181,74 @@ public class Map2<K, V> extends MapSecondary<K, V> {
      *            the key to be searched for
      * @updates q
      * @ensures <pre>
-     * perms(q, #q)  and
-     * if there exists value: V (<(key, value)> is substring of q)
-     *  then there exists value: V (<(key, value)> is prefix of q)
+     * perms(PAIRS(q), PAIRS(#q))  and
+     * if there exists value: V (<(key, value)> is substring of PAIRS(q))
+     *  then there exists value: V (<(key, value)> is prefix of PAIRS(q))
      * </pre>
      */
-    private static <K, V> void moveToFront(Queue<Pair<K, V>> q, K key) {
+    private static <K, V> void moveToFront(Queue<Cell<Pair<K, V>>> q, K key) {
         assert q != null : "Violation of: q is not null";
         assert key != null : "Violation of: key is not null";
 
-        for (int i = 0; i < q.length() && q.front().key().equals(key); i++) {
-            q.rotate(1);
+        Cell<Pair<K, V>> found = find(q, key);
+        if (found != null) {
+            shiftToFront(q, found);
         }
 
     }
 
+    /**
+     * Looks up {@code key}, counts the lookup as a hit or a miss, and moves
+     * the pair found, if any, forward according to {@code heuristic}.
+     *
+     * @param key
+     *            the key to be searched for
+     * @return the pair with first component key, or null
+     * @updates this.pairsQueue, this.hits, this.misses
+     * @ensures <pre>
+     * perms(PAIRS(this.pairsQueue), PAIRS(#this.pairsQueue))  and
+     * if key is in DOMAIN(this)
+     *  then (lookup = (key, this(key))  and  this.hits = #this.hits + 1)
+     *  else (lookup = null  and  this.misses = #this.misses + 1)
+     * </pre>
+     */
+    private Pair<K, V> lookup(K key) {
+        Iterator<Cell<Pair<K, V>>> it = this.pairsQueue.iterator();
+        Cell<Pair<K, V>> previous = null;
+        Cell<Pair<K, V>> found = null;
+        while (found == null && it.hasNext()) {
+            Cell<Pair<K, V>> c = it.next();
+            if (c.entry.key().equals(key)) {
+                found = c;
+            } else {
+                previous = c;
+            }
+        }
+        Pair<K, V> ans = null;
+        if (found == null) {
+            this.misses++;
+        } else {
+            this.hits++;
+            ans = found.entry;
+            if (previous != null) {
+                if (this.heuristic == Heuristic.MOVE_TO_FRONT) {
+                    shiftToFront(this.pairsQueue, found);
+                } else if (this.heuristic == Heuristic.TRANSPOSE) {
+                    found.entry = previous.entry;
+                    previous.entry = ans;
+                }
+            }
+        }
+        return ans;
+    }
+
     /**
      * Creator of initial representation.
      */
     private void createNewRep() {
-        this.pairsQueue = new Queue1L<Pair<K, V>>();
+        this.pairsQueue = new Queue1L<Cell<Pair<K, V>>>();
+        this.hits = 0;
+        this.misses = 0;
     }
 
     /*
@@ -74,9 +256,21 @@ public class Map2<K, V> extends MapSecondary<K, V> {
      */
 
     /**
-     * No-argument constructor.
+     * No-argument constructor; lookups move the pair found to the front.
      */
     public Map2() {
+        this(Heuristic.MOVE_TO_FRONT);
+    }
+
+    /**
+     * Constructor from heuristic.
+     *
+     * @param heuristic
+     *            how lookups move the pair found
+     */
+    public Map2(Heuristic heuristic) {
+        assert heuristic != null : "Violation of: heuristic is not null";
+        this.heuristic = heuristic;
         this.createNewRep();
     }
 
@@ -88,7 +282,8 @@ public class Map2<K, V> extends MapSecondary<K, V> {
     @Override
     public final Map<K, V> newInstance() {
         try {
-            return this.getClass().getConstructor().newInstance();
+            return this.getClass().getConstructor(Heuristic.class)
+                    .newInstance(this.heuristic);
         } catch (ReflectiveOperationException e) {
             throw new AssertionError(
                     "Cannot construct object of type " + this.getClass());
@@ -113,6 +308,8 @@ public class Map2<K, V> extends MapSecondary<K, V> {
          */
         Map2<K, V> localSource = (Map2<K, V>) source;
         this.pairsQueue = localSource.pairsQueue;
+        this.hits = localSource.hits;
+        this.misses = localSource.misses;
         localSource.createNewRep();
     }
 
@@ -124,43 +321,45 @@ public class Map2<K, V> extends MapSecondary<K, V> {
     public final void add(K key, V value) {
         assert key != null : "Violation of: key is not null";
         assert value != null : "Violation of: value is not null";
-        assert !this.hasKey(key) : "Violation of: key is not in DOMAIN(this)";
+        assert find(this.pairsQueue, key) == null : ""
+                + "Violation of: key is not in DOMAIN(this)";
 
-        this.pairsQueue.enqueue(new SimplePair(key, value));
+        this.pairsQueue.enqueue(
+                new Cell<Pair<K, V>>(new SimplePair(key, value)));
 
     }
 
     @Override
     public final Pair<K, V> remove(K key) {
         assert key != null : "Violation of: key is not null";
-        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+        assert find(this.pairsQueue, key) != null : ""
+                + "Violation of: key is in DOMAIN(this)";
 
         moveToFront(this.pairsQueue, key);
-        return this.pairsQueue.dequeue();
+        return this.pairsQueue.dequeue().entry;
     }
 
     @Override
     public final Pair<K, V> removeAny() {
         assert this.size() > 0 : "Violation of: this /= empty_set";
 
-        return this.pairsQueue.dequeue();
+        return this.pairsQueue.dequeue().entry;
     }
 
     @Override
     public final V value(K key) {
         assert key != null : "Violation of: key is not null";
-        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+        assert find(this.pairsQueue, key) != null : ""
+                + "Violation of: key is in DOMAIN(this)";
 
-        moveToFront(this.pairsQueue, key);
-        return this.pairsQueue.front().value();
+        return this.lookup(key).value();
     }
 
     @Override
     public final boolean hasKey(K key) {
         assert key != null : "Violation of: key is not null";
 
-        moveToFront(this.pairsQueue, key);
-        return this.pairsQueue.front().key().equals(key);
+        return this.lookup(key) != null;
     }
 
     @Override
@@ -171,7 +370,75 @@ public class Map2<K, V> extends MapSecondary<K, V> {
 
     @Override
     public final Iterator<Pair<K, V>> iterator() {
-        return this.pairsQueue.iterator();
+        return new Map2Iterator();
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    /**
+     * Reports the number of calls to {@code hasKey} and {@code value} that
+     * found their key since {@code this} was created or cleared.
+     *
+     * @return the number of hits
+     */
+    public final long hits() {
+        return this.hits;
+    }
+
+    /**
+     * Reports the number of calls to {@code hasKey} that did not find their
+     * key since {@code this} was created or cleared.
+     *
+     * @return the number of misses
+     */
+    public final long misses() {
+        return this.misses;
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Map2}.
+     */
+    private final class Map2Iterator implements Iterator<Pair<K, V>> {
+
+        /**
+         * Iterator over the cells of the representation.
+         */
+        private final Iterator<Cell<Pair<K, V>>> cells;
+
+        /**
+         * No-argument constructor.
+         */
+        private Map2Iterator() {
+            this.cells = Map2.this.pairsQueue.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.cells.hasNext();
+        }
+
+        @Override
+        public Pair<K, V> next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            return this.cells.next().entry;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
     }
 
 }
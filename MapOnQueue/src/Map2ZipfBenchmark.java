@@ -0,0 +1,220 @@
+import java.util.Arrays;
+import java.util.Random;
+
+import components.map.Map;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Program to measure {@code Map2} lookups under each of its heuristics when
+ * the keys looked up follow a Zipf distribution, as in caches and word
+ * counts: the key of rank r is looked up with probability proportional to
+ * 1/r. The pairs are added in random order, so the popular keys do not start
+ * at the front. A share of the lookups are for keys not in the map. Each run
+ * makes one untimed pass of lookups, so the list can organize itself, then
+ * times a second pass; the best of several runs is reported. {@code Map4} is
+ * included for reference. Run it without {@code -ea}: with assertions enabled
+ * every {@code value} call also runs {@code hasKey}.
+ *
+ * @author Chris Zhao
+ */
+public final class Map2ZipfBenchmark {
+
+    /**
+     * Numbers of keys in the map.
+     */
+    private static final int[] SIZES = { 100, 1_000, 10_000 };
+
+    /**
+     * Number of lookups in each pass.
+     */
+    private static final int LOOKUPS = 200_000;
+
+    /**
+     * One lookup in this many is for a key not in the map.
+     */
+    private static final int MISS_EVERY = 20;
+
+    /**
+     * Timed repetitions per (map, size); the best one is reported.
+     */
+    private static final int REPETITIONS = 3;
+
+    /**
+     * Seed for the pseudo-random keys, so every run sees the same input.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private Map2ZipfBenchmark() {
+        // no code needed here
+    }
+
+    /**
+     * Returns {@code count} keys drawn from a Zipf distribution over the
+     * entries of {@code keysByRank}, with every {@code MISS_EVERY}-th key
+     * replaced by one not among them.
+     *
+     * @param keysByRank
+     *            the keys, most popular first
+     * @param count
+     *            the number of keys to draw
+     * @param rnd
+     *            the source of randomness
+     * @return the keys drawn
+     * @requires <pre>
+     * [the entries of keysByRank are 0 to |keysByRank| - 1, in some order]
+     * </pre>
+     */
+    private static Integer[] zipfKeys(int[] keysByRank, int count,
+            Random rnd) {
+        int n = keysByRank.length;
+        double[] cumulative = new double[n];
+        double total = 0;
+        for (int r = 0; r < n; r++) {
+            total += 1.0 / (r + 1);
+            cumulative[r] = total;
+        }
+        Integer[] keys = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            if (i % MISS_EVERY == MISS_EVERY - 1) {
+                keys[i] = n + rnd.nextInt(n);
+            } else {
+                int r = Arrays.binarySearch(cumulative,
+                        rnd.nextDouble() * total);
+                if (r < 0) {
+                    r = -r - 1;
+                }
+                keys[i] = keysByRank[Math.min(r, n - 1)];
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Looks up each of {@code keys} in {@code m}, with {@code hasKey} and,
+     * on a hit, {@code value}.
+     *
+     * @param m
+     *            the map
+     * @param keys
+     *            the keys to look up
+     * @return elapsed time in nanoseconds
+     * @updates m
+     */
+    private static long timeLookups(Map<Integer, Integer> m, Integer[] keys) {
+        long sum = 0;
+        long start = System.nanoTime();
+        for (Integer k : keys) {
+            if (m.hasKey(k)) {
+                sum += m.value(k);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        /*
+         * Use sum so the lookups cannot be optimized away
+         */
+        if (sum == Long.MIN_VALUE) {
+            elapsed = -1;
+        }
+        return elapsed;
+    }
+
+    /**
+     * Adds the keys in {@code addOrder} to {@code m}, each mapped to its
+     * negation, makes an untimed pass of lookups of {@code warmUp}, then
+     * times a pass of lookups of {@code timed}.
+     *
+     * @param m
+     *            the map
+     * @param addOrder
+     *            the keys to add, in order
+     * @param warmUp
+     *            the keys to look up before timing
+     * @param timed
+     *            the keys to look up while timing
+     * @return elapsed time of the timed pass in nanoseconds
+     * @updates m
+     * @requires m = {}
+     */
+    private static long timeRun(Map<Integer, Integer> m, int[] addOrder,
+            Integer[] warmUp, Integer[] timed) {
+        for (int k : addOrder) {
+            m.add(k, -k);
+        }
+        timeLookups(m, warmUp);
+        return timeLookups(m, timed);
+    }
+
+    /**
+     * Returns 0 to {@code n - 1} in random order.
+     *
+     * @param n
+     *            the number of entries
+     * @param rnd
+     *            the source of randomness
+     * @return the shuffled entries
+     */
+    private static int[] shuffled(int n, Random rnd) {
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+        return a;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; unused here
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        Random rnd = new Random(SEED);
+        for (int size : SIZES) {
+            int[] keysByRank = shuffled(size, rnd);
+            int[] addOrder = shuffled(size, rnd);
+            Integer[] warmUp = zipfKeys(keysByRank, LOOKUPS, rnd);
+            Integer[] timed = zipfKeys(keysByRank, LOOKUPS, rnd);
+
+            for (Map2.Heuristic h : Map2.Heuristic.values()) {
+                long best = Long.MAX_VALUE;
+                Map2<Integer, Integer> m = null;
+                for (int r = 0; r < REPETITIONS; r++) {
+                    m = new Map2<Integer, Integer>(h);
+                    best = Math.min(best,
+                            timeRun(m, addOrder, warmUp, timed));
+                }
+                /*
+                 * The counters of the last run cover both of its passes
+                 */
+                out.println(String.format(
+                        "size %d, Map2 %s: %.1f ns/lookup, "
+                                + "%d hits, %d misses in two passes",
+                        size, h, (double) best / LOOKUPS, m.hits(),
+                        m.misses()));
+            }
+
+            long best = Long.MAX_VALUE;
+            for (int r = 0; r < REPETITIONS; r++) {
+                best = Math.min(best, timeRun(new Map4<Integer, Integer>(),
+                        addOrder, warmUp, timed));
+            }
+            out.println(String.format("size %d, Map4: %.1f ns/lookup", size,
+                    (double) best / LOOKUPS));
+        }
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,429 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.map.Map;
+import components.map.MapSecondary;
+
+/**
+ * {@code Map} represented as a hash table with open addressing (using linear
+ * probing) over parallel arrays of keys and values, with implementations of
+ * primary methods. The pairs themselves are kept packed at the front of the
+ * arrays, so {@code removeAny} and iteration cost O(1) per pair; the table
+ * holds indices into those arrays. {@code add}, {@code remove},
+ * {@code value} and {@code hasKey} take amortized O(1) time: the table is
+ * doubled whenever it would become more than half full, and deletion shifts
+ * later entries of a probe sequence back rather than leaving tombstones.
+ *
+ * @param <K>
+ *            type of {@code Map} domain (key) entries
+ * @param <V>
+ *            type of {@code Map} range (associated value) entries
+ * @mathdefinitions <pre>
+ * HOME(
+ *   h: integer,
+ *   m: integer
+ *  ): integer satisfies
+ *  [the slot in a table of 2^m slots at which the probe sequence for hash
+ *   code h starts]
+ * </pre>
+ * @convention <pre>
+ * 0 <= $this.size <= |$this.keys| = |$this.values| = |$this.hashes|  and
+ * |$this.slots| = 2^$this.log2Capacity  and  2 * $this.size <= |$this.slots|  and
+ * [the entries of $this.keys[0, $this.size) and $this.values[0, $this.size)
+ *  are not null, and no two entries of $this.keys[0, $this.size) are
+ *  equal]  and
+ * for all i: integer where (0 <= i < $this.size)
+ *   ($this.hashes[i] = [$this.keys[i].hashCode()])  and
+ * [the nonzero entries of $this.slots are exactly 1 to $this.size, each
+ *  once]  and
+ * [for each slot s with $this.slots[s] = i + 1, no slot on the cyclic path
+ *  from HOME($this.hashes[i], $this.log2Capacity) to s is 0]
+ * </pre>
+ * @correspondence <pre>
+ * this = {(key, value): (K, V) where (there exists i: integer
+ *   (0 <= i < $this.size  and  key = $this.keys[i]  and
+ *    value = $this.values[i]))}
+ * </pre>
+ */
+public class Map4<K, V> extends MapSecondary<K, V> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial number of table slots (a power of 2).
+     */
+    private static final int INITIAL_LOG2_CAPACITY = 4;
+
+    /**
+     * Multiplier for Fibonacci hashing: 2^32 divided by the golden ratio.
+     */
+    private static final int GOLDEN = 0x9E3779B9;
+
+    /**
+     * Number of bits in an {@code int}.
+     */
+    private static final int INT_BITS = 32;
+
+    /**
+     * Keys, packed in positions [0, size).
+     */
+    private K[] keys;
+
+    /**
+     * Values, parallel to {@code keys}.
+     */
+    private V[] values;
+
+    /**
+     * Hash codes of the keys, parallel to {@code keys}.
+     */
+    private int[] hashes;
+
+    /**
+     * Hash table: each slot holds 0 if empty, or i + 1 for the pair at
+     * position i of {@code keys} and {@code values}.
+     */
+    private int[] slots;
+
+    /**
+     * Base-2 logarithm of the number of slots.
+     */
+    private int log2Capacity;
+
+    /**
+     * Number of pairs.
+     */
+    private int size;
+
+    /**
+     * Returns the slot at which the probe sequence for hash code {@code h}
+     * starts, in a table of 2^{@code log2Capacity} slots.
+     *
+     * @param h
+     *            the hash code
+     * @param log2Capacity
+     *            base-2 logarithm of the number of slots
+     * @return the home slot
+     * @requires 1 <= log2Capacity <= 30
+     * @ensures home = HOME(h, log2Capacity)
+     */
+    private static int home(int h, int log2Capacity) {
+        return (h * GOLDEN) >>> (INT_BITS - log2Capacity);
+    }
+
+    /**
+     * Returns the slot of the table holding {@code key}, or -1 if {@code key}
+     * is not in {@code DOMAIN(this)}.
+     *
+     * @param key
+     *            the key to look for
+     * @param h
+     *            the hash code of key
+     * @return the slot holding key, or -1
+     * @requires h = key.hashCode()
+     */
+    private int findSlot(K key, int h) {
+        int mask = this.slots.length - 1;
+        int s = home(h, this.log2Capacity);
+        int found = -1;
+        while (found < 0 && this.slots[s] != 0) {
+            int i = this.slots[s] - 1;
+            if (this.hashes[i] == h && this.keys[i].equals(key)) {
+                found = s;
+            } else {
+                s = (s + 1) & mask;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Puts {@code i + 1} into the first empty slot of the probe sequence for
+     * hash code {@code h}.
+     *
+     * @param i
+     *            the position in keys and values
+     * @param h
+     *            the hash code of keys[i]
+     * @updates this.slots
+     * @requires [the table has an empty slot]
+     */
+    private void insertSlot(int i, int h) {
+        int mask = this.slots.length - 1;
+        int s = home(h, this.log2Capacity);
+        while (this.slots[s] != 0) {
+            s = (s + 1) & mask;
+        }
+        this.slots[s] = i + 1;
+    }
+
+    /**
+     * Empties slot {@code s}, shifting back later entries of the probe run so
+     * that every entry is still reachable from its home slot.
+     *
+     * @param s
+     *            the slot to empty
+     * @updates this.slots
+     * @requires this.slots[s] /= 0
+     */
+    private void deleteSlot(int s) {
+        int mask = this.slots.length - 1;
+        int hole = s;
+        int j = (s + 1) & mask;
+        while (this.slots[j] != 0) {
+            int k = home(this.hashes[this.slots[j] - 1], this.log2Capacity);
+            /*
+             * The entry at j may move to the hole unless its home slot lies
+             * cyclically in (hole, j]
+             */
+            boolean stays;
+            if (hole <= j) {
+                stays = hole < k && k <= j;
+            } else {
+                stays = hole < k || k <= j;
+            }
+            if (!stays) {
+                this.slots[hole] = this.slots[j];
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        this.slots[hole] = 0;
+    }
+
+    /**
+     * Removes the pair at position {@code i} of {@code keys} and
+     * {@code values}, whose slot has already been emptied, by moving the last
+     * pair into its place, and returns the removed pair.
+     *
+     * @param i
+     *            the position to remove
+     * @return the removed pair
+     * @updates this
+     * @requires 0 <= i < this.size and [no slot holds i + 1]
+     * @ensures removeAt = (#this.keys[i], #this.values[i])
+     */
+    private Pair<K, V> removeAt(int i) {
+        Pair<K, V> ans = new SimplePair(this.keys[i], this.values[i]);
+        int last = this.size - 1;
+        if (i != last) {
+            int mask = this.slots.length - 1;
+            int s = home(this.hashes[last], this.log2Capacity);
+            while (this.slots[s] != last + 1) {
+                s = (s + 1) & mask;
+            }
+            this.slots[s] = i + 1;
+            this.keys[i] = this.keys[last];
+            this.values[i] = this.values[last];
+            this.hashes[i] = this.hashes[last];
+        }
+        this.keys[last] = null;
+        this.values[last] = null;
+        this.size = last;
+        return ans;
+    }
+
+    /**
+     * Doubles the number of slots and reinserts every pair.
+     *
+     * @updates this.slots, this.log2Capacity
+     */
+    private void growTable() {
+        this.log2Capacity++;
+        this.slots = new int[1 << this.log2Capacity];
+        for (int i = 0; i < this.size; i++) {
+            this.insertSlot(i, this.hashes[i]);
+        }
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep() {
+        this.log2Capacity = INITIAL_LOG2_CAPACITY;
+        this.slots = new int[1 << INITIAL_LOG2_CAPACITY];
+        this.keys = (K[]) (new Object[this.slots.length / 2]);
+        this.values = (V[]) (new Object[this.slots.length / 2]);
+        this.hashes = new int[this.slots.length / 2];
+        this.size = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public Map4() {
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Map<K, V> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(Map<K, V> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Map4<?, ?> : ""
+                + "Violation of: source is of dynamic type Map4<?,?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Map4<?,?>, and
+         * the ?,? must be K,V or the call would not have compiled.
+         */
+        Map4<K, V> localSource = (Map4<K, V>) source;
+        this.keys = localSource.keys;
+        this.values = localSource.values;
+        this.hashes = localSource.hashes;
+        this.slots = localSource.slots;
+        this.log2Capacity = localSource.log2Capacity;
+        this.size = localSource.size;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(K key, V value) {
+        assert key != null : "Violation of: key is not null";
+        assert value != null : "Violation of: value is not null";
+        assert !this.hasKey(key) : "Violation of: key is not in DOMAIN(this)";
+
+        if (2 * (this.size + 1) > this.slots.length) {
+            this.growTable();
+        }
+        if (this.size == this.keys.length) {
+            this.keys = Arrays.copyOf(this.keys, 2 * this.size);
+            this.values = Arrays.copyOf(this.values, 2 * this.size);
+            this.hashes = Arrays.copyOf(this.hashes, 2 * this.size);
+        }
+        int h = key.hashCode();
+        this.keys[this.size] = key;
+        this.values[this.size] = value;
+        this.hashes[this.size] = h;
+        this.insertSlot(this.size, h);
+        this.size++;
+
+    }
+
+    @Override
+    public final Pair<K, V> remove(K key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        int s = this.findSlot(key, key.hashCode());
+        int i = this.slots[s] - 1;
+        this.deleteSlot(s);
+        return this.removeAt(i);
+    }
+
+    @Override
+    public final Pair<K, V> removeAny() {
+        assert this.size() > 0 : "Violation of: this /= empty_set";
+
+        int last = this.size - 1;
+        this.deleteSlot(this.findSlot(this.keys[last], this.hashes[last]));
+        return this.removeAt(last);
+    }
+
+    @Override
+    public final V value(K key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        return this.values[this.slots[this.findSlot(key, key.hashCode())]
+                - 1];
+    }
+
+    @Override
+    public final boolean hasKey(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        return this.findSlot(key, key.hashCode()) >= 0;
+    }
+
+    @Override
+    public final int size() {
+
+        return this.size;
+
+    }
+
+    @Override
+    public final Iterator<Pair<K, V>> iterator() {
+        return new Map4Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Map4}.
+     */
+    private final class Map4Iterator implements Iterator<Pair<K, V>> {
+
+        /**
+         * Position in keys and values of the next pair to return.
+         */
+        private int currentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private Map4Iterator() {
+            this.currentIndex = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.currentIndex < Map4.this.size;
+        }
+
+        @Override
+        public Pair<K, V> next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            Pair<K, V> next = new SimplePair(Map4.this.keys[this.currentIndex],
+                    Map4.this.values[this.currentIndex]);
+            this.currentIndex++;
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,136 @@
+import java.util.Random;
+
+import components.map.Map;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Program to compare the cost of a successful {@code value} lookup in
+ * {@code Map4} (hash table) with that in {@code Map2} (queue of pairs) at 10K
+ * and 1M keys. {@code Map2} takes time linear in the size of the map for each
+ * lookup, so it is timed on fewer lookups than {@code Map4}; the results are
+ * reported per lookup. Run it without {@code -ea}: with assertions enabled
+ * every {@code value} call also runs {@code hasKey}.
+ *
+ * @author Chris Zhao
+ */
+public final class Map4Benchmark {
+
+    /**
+     * Numbers of keys in the map.
+     */
+    private static final int[] SIZES = { 10_000, 1_000_000 };
+
+    /**
+     * Number of lookups timed on {@code Map4}.
+     */
+    private static final int HASH_LOOKUPS = 1_000_000;
+
+    /**
+     * Total number of pairs {@code Map2} may step past, summed over the
+     * lookups timed on it; the number of lookups is this divided by the size.
+     */
+    private static final long QUEUE_STEPS = 100_000_000L;
+
+    /**
+     * Timed repetitions per (map, size); the best one is reported.
+     */
+    private static final int REPETITIONS = 3;
+
+    /**
+     * Seed for the pseudo-random keys, so every run sees the same input.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private Map4Benchmark() {
+        // no code needed here
+    }
+
+    /**
+     * Looks up each of {@code keys} in {@code m}.
+     *
+     * @param m
+     *            the map
+     * @param keys
+     *            the keys to look up
+     * @return elapsed time in nanoseconds
+     * @requires [every entry of keys is in DOMAIN(m)]
+     */
+    private static long timeLookups(Map<Integer, Integer> m, Integer[] keys) {
+        long sum = 0;
+        long start = System.nanoTime();
+        for (Integer k : keys) {
+            sum += m.value(k);
+        }
+        long elapsed = System.nanoTime() - start;
+        /*
+         * Use sum so the lookups cannot be optimized away
+         */
+        if (sum == Long.MIN_VALUE) {
+            elapsed = -1;
+        }
+        return elapsed;
+    }
+
+    /**
+     * Adds {@code size} pairs with keys 0 to {@code size - 1} to {@code m},
+     * then times {@code lookups} lookups of random keys and returns the best
+     * time per lookup.
+     *
+     * @param m
+     *            the map
+     * @param size
+     *            the number of pairs
+     * @param lookups
+     *            the number of lookups
+     * @param rnd
+     *            the source of randomness
+     * @return best time per lookup in nanoseconds
+     * @updates m
+     * @requires m = {}
+     */
+    private static double nanosPerLookup(Map<Integer, Integer> m, int size,
+            int lookups, Random rnd) {
+        for (int i = 0; i < size; i++) {
+            m.add(i, -i);
+        }
+        Integer[] keys = new Integer[lookups];
+        for (int i = 0; i < lookups; i++) {
+            keys[i] = rnd.nextInt(size);
+        }
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < REPETITIONS; r++) {
+            best = Math.min(best, timeLookups(m, keys));
+        }
+        return (double) best / lookups;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; unused here
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        Random rnd = new Random(SEED);
+        for (int size : SIZES) {
+            int queueLookups = (int) Math.max(1, QUEUE_STEPS / size);
+            double hash = nanosPerLookup(new Map4<Integer, Integer>(), size,
+                    HASH_LOOKUPS, rnd);
+            double queue = nanosPerLookup(new Map2<Integer, Integer>(), size,
+                    queueLookups, rnd);
+            out.println(String.format("size %d, Map4: %.1f ns/lookup "
+                    + "(%d lookups)", size, hash, HASH_LOOKUPS));
+            out.println(String.format("size %d, Map2: %.1f ns/lookup "
+                    + "(%d lookups)", size, queue, queueLookups));
+        }
+
+        out.close();
+    }
+
+}
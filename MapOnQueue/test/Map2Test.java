@@ -1,4 +1,13 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+
+import org.junit.Test;
+
 import components.map.Map;
+import components.map.Map.Pair;
 import components.map.Map1L;
 
 /**
@@ -16,4 +25,153 @@ public class Map2Test extends MapTest {
         return new Map1L<String, String>();
     }
 
+    @Override
+    protected final Map<Integer, Integer> constructorIntegerTest() {
+        return new Map2<Integer, Integer>();
+    }
+
+    /**
+     * Returns a {@code Map2} with the given heuristic holding the keys 0 to
+     * {@code n - 1}, in that order, each mapped to its negation.
+     *
+     * @param heuristic
+     *            the heuristic
+     * @param n
+     *            the number of pairs
+     * @return the map
+     */
+    private static Map2<Integer, Integer> ascending(Map2.Heuristic heuristic,
+            int n) {
+        Map2<Integer, Integer> m = new Map2<Integer, Integer>(heuristic);
+        for (int i = 0; i < n; i++) {
+            m.add(i, -i);
+        }
+        return m;
+    }
+
+    /**
+     * Returns the keys of {@code m} in iteration order, as a string.
+     *
+     * @param m
+     *            the map
+     * @return the keys of m, separated by spaces
+     */
+    private static String keyOrder(Map<Integer, Integer> m) {
+        StringBuilder sb = new StringBuilder();
+        Iterator<Pair<Integer, Integer>> it = m.iterator();
+        while (it.hasNext()) {
+            sb.append(it.next().key());
+            if (it.hasNext()) {
+                sb.append(' ');
+            }
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public final void testMoveToFrontKeepsOrderOfOthers() {
+        final int n = 5;
+        Map2<Integer, Integer> m = ascending(Map2.Heuristic.MOVE_TO_FRONT, n);
+        assertEquals(Integer.valueOf(-3), m.value(3));
+        assertEquals("3 0 1 2 4", keyOrder(m));
+        assertTrue(m.hasKey(4));
+        assertEquals("4 3 0 1 2", keyOrder(m));
+        assertTrue(m.hasKey(4));
+        assertEquals("4 3 0 1 2", keyOrder(m));
+    }
+
+    @Test
+    public final void testTransposeMovesForwardOne() {
+        final int n = 5;
+        Map2<Integer, Integer> m = ascending(Map2.Heuristic.TRANSPOSE, n);
+        assertTrue(m.hasKey(3));
+        assertEquals("0 1 3 2 4", keyOrder(m));
+        assertTrue(m.hasKey(3));
+        assertEquals("0 3 1 2 4", keyOrder(m));
+        assertTrue(m.hasKey(0));
+        assertEquals("0 3 1 2 4", keyOrder(m));
+    }
+
+    @Test
+    public final void testNoneKeepsOrder() {
+        final int n = 5;
+        Map2<Integer, Integer> m = ascending(Map2.Heuristic.NONE, n);
+        assertEquals(Integer.valueOf(-3), m.value(3));
+        assertTrue(m.hasKey(4));
+        assertEquals("0 1 2 3 4", keyOrder(m));
+    }
+
+    @Test
+    public final void testRemoveKeepsOrderOfOthers() {
+        final int n = 5;
+        Map2<Integer, Integer> m = ascending(Map2.Heuristic.NONE, n);
+        Pair<Integer, Integer> p = m.remove(2);
+        assertEquals(Integer.valueOf(2), p.key());
+        assertEquals(Integer.valueOf(-2), p.value());
+        assertEquals("0 1 3 4", keyOrder(m));
+    }
+
+    @Test
+    public final void testHitAndMissCounters() {
+        final int n = 10;
+        Map2<Integer, Integer> m = ascending(Map2.Heuristic.MOVE_TO_FRONT, n);
+        long hits = m.hits();
+        long misses = m.misses();
+        assertTrue(m.hasKey(7));
+        assertFalse(m.hasKey(n));
+        assertFalse(m.hasKey(-1));
+        assertEquals(hits + 1, m.hits());
+        assertEquals(misses + 2, m.misses());
+        m.clear();
+        assertEquals(0, m.hits());
+        assertEquals(0, m.misses());
+    }
+
+    @Test
+    public final void testCountersCountOnlyClientLookups() {
+        final int n = 10;
+        Map2<Integer, Integer> m = ascending(Map2.Heuristic.MOVE_TO_FRONT, n);
+        assertEquals(0, m.hits());
+        assertEquals(0, m.misses());
+        assertEquals(Integer.valueOf(-7), m.value(7));
+        assertEquals(1, m.hits());
+        assertEquals(0, m.misses());
+        m.add(n, -n);
+        assertEquals(1, m.hits());
+        assertEquals(0, m.misses());
+        m.remove(3);
+        assertEquals(1, m.hits());
+        assertEquals(0, m.misses());
+        assertEquals("7 0 1 2 4 5 6 8 9 10", keyOrder(m));
+    }
+
+    @Test
+    public final void testValueTransposesOnce() {
+        final int n = 5;
+        Map2<Integer, Integer> m = ascending(Map2.Heuristic.TRANSPOSE, n);
+        assertEquals(Integer.valueOf(-3), m.value(3));
+        assertEquals("0 1 3 2 4", keyOrder(m));
+    }
+
+    @Test
+    public final void testNewInstanceKeepsHeuristic() {
+        Map2<Integer, Integer> m = new Map2<Integer, Integer>(
+                Map2.Heuristic.TRANSPOSE);
+        Map<Integer, Integer> n = m.newInstance();
+        final int size = 3;
+        for (int i = 0; i < size; i++) {
+            n.add(i, -i);
+        }
+        assertTrue(n.hasKey(2));
+        assertEquals("0 2 1", keyOrder(n));
+    }
+
+    @Test
+    public final void testRandomOperationsWithOtherHeuristics() {
+        assertRandomOperationsMatchReference(
+                new Map2<Integer, Integer>(Map2.Heuristic.NONE));
+        assertRandomOperationsMatchReference(
+                new Map2<Integer, Integer>(Map2.Heuristic.TRANSPOSE));
+    }
+
 }
@@ -0,0 +1,184 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import components.map.Map;
+import components.map.Map.Pair;
+import components.map.Map1L;
+
+/**
+ * Customized JUnit test fixture for {@code Map4}.
+ */
+public class Map4Test extends MapTest {
+
+    @Override
+    protected final Map<String, String> constructorTest() {
+        return new Map4<String, String>();
+    }
+
+    @Override
+    protected final Map<String, String> constructorRef() {
+        return new Map1L<String, String>();
+    }
+
+    @Override
+    protected final Map<Integer, Integer> constructorIntegerTest() {
+        return new Map4<Integer, Integer>();
+    }
+
+    /**
+     * Key whose hash code is chosen by the test, so that keys can be made to
+     * collide.
+     */
+    private static final class Key {
+
+        /**
+         * Identity of the key, used by equals.
+         */
+        private final int id;
+
+        /**
+         * Hash code of the key.
+         */
+        private final int hash;
+
+        /**
+         * Constructor from identity and hash code.
+         *
+         * @param id
+         *            the identity
+         * @param hash
+         *            the hash code
+         */
+        private Key(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key && ((Key) obj).id == this.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+    }
+
+    @Test
+    public final void testReAddAfterRemoveTakesNewValue() {
+        final int size = 10_000;
+        Map<Integer, Integer> m = new Map4<Integer, Integer>();
+        for (int i = 0; i < size; i++) {
+            m.add(i, -i);
+        }
+        for (int i = 0; i < size; i += 2) {
+            assertEquals(Integer.valueOf(-i), m.remove(i).value());
+            m.add(i, i);
+        }
+        assertEquals(size, m.size());
+        for (int i = 0; i < size; i++) {
+            int expected = -i;
+            if (i % 2 == 0) {
+                expected = i;
+            }
+            assertEquals(Integer.valueOf(expected), m.value(i));
+        }
+    }
+
+    @Test
+    public final void testValuesFollowKeysThroughCollidingRemoves() {
+        /*
+         * All keys share one hash code, so they form a single probe run;
+         * every remove shifts later keys back along it, and their values
+         * must move with them
+         */
+        final int size = 64;
+        final int hash = 7;
+        Map<Key, String> m = new Map4<Key, String>();
+        for (int i = 0; i < size; i++) {
+            m.add(new Key(i, hash), "v" + i);
+        }
+        for (int i = 0; i < size; i += 2) {
+            assertEquals("v" + i, m.remove(new Key(i, hash)).value());
+        }
+        for (int i = 1; i < size; i += 2) {
+            assertEquals("v" + i, m.value(new Key(i, hash)));
+        }
+        for (int i = 0; i < size; i += 2) {
+            assertFalse(m.hasKey(new Key(i, hash)));
+            m.add(new Key(i, hash), "w" + i);
+        }
+        for (int i = 0; i < size; i++) {
+            String expected = "v" + i;
+            if (i % 2 == 0) {
+                expected = "w" + i;
+            }
+            assertEquals(expected, m.value(new Key(i, hash)));
+        }
+    }
+
+    @Test
+    public final void testRemoveReturnsStoredKeyAndValue() {
+        Map<String, String> m = new Map4<String, String>();
+        String key = new String("key");
+        String value = new String("value");
+        m.add(key, value);
+        m.add("other", "x");
+        Pair<String, String> p = m.remove(new String("key"));
+        assertSame(key, p.key());
+        assertSame(value, p.value());
+        assertFalse(m.hasKey(key));
+        assertEquals(1, m.size());
+    }
+
+    @Test
+    public final void testRemoveAnyReturnsStoredKeyAndValue() {
+        final int size = 100;
+        Map<String, String> m = new Map4<String, String>();
+        String[] keys = new String[size];
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = "k" + i;
+            values[i] = "v" + i;
+            m.add(keys[i], values[i]);
+        }
+        boolean[] seen = new boolean[size];
+        while (m.size() > 0) {
+            Pair<String, String> p = m.removeAny();
+            int i = Integer.parseInt(p.key().substring(1));
+            assertFalse(seen[i]);
+            seen[i] = true;
+            assertSame(keys[i], p.key());
+            assertSame(values[i], p.value());
+            assertFalse(m.hasKey(keys[i]));
+        }
+        for (boolean b : seen) {
+            assertTrue(b);
+        }
+    }
+
+    @Test
+    public final void testIteratorPairsAgreeWithValue() {
+        final int size = 1_000;
+        Map<Integer, String> m = new Map4<Integer, String>();
+        for (int i = 0; i < size; i++) {
+            m.add(i, "v" + i);
+        }
+        for (int i = 0; i < size; i += 3) {
+            m.remove(i);
+        }
+        int count = 0;
+        for (Pair<Integer, String> p : m) {
+            assertSame(m.value(p.key()), p.value());
+            count++;
+        }
+        assertEquals(m.size(), count);
+    }
+
+}
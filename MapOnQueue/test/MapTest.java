@@ -1,9 +1,14 @@
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
 
 import org.junit.Test;
 
 import components.map.Map;
 import components.map.Map.Pair;
+import components.map.Map1L;
 
 /**
  * JUnit test fixture for {@code Map<String, String>}'s constructor and kernel
@@ -32,6 +37,54 @@ public abstract class MapTest {
      */
     protected abstract Map<String, String> constructorRef();
 
+    /**
+     * Invokes the appropriate {@code Map} constructor for the implementation
+     * under test, with {@code Integer} keys and values, and returns the
+     * result.
+     *
+     * @return the new map
+     * @ensures constructorIntegerTest = {}
+     */
+    protected abstract Map<Integer, Integer> constructorIntegerTest();
+
+    /**
+     * Applies the same pseudo-random sequence of {@code add}, {@code remove},
+     * {@code removeAny}, {@code hasKey} and {@code value} calls to {@code m}
+     * and to a {@code Map1L}, checking that they agree throughout.
+     *
+     * @param m
+     *            the map under test
+     * @updates m
+     * @requires m = {}
+     */
+    protected static void assertRandomOperationsMatchReference(
+            Map<Integer, Integer> m) {
+        final long seed = 42L;
+        final int operations = 50_000;
+        final int range = 1_000;
+        Map<Integer, Integer> ref = new Map1L<Integer, Integer>();
+        Random rnd = new Random(seed);
+        for (int i = 0; i < operations; i++) {
+            Integer k = rnd.nextInt(range);
+            if (rnd.nextInt(10) == 0 && m.size() > 0) {
+                Pair<Integer, Integer> p = m.removeAny();
+                assertEquals(ref.remove(p.key()), p);
+            } else if (ref.hasKey(k)) {
+                assertTrue(m.hasKey(k));
+                assertEquals(ref.value(k), m.value(k));
+                if (rnd.nextBoolean()) {
+                    assertEquals(ref.remove(k), m.remove(k));
+                }
+            } else {
+                assertFalse(m.hasKey(k));
+                m.add(k, i);
+                ref.add(k, i);
+            }
+            assertEquals(ref.size(), m.size());
+        }
+        assertEquals(ref, m);
+    }
+
     /**
      *
      * Creates and returns a {@code Map<String, String>} of the implementation
@@ -191,4 +244,13 @@ public abstract class MapTest {
         int sizeRef = 3;
         assertEquals(sizeTest, sizeRef);
     }
+
+    /**
+     * Test random add, remove, removeAny, hasKey and value against a
+     * reference.
+     */
+    @Test
+    public final void testRandomOperationsMatchReference() {
+        assertRandomOperationsMatchReference(this.constructorIntegerTest());
+    }
 }
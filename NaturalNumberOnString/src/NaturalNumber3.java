@@ -3,7 +3,10 @@ import components.naturalnumber.NaturalNumberSecondary;
 
 /**
  * {@code NaturalNumber} represented as a {@code String} with implementations of
- * primary methods.
+ * primary methods. Since the representation is the decimal depiction itself,
+ * {@code toString} returns it, {@code compareTo} first compares numbers of
+ * digits, and {@code copyFrom} another {@code NaturalNumber3} shares its
+ * (immutable) {@code String}, none of them going through the kernel.
  *
  * @convention <pre>
  * [all characters of $this.rep are '0' through '9']  and
@@ -171,4 +174,57 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
 
     }
 
+    /*
+     * Secondary methods ------------------------------------------------------
+     */
+
+    @Override
+    public final void copyFrom(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        if (n instanceof NaturalNumber3) {
+            this.rep = ((NaturalNumber3) n).rep;
+        } else if (n.isZero()) {
+            this.rep = "";
+        } else {
+            this.rep = n.toString();
+        }
+    }
+
+    @Override
+    public final int compareTo(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        String other;
+        if (n instanceof NaturalNumber3) {
+            other = ((NaturalNumber3) n).rep;
+        } else if (n.isZero()) {
+            other = "";
+        } else {
+            other = n.toString();
+        }
+        /*
+         * Neither has leading zeros, so the one with more digits is larger,
+         * and depictions of the same length compare as strings
+         */
+        int result = Integer.compare(this.rep.length(), other.length());
+        if (result == 0) {
+            result = Integer.signum(this.rep.compareTo(other));
+        }
+        return result;
+    }
+
+    /*
+     * Common methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final String toString() {
+        String result = "0";
+        if (!this.rep.isEmpty()) {
+            result = this.rep;
+        }
+        return result;
+    }
+
 }
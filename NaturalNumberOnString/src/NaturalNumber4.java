@@ -0,0 +1,807 @@
+import java.util.Arrays;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumberSecondary;
+
+/**
+ * {@code NaturalNumber} represented as a growable array of base-10^9 limbs
+ * with implementations of primary methods. The limbs are kept most significant
+ * first, and the lowest 0 to 8 decimal digits are held apart in a partial
+ * "tail" limb, so {@code multiplyBy10} and {@code divideBy10} work on the tail
+ * and only now and then push or pop a whole limb at the end of the array:
+ * both take amortized O(1) time, where the {@code String} representation of
+ * {@code NaturalNumber3} copies all the digits on every call. The arithmetic
+ * secondary methods are overridden to work on whole limbs instead of going
+ * through the kernel a digit at a time: {@code add} and {@code subtract} in
+ * linear time, {@code multiply} by the schoolbook method or, for long
+ * operands, Karatsuba's, {@code divide} by Knuth's Algorithm D, and
+ * {@code power} by repeated squaring.
+ *
+ * @convention <pre>
+ * 0 <= $this.length <= |$this.limbs|  and
+ * for all i: integer where (0 <= i < $this.length)
+ *   (0 <= $this.limbs[i] < 10^9)  and
+ * [if $this.length > 0 then $this.limbs[0] > 0]  and
+ * 0 <= $this.tailDigits < 9  and
+ * 0 <= $this.tail < 10^$this.tailDigits
+ * </pre>
+ * @correspondence <pre>
+ * this = (sum i: integer where (0 <= i < $this.length)
+ *           ($this.limbs[i] * 10^(9 * ($this.length - 1 - i)))) *
+ *        10^$this.tailDigits + $this.tail
+ * </pre>
+ *
+ * @author Chris Zhao, Ko Lim
+ *
+ */
+public class NaturalNumber4 extends NaturalNumberSecondary {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Number of decimal digits in a limb.
+     */
+    private static final int LIMB_DIGITS = 9;
+
+    /**
+     * Value of a limb: 10^9.
+     */
+    private static final int BASE = 1_000_000_000;
+
+    /**
+     * Powers of ten from 10^0 to 10^9.
+     */
+    private static final int[] POWERS_OF_TEN = { 1, 10, 100, 1_000, 10_000,
+        100_000, 1_000_000, 10_000_000, 100_000_000, BASE };
+
+    /**
+     * Number of limbs of the shorter factor at or below which multiplication
+     * uses the schoolbook method rather than Karatsuba's.
+     */
+    private static final int KARATSUBA_THRESHOLD = 40;
+
+    /**
+     * Initial capacity of the limb array.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Whole limbs, most significant first, in positions [0, length).
+     */
+    private int[] limbs;
+
+    /**
+     * Number of whole limbs.
+     */
+    private int length;
+
+    /**
+     * Value of the lowest {@code tailDigits} decimal digits.
+     */
+    private int tail;
+
+    /**
+     * Number of decimal digits held in {@code tail}.
+     */
+    private int tailDigits;
+
+    /**
+     * Appends {@code limb} as the new least significant whole limb, growing
+     * the array if it is full.
+     *
+     * @param limb
+     *            the limb to append
+     * @updates this.limbs, this.length
+     * @requires 0 <= limb < 10^9 and [this.length > 0 or limb > 0]
+     */
+    private void pushLimb(int limb) {
+        if (this.length == this.limbs.length) {
+            this.limbs = Arrays.copyOf(this.limbs, 2 * this.length);
+        }
+        this.limbs[this.length] = limb;
+        this.length++;
+    }
+
+    /**
+     * Sets {@code this} to the number whose decimal depiction is {@code s}.
+     *
+     * @param s
+     *            the decimal depiction
+     * @updates this
+     * @requires <pre>
+     * [s is a non-empty string of decimal digits not starting with '0']  and
+     * this = 0
+     * </pre>
+     * @ensures this = [the number whose decimal depiction is s]
+     */
+    private void setFromDigits(String s) {
+        int headLength = s.length() - s.length() % LIMB_DIGITS;
+        for (int i = 0; i < headLength; i += LIMB_DIGITS) {
+            this.pushLimb(Integer.parseInt(s.substring(i, i + LIMB_DIGITS)));
+        }
+        if (headLength < s.length()) {
+            this.tail = Integer.parseInt(s.substring(headLength));
+            this.tailDigits = s.length() - headLength;
+        }
+    }
+
+    /**
+     * Returns the magnitude of {@code this} as base-10^9 limbs, least
+     * significant first, with no leading (high) zero limbs. The whole limbs
+     * are shifted left by {@code tailDigits} decimal digits as they are
+     * copied, which needs no carries.
+     *
+     * @return the limbs of this, least significant first
+     * @ensures <pre>
+     * this = (sum i: integer where (0 <= i < |toLimbs|)
+     *           (toLimbs[i] * 10^(9 * i)))  and
+     * [if |toLimbs| > 0 then toLimbs[|toLimbs| - 1] > 0]
+     * </pre>
+     */
+    private int[] toLimbs() {
+        int[] r = new int[this.length + 1];
+        int scale = POWERS_OF_TEN[this.tailDigits];
+        int split = POWERS_OF_TEN[LIMB_DIGITS - this.tailDigits];
+        int carry = this.tail;
+        for (int i = 0; i < this.length; i++) {
+            int limb = this.limbs[this.length - 1 - i];
+            r[i] = (limb % split) * scale + carry;
+            carry = limb / split;
+        }
+        r[this.length] = carry;
+        return trim(r, r.length);
+    }
+
+    /**
+     * Sets {@code this} to the number whose base-10^9 limbs, least
+     * significant first, are {@code r}.
+     *
+     * @param r
+     *            the limbs, least significant first
+     * @replaces this
+     * @requires [if |r| > 0 then r[|r| - 1] > 0]
+     * @ensures <pre>
+     * this = (sum i: integer where (0 <= i < |r|) (r[i] * 10^(9 * i)))
+     * </pre>
+     */
+    private void setFromLimbs(int[] r) {
+        this.limbs = new int[Math.max(r.length, INITIAL_CAPACITY)];
+        for (int i = 0; i < r.length; i++) {
+            this.limbs[i] = r[r.length - 1 - i];
+        }
+        this.length = r.length;
+        this.tail = 0;
+        this.tailDigits = 0;
+    }
+
+    /**
+     * Returns the base-10^9 limbs of {@code n}, least significant first, with
+     * no leading (high) zero limbs.
+     *
+     * @param n
+     *            the number
+     * @return the limbs of n, least significant first
+     */
+    private static int[] limbsOf(NaturalNumber n) {
+        int[] r;
+        if (n instanceof NaturalNumber4) {
+            r = ((NaturalNumber4) n).toLimbs();
+        } else {
+            NaturalNumber4 copy = new NaturalNumber4(n);
+            r = copy.toLimbs();
+        }
+        return r;
+    }
+
+    /**
+     * Returns the first {@code len} entries of {@code a} without leading
+     * (high) zero limbs.
+     *
+     * @param a
+     *            the limbs, least significant first
+     * @param len
+     *            the number of entries of a to consider
+     * @return the trimmed limbs
+     * @requires 0 <= len <= |a|
+     */
+    private static int[] trim(int[] a, int len) {
+        int n = len;
+        while (n > 0 && a[n - 1] == 0) {
+            n--;
+        }
+        int[] r = a;
+        if (n != a.length) {
+            r = Arrays.copyOf(a, n);
+        }
+        return r;
+    }
+
+    /**
+     * Compares the numbers with limbs {@code a} and {@code b}.
+     *
+     * @param a
+     *            the first number's limbs, least significant first
+     * @param b
+     *            the second number's limbs, least significant first
+     * @return negative, zero or positive as a is less than, equal to or
+     *         greater than b
+     * @requires [a and b have no leading (high) zero limbs]
+     */
+    private static int compareLimbs(int[] a, int[] b) {
+        int result = Integer.compare(a.length, b.length);
+        int i = a.length - 1;
+        while (result == 0 && i >= 0) {
+            result = Integer.compare(a[i], b[i]);
+            i--;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the limbs of the sum of the numbers with limbs {@code a} and
+     * {@code b}.
+     *
+     * @param a
+     *            the first addend's limbs, least significant first
+     * @param b
+     *            the second addend's limbs, least significant first
+     * @return the limbs of a + b, with no leading (high) zero limbs
+     */
+    private static int[] addLimbs(int[] a, int[] b) {
+        int n = Math.max(a.length, b.length);
+        int[] r = new int[n + 1];
+        int carry = 0;
+        for (int i = 0; i < n; i++) {
+            int s = carry;
+            if (i < a.length) {
+                s += a[i];
+            }
+            if (i < b.length) {
+                s += b[i];
+            }
+            carry = 0;
+            if (s >= BASE) {
+                s -= BASE;
+                carry = 1;
+            }
+            r[i] = s;
+        }
+        r[n] = carry;
+        return trim(r, r.length);
+    }
+
+    /**
+     * Returns the limbs of the difference of the numbers with limbs {@code a}
+     * and {@code b}.
+     *
+     * @param a
+     *            the minuend's limbs, least significant first
+     * @param b
+     *            the subtrahend's limbs, least significant first
+     * @return the limbs of a - b, with no leading (high) zero limbs
+     * @requires a >= b
+     */
+    private static int[] subtractLimbs(int[] a, int[] b) {
+        int[] r = new int[a.length];
+        int borrow = 0;
+        for (int i = 0; i < a.length; i++) {
+            int d = a[i] - borrow;
+            if (i < b.length) {
+                d -= b[i];
+            }
+            borrow = 0;
+            if (d < 0) {
+                d += BASE;
+                borrow = 1;
+            }
+            r[i] = d;
+        }
+        return trim(r, r.length);
+    }
+
+    /**
+     * Adds the number with limbs {@code b}, shifted left by {@code shift}
+     * limbs, into the limbs {@code r}.
+     *
+     * @param r
+     *            the accumulator, least significant first
+     * @param b
+     *            the limbs to add, least significant first
+     * @param shift
+     *            the number of limbs to shift b by
+     * @updates r
+     * @requires [r is long enough to hold the sum]
+     * @ensures r = #r + b * 10^(9 * shift)
+     */
+    private static void addShifted(int[] r, int[] b, int shift) {
+        int carry = 0;
+        int i = 0;
+        while (i < b.length || carry != 0) {
+            int s = r[shift + i] + carry;
+            if (i < b.length) {
+                s += b[i];
+            }
+            carry = 0;
+            if (s >= BASE) {
+                s -= BASE;
+                carry = 1;
+            }
+            r[shift + i] = s;
+            i++;
+        }
+    }
+
+    /**
+     * Returns the limbs of the product of the numbers with limbs {@code a}
+     * and {@code b}, by the schoolbook method.
+     *
+     * @param a
+     *            the first factor's limbs, least significant first
+     * @param b
+     *            the second factor's limbs, least significant first
+     * @return the limbs of a * b, with no leading (high) zero limbs
+     */
+    private static int[] multiplySchoolbook(int[] a, int[] b) {
+        int[] r = new int[a.length + b.length];
+        for (int i = 0; i < a.length; i++) {
+            long carry = 0;
+            long ai = a[i];
+            for (int j = 0; j < b.length; j++) {
+                long t = ai * b[j] + r[i + j] + carry;
+                r[i + j] = (int) (t % BASE);
+                carry = t / BASE;
+            }
+            int k = i + b.length;
+            while (carry != 0) {
+                long t = r[k] + carry;
+                r[k] = (int) (t % BASE);
+                carry = t / BASE;
+                k++;
+            }
+        }
+        return trim(r, r.length);
+    }
+
+    /**
+     * Returns the limbs of the product of the numbers with limbs {@code a}
+     * and {@code b}, by Karatsuba's method when both have more than
+     * {@code KARATSUBA_THRESHOLD} limbs and the schoolbook method otherwise.
+     *
+     * @param a
+     *            the first factor's limbs, least significant first
+     * @param b
+     *            the second factor's limbs, least significant first
+     * @return the limbs of a * b, with no leading (high) zero limbs
+     * @requires [a and b have no leading (high) zero limbs]
+     */
+    private static int[] multiplyLimbs(int[] a, int[] b) {
+        int[] r;
+        if (Math.min(a.length, b.length) <= KARATSUBA_THRESHOLD) {
+            r = multiplySchoolbook(a, b);
+        } else {
+            /*
+             * a = a1 * B^h + a0 and b = b1 * B^h + b0, so a * b = z2 * B^2h +
+             * (z1 - z2 - z0) * B^h + z0 with z2 = a1 * b1, z0 = a0 * b0 and
+             * z1 = (a0 + a1) * (b0 + b1)
+             */
+            int h = Math.max(a.length, b.length) / 2;
+            int[] a0 = trim(a, Math.min(h, a.length));
+            int[] b0 = trim(b, Math.min(h, b.length));
+            int[] a1 = Arrays.copyOfRange(a, Math.min(h, a.length), a.length);
+            int[] b1 = Arrays.copyOfRange(b, Math.min(h, b.length), b.length);
+            int[] z0 = multiplyLimbs(a0, b0);
+            int[] z2 = multiplyLimbs(a1, b1);
+            int[] z1 = multiplyLimbs(addLimbs(a0, a1), addLimbs(b0, b1));
+            z1 = subtractLimbs(subtractLimbs(z1, z2), z0);
+            r = new int[a.length + b.length + 1];
+            addShifted(r, z0, 0);
+            addShifted(r, z1, h);
+            addShifted(r, z2, 2 * h);
+            r = trim(r, r.length);
+        }
+        return r;
+    }
+
+    /**
+     * Returns the limbs of {@code a} times {@code m}, with one extra (possibly
+     * zero) high limb.
+     *
+     * @param a
+     *            the limbs, least significant first
+     * @param m
+     *            the multiplier
+     * @return the limbs of a * m, of length |a| + 1
+     * @requires 0 < m < 10^9
+     */
+    private static int[] multiplySmall(int[] a, int m) {
+        int[] r = new int[a.length + 1];
+        long carry = 0;
+        for (int i = 0; i < a.length; i++) {
+            long t = (long) a[i] * m + carry;
+            r[i] = (int) (t % BASE);
+            carry = t / BASE;
+        }
+        r[a.length] = (int) carry;
+        return r;
+    }
+
+    /**
+     * Divides the number with limbs {@code a} by {@code d} in place and
+     * returns the remainder.
+     *
+     * @param a
+     *            the limbs, least significant first
+     * @param d
+     *            the divisor
+     * @return the remainder
+     * @updates a
+     * @requires 0 < d < 10^9
+     * @ensures <pre>
+     * #a = a * d + divideSmall  and  0 <= divideSmall < d
+     * </pre>
+     */
+    private static int divideSmall(int[] a, int d) {
+        long rem = 0;
+        for (int i = a.length - 1; i >= 0; i--) {
+            long t = rem * BASE + a[i];
+            a[i] = (int) (t / d);
+            rem = t % d;
+        }
+        return (int) rem;
+    }
+
+    /**
+     * Divides the number with limbs {@code u} by the number with limbs
+     * {@code v} using Knuth's Algorithm D, and returns the quotient and
+     * remainder.
+     *
+     * @param u
+     *            the dividend's limbs, least significant first
+     * @param v
+     *            the divisor's limbs, least significant first
+     * @return {quotient limbs, remainder limbs}, with no leading (high) zero
+     *         limbs
+     * @requires <pre>
+     * [u and v have no leading (high) zero limbs]  and  |v| > 0
+     * </pre>
+     */
+    private static int[][] divideLimbs(int[] u, int[] v) {
+        int[][] qr;
+        if (compareLimbs(u, v) < 0) {
+            qr = new int[][] { new int[0], u };
+        } else if (v.length == 1) {
+            int[] q = u.clone();
+            int rem = divideSmall(q, v[0]);
+            qr = new int[][] { trim(q, q.length), trim(new int[] { rem }, 1) };
+        } else {
+            int n = v.length;
+            int m = u.length - n;
+            /*
+             * Scale both so the top limb of the divisor is at least BASE / 2,
+             * which keeps each trial quotient digit at most 2 too large
+             */
+            int scale = BASE / (v[n - 1] + 1);
+            int[] un = multiplySmall(u, scale);
+            int[] vn = Arrays.copyOf(multiplySmall(v, scale), n);
+            long vTop = vn[n - 1];
+            long vNext = vn[n - 2];
+            int[] q = new int[m + 1];
+            for (int j = m; j >= 0; j--) {
+                long num = un[j + n] * (long) BASE + un[j + n - 1];
+                long qhat = num / vTop;
+                long rhat = num % vTop;
+                while (rhat < BASE && (qhat >= BASE
+                        || qhat * vNext > rhat * BASE + un[j + n - 2])) {
+                    qhat--;
+                    rhat += vTop;
+                }
+                /*
+                 * Subtract qhat * vn from un[j, j + n]
+                 */
+                long carry = 0;
+                long borrow = 0;
+                for (int i = 0; i < n; i++) {
+                    long p = qhat * vn[i] + carry;
+                    carry = p / BASE;
+                    long d = un[i + j] - p % BASE - borrow;
+                    borrow = 0;
+                    if (d < 0) {
+                        d += BASE;
+                        borrow = 1;
+                    }
+                    un[i + j] = (int) d;
+                }
+                long d = un[j + n] - carry - borrow;
+                if (d < 0) {
+                    /*
+                     * qhat was one too large: add vn back
+                     */
+                    qhat--;
+                    long c = 0;
+                    for (int i = 0; i < n; i++) {
+                        long s = (long) un[i + j] + vn[i] + c;
+                        un[i + j] = (int) (s % BASE);
+                        c = s / BASE;
+                    }
+                    d += c;
+                }
+                un[j + n] = (int) d;
+                q[j] = (int) qhat;
+            }
+            int[] r = Arrays.copyOf(un, n);
+            divideSmall(r, scale);
+            qr = new int[][] { trim(q, q.length), trim(r, r.length) };
+        }
+        return qr;
+    }
+
+    /**
+     * Appends the decimal depiction of {@code value} to {@code sb}, padded
+     * with leading zeros to {@code digits} characters.
+     *
+     * @param sb
+     *            the builder
+     * @param value
+     *            the value
+     * @param digits
+     *            the number of characters to append
+     * @updates sb
+     * @requires 0 <= value < 10^digits
+     */
+    private static void appendPadded(StringBuilder sb, int value,
+            int digits) {
+        for (int p = digits - 1; p >= 0; p--) {
+            sb.append((char) ('0' + value / POWERS_OF_TEN[p] % RADIX));
+        }
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.limbs = new int[INITIAL_CAPACITY];
+        this.length = 0;
+        this.tail = 0;
+        this.tailDigits = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public NaturalNumber4() {
+        this.createNewRep();
+    }
+
+    /**
+     * Constructor from {@code int}.
+     *
+     * @param i
+     *            {@code int} to initialize from
+     */
+    public NaturalNumber4(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+
+        this.createNewRep();
+        if (i > 0) {
+            this.setFromDigits(String.valueOf(i));
+        }
+    }
+
+    /**
+     * Constructor from {@code String}.
+     *
+     * @param s
+     *            {@code String} to initialize from
+     */
+    public NaturalNumber4(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+
+        this.createNewRep();
+        if (!s.equals("0")) {
+            this.setFromDigits(s);
+        }
+    }
+
+    /**
+     * Constructor from {@code NaturalNumber}.
+     *
+     * @param n
+     *            {@code NaturalNumber} to initialize from
+     */
+    public NaturalNumber4(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        this.createNewRep();
+        if (!n.isZero()) {
+            this.setFromDigits(n.toString());
+        }
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final NaturalNumber newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(NaturalNumber source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof NaturalNumber4 : ""
+                + "Violation of: source is of dynamic type NaturalNumber4";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        NaturalNumber4 localSource = (NaturalNumber4) source;
+        this.limbs = localSource.limbs;
+        this.length = localSource.length;
+        this.tail = localSource.tail;
+        this.tailDigits = localSource.tailDigits;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void multiplyBy10(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k < RADIX : "Violation of: k < 10";
+
+        if (!this.isZero() || k != 0) {
+            this.tail = this.tail * RADIX + k;
+            this.tailDigits++;
+            if (this.tailDigits == LIMB_DIGITS) {
+                this.pushLimb(this.tail);
+                this.tail = 0;
+                this.tailDigits = 0;
+            }
+        }
+
+    }
+
+    @Override
+    public final int divideBy10() {
+        int remainder = 0;
+
+        if (this.tailDigits == 0 && this.length > 0) {
+            this.length--;
+            this.tail = this.limbs[this.length];
+            this.tailDigits = LIMB_DIGITS;
+        }
+        if (this.tailDigits > 0) {
+            remainder = this.tail % RADIX;
+            this.tail /= RADIX;
+            this.tailDigits--;
+        }
+
+        return remainder;
+    }
+
+    @Override
+    public final boolean isZero() {
+
+        return this.length == 0 && this.tail == 0;
+
+    }
+
+    /*
+     * Secondary methods ------------------------------------------------------
+     */
+
+    @Override
+    public final void copyFrom(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        if (n != this) {
+            this.setFromLimbs(limbsOf(n));
+        }
+    }
+
+    @Override
+    public final int compareTo(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        return compareLimbs(this.toLimbs(), limbsOf(n));
+    }
+
+    @Override
+    public final void add(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        this.setFromLimbs(addLimbs(this.toLimbs(), limbsOf(n)));
+    }
+
+    @Override
+    public final void subtract(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert this.compareTo(n) >= 0 : "Violation of: this >= n";
+
+        this.setFromLimbs(subtractLimbs(this.toLimbs(), limbsOf(n)));
+    }
+
+    @Override
+    public final void multiply(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        this.setFromLimbs(multiplyLimbs(this.toLimbs(), limbsOf(n)));
+    }
+
+    @Override
+    public final NaturalNumber divide(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert !n.isZero() : "Violation of: n > 0";
+
+        int[][] qr = divideLimbs(this.toLimbs(), limbsOf(n));
+        NaturalNumber4 remainder = (NaturalNumber4) this.newInstance();
+        remainder.setFromLimbs(qr[1]);
+        this.setFromLimbs(qr[0]);
+        return remainder;
+    }
+
+    @Override
+    public final void power(int p) {
+        assert p >= 0 : "Violation of: p >= 0";
+
+        /*
+         * Square-and-multiply over the bits of p, from the lowest
+         */
+        int[] base = this.toLimbs();
+        int[] result = { 1 };
+        int e = p;
+        while (e > 0) {
+            if ((e & 1) == 1) {
+                result = multiplyLimbs(result, base);
+            }
+            e >>= 1;
+            if (e > 0) {
+                base = multiplyLimbs(base, base);
+            }
+        }
+        this.setFromLimbs(result);
+    }
+
+    /*
+     * Common methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final String toString() {
+        StringBuilder sb = new StringBuilder(
+                this.length * LIMB_DIGITS + this.tailDigits);
+        if (this.length > 0) {
+            sb.append(this.limbs[0]);
+            for (int i = 1; i < this.length; i++) {
+                appendPadded(sb, this.limbs[i], LIMB_DIGITS);
+            }
+            appendPadded(sb, this.tail, this.tailDigits);
+        } else {
+            sb.append(this.tail);
+        }
+        return sb.toString();
+    }
+
+}
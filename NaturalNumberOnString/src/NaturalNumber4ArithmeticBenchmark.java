@@ -0,0 +1,289 @@
+import java.math.BigInteger;
+import java.util.Random;
+
+import components.naturalnumber.NaturalNumber;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Program to compare the limb arithmetic of {@code NaturalNumber4} with the
+ * inherited kernel-layered arithmetic of {@code NaturalNumber3} and
+ * {@code NaturalNumber5}, with {@code BigInteger} for reference. For operands
+ * of the given numbers of digits it times {@code add} and {@code multiply} of
+ * two such operands, and {@code divide} of their product by one of them, and
+ * reports how many times faster {@code NaturalNumber4} is than each
+ * kernel-layered baseline. Every kernel call of {@code NaturalNumber3} copies
+ * its whole {@code String}, so only its {@code add} is timed on the larger
+ * operands; the kernel calls of {@code NaturalNumber5} take constant time, so
+ * its {@code add} is timed on all of them. Its quadratic {@code multiply} of
+ * the larger operands would take tens of minutes, so it is timed with the
+ * leading {@code MAX_STRING_SIZE} digits of the multiplier and scaled up
+ * (schoolbook multiplication does the same work for each digit of the
+ * multiplier), and reported as an estimate. The inherited arithmetic recurses
+ * once per digit, so the timings run on a thread with a large stack. Run it
+ * without {@code -ea}.
+ *
+ * @author Chris Zhao, Ko Lim
+ */
+public final class NaturalNumber4ArithmeticBenchmark {
+
+    /**
+     * Numbers of decimal digits in the operands.
+     */
+    private static final int[] SIZES = { 1_000, 100_000 };
+
+    /**
+     * Largest operand size at which every operation of the kernel-layered
+     * baselines is timed, and above which they are timed only once.
+     */
+    private static final int MAX_STRING_SIZE = 1_000;
+
+    /**
+     * Timed repetitions per (implementation, operation, size); the best one
+     * is reported.
+     */
+    private static final int REPETITIONS = 5;
+
+    /**
+     * Stack size, in bytes, of the thread that runs the timings.
+     */
+    private static final long STACK_SIZE = 1L << 30;
+
+    /**
+     * Seed for the pseudo-random digits, so every run sees the same input.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private NaturalNumber4ArithmeticBenchmark() {
+        // no code needed here
+    }
+
+    /**
+     * Returns a random decimal depiction of a natural number with
+     * {@code digits} digits.
+     *
+     * @param rnd
+     *            the source of randomness
+     * @param digits
+     *            the number of digits
+     * @return the depiction
+     * @requires digits > 0
+     */
+    private static String randomDigits(Random rnd, int digits) {
+        StringBuilder sb = new StringBuilder(digits);
+        sb.append((char) ('1' + rnd.nextInt(NaturalNumber.RADIX - 1)));
+        for (int i = 1; i < digits; i++) {
+            sb.append((char) ('0' + rnd.nextInt(NaturalNumber.RADIX)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns a new {@code NaturalNumber} of the same type as {@code like},
+     * with value {@code n}.
+     *
+     * @param like
+     *            a number of the type wanted
+     * @param n
+     *            the value
+     * @return the new number
+     */
+    private static NaturalNumber copyOf(NaturalNumber like, NaturalNumber n) {
+        NaturalNumber c = like.newInstance();
+        c.copyFrom(n);
+        return c;
+    }
+
+    /**
+     * Times {@code operation} on copies of {@code a} and {@code b}
+     * {@code repetitions} times and returns the best time in nanoseconds.
+     *
+     * @param operation
+     *            "add", "multiply" or "divide"
+     * @param a
+     *            the first operand; for "divide", the dividend
+     * @param b
+     *            the second operand; for "divide", the divisor
+     * @param repetitions
+     *            the number of timed repetitions
+     * @return best elapsed time in nanoseconds
+     * @requires repetitions > 0
+     */
+    private static long time(String operation, NaturalNumber a,
+            NaturalNumber b, int repetitions) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < repetitions; r++) {
+            NaturalNumber x = copyOf(a, a);
+            NaturalNumber y = copyOf(b, b);
+            long start = System.nanoTime();
+            if (operation.equals("add")) {
+                x.add(y);
+            } else if (operation.equals("multiply")) {
+                x.multiply(y);
+            } else {
+                x.divide(y);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     * Times {@code operation} on copies of {@code a} and {@code b} and
+     * returns the best time in nanoseconds.
+     *
+     * @param operation
+     *            "add", "multiply" or "divide"
+     * @param a
+     *            the first operand; for "divide", the dividend
+     * @param b
+     *            the second operand; for "divide", the divisor
+     * @return best elapsed time in nanoseconds
+     */
+    private static long time(String operation, BigInteger a, BigInteger b) {
+        long best = Long.MAX_VALUE;
+        BigInteger sink = BigInteger.ZERO;
+        for (int r = 0; r < REPETITIONS; r++) {
+            long start = System.nanoTime();
+            if (operation.equals("add")) {
+                sink = a.add(b);
+            } else if (operation.equals("multiply")) {
+                sink = a.multiply(b);
+            } else {
+                sink = a.divide(b);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        /*
+         * Use sink so the operations cannot be optimized away
+         */
+        if (sink.signum() < 0) {
+            best = -1;
+        }
+        return best;
+    }
+
+    /**
+     * Times {@code operation} on the kernel-layered {@code a} and {@code b}
+     * and formats the time with the speedup of {@code NaturalNumber4}.
+     *
+     * @param operation
+     *            "add", "multiply" or "divide"
+     * @param a
+     *            the first operand; for "divide", the dividend
+     * @param b
+     *            the second operand; for "divide", the divisor
+     * @param repetitions
+     *            the number of timed repetitions
+     * @param limbs
+     *            the time of {@code NaturalNumber4} in nanoseconds
+     * @return the time in milliseconds and the speedup
+     * @requires repetitions > 0
+     */
+    private static String layered(String operation, NaturalNumber a,
+            NaturalNumber b, int repetitions, long limbs) {
+        long t = time(operation, a, b, repetitions);
+        return String.format("%.3f ms (%.1fx)", t / NANOS_PER_MILLI,
+                (double) t / Math.max(limbs, 1));
+    }
+
+    /**
+     * Estimates the time of the kernel-layered {@code multiply} of {@code a}
+     * by {@code b} from one timed multiplication of {@code a} by the leading
+     * {@code MAX_STRING_SIZE} digits of {@code b}, scaled by the ratio of the
+     * lengths, and formats it with the speedup of {@code NaturalNumber4}.
+     *
+     * @param a
+     *            the first operand
+     * @param b
+     *            the decimal depiction of the second operand
+     * @param limbs
+     *            the time of {@code NaturalNumber4} in nanoseconds
+     * @return the estimated time in milliseconds and the speedup
+     * @requires |b| > MAX_STRING_SIZE
+     */
+    private static String estimatedMultiply(NaturalNumber5 a, String b,
+            long limbs) {
+        long t = time("multiply", a,
+                new NaturalNumber5(b.substring(0, MAX_STRING_SIZE)), 1);
+        double estimate = (double) t * b.length() / MAX_STRING_SIZE;
+        return String.format("~%.0f ms (est. %.0fx)",
+                estimate / NANOS_PER_MILLI, estimate / Math.max(limbs, 1));
+    }
+
+    /**
+     * Runs the timings and prints one line per (size, operation).
+     */
+    private static void runAll() {
+        SimpleWriter out = new SimpleWriter1L();
+        final String[] operations = { "add", "multiply", "divide" };
+
+        Random rnd = new Random(SEED);
+        for (int size : SIZES) {
+            String a = randomDigits(rnd, size);
+            String b = randomDigits(rnd, size);
+            BigInteger bigA = new BigInteger(a);
+            BigInteger bigB = new BigInteger(b);
+            String product = bigA.multiply(bigB).toString();
+            int layeredRepetitions = REPETITIONS;
+            if (size > MAX_STRING_SIZE) {
+                layeredRepetitions = 1;
+            }
+            for (String op : operations) {
+                String first = a;
+                if (op.equals("divide")) {
+                    first = product;
+                }
+                long limbs = time(op, new NaturalNumber4(first),
+                        new NaturalNumber4(b), REPETITIONS);
+                long big = time(op, new BigInteger(first), bigB);
+                String builder = "skipped";
+                if (size <= MAX_STRING_SIZE || op.equals("add")) {
+                    builder = layered(op, new NaturalNumber5(first),
+                            new NaturalNumber5(b), layeredRepetitions, limbs);
+                } else if (op.equals("multiply")) {
+                    builder = estimatedMultiply(new NaturalNumber5(first), b,
+                            limbs);
+                }
+                String string = "skipped";
+                if (op.equals("add") || size <= MAX_STRING_SIZE) {
+                    string = layered(op, new NaturalNumber3(first),
+                            new NaturalNumber3(b), layeredRepetitions, limbs);
+                }
+                out.println(String.format(
+                        "%d digits, %s: NaturalNumber4 %.3f ms, "
+                                + "NaturalNumber5 %s, NaturalNumber3 %s, "
+                                + "BigInteger %.3f ms",
+                        size, op, limbs / NANOS_PER_MILLI, builder, string,
+                        big / NANOS_PER_MILLI));
+            }
+        }
+
+        out.close();
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; unused here
+     * @throws InterruptedException
+     *             if interrupted while waiting for the timings to finish
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Thread timings = new Thread(null,
+                NaturalNumber4ArithmeticBenchmark::runAll, "timings",
+                STACK_SIZE);
+        timings.start();
+        timings.join();
+    }
+
+}
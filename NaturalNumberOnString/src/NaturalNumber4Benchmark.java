@@ -0,0 +1,110 @@
+import java.util.Random;
+
+import components.naturalnumber.NaturalNumber;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Program to compare the kernel of {@code NaturalNumber4} (base-10^9 limbs)
+ * with that of {@code NaturalNumber3} ({@code String}) on large values. Each
+ * run builds a number of the given length one digit at a time with
+ * {@code multiplyBy10}, then tears it down again with {@code divideBy10}. Run
+ * it without {@code -ea}.
+ *
+ * @author Chris Zhao, Ko Lim
+ */
+public final class NaturalNumber4Benchmark {
+
+    /**
+     * Numbers of decimal digits.
+     */
+    private static final int[] SIZES = { 10_000, 100_000 };
+
+    /**
+     * Timed repetitions per (implementation, size); the best one is reported.
+     */
+    private static final int REPETITIONS = 5;
+
+    /**
+     * Seed for the pseudo-random digits, so every run sees the same input.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private NaturalNumber4Benchmark() {
+        // no code needed here
+    }
+
+    /**
+     * Builds up {@code n} from {@code digits}, most significant first, then
+     * divides it by 10 until it is 0.
+     *
+     * @param n
+     *            the number
+     * @param digits
+     *            the digits
+     * @return elapsed time in nanoseconds
+     * @updates n
+     * @requires n = 0 and digits[0] /= 0
+     * @ensures n = 0
+     */
+    private static long timeCycle(NaturalNumber n, int[] digits) {
+        long sum = 0;
+        long start = System.nanoTime();
+        for (int d : digits) {
+            n.multiplyBy10(d);
+        }
+        while (!n.isZero()) {
+            sum += n.divideBy10();
+        }
+        long elapsed = System.nanoTime() - start;
+        /*
+         * Use sum so the divisions cannot be optimized away
+         */
+        if (sum < 0) {
+            elapsed = -1;
+        }
+        return elapsed;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; unused here
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        Random rnd = new Random(SEED);
+        for (int size : SIZES) {
+            int[] digits = new int[size];
+            digits[0] = 1 + rnd.nextInt(NaturalNumber.RADIX - 1);
+            for (int i = 1; i < size; i++) {
+                digits[i] = rnd.nextInt(NaturalNumber.RADIX);
+            }
+            long best3 = Long.MAX_VALUE;
+            long best4 = Long.MAX_VALUE;
+            for (int r = 0; r < REPETITIONS; r++) {
+                best3 = Math.min(best3,
+                        timeCycle(new NaturalNumber3(), digits));
+                best4 = Math.min(best4,
+                        timeCycle(new NaturalNumber4(), digits));
+            }
+            out.println(String.format("%d digits, NaturalNumber3: %.3f ms",
+                    size, best3 / NANOS_PER_MILLI));
+            out.println(String.format("%d digits, NaturalNumber4: %.3f ms",
+                    size, best4 / NANOS_PER_MILLI));
+        }
+
+        out.close();
+    }
+
+}
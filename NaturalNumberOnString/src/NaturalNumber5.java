@@ -0,0 +1,240 @@
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumberSecondary;
+
+/**
+ * {@code NaturalNumber} represented as a mutable {@code StringBuilder} of
+ * decimal digits with implementations of primary methods. The digits are kept
+ * most significant first, so the least significant digit is at the end of the
+ * buffer: {@code multiplyBy10} appends one character and {@code divideBy10}
+ * shortens the buffer by one, both in amortized O(1) time and without
+ * allocating, where {@code NaturalNumber3} builds a new {@code String} of all
+ * the digits on every call. The decimal depiction that {@code toString}
+ * returns is computed only when asked for and kept until {@code this} next
+ * changes, so printing or hashing the same number again does not copy the
+ * buffer; {@code compareTo} first compares numbers of digits, and
+ * {@code copyFrom} another {@code NaturalNumber5} copies its buffer directly.
+ *
+ * @convention <pre>
+ * [all characters of $this.rep are '0' through '9']  and
+ * [$this.rep does not start with '0']  and
+ * [$this.string = null  or  $this.string = TO_STRING(this)]
+ * </pre>
+ * @correspondence <pre>
+ * this = [if $this.rep = "" then 0
+ *         else the decimal number whose ordinary depiction is $this.rep]
+ * </pre>
+ *
+ * @author Chris Zhao, Ko Lim
+ *
+ */
+public class NaturalNumber5 extends NaturalNumberSecondary {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Representation of {@code this}.
+     */
+    private StringBuilder rep;
+
+    /**
+     * Decimal depiction of {@code this}, or {@code null} if it has not been
+     * computed since {@code this} last changed.
+     */
+    private String string;
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.rep = new StringBuilder();
+        this.string = null;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public NaturalNumber5() {
+        this.createNewRep();
+    }
+
+    /**
+     * Constructor from {@code int}.
+     *
+     * @param i
+     *            {@code int} to initialize from
+     */
+    public NaturalNumber5(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+
+        this.createNewRep();
+        if (i > 0) {
+            this.rep.append(i);
+        }
+    }
+
+    /**
+     * Constructor from {@code String}.
+     *
+     * @param s
+     *            {@code String} to initialize from
+     */
+    public NaturalNumber5(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+
+        this.createNewRep();
+        if (!s.equals("0")) {
+            this.rep.append(s);
+        }
+    }
+
+    /**
+     * Constructor from {@code NaturalNumber}.
+     *
+     * @param n
+     *            {@code NaturalNumber} to initialize from
+     */
+    public NaturalNumber5(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        this.createNewRep();
+        if (!n.isZero()) {
+            this.rep.append(n.toString());
+        }
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final NaturalNumber newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(NaturalNumber source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof NaturalNumber5 : ""
+                + "Violation of: source is of dynamic type NaturalNumber5";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        NaturalNumber5 localSource = (NaturalNumber5) source;
+        this.rep = localSource.rep;
+        this.string = localSource.string;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void multiplyBy10(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k < RADIX : "Violation of: k < 10";
+
+        if (this.rep.length() > 0 || k != 0) {
+            this.rep.append((char) ('0' + k));
+            this.string = null;
+        }
+    }
+
+    @Override
+    public final int divideBy10() {
+        int remainder = 0;
+        int last = this.rep.length() - 1;
+        if (last >= 0) {
+            remainder = this.rep.charAt(last) - '0';
+            this.rep.setLength(last);
+            this.string = null;
+        }
+        return remainder;
+    }
+
+    @Override
+    public final boolean isZero() {
+        return this.rep.length() == 0;
+    }
+
+    /*
+     * Secondary methods ------------------------------------------------------
+     */
+
+    @Override
+    public final void copyFrom(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        if (n != this) {
+            this.createNewRep();
+            if (n instanceof NaturalNumber5) {
+                NaturalNumber5 localN = (NaturalNumber5) n;
+                this.rep.append(localN.rep);
+                this.string = localN.string;
+            } else if (!n.isZero()) {
+                this.rep.append(n.toString());
+            }
+        }
+    }
+
+    @Override
+    public final int compareTo(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        CharSequence other;
+        if (n instanceof NaturalNumber5) {
+            other = ((NaturalNumber5) n).rep;
+        } else if (n.isZero()) {
+            other = "";
+        } else {
+            other = n.toString();
+        }
+        /*
+         * Neither has leading zeros, so the one with more digits is larger,
+         * and depictions of the same length compare digit by digit
+         */
+        int result = Integer.compare(this.rep.length(), other.length());
+        int i = 0;
+        while (result == 0 && i < other.length()) {
+            result = Integer.compare(this.rep.charAt(i), other.charAt(i));
+            i++;
+        }
+        return result;
+    }
+
+    /*
+     * Common methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final String toString() {
+        if (this.string == null) {
+            this.string = "0";
+            if (this.rep.length() > 0) {
+                this.string = this.rep.toString();
+            }
+        }
+        return this.string;
+    }
+
+}
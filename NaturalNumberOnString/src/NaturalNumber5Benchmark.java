@@ -0,0 +1,158 @@
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import components.naturalnumber.NaturalNumber;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Program to compare the allocation and time of the kernels of
+ * {@code NaturalNumber3} ({@code String}), {@code NaturalNumber4} (base-10^9
+ * limbs) and {@code NaturalNumber5} ({@code StringBuilder}) on a mixed
+ * workload: starting from a number of the given length, one million calls,
+ * each {@code multiplyBy10} or {@code divideBy10} with equal probability and
+ * followed by {@code isZero}. The bytes allocated by the calling thread are
+ * read from the JVM's {@code com.sun.management.ThreadMXBean}. Run it without
+ * {@code -ea}.
+ *
+ * @author Chris Zhao, Ko Lim
+ */
+public final class NaturalNumber5Benchmark {
+
+    /**
+     * Numbers of decimal digits at the start of the workload.
+     */
+    private static final int[] SIZES = { 100, 1_000 };
+
+    /**
+     * Number of kernel calls in the workload.
+     */
+    private static final int OPERATIONS = 1_000_000;
+
+    /**
+     * Timed repetitions per (implementation, size); the best one is reported.
+     */
+    private static final int REPETITIONS = 3;
+
+    /**
+     * Seed for the pseudo-random workload, so every run sees the same input.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private NaturalNumber5Benchmark() {
+        // no code needed here
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread.
+     *
+     * @return the bytes allocated by this thread
+     */
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) ManagementFactory
+                        .getThreadMXBean();
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Runs the workload on {@code n}: for each entry of {@code digits}, a
+     * negative entry calls {@code divideBy10} and any other calls
+     * {@code multiplyBy10} with it; every call is followed by {@code isZero}.
+     *
+     * @param n
+     *            the number
+     * @param digits
+     *            the workload
+     * @param result
+     *            receives the elapsed time in nanoseconds at index 0 and the
+     *            bytes allocated at index 1
+     * @updates n, result
+     */
+    private static void run(NaturalNumber n, int[] digits, long[] result) {
+        long sum = 0;
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        for (int d : digits) {
+            if (d < 0) {
+                sum += n.divideBy10();
+            } else {
+                n.multiplyBy10(d);
+            }
+            if (n.isZero()) {
+                sum++;
+            }
+        }
+        result[0] = System.nanoTime() - start;
+        result[1] = allocatedBytes() - bytes;
+        /*
+         * Use sum so the calls cannot be optimized away
+         */
+        if (sum < 0) {
+            result[0] = -1;
+        }
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; unused here
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        final String[] names = { "NaturalNumber3", "NaturalNumber4",
+            "NaturalNumber5" };
+
+        Random rnd = new Random(SEED);
+        for (int size : SIZES) {
+            StringBuilder start = new StringBuilder(size);
+            start.append((char) ('1' + rnd.nextInt(NaturalNumber.RADIX - 1)));
+            for (int i = 1; i < size; i++) {
+                start.append((char) ('0' + rnd.nextInt(NaturalNumber.RADIX)));
+            }
+            int[] digits = new int[OPERATIONS];
+            for (int i = 0; i < OPERATIONS; i++) {
+                digits[i] = -1;
+                if (rnd.nextBoolean()) {
+                    digits[i] = rnd.nextInt(NaturalNumber.RADIX);
+                }
+            }
+
+            for (String name : names) {
+                long bestTime = Long.MAX_VALUE;
+                long bestBytes = Long.MAX_VALUE;
+                long[] result = new long[2];
+                for (int r = 0; r < REPETITIONS; r++) {
+                    NaturalNumber n;
+                    if (name.equals("NaturalNumber3")) {
+                        n = new NaturalNumber3(start.toString());
+                    } else if (name.equals("NaturalNumber4")) {
+                        n = new NaturalNumber4(start.toString());
+                    } else {
+                        n = new NaturalNumber5(start.toString());
+                    }
+                    run(n, digits, result);
+                    bestTime = Math.min(bestTime, result[0]);
+                    bestBytes = Math.min(bestBytes, result[1]);
+                }
+                out.println(String.format(
+                        "%d digits, %s: %.3f ms, %d bytes allocated "
+                                + "(%.3f bytes/call)",
+                        size, name, bestTime / NANOS_PER_MILLI, bestBytes,
+                        (double) bestBytes / OPERATIONS));
+            }
+        }
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,232 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber1L;
+
+/**
+ * Customized JUnit test fixture for {@code NaturalNumber4}.
+ */
+public class NaturalNumber4Test extends NaturalNumberTest {
+
+    @Override
+    protected final NaturalNumber constructorTest() {
+
+        return new NaturalNumber4();
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(int i) {
+
+        return new NaturalNumber4(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(String s) {
+
+        return new NaturalNumber4(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(NaturalNumber n) {
+
+        return new NaturalNumber4(n);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef() {
+
+        return new NaturalNumber1L();
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(int i) {
+
+        return new NaturalNumber1L(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(String s) {
+
+        return new NaturalNumber1L(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(NaturalNumber n) {
+
+        return new NaturalNumber1L(n);
+    }
+
+    @Test
+    public final void testStringConstructorAtLimbBoundaries() {
+        final long seed = 42L;
+        final int maxDigits = 40;
+        Random rnd = new Random(seed);
+        for (int digits = 1; digits <= maxDigits; digits++) {
+            String s = randomDigits(rnd, digits);
+            NaturalNumber n = this.constructorTest(s);
+            NaturalNumber nExpected = this.constructorRef(s);
+            assertEquals(nExpected, n);
+            assertEquals(s, n.toString());
+        }
+    }
+
+    @Test
+    public final void testLimbsWithLeadingZeros() {
+        NaturalNumber n = this.constructorTest("1000000000000000000007");
+        NaturalNumber nExpected = this.constructorRef("1000000000000000000007");
+        assertEquals(nExpected, n);
+        assertEquals(7, n.divideBy10());
+        for (int i = 0; i < RADIX + RADIX; i++) {
+            assertEquals(0, n.divideBy10());
+        }
+        assertEquals(1, n.divideBy10());
+        assertTrue(n.isZero());
+    }
+
+    /**
+     * Returns the {@code BigInteger} equal to {@code n}.
+     *
+     * @param n
+     *            the number
+     * @return n as a {@code BigInteger}
+     */
+    private static BigInteger big(NaturalNumber n) {
+        return new BigInteger(n.toString());
+    }
+
+    /**
+     * Checks add, subtract, multiply, divide and compareTo on
+     * {@code NaturalNumber4} against {@code BigInteger} for the numbers with
+     * depictions {@code a} and {@code b}.
+     *
+     * @param a
+     *            the first operand's depiction
+     * @param b
+     *            the second operand's depiction
+     * @requires b /= "0"
+     */
+    private static void checkArithmetic(String a, String b) {
+        BigInteger x = new BigInteger(a);
+        BigInteger y = new BigInteger(b);
+        NaturalNumber n = new NaturalNumber4(a);
+        NaturalNumber m = new NaturalNumber4(b);
+        assertEquals(Integer.signum(x.compareTo(y)),
+                Integer.signum(n.compareTo(m)));
+
+        NaturalNumber sum = new NaturalNumber4(a);
+        sum.add(m);
+        assertEquals(x.add(y), big(sum));
+
+        NaturalNumber product = new NaturalNumber4(a);
+        product.multiply(m);
+        assertEquals(x.multiply(y), big(product));
+
+        NaturalNumber quotient = new NaturalNumber4(a);
+        NaturalNumber remainder = quotient.divide(m);
+        BigInteger[] qr = x.divideAndRemainder(y);
+        assertEquals(qr[0], big(quotient));
+        assertEquals(qr[1], big(remainder));
+
+        if (x.compareTo(y) >= 0) {
+            NaturalNumber difference = new NaturalNumber4(a);
+            difference.subtract(m);
+            assertEquals(x.subtract(y), big(difference));
+        }
+        assertEquals(new BigInteger(b), big(m));
+    }
+
+    @Test
+    public final void testArithmeticSmall() {
+        checkArithmetic("0", "1");
+        checkArithmetic("1", "1");
+        checkArithmetic("999999999", "1");
+        checkArithmetic("1000000000", "999999999");
+        checkArithmetic("123456789012345678901234567890", "987654321");
+        checkArithmetic("18446744073709551616", "4294967296");
+    }
+
+    @Test
+    public final void testArithmeticRandomSizes() {
+        final long seed = 42L;
+        final int[] sizes = { 1, 8, 9, 10, 17, 18, 19, 100, 400, 1000, 3000 };
+        Random rnd = new Random(seed);
+        for (int i : sizes) {
+            for (int j : sizes) {
+                checkArithmetic(randomDigits(rnd, i), randomDigits(rnd, j));
+            }
+        }
+    }
+
+    @Test
+    public final void testDivideWithCorrectionSteps() {
+        /*
+         * Dividends and divisors made of runs of 9s and 0s push the trial
+         * quotient digit of Algorithm D to its limits
+         */
+        final int blocks = 12;
+        String nines = "999999999";
+        String zeros = "000000000";
+        StringBuilder u = new StringBuilder("1");
+        StringBuilder v = new StringBuilder("1");
+        for (int i = 0; i < blocks; i++) {
+            u.append(zeros);
+            if (i % 2 == 0) {
+                v.append(nines);
+            } else {
+                v.append(zeros);
+            }
+            checkArithmetic(u.toString(), v.toString());
+            checkArithmetic(v.toString() + nines, v.toString());
+            checkArithmetic(u.toString() + nines, u.toString());
+        }
+    }
+
+    @Test
+    public final void testPower() {
+        NaturalNumber n = new NaturalNumber4("123456789");
+        final int p = 300;
+        n.power(p);
+        assertEquals(new BigInteger("123456789").pow(p), big(n));
+        NaturalNumber z = new NaturalNumber4(0);
+        z.power(0);
+        assertEquals(BigInteger.ONE, big(z));
+    }
+
+    @Test
+    public final void testArithmeticWithOtherImplementation() {
+        NaturalNumber n = new NaturalNumber4("123456789123456789123");
+        NaturalNumber m = this.constructorRef("987654321987");
+        n.add(m);
+        assertEquals(new BigInteger("123456790111111111110"), big(n));
+        n.multiply(m);
+        NaturalNumber r = n.divide(m);
+        assertTrue(r.isZero());
+        assertEquals(new BigInteger("123456790111111111110"), big(n));
+    }
+
+    @Test
+    public final void testArithmeticAfterKernelCalls() {
+        /*
+         * Leave a partial tail so the operands are not limb-aligned
+         */
+        NaturalNumber n = new NaturalNumber4("12345678901234567890");
+        n.multiplyBy10(7);
+        n.multiplyBy10(3);
+        NaturalNumber m = new NaturalNumber4("98765432109876543210");
+        m.divideBy10();
+        n.add(m);
+        assertEquals(new BigInteger("1234567890123456789073")
+                .add(new BigInteger("9876543210987654321")), big(n));
+        n.multiplyBy10(1);
+        assertEquals(1, n.divideBy10());
+        n.copyFrom(m);
+        assertEquals(big(m), big(n));
+    }
+
+}
@@ -0,0 +1,186 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber1L;
+
+/**
+ * Customized JUnit test fixture for {@code NaturalNumber5}.
+ */
+public class NaturalNumber5Test extends NaturalNumberTest {
+
+    @Override
+    protected final NaturalNumber constructorTest() {
+
+        return new NaturalNumber5();
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(int i) {
+
+        return new NaturalNumber5(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(String s) {
+
+        return new NaturalNumber5(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(NaturalNumber n) {
+
+        return new NaturalNumber5(n);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef() {
+
+        return new NaturalNumber1L();
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(int i) {
+
+        return new NaturalNumber1L(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(String s) {
+
+        return new NaturalNumber1L(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(NaturalNumber n) {
+
+        return new NaturalNumber1L(n);
+    }
+
+    @Test
+    public final void testTransferFromDoesNotShareBuffer() {
+        NaturalNumber n = this.constructorTest("12345");
+        NaturalNumber m = this.constructorTest();
+        m.transferFrom(n);
+        n.multiplyBy10(7);
+        m.multiplyBy10(8);
+        assertEquals(this.constructorRef(7), n);
+        assertEquals(this.constructorRef("123458"), m);
+    }
+
+    @Test
+    public final void testCopiesAreIndependent() {
+        NaturalNumber n = this.constructorTest("900");
+        NaturalNumber m = this.constructorTest(n);
+        assertEquals(0, n.divideBy10());
+        m.multiplyBy10(1);
+        assertEquals(this.constructorRef(90), n);
+        assertEquals(this.constructorRef(9001), m);
+    }
+
+    /**
+     * Checks that {@code n} prints as {@code expected} and hashes like a new
+     * {@code NaturalNumber5} with that value, and that printing it again
+     * returns the cached {@code String} rather than a new one.
+     *
+     * @param expected
+     *            the expected depiction
+     * @param n
+     *            the number to check
+     * @requires there exists m: NATURAL (expected = TO_STRING(m))
+     */
+    private static void assertCached(String expected, NaturalNumber n) {
+        assertEquals(expected, n.toString());
+        assertEquals(new NaturalNumber5(expected).hashCode(), n.hashCode());
+        assertSame(n.toString(), n.toString());
+    }
+
+    @Test
+    public final void testCacheAfterMultiplyBy10() {
+        NaturalNumber n = this.constructorTest("12345");
+        assertCached("12345", n);
+        n.multiplyBy10(6);
+        assertCached("123456", n);
+        n.multiplyBy10(0);
+        assertCached("1234560", n);
+    }
+
+    @Test
+    public final void testCacheAfterDivideBy10() {
+        NaturalNumber n = this.constructorTest("12345");
+        assertCached("12345", n);
+        assertEquals(5, n.divideBy10());
+        assertCached("1234", n);
+        while (!n.isZero()) {
+            n.divideBy10();
+        }
+        assertCached("0", n);
+    }
+
+    @Test
+    public final void testCacheKeptWhenZeroIsUnchanged() {
+        NaturalNumber n = this.constructorTest();
+        String s = n.toString();
+        n.multiplyBy10(0);
+        assertSame(s, n.toString());
+        assertEquals(0, n.divideBy10());
+        assertSame(s, n.toString());
+        n.multiplyBy10(3);
+        assertCached("3", n);
+    }
+
+    @Test
+    public final void testCacheAfterClear() {
+        NaturalNumber n = this.constructorTest("12345");
+        assertCached("12345", n);
+        n.clear();
+        assertCached("0", n);
+    }
+
+    @Test
+    public final void testCacheAfterTransferFrom() {
+        NaturalNumber n = this.constructorTest("12345");
+        NaturalNumber m = this.constructorTest("999");
+        assertCached("12345", n);
+        String s = m.toString();
+        n.transferFrom(m);
+        assertSame(s, n.toString());
+        assertCached("999", n);
+        assertCached("0", m);
+        m.multiplyBy10(1);
+        assertCached("1", m);
+        assertCached("999", n);
+    }
+
+    @Test
+    public final void testCacheAfterCopyFrom() {
+        NaturalNumber n = this.constructorTest("12345");
+        NaturalNumber m = this.constructorTest("42");
+        assertCached("12345", n);
+        String s = m.toString();
+        n.copyFrom(m);
+        assertSame(s, n.toString());
+        n.multiplyBy10(1);
+        assertCached("421", n);
+        assertSame(s, m.toString());
+        n.copyFrom(this.constructorRef(77));
+        assertCached("77", n);
+    }
+
+    @Test
+    public final void testCacheAfterSecondaryMutators() {
+        NaturalNumber n = this.constructorTest("12349");
+        assertCached("12349", n);
+        n.increment();
+        assertCached("12350", n);
+        n.add(this.constructorRef(50));
+        assertCached("12400", n);
+        n.setFromInt(7);
+        assertCached("7", n);
+        n.power(3);
+        assertCached("343", n);
+    }
+
+}
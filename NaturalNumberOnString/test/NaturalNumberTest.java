@@ -1,4 +1,5 @@
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
@@ -9,7 +10,8 @@ import components.random.Random1L;
 
 /**
  * JUnit test fixture for {@code NaturalNumber}'s constructors and kernel
- * methods.
+ * methods, and for {@code toString} and {@code compareTo} after each method
+ * that changes a number.
  *
  * @author Chris Zhao, Ko Lim
  *
@@ -109,6 +111,36 @@ public abstract class NaturalNumberTest {
      */
     private static final Random GENERATOR = new Random1L();
 
+    /**
+     * Radix of the decimal depiction.
+     */
+    protected static final int RADIX = 10;
+
+    /**
+     * Number of digits in the large tests.
+     */
+    protected static final int LARGE_DIGITS = 30_000;
+
+    /**
+     * Returns a random decimal depiction of a natural number with
+     * {@code digits} digits.
+     *
+     * @param rnd
+     *            the source of randomness
+     * @param digits
+     *            the number of digits
+     * @return the depiction
+     * @requires digits > 0
+     */
+    protected static String randomDigits(java.util.Random rnd, int digits) {
+        StringBuilder sb = new StringBuilder(digits);
+        sb.append((char) ('1' + rnd.nextInt(RADIX - 1)));
+        for (int i = 1; i < digits; i++) {
+            sb.append((char) ('0' + rnd.nextInt(RADIX)));
+        }
+        return sb.toString();
+    }
+
     // TODO - add test cases for four constructors, multiplyBy10, divideBy10, isZero
 
     /**
@@ -334,4 +366,208 @@ public abstract class NaturalNumberTest {
 
         assertEquals(false, n.isZero());
     }
+
+    /**
+     * Test multiplyBy10 building up a large number digit by digit, then
+     * divideBy10 taking it apart again
+     */
+    @Test
+    public void testBuildUpAndTearDownLarge() {
+        final long seed = 42L;
+        java.util.Random rnd = new java.util.Random(seed);
+        String s = randomDigits(rnd, LARGE_DIGITS);
+        NaturalNumber n = this.constructorTest();
+        for (int i = 0; i < s.length(); i++) {
+            n.multiplyBy10(s.charAt(i) - '0');
+        }
+        assertEquals(this.constructorRef(s), n);
+        assertEquals(this.constructorTest(s), n);
+        for (int i = s.length() - 1; i >= 0; i--) {
+            assertEquals(s.charAt(i) - '0', n.divideBy10());
+        }
+        assertTrue(n.isZero());
+        assertEquals(this.constructorRef(), n);
+        n.multiplyBy10(0);
+        assertTrue(n.isZero());
+        n.multiplyBy10(3);
+        assertEquals(this.constructorRef(3), n);
+    }
+
+    /**
+     * Test random interleavings of multiplyBy10 and divideBy10 against the
+     * depiction they should leave
+     */
+    @Test
+    public void testInterleavedMultiplyAndDivideMatchReference() {
+        final long seed = 42L;
+        final int operations = 100_000;
+        java.util.Random rnd = new java.util.Random(seed);
+        NaturalNumber n = this.constructorTest();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < operations; i++) {
+            if (rnd.nextInt(3) == 0) {
+                int expectedRemainder = 0;
+                if (expected.length() > 0) {
+                    expectedRemainder = expected.charAt(expected.length() - 1)
+                            - '0';
+                    expected.setLength(expected.length() - 1);
+                }
+                assertEquals(expectedRemainder, n.divideBy10());
+            } else {
+                int k = rnd.nextInt(RADIX);
+                n.multiplyBy10(k);
+                if (expected.length() > 0 || k != 0) {
+                    expected.append((char) ('0' + k));
+                }
+            }
+            assertEquals(expected.length() == 0, n.isZero());
+        }
+        if (expected.length() == 0) {
+            expected.append('0');
+        }
+        assertEquals(this.constructorRef(expected.toString()), n);
+    }
+
+    /**
+     * Returns a new number of the type under test with value {@code s}
+     * whose decimal depiction has already been asked for once, so any cached
+     * depiction is filled in.
+     *
+     * @param s
+     *            the decimal depiction
+     * @return the new number
+     * @requires there exists n: NATURAL (s = TO_STRING(n))
+     */
+    private NaturalNumber printed(String s) {
+        NaturalNumber n = this.constructorTest(s);
+        assertEquals(s, n.toString());
+        return n;
+    }
+
+    /**
+     * Test toString after multiplyBy10 and divideBy10, on a number whose
+     * depiction was already printed
+     */
+    @Test
+    public void testToStringAfterKernelMutators() {
+        NaturalNumber n = this.printed("12345");
+        n.multiplyBy10(7);
+        assertEquals("123457", n.toString());
+        n.multiplyBy10(0);
+        assertEquals("1234570", n.toString());
+        assertEquals(0, n.divideBy10());
+        assertEquals("123457", n.toString());
+        assertEquals(7, n.divideBy10());
+        assertEquals("12345", n.toString());
+
+        NaturalNumber zero = this.printed("0");
+        zero.multiplyBy10(0);
+        assertEquals("0", zero.toString());
+        assertEquals(0, zero.divideBy10());
+        assertEquals("0", zero.toString());
+        zero.multiplyBy10(4);
+        assertEquals("4", zero.toString());
+    }
+
+    /**
+     * Test toString after clear and transferFrom, on numbers whose
+     * depictions were already printed
+     */
+    @Test
+    public void testToStringAfterStandardMutators() {
+        NaturalNumber n = this.printed("12345");
+        n.clear();
+        assertEquals("0", n.toString());
+
+        n = this.printed("12345");
+        NaturalNumber m = this.printed("999");
+        n.transferFrom(m);
+        assertEquals("999", n.toString());
+        assertEquals("0", m.toString());
+        m.multiplyBy10(1);
+        assertEquals("999", n.toString());
+        assertEquals("1", m.toString());
+    }
+
+    /**
+     * Test toString after copyFrom, on a number whose depiction was already
+     * printed
+     */
+    @Test
+    public void testToStringAfterCopyFrom() {
+        NaturalNumber n = this.printed("12345");
+        NaturalNumber m = this.printed("42");
+        n.copyFrom(m);
+        assertEquals("42", n.toString());
+        n.multiplyBy10(1);
+        assertEquals("421", n.toString());
+        assertEquals("42", m.toString());
+        m.divideBy10();
+        assertEquals("421", n.toString());
+        assertEquals("4", m.toString());
+
+        n.copyFrom(this.constructorRef(77));
+        assertEquals("77", n.toString());
+        n.copyFrom(this.constructorRef());
+        assertEquals("0", n.toString());
+        n.copyFrom(n);
+        assertEquals("0", n.toString());
+    }
+
+    /**
+     * Test toString after the secondary methods that change this, on numbers
+     * whose depictions were already printed
+     */
+    @Test
+    public void testToStringAfterSecondaryMutators() {
+        NaturalNumber n = this.printed("12345");
+        n.setFromInt(6);
+        assertEquals("6", n.toString());
+        n.setFromString("1000");
+        assertEquals("1000", n.toString());
+
+        n = this.printed("12349");
+        n.increment();
+        assertEquals("12350", n.toString());
+        n.decrement();
+        assertEquals("12349", n.toString());
+
+        n = this.printed("12345");
+        n.add(this.constructorRef(5));
+        assertEquals("12350", n.toString());
+        n.subtract(this.constructorRef(50));
+        assertEquals("12300", n.toString());
+        n.multiply(this.constructorRef(2));
+        assertEquals("24600", n.toString());
+        NaturalNumber r = n.divide(this.constructorRef(1000));
+        assertEquals("24", n.toString());
+        assertEquals("600", r.toString());
+        n.power(2);
+        assertEquals("576", n.toString());
+        n.root(2);
+        assertEquals("24", n.toString());
+    }
+
+    /**
+     * Test compareTo on numbers with different and equal numbers of digits
+     */
+    @Test
+    public void testCompareToByLengthThenDigits() {
+        NaturalNumber n = this.printed("12345");
+        assertTrue(n.compareTo(this.constructorTest("9999")) > 0);
+        assertTrue(n.compareTo(this.constructorTest("100000")) < 0);
+        assertTrue(n.compareTo(this.constructorTest("12346")) < 0);
+        assertTrue(n.compareTo(this.constructorTest("12344")) > 0);
+        assertEquals(0, n.compareTo(this.constructorTest("12345")));
+        assertEquals(0, n.compareTo(this.constructorRef(12345)));
+        assertTrue(n.compareTo(this.constructorRef(99999)) < 0);
+        assertTrue(n.compareTo(this.constructorRef()) > 0);
+        assertTrue(this.constructorTest().compareTo(n) < 0);
+        assertEquals(0,
+                this.constructorTest().compareTo(this.constructorRef()));
+        n.multiplyBy10(0);
+        assertTrue(n.compareTo(this.constructorTest("99999")) > 0);
+        assertEquals(this.constructorRef(123450), n);
+    }
+
 }
@@ -1,6 +1,5 @@
 import java.util.Comparator;
 
-import components.queue.Queue;
 import components.queue.Queue1L;
 
 /**
@@ -34,58 +33,270 @@ public final class Queue1LSort3<T> extends Queue1L<T> {
     }
 
     /**
-     * Inserts the given {@code T} in the {@code Queue<T>} sorted according to
-     * the given {@code Comparator<T>} and maintains the {@code Queue<T>}
-     * sorted.
+     * Runs shorter than this are extended with binary insertion sort before
+     * merging.
+     */
+    private static final int MIN_RUN = 32;
+
+    /**
+     * Reverses {@code array[lo, hi)}.
      *
      * @param <T>
-     *            type of {@code Queue} entries
-     * @param q
-     *            the {@code Queue} to insert into
-     * @param x
-     *            the {@code T} to insert
+     *            type of array entries
+     * @param array
+     *            the array
+     * @param lo
+     *            the first index of the range
+     * @param hi
+     *            one past the last index of the range
+     * @updates array
+     * @requires 0 <= lo <= hi <= |array|
+     * @ensures <pre>
+     * array[lo, hi) = rev(#array[lo, hi))  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static <T> void reverse(T[] array, int lo, int hi) {
+        int i = lo;
+        int j = hi - 1;
+        while (i < j) {
+            T tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+            i++;
+            j--;
+        }
+    }
+
+    /**
+     * Finds the natural run starting at {@code lo}, reversing it in place if
+     * it is strictly descending, and returns the index one past its end.
+     * Only strictly descending runs are reversed, so equal entries never
+     * change their relative order.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array
+     * @param lo
+     *            the start of the run
      * @param order
      *            the {@code Comparator} defining the order for {@code T}
-     * @updates q
+     * @return one past the last index of the run
+     * @updates array
+     * @requires 0 <= lo < |array|
+     * @ensures <pre>
+     * lo < endOfRun <= |array|  and
+     * IS_SORTED(array[lo, endOfRun), [relation computed by order.compare method])  and
+     * perms(array, #array)
+     * </pre>
+     */
+    private static <T> int endOfRun(T[] array, int lo, Comparator<T> order) {
+        int hi = lo + 1;
+        if (hi < array.length) {
+            if (order.compare(array[hi], array[lo]) < 0) {
+                hi++;
+                while (hi < array.length
+                        && order.compare(array[hi], array[hi - 1]) < 0) {
+                    hi++;
+                }
+                reverse(array, lo, hi);
+            } else {
+                hi++;
+                while (hi < array.length
+                        && order.compare(array[hi], array[hi - 1]) >= 0) {
+                    hi++;
+                }
+            }
+        }
+        return hi;
+    }
+
+    /**
+     * Extends the sorted range {@code array[lo, start)} to
+     * {@code array[lo, hi)} by binary insertion, placing each entry after any
+     * entries equal to it.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array
+     * @param lo
+     *            the first index of the range
+     * @param start
+     *            the first index not yet in sorted position
+     * @param hi
+     *            one past the last index of the range
+     * @param order
+     *            the {@code Comparator} defining the order for {@code T}
+     * @updates array
      * @requires <pre>
-     * IS_TOTAL_PREORDER([relation computed by order.compare method])  and
-     * IS_SORTED(q, [relation computed by order.compare method])
+     * 0 <= lo < start <= hi <= |array|  and
+     * IS_SORTED(array[lo, start), [relation computed by order.compare method])
      * </pre>
      * @ensures <pre>
-     * perms(q, #q * <x>)  and
-     * IS_SORTED(q, [relation computed by order.compare method])
+     * IS_SORTED(array[lo, hi), [relation computed by order.compare method])  and
+     * [array[lo, hi) is a stable permutation of #array[lo, hi)]  and
+     * [the other entries in array are the same as in #array]
      * </pre>
      */
-    private static <T> void insertInOrder(Queue<T> q, T x,
-            Comparator<T> order) {
-        assert q != null : "Violation of: q is not null";
-        assert order != null : "Violation of: order is not null";
-
-        // TODO - fill in body
-
-        Queue<T> temp = q.newInstance();
+    private static <T> void binaryInsertionSort(T[] array, int lo, int start,
+            int hi, Comparator<T> order) {
+        for (int i = start; i < hi; i++) {
+            T x = array[i];
+            int left = lo;
+            int right = i;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (order.compare(x, array[mid]) < 0) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
+            }
+            System.arraycopy(array, left, array, left + 1, i - left);
+            array[left] = x;
+        }
+    }
 
-        while (q.length() != 0 && order.compare(x, q.front()) > 0) {
-            temp.enqueue(q.dequeue());
+    /**
+     * Stably merges the adjacent sorted ranges {@code array[lo, mid)} and
+     * {@code array[mid, hi)}.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array
+     * @param lo
+     *            the start of the first range
+     * @param mid
+     *            the start of the second range
+     * @param hi
+     *            one past the end of the second range
+     * @param buffer
+     *            scratch space for the first range
+     * @param order
+     *            the {@code Comparator} defining the order for {@code T}
+     * @updates array, buffer
+     * @requires <pre>
+     * 0 <= lo <= mid <= hi <= |array|  and  mid - lo <= |buffer|  and
+     * IS_SORTED(array[lo, mid), [relation computed by order.compare method])  and
+     * IS_SORTED(array[mid, hi), [relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * IS_SORTED(array[lo, hi), [relation computed by order.compare method])  and
+     * [array[lo, hi) is a stable merge of #array[lo, mid) and #array[mid, hi)]  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static <T> void merge(T[] array, int lo, int mid, int hi,
+            T[] buffer, Comparator<T> order) {
+        /*
+         * Already in order: nothing to do, which keeps presorted input O(n)
+         */
+        if (lo < mid && mid < hi
+                && order.compare(array[mid - 1], array[mid]) > 0) {
+            int leftLength = mid - lo;
+            System.arraycopy(array, lo, buffer, 0, leftLength);
+            int i = 0;
+            int j = mid;
+            int k = lo;
+            while (i < leftLength && j < hi) {
+                if (order.compare(array[j], buffer[i]) < 0) {
+                    array[k] = array[j];
+                    j++;
+                } else {
+                    array[k] = buffer[i];
+                    i++;
+                }
+                k++;
+            }
+            System.arraycopy(buffer, i, array, k, leftLength - i);
         }
+    }
 
-        temp.enqueue(x);
-        temp.append(q);
-        q.transferFrom(temp);
+    /**
+     * Stably sorts {@code array}: splits it into natural runs (each extended
+     * to at least {@code MIN_RUN} entries by binary insertion), then merges
+     * adjacent runs pairwise until one run remains. This takes O(n) time when
+     * {@code array} is already sorted or reverse sorted, O(n log r) time for
+     * r runs, and O(n log n) time in the worst case.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array to be sorted
+     * @param order
+     *            the {@code Comparator} defining the order for {@code T}
+     * @updates array
+     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * @ensures <pre>
+     * IS_SORTED(array, [relation computed by order.compare method])  and
+     * [array is a stable permutation of #array]
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void mergeSort(T[] array, Comparator<T> order) {
+        int n = array.length;
+        /*
+         * runStart[0, runCount] holds the start of each run followed by n
+         */
+        int[] runStart = new int[n / MIN_RUN + 2];
+        int runCount = 0;
+        int lo = 0;
+        while (lo < n) {
+            int hi = endOfRun(array, lo, order);
+            if (hi - lo < MIN_RUN) {
+                int forcedHi = Math.min(lo + MIN_RUN, n);
+                binaryInsertionSort(array, lo, hi, forcedHi, order);
+                hi = forcedHi;
+            }
+            runStart[runCount] = lo;
+            runCount++;
+            lo = hi;
+        }
+        runStart[runCount] = n;
 
+        T[] buffer = (T[]) (new Object[n / 2 + 1]);
+        while (runCount > 1) {
+            int merged = 0;
+            for (int r = 0; r < runCount; r += 2) {
+                if (r + 1 < runCount) {
+                    int start = runStart[r];
+                    int mid = runStart[r + 1];
+                    int end = runStart[r + 2];
+                    if (mid - start > buffer.length) {
+                        buffer = (T[]) (new Object[mid - start]);
+                    }
+                    merge(array, start, mid, end, buffer, order);
+                }
+                runStart[merged] = runStart[r];
+                merged++;
+            }
+            runStart[merged] = n;
+            runCount = merged;
+        }
     }
 
     @Override
     public void sort(Comparator<T> order) {
         assert order != null : "Violation of: order is not null";
 
-        // TODO - fill in body
-
-        Queue<T> temp = this.newInstance();
-        while (this.length() != 0) {
-            insertInOrder(temp, this.dequeue(), order);
+        if (this.length() > 1) {
+            /*
+             * Copy the entries to an array once, merge sort it, and rebuild
+             * this in one pass
+             */
+            @SuppressWarnings("unchecked")
+            T[] array = (T[]) (new Object[this.length()]);
+            for (int i = 0; i < array.length; i++) {
+                array[i] = this.dequeue();
+            }
+            mergeSort(array, order);
+            for (int i = 0; i < array.length; i++) {
+                this.enqueue(array[i]);
+            }
         }
-        this.transferFrom(temp);
 
     }
 
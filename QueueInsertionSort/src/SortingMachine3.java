@@ -1,15 +1,18 @@
 import java.lang.reflect.Constructor;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
-import components.queue.Queue;
-import components.queue.Queue1L;
 import components.sortingmachine.SortingMachine;
 import components.sortingmachine.SortingMachineSecondary;
 
 /**
- * {@code SortingMachine} represented as a {@code Queue} (using an embedding of
- * insertion sort), with implementations of primary methods.
+ * {@code SortingMachine} represented as a sorted, growable array (using an
+ * embedding of binary insertion sort), with implementations of primary
+ * methods. Each {@code add} finds its position by binary search and shifts the
+ * larger entries over by one; {@code removeFirst} advances past the front
+ * entry in constant time.
  *
  * @param <T>
  *            type of {@code SortingMachine} entries
@@ -29,11 +32,18 @@ import components.sortingmachine.SortingMachineSecondary;
  * </pre>
  * @convention <pre>
  * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method])  and
- * IS_SORTED($this.entries, [relation computed by $this.machineOrder.compare method])
+ * 0 <= $this.first <= $this.last <= |$this.entries|  and
+ * for all i: integer
+ *     where ($this.first <= i  and  i < $this.last)
+ *   ([entry at position i in $this.entries is not null])  and
+ * IS_SORTED($this.entries[$this.first, $this.last),
+ *   [relation computed by $this.machineOrder.compare method])  and
+ * if $this.insertionMode then
+ *   $this.first = 0
  * </pre>
  * @correspondence <pre>
- * this =
- *   ($this.insertionMode, $this.machineOrder, multiset_entries($this.entries))
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.entries[$this.first, $this.last)))
  * </pre>
  */
 public class SortingMachine3<T> extends SortingMachineSecondary<T> {
@@ -53,9 +63,24 @@ public class SortingMachine3<T> extends SortingMachineSecondary<T> {
     private Comparator<T> machineOrder;
 
     /**
-     * Entries.
+     * Initial length of the entries array.
      */
-    private Queue<T> entries;
+    private static final int INITIAL_LENGTH = 16;
+
+    /**
+     * Entries, sorted in positions [first, last).
+     */
+    private T[] entries;
+
+    /**
+     * Index of the first live entry.
+     */
+    private int first;
+
+    /**
+     * One past the index of the last live entry.
+     */
+    private int last;
 
     /**
      * Creator of initial representation.
@@ -63,51 +88,62 @@ public class SortingMachine3<T> extends SortingMachineSecondary<T> {
      * @param order
      *            total preorder for sorting
      */
+    @SuppressWarnings("unchecked")
     private void createNewRep(Comparator<T> order) {
         this.insertionMode = true;
         this.machineOrder = order;
-        this.entries = new Queue1L<T>();
+        this.entries = (T[]) (new Object[INITIAL_LENGTH]);
+        this.first = 0;
+        this.last = 0;
     }
 
     /**
-     * Inserts the given {@code T} in the {@code Queue<T>} sorted according to
-     * the given {@code Comparator<T>} and maintains the {@code Queue<T>}
-     * sorted.
+     * Returns the position in the sorted range {@code array[lo, hi)} at which
+     * {@code x} should be inserted: after every entry not larger than
+     * {@code x}, so entries equal to {@code x} keep their insertion order.
      *
      * @param <T>
-     *            type of {@code Queue} entries
-     * @param q
-     *            the {@code Queue} to insert into
+     *            type of array entries
+     * @param array
+     *            the array to search
+     * @param lo
+     *            the first index of the range
+     * @param hi
+     *            one past the last index of the range
      * @param x
      *            the {@code T} to insert
      * @param order
      *            the {@code Comparator} defining the order for {@code T}
-     * @updates q
+     * @return the insertion position
      * @requires <pre>
+     * 0 <= lo <= hi <= |array|  and
      * IS_TOTAL_PREORDER([relation computed by order.compare method])  and
-     * IS_SORTED(q, [relation computed by order.compare method])
+     * IS_SORTED(array[lo, hi), [relation computed by order.compare method])
      * </pre>
      * @ensures <pre>
-     * perms(q, #q * <x>)  and
-     * IS_SORTED(q, [relation computed by order.compare method])
+     * lo <= insertionPoint <= hi  and
+     * for all i: integer where (lo <= i < insertionPoint)
+     *   ([relation computed by order.compare method](array[i], x))  and
+     * for all i: integer where (insertionPoint <= i < hi)
+     *   (not [relation computed by order.compare method](array[i], x))
      * </pre>
      */
-    private static <T> void insertInOrder(Queue<T> q, T x,
+    private static <T> int insertionPoint(T[] array, int lo, int hi, T x,
             Comparator<T> order) {
-        assert q != null : "Violation of: q is not null";
+        assert array != null : "Violation of: array is not null";
         assert order != null : "Violation of: order is not null";
 
-        // TODO #1 - fill in body
-
-        q.enqueue(x);
-        Queue<T> newQueue = q.newInstance();
-        while (q.length() > 0 && order.compare(x, q.front()) > 0) {
-            newQueue.enqueue(q.dequeue());
+        int left = lo;
+        int right = hi;
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            if (order.compare(x, array[mid]) < 0) {
+                right = mid;
+            } else {
+                left = mid + 1;
+            }
         }
-        newQueue.enqueue(x);
-        newQueue.append(q);
-        q.transferFrom(newQueue);
-
+        return left;
     }
 
     /*
@@ -161,6 +197,8 @@ public class SortingMachine3<T> extends SortingMachineSecondary<T> {
         this.insertionMode = localSource.insertionMode;
         this.machineOrder = localSource.machineOrder;
         this.entries = localSource.entries;
+        this.first = localSource.first;
+        this.last = localSource.last;
         localSource.createNewRep(localSource.machineOrder);
     }
 
@@ -173,7 +211,15 @@ public class SortingMachine3<T> extends SortingMachineSecondary<T> {
         assert x != null : "Violation of: x is not null";
         assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
 
-        insertInOrder(this.entries, x, this.machineOrder);
+        if (this.last == this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries, 2 * this.last);
+        }
+        int pos = insertionPoint(this.entries, 0, this.last, x,
+                this.machineOrder);
+        System.arraycopy(this.entries, pos, this.entries, pos + 1,
+                this.last - pos);
+        this.entries[pos] = x;
+        this.last++;
 
     }
 
@@ -192,9 +238,10 @@ public class SortingMachine3<T> extends SortingMachineSecondary<T> {
                 .isInInsertionMode() : "Violation of: not this.insertion_mode";
         assert this.size() > 0 : "Violation of: this.contents /= {}";
 
-        // TODO #4 - remove and return first entry in machine contents
-
-        return this.entries.dequeue();
+        T result = this.entries[this.first];
+        this.entries[this.first] = null;
+        this.first++;
+        return result;
     }
 
     @Override
@@ -216,14 +263,59 @@ public class SortingMachine3<T> extends SortingMachineSecondary<T> {
     @Override
     public final int size() {
 
-        // TODO #7 - report size of machine contents
-
-        return this.entries.length();
+        return this.last - this.first;
     }
 
     @Override
     public final Iterator<T> iterator() {
-        return this.entries.iterator();
+        return new SortingMachine3Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine3}.
+     */
+    private final class SortingMachine3Iterator implements Iterator<T> {
+
+        /**
+         * Index of the next entry to return.
+         */
+        private int currentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine3Iterator() {
+            this.currentIndex = SortingMachine3.this.first;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.currentIndex < SortingMachine3.this.last;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next = SortingMachine3.this.entries[this.currentIndex];
+            this.currentIndex++;
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
     }
 
 }
@@ -0,0 +1,173 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.queue.Queue;
+
+/**
+ * JUnit test fixture for {@code Queue1LSort3}'s {@code sort} method.
+ */
+public final class Queue1LSort3Test {
+
+    /**
+     * Size of the large inputs.
+     */
+    private static final int LARGE_SIZE = 1_000_000;
+
+    /**
+     * Compare {@code Integer}s in increasing order.
+     */
+    private static final Comparator<Integer> INT_ORDER = Integer::compare;
+
+    /**
+     * Compare {@code String}s by their first character only, so strings with
+     * the same first character are equal keys.
+     */
+    private static final Comparator<String> FIRST_CHAR_ORDER = (s1,
+            s2) -> Character.compare(s1.charAt(0), s2.charAt(0));
+
+    /**
+     * Checks that {@code q} has {@code expectedLength} entries in
+     * non-decreasing order and that their sum is {@code expectedSum}.
+     *
+     * @param q
+     *            the queue to check
+     * @param expectedLength
+     *            the expected length
+     * @param expectedSum
+     *            the expected sum of the entries
+     */
+    private static void assertSorted(Queue<Integer> q, int expectedLength,
+            long expectedSum) {
+        assertEquals(expectedLength, q.length());
+        long sum = 0;
+        Integer previous = null;
+        for (Integer x : q) {
+            if (previous != null) {
+                assertTrue(previous <= x);
+            }
+            sum += x;
+            previous = x;
+        }
+        assertEquals(expectedSum, sum);
+    }
+
+    /**
+     * Creates a {@code Queue1LSort3<String>} holding {@code args} in order.
+     *
+     * @param args
+     *            the entries
+     * @return the new queue
+     */
+    private static Queue<String> createFromArgs(String... args) {
+        Queue<String> q = new Queue1LSort3<>();
+        for (String s : args) {
+            q.enqueue(s);
+        }
+        return q;
+    }
+
+    @Test
+    public final void testSortEmpty() {
+        Queue<Integer> q = new Queue1LSort3<>();
+        q.sort(INT_ORDER);
+        assertEquals(0, q.length());
+    }
+
+    @Test
+    public final void testSortOne() {
+        Queue<String> q = createFromArgs("red");
+        Queue<String> qExpected = createFromArgs("red");
+        q.sort(FIRST_CHAR_ORDER);
+        assertEquals(qExpected, q);
+    }
+
+    @Test
+    public final void testSortEqualKeysKeepInputOrder() {
+        Queue<String> q = createFromArgs("b1", "a1", "b2", "c1", "a2", "b3",
+                "a3", "c2");
+        Queue<String> qExpected = createFromArgs("a1", "a2", "a3", "b1", "b2",
+                "b3", "c1", "c2");
+        q.sort(FIRST_CHAR_ORDER);
+        assertEquals(qExpected, q);
+    }
+
+    @Test
+    public final void testSortEqualKeysInDescendingRunKeepInputOrder() {
+        Queue<String> q = createFromArgs("c1", "b1", "b2", "a1", "a2");
+        Queue<String> qExpected = createFromArgs("a1", "a2", "b1", "b2", "c1");
+        q.sort(FIRST_CHAR_ORDER);
+        assertEquals(qExpected, q);
+    }
+
+    @Test
+    public final void testSortLargeEqualKeysKeepInputOrder() {
+        /*
+         * Many runs and merges: entry i has key (i * 7919) % 26 and tag i
+         */
+        Queue<String> q = new Queue1LSort3<>();
+        final int n = 100_000;
+        final int multiplier = 7919;
+        final int letters = 26;
+        for (int i = 0; i < n; i++) {
+            char key = (char) ('a' + (i * multiplier) % letters);
+            q.enqueue(key + Integer.toString(i));
+        }
+        q.sort(FIRST_CHAR_ORDER);
+        assertEquals(n, q.length());
+        String previous = null;
+        for (String s : q) {
+            if (previous != null) {
+                int byKey = FIRST_CHAR_ORDER.compare(previous, s);
+                assertTrue(byKey <= 0);
+                if (byKey == 0) {
+                    assertTrue(Integer.parseInt(previous.substring(1)) < Integer
+                            .parseInt(s.substring(1)));
+                }
+            }
+            previous = s;
+        }
+    }
+
+    @Test
+    public final void testSortLargeShuffled() {
+        Queue<Integer> q = new Queue1LSort3<>();
+        final int multiplier = 7919;
+        long sum = 0;
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            int x = (int) (((long) i * multiplier) % LARGE_SIZE);
+            q.enqueue(x);
+            sum += x;
+        }
+        q.sort(INT_ORDER);
+        assertSorted(q, LARGE_SIZE, sum);
+    }
+
+    @Test
+    public final void testSortLargeSorted() {
+        Queue<Integer> q = new Queue1LSort3<>();
+        long sum = 0;
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            q.enqueue(i);
+            sum += i;
+        }
+        q.sort(INT_ORDER);
+        assertSorted(q, LARGE_SIZE, sum);
+    }
+
+    @Test
+    public final void testSortLargeReverseSorted() {
+        Queue<Integer> q = new Queue1LSort3<>();
+        long sum = 0;
+        for (int i = LARGE_SIZE - 1; i >= 0; i--) {
+            q.enqueue(i);
+            sum += i;
+        }
+        q.sort(INT_ORDER);
+        assertSorted(q, LARGE_SIZE, sum);
+    }
+
+}
@@ -1,4 +1,10 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
 import java.util.Comparator;
+import java.util.Iterator;
+
+import org.junit.Test;
 
 import components.sortingmachine.SortingMachine;
 import components.sortingmachine.SortingMachine1L;
@@ -18,4 +24,79 @@ public final class SortingMachine3Test extends SortingMachineTest {
         return new SortingMachine1L<String>(order);
     }
 
+    /**
+     * Compare {@code String}s by their first character only, so strings with
+     * the same first character are equal keys.
+     */
+    private static final Comparator<String> FIRST_CHAR_ORDER = (s1,
+            s2) -> Character.compare(s1.charAt(0), s2.charAt(0));
+
+    @Test
+    public final void testAddPastInitialLengthThenDrain() {
+        SortingMachine<Integer> m = new SortingMachine3<Integer>(
+                Integer::compare);
+        final int n = 1000;
+        final int multiplier = 7919;
+        for (int i = 0; i < n; i++) {
+            m.add((int) (((long) i * multiplier) % n));
+        }
+        assertEquals(n, m.size());
+        m.changeToExtractionMode();
+        for (int i = 0; i < n; i++) {
+            assertEquals(Integer.valueOf(i), m.removeFirst());
+            assertEquals(n - i - 1, m.size());
+        }
+    }
+
+    @Test
+    public final void testAddEqualKeysKeepInsertionOrder() {
+        SortingMachine<String> m = new SortingMachine3<String>(
+                FIRST_CHAR_ORDER);
+        m.add("b1");
+        m.add("a1");
+        m.add("b2");
+        m.add("a2");
+        m.add("b3");
+        m.changeToExtractionMode();
+        assertEquals("a1", m.removeFirst());
+        assertEquals("a2", m.removeFirst());
+        assertEquals("b1", m.removeFirst());
+        assertEquals("b2", m.removeFirst());
+        assertEquals("b3", m.removeFirst());
+    }
+
+    @Test
+    public final void testIteratorAfterRemoveFirst() {
+        SortingMachine<String> m = new SortingMachine3<String>(
+                String.CASE_INSENSITIVE_ORDER);
+        m.add("red");
+        m.add("blue");
+        m.add("green");
+        m.changeToExtractionMode();
+        m.removeFirst();
+        Iterator<String> it = m.iterator();
+        assertEquals("green", it.next());
+        assertEquals("red", it.next());
+        assertEquals(false, it.hasNext());
+    }
+
+    @Test
+    public final void testTransferFrom() {
+        SortingMachine<String> m = new SortingMachine3<String>(
+                String.CASE_INSENSITIVE_ORDER);
+        SortingMachine<String> source = new SortingMachine3<String>(
+                String.CASE_INSENSITIVE_ORDER);
+        source.add("red");
+        source.add("blue");
+        source.changeToExtractionMode();
+        source.removeFirst();
+        m.transferFrom(source);
+        assertEquals(1, m.size());
+        assertEquals(false, m.isInInsertionMode());
+        assertSame(String.CASE_INSENSITIVE_ORDER, m.order());
+        assertEquals("red", m.removeFirst());
+        assertEquals(0, source.size());
+        assertEquals(true, source.isInInsertionMode());
+    }
+
 }
@@ -0,0 +1,477 @@
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Utility class with an in-place introsort on arrays: quicksort with a
+ * median-of-three pivot, switching to heapsort for any range whose recursion
+ * depth exceeds 2 * floor(log2 n) and to insertion sort for short ranges. It
+ * runs in O(n log n) time in the worst case, including on sorted,
+ * reverse-sorted and all-equal input, and uses O(log n) stack. Large arrays
+ * can also be sorted in a {@code ForkJoinPool}, with the two sides of every
+ * partition sorted concurrently; the result is the same array the sequential
+ * sort produces.
+ *
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * IS_SORTED (
+ *   s: string of T,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y: T where (<x, y> is substring of s) (r(x, y))
+ * </pre>
+ */
+public final class ArrayIntrosort {
+
+    /**
+     * Ranges at most this long are left for the final insertion sort.
+     */
+    private static final int INSERTION_THRESHOLD = 16;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private ArrayIntrosort() {
+    }
+
+    /**
+     * Exchanges entries at indices {@code i} and {@code j} of {@code array}.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array whose entries are to be exchanged
+     * @param i
+     *            one index
+     * @param j
+     *            the other index
+     * @updates array
+     * @requires 0 <= i < |array| and 0 <= j < |array|
+     * @ensures array = [#array with entries at indices i and j exchanged]
+     */
+    private static <T> void exchangeEntries(T[] array, int i, int j) {
+        T tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    /**
+     * Sorts {@code array[lo, hi]} with insertion sort.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array
+     * @param lo
+     *            the first index of the range
+     * @param hi
+     *            the last index of the range
+     * @param order
+     *            ordering by which to sort
+     * @updates array
+     * @requires 0 <= lo and hi < |array|
+     * @ensures <pre>
+     * perms(array[lo, hi + 1), #array[lo, hi + 1))  and
+     * IS_SORTED(array[lo, hi + 1), [relation computed by order.compare method])  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static <T> void insertionSort(T[] array, int lo, int hi,
+            Comparator<T> order) {
+        for (int i = lo + 1; i <= hi; i++) {
+            T x = array[i];
+            int j = i - 1;
+            while (j >= lo && order.compare(array[j], x) > 0) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = x;
+        }
+    }
+
+    /**
+     * Sifts {@code array[lo + top]} down in the max-heap stored in
+     * {@code array[lo, lo + size)}, where the children of heap position k are
+     * at positions 2 * k + 1 and 2 * k + 2.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array
+     * @param lo
+     *            the index of heap position 0
+     * @param top
+     *            the heap position to sift down
+     * @param size
+     *            the number of entries in the heap
+     * @param order
+     *            ordering by which to sort
+     * @updates array
+     * @requires <pre>
+     * 0 <= lo  and  0 <= top < size  and  lo + size <= |array|  and
+     * [the subtrees of heap position top are max-heaps]
+     * </pre>
+     * @ensures <pre>
+     * [the subtree of heap position top is a max-heap]  and
+     * perms(array, #array)
+     * </pre>
+     */
+    private static <T> void siftDown(T[] array, int lo, int top, int size,
+            Comparator<T> order) {
+        T root = array[lo + top];
+        int hole = top;
+        int child = 2 * hole + 1;
+        boolean done = false;
+        while (!done && child < size) {
+            if (child + 1 < size && order.compare(array[lo + child + 1],
+                    array[lo + child]) > 0) {
+                child++;
+            }
+            if (order.compare(array[lo + child], root) > 0) {
+                array[lo + hole] = array[lo + child];
+                hole = child;
+                child = 2 * hole + 1;
+            } else {
+                done = true;
+            }
+        }
+        array[lo + hole] = root;
+    }
+
+    /**
+     * Sorts {@code array[lo, hi]} with heapsort.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array
+     * @param lo
+     *            the first index of the range
+     * @param hi
+     *            the last index of the range
+     * @param order
+     *            ordering by which to sort
+     * @updates array
+     * @requires 0 <= lo and hi < |array|
+     * @ensures <pre>
+     * perms(array[lo, hi + 1), #array[lo, hi + 1))  and
+     * IS_SORTED(array[lo, hi + 1), [relation computed by order.compare method])  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static <T> void heapsort(T[] array, int lo, int hi,
+            Comparator<T> order) {
+        int size = hi - lo + 1;
+        for (int top = size / 2 - 1; top >= 0; top--) {
+            siftDown(array, lo, top, size, order);
+        }
+        for (int last = size - 1; last > 0; last--) {
+            exchangeEntries(array, lo, lo + last);
+            siftDown(array, lo, 0, last, order);
+        }
+    }
+
+    /**
+     * Partitions {@code array[lo, hi]} around the median of its first, middle
+     * and last entries, and returns the index {@code p} that splits it.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array
+     * @param lo
+     *            the first index of the range
+     * @param hi
+     *            the last index of the range
+     * @param order
+     *            ordering by which to partition
+     * @return the last index of the lower part
+     * @updates array
+     * @requires 0 <= lo and lo + 2 <= hi and hi < |array|
+     * @ensures <pre>
+     * lo <= partition < hi  and
+     * perms(array[lo, hi + 1), #array[lo, hi + 1))  and
+     * for all i, j: integer
+     *     where (lo <= i <= partition  and  partition < j <= hi)
+     *   ([relation computed by order.compare method](array[i], array[j]))  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static <T> int partition(T[] array, int lo, int hi,
+            Comparator<T> order) {
+        /*
+         * Order the first, middle and last entries; the middle one becomes the
+         * pivot, and the outer two act as sentinels for the scans below
+         */
+        int mid = lo + (hi - lo) / 2;
+        if (order.compare(array[mid], array[lo]) < 0) {
+            exchangeEntries(array, mid, lo);
+        }
+        if (order.compare(array[hi], array[mid]) < 0) {
+            exchangeEntries(array, hi, mid);
+            if (order.compare(array[mid], array[lo]) < 0) {
+                exchangeEntries(array, mid, lo);
+            }
+        }
+        T pivot = array[mid];
+        /*
+         * Hoare partition: both scans stop on entries equal to the pivot, so
+         * runs of equal keys are split evenly
+         */
+        int i = lo;
+        int j = hi;
+        boolean crossed = false;
+        while (!crossed) {
+            do {
+                i++;
+            } while (order.compare(array[i], pivot) < 0);
+            do {
+                j--;
+            } while (order.compare(array[j], pivot) > 0);
+            if (i < j) {
+                exchangeEntries(array, i, j);
+            } else {
+                crossed = true;
+            }
+        }
+        return j;
+    }
+
+    /**
+     * Sorts {@code array[lo, hi]} except for ranges of at most
+     * {@code INSERTION_THRESHOLD} entries, which are only placed correctly
+     * relative to one another.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array
+     * @param lo
+     *            the first index of the range
+     * @param hi
+     *            the last index of the range
+     * @param depthLimit
+     *            number of partitioning levels left before switching to
+     *            heapsort
+     * @param order
+     *            ordering by which to sort
+     * @updates array
+     * @requires 0 <= lo and hi < |array|
+     * @ensures <pre>
+     * perms(array[lo, hi + 1), #array[lo, hi + 1))  and
+     * [array[lo, hi + 1) is a sequence of runs of at most INSERTION_THRESHOLD
+     *  entries, each run holding entries no larger than those of every later
+     *  run]  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static <T> void introsort(T[] array, int lo, int hi,
+            int depthLimit, Comparator<T> order) {
+        int low = lo;
+        int high = hi;
+        int depth = depthLimit;
+        while (high - low + 1 > INSERTION_THRESHOLD) {
+            if (depth == 0) {
+                heapsort(array, low, high, order);
+                low = high;
+            } else {
+                depth--;
+                int p = partition(array, low, high, order);
+                /*
+                 * Recurse on the smaller part and loop on the larger one, so
+                 * the stack depth stays O(log n)
+                 */
+                if (p - low < high - p) {
+                    introsort(array, low, p, depth, order);
+                    low = p + 1;
+                } else {
+                    introsort(array, p + 1, high, depth, order);
+                    high = p;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of partitioning levels introsort allows for a range
+     * of {@code n} entries before switching to heapsort.
+     *
+     * @param n
+     *            the number of entries
+     * @return 2 * floor(log2 n), or 0 if n <= 1
+     */
+    private static int depthLimit(int n) {
+        int depthLimit = 0;
+        for (int m = n; m > 1; m /= 2) {
+            depthLimit += 2;
+        }
+        return depthLimit;
+    }
+
+    /**
+     * Task that sorts {@code array[lo, hi]} exactly as the sequential
+     * {@code introsort} followed by {@code insertionSort} would, forking the
+     * two sides of each partition while the range is longer than the
+     * threshold.
+     *
+     * @param <T>
+     *            type of array entries
+     */
+    private static final class SortTask<T> extends RecursiveAction {
+
+        /**
+         * Serialization version (required by {@code RecursiveAction}).
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The array.
+         */
+        private final T[] array;
+
+        /**
+         * The first index of the range.
+         */
+        private final int lo;
+
+        /**
+         * The last index of the range.
+         */
+        private final int hi;
+
+        /**
+         * Partitioning levels left before switching to heapsort.
+         */
+        private final int depth;
+
+        /**
+         * Ranges at most this long are sorted on the current thread.
+         */
+        private final int threshold;
+
+        /**
+         * Ordering by which to sort.
+         */
+        private final Comparator<T> order;
+
+        /**
+         * Constructor from all fields.
+         *
+         * @param array
+         *            the array
+         * @param lo
+         *            the first index of the range
+         * @param hi
+         *            the last index of the range
+         * @param depth
+         *            partitioning levels left before switching to heapsort
+         * @param threshold
+         *            ranges at most this long are sorted on the current thread
+         * @param order
+         *            ordering by which to sort
+         */
+        private SortTask(T[] array, int lo, int hi, int depth, int threshold,
+                Comparator<T> order) {
+            this.array = array;
+            this.lo = lo;
+            this.hi = hi;
+            this.depth = depth;
+            this.threshold = threshold;
+            this.order = order;
+        }
+
+        @Override
+        protected void compute() {
+            int length = this.hi - this.lo + 1;
+            if (length <= this.threshold || length <= INSERTION_THRESHOLD) {
+                introsort(this.array, this.lo, this.hi, this.depth,
+                        this.order);
+                insertionSort(this.array, this.lo, this.hi, this.order);
+            } else if (this.depth == 0) {
+                heapsort(this.array, this.lo, this.hi, this.order);
+            } else {
+                int p = partition(this.array, this.lo, this.hi, this.order);
+                invokeAll(
+                        new SortTask<T>(this.array, this.lo, p,
+                                this.depth - 1, this.threshold, this.order),
+                        new SortTask<T>(this.array, p + 1, this.hi,
+                                this.depth - 1, this.threshold, this.order));
+            }
+        }
+
+    }
+
+    /**
+     * Sorts {@code array} according to the ordering provided by the
+     * {@code compare} method from {@code order}.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array to be sorted
+     * @param order
+     *            ordering by which to sort
+     * @updates array
+     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * @ensures <pre>
+     * perms(array, #array)  and
+     * IS_SORTED(array, [relation computed by order.compare method])
+     * </pre>
+     */
+    public static <T> void sort(T[] array, Comparator<T> order) {
+        assert array != null : "Violation of: array is not null";
+        assert order != null : "Violation of: order is not null";
+
+        introsort(array, 0, array.length - 1, depthLimit(array.length),
+                order);
+        insertionSort(array, 0, array.length - 1, order);
+    }
+
+    /**
+     * Sorts {@code array} according to the ordering provided by the
+     * {@code compare} method from {@code order}, in {@code pool}. The two sides
+     * of each partition of more than {@code threshold} entries are sorted as
+     * separate tasks. The final order of {@code array}, including the relative
+     * order of equal entries, is the same as {@code sort(array, order)}
+     * produces.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array to be sorted
+     * @param order
+     *            ordering by which to sort
+     * @param pool
+     *            the pool to run the sorting tasks in
+     * @param threshold
+     *            ranges at most this long are sorted by a single task
+     * @updates array
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])  and
+     * 1 <= threshold
+     * </pre>
+     * @ensures <pre>
+     * perms(array, #array)  and
+     * IS_SORTED(array, [relation computed by order.compare method])
+     * </pre>
+     */
+    public static <T> void parallelSort(T[] array, Comparator<T> order,
+            ForkJoinPool pool, int threshold) {
+        assert array != null : "Violation of: array is not null";
+        assert order != null : "Violation of: order is not null";
+        assert pool != null : "Violation of: pool is not null";
+        assert 1 <= threshold : "Violation of: 1 <= threshold";
+
+        if (array.length > 1) {
+            pool.invoke(new SortTask<T>(array, 0, array.length - 1,
+                    depthLimit(array.length), threshold, order));
+        }
+    }
+
+}
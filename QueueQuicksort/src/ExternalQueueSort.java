@@ -0,0 +1,406 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+
+import components.queue.Queue;
+import components.queue.Queue1L;
+import components.simplereader.SimpleReader;
+import components.simplereader.SimpleReader1L;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+import components.sortingmachine.SortingMachine;
+
+/**
+ * Utility class to sort the lines of a file that may not fit in memory
+ * (external merge sort). The input is read in chunks of bounded size; each
+ * chunk is sorted with a {@code RadixSortingMachine} and written to a temporary
+ * "run" file, and the runs are then merged, at most {@code MAX_FAN_IN} at a
+ * time, through a small heap holding the first remaining line of each run.
+ *
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * IS_SORTED (
+ *   s: string of T,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y: T where (<x, y> is substring of s) (r(x, y))
+ * </pre>
+ *
+ * @author Chris Zhao, Ko Lim
+ */
+public final class ExternalQueueSort {
+
+    /**
+     * Estimated bytes of heap used by a line in a chunk besides its
+     * characters: the {@code String} (24) and the header of its backing array
+     * (16), plus up to three 8-byte slots in the array of the
+     * {@code RadixSortingMachine}, which briefly holds both the old and the
+     * new array when it doubles.
+     */
+    private static final long LINE_OVERHEAD = 64;
+
+    /**
+     * Fraction of the maximum heap size given to one chunk (as a divisor).
+     */
+    private static final int HEAP_FRACTION = 8;
+
+    /**
+     * Maximum number of runs merged in one pass.
+     */
+    private static final int MAX_FAN_IN = 128;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private ExternalQueueSort() {
+        // no code needed here
+    }
+
+    /**
+     * Returns a default chunk budget, in estimated bytes, for the heap
+     * available to this JVM.
+     *
+     * @return the default chunk budget
+     * @ensures defaultChunkBytes > 0
+     */
+    public static long defaultChunkBytes() {
+        return Math.max(1, Runtime.getRuntime().maxMemory() / HEAP_FRACTION);
+    }
+
+    /**
+     * Creates a new empty temporary file in directory {@code dir}, to be
+     * deleted when the JVM exits (if not deleted before).
+     *
+     * @param dir
+     *            the directory for the file
+     * @return the name of the file
+     */
+    private static String newRunFile(File dir) {
+        try {
+            File f = File.createTempFile("run", ".txt", dir);
+            f.deleteOnExit();
+            return f.getPath();
+        } catch (IOException e) {
+            throw new UncheckedIOException(
+                    "Cannot create temporary file in " + dir, e);
+        }
+    }
+
+    /**
+     * Removes the entries of {@code sm} in order and writes each on its own
+     * line to the file named {@code fileName}.
+     *
+     * @param sm
+     *            the sorting machine
+     * @param fileName
+     *            the name of the file to write
+     * @updates sm
+     * @requires sm.insertion_mode
+     * @ensures <pre>
+     * sm = (true, #sm.ordering, {})  and
+     * [the file named fileName holds the entries of #sm.contents, one per
+     *  line, sorted according to #sm.ordering]
+     * </pre>
+     */
+    private static void writeRun(SortingMachine<String> sm, String fileName) {
+        sm.changeToExtractionMode();
+        SimpleWriter run = new SimpleWriter1L(fileName);
+        while (sm.size() > 0) {
+            run.println(sm.removeFirst());
+        }
+        run.close();
+        sm.clear();
+    }
+
+    /**
+     * Sorts the lines of {@code in} in chunks of at most {@code chunkBytes}
+     * estimated bytes, and writes each sorted chunk to a new run file in
+     * {@code dir}.
+     *
+     * @param in
+     *            the input stream
+     * @param order
+     *            ordering by which to sort
+     * @param chunkBytes
+     *            the chunk budget, in estimated bytes
+     * @param dir
+     *            the directory for the run files
+     * @return the names of the run files, in the order they were written
+     * @updates in
+     * @requires <pre>
+     * in.is_open  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])  and
+     * chunkBytes > 0
+     * </pre>
+     * @ensures <pre>
+     * in.is_open  and  in.content = <>  and
+     * [each run file holds a sorted substring of #in.content, and the run
+     *  files together hold all of #in.content]
+     * </pre>
+     */
+    private static Queue<String> makeRuns(SimpleReader in,
+            Comparator<String> order, long chunkBytes, File dir) {
+        Queue<String> runs = new Queue1L<String>();
+        SortingMachine<String> sm = new RadixSortingMachine(order);
+        long bytes = 0;
+        while (!in.atEOS()) {
+            String line = in.nextLine();
+            sm.add(line);
+            bytes += LINE_OVERHEAD + 2L * line.length();
+            if (bytes >= chunkBytes) {
+                String run = newRunFile(dir);
+                writeRun(sm, run);
+                runs.enqueue(run);
+                bytes = 0;
+            }
+        }
+        if (sm.size() > 0 || runs.length() == 0) {
+            String run = newRunFile(dir);
+            writeRun(sm, run);
+            runs.enqueue(run);
+        }
+        return runs;
+    }
+
+    /**
+     * Sifts {@code heap[top]} down in the min-heap {@code heap[0, size)} of
+     * run indices, ordered by the head lines of the runs (ties broken by run
+     * index).
+     *
+     * @param heap
+     *            the heap of run indices
+     * @param top
+     *            the heap position to sift down
+     * @param size
+     *            the number of runs in the heap
+     * @param heads
+     *            the head line of each run
+     * @param order
+     *            ordering by which to merge
+     * @updates heap
+     * @requires <pre>
+     * 0 <= top < size <= |heap|  and
+     * [the subtrees of heap position top are heaps]
+     * </pre>
+     * @ensures <pre>
+     * [the subtree of heap position top is a heap]  and
+     * perms(heap, #heap)
+     * </pre>
+     */
+    private static void siftDown(int[] heap, int top, int size,
+            String[] heads, Comparator<String> order) {
+        int root = heap[top];
+        int hole = top;
+        int child = 2 * hole + 1;
+        boolean done = false;
+        while (!done && child < size) {
+            if (child + 1 < size
+                    && precedes(heap[child + 1], heap[child], heads, order)) {
+                child++;
+            }
+            if (precedes(heap[child], root, heads, order)) {
+                heap[hole] = heap[child];
+                hole = child;
+                child = 2 * hole + 1;
+            } else {
+                done = true;
+            }
+        }
+        heap[hole] = root;
+    }
+
+    /**
+     * Reports whether the head of run {@code i} comes strictly before the head
+     * of run {@code j} in the merge.
+     *
+     * @param i
+     *            one run index
+     * @param j
+     *            the other run index
+     * @param heads
+     *            the head line of each run
+     * @param order
+     *            ordering by which to merge
+     * @return true iff heads[i] < heads[j], or they are equal and i < j
+     */
+    private static boolean precedes(int i, int j, String[] heads,
+            Comparator<String> order) {
+        int c = order.compare(heads[i], heads[j]);
+        return c < 0 || (c == 0 && i < j);
+    }
+
+    /**
+     * Merges the sorted files named in {@code runs} into {@code out}.
+     *
+     * @param runs
+     *            the names of the run files
+     * @param order
+     *            ordering by which to merge
+     * @param out
+     *            the output stream
+     * @return the number of lines written
+     * @updates out.content
+     * @requires <pre>
+     * out.is_open  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])  and
+     * [each file named in runs holds lines sorted according to order]
+     * </pre>
+     * @ensures <pre>
+     * out.content = #out.content * [the lines of all the runs, merged and
+     *   sorted according to order, each followed by a line separator]  and
+     * merge = [the total number of lines in the runs]
+     * </pre>
+     */
+    private static long merge(Queue<String> runs, Comparator<String> order,
+            SimpleWriter out) {
+        int k = runs.length();
+        SimpleReader[] readers = new SimpleReader[k];
+        String[] heads = new String[k];
+        int[] heap = new int[k];
+        int size = 0;
+        int i = 0;
+        for (String run : runs) {
+            readers[i] = new SimpleReader1L(run);
+            if (!readers[i].atEOS()) {
+                heads[i] = readers[i].nextLine();
+                heap[size] = i;
+                size++;
+            }
+            i++;
+        }
+        for (int top = size / 2 - 1; top >= 0; top--) {
+            siftDown(heap, top, size, heads, order);
+        }
+        long count = 0;
+        while (size > 0) {
+            int r = heap[0];
+            out.println(heads[r]);
+            count++;
+            if (readers[r].atEOS()) {
+                size--;
+                heap[0] = heap[size];
+            } else {
+                heads[r] = readers[r].nextLine();
+            }
+            if (size > 0) {
+                siftDown(heap, 0, size, heads, order);
+            }
+        }
+        for (SimpleReader reader : readers) {
+            reader.close();
+        }
+        return count;
+    }
+
+    /**
+     * Deletes the files named in {@code runs}.
+     *
+     * @param runs
+     *            the names of the files
+     */
+    private static void deleteRuns(Queue<String> runs) {
+        for (String run : runs) {
+            new File(run).delete();
+        }
+    }
+
+    /**
+     * Sorts the lines of the file named {@code inputFileName} according to
+     * {@code order} and writes them to the file named {@code outputFileName},
+     * keeping at most about {@code chunkBytes} bytes of lines in memory at a
+     * time. Temporary run files are created in the directory of the output
+     * file and deleted before returning.
+     *
+     * @param inputFileName
+     *            the name of the input file
+     * @param outputFileName
+     *            the name of the output file
+     * @param order
+     *            ordering by which to sort
+     * @param chunkBytes
+     *            the chunk budget, in estimated bytes
+     * @return the number of lines sorted
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])  and
+     * chunkBytes > 0  and
+     * inputFileName and outputFileName name different files
+     * </pre>
+     * @ensures <pre>
+     * [the output file holds the lines of the input file, sorted according
+     *  to order]  and
+     * sort = [the number of lines in the input file]
+     * </pre>
+     */
+    public static long sort(String inputFileName, String outputFileName,
+            Comparator<String> order, long chunkBytes) {
+        assert inputFileName != null : ""
+                + "Violation of: inputFileName is not null";
+        assert outputFileName != null : ""
+                + "Violation of: outputFileName is not null";
+        assert order != null : "Violation of: order is not null";
+        assert chunkBytes > 0 : "Violation of: chunkBytes > 0";
+
+        File dir = new File(outputFileName).getAbsoluteFile().getParentFile();
+
+        SimpleReader in = new SimpleReader1L(inputFileName);
+        Queue<String> runs = makeRuns(in, order, chunkBytes, dir);
+        in.close();
+
+        /*
+         * Merge groups of MAX_FAN_IN runs into longer runs until one final
+         * merge can read them all at once
+         */
+        while (runs.length() > MAX_FAN_IN) {
+            Queue<String> group = new Queue1L<String>();
+            for (int i = 0; i < MAX_FAN_IN; i++) {
+                group.enqueue(runs.dequeue());
+            }
+            String run = newRunFile(dir);
+            SimpleWriter out = new SimpleWriter1L(run);
+            merge(group, order, out);
+            out.close();
+            deleteRuns(group);
+            runs.enqueue(run);
+        }
+
+        SimpleWriter out = new SimpleWriter1L(outputFileName);
+        long count = merge(runs, order, out);
+        out.close();
+        deleteRuns(runs);
+        return count;
+    }
+
+    /**
+     * Main method. Sorts the lines of a file in lexicographic order without
+     * holding the whole file in memory.
+     *
+     * @param args
+     *            the command line arguments: the input file name, the output
+     *            file name, and optionally the chunk budget in bytes (by
+     *            default one eighth of the maximum heap size)
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        if (args.length < 2) {
+            out.println("Usage: ExternalQueueSort <input file> <output file>"
+                    + " [chunk bytes]");
+        } else {
+            long chunkBytes = defaultChunkBytes();
+            if (args.length > 2) {
+                chunkBytes = Long.parseLong(args[2]);
+            }
+            long count = sort(args[0], args[1], Comparator.naturalOrder(),
+                    chunkBytes);
+            out.println("Number of lines sorted: " + count);
+        }
+        out.close();
+    }
+
+}
@@ -1,6 +1,5 @@
 import java.util.Comparator;
 
-import components.queue.Queue;
 import components.queue.Queue1L;
 
 /**
@@ -33,85 +32,24 @@ public final class Queue1LSort4<T> extends Queue1L<T> {
         super();
     }
 
-    /**
-     * Partitions {@code q} into two parts: entries no larger than
-     * {@code partitioner} are put in {@code front}, and the rest are put in
-     * {@code back}.
-     *
-     * @param <T>
-     *            type of {@code Queue} entries
-     * @param q
-     *            the {@code Queue} to be partitioned
-     * @param partitioner
-     *            the partitioning value
-     * @param front
-     *            upon return, the entries no larger than {@code partitioner}
-     * @param back
-     *            upon return, the entries larger than {@code partitioner}
-     * @param order
-     *            ordering by which to separate entries
-     * @clears q
-     * @replaces front, back
-     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method])
-     * @ensures <pre>
-     * perms(#q, front * back)  and
-     * for all x: T where (<x> is substring of front)
-     *  ([relation computed by order.compare method](x, partitioner))  and
-     * for all x: T where (<x> is substring of back)
-     *  (not [relation computed by order.compare method](x, partitioner))
-     * </pre>
-     */
-    private static <T> void partition(Queue<T> q, T partitioner, Queue<T> front,
-            Queue<T> back, Comparator<T> order) {
-        assert q != null : "Violation of: q is not null";
-        assert partitioner != null : "Violation of: partitioner is not null";
-        assert front != null : "Violation of: front is not null";
-        assert back != null : "Violation of: back is not null";
-        assert order != null : "Violation of: order is not null";
-
-        while (q.length() > 0) {
-
-            T x = q.dequeue();
-
-            if (order.compare(x, partitioner) > 0) {
-                back.enqueue(x);
-            } else {
-                front.enqueue(x);
-            }
-        }
-
-    }
-
     @Override
     public void sort(Comparator<T> order) {
         assert order != null : "Violation of: order is not null";
         if (this.length() > 1) {
 
             /*
-             * Dequeue the partitioning entry from this
+             * Copy the entries to an array once, sort it in place with
+             * introsort, and rebuild this in one pass
              */
-            T x = this.dequeue();
-
-            /*
-             * Partition this into two queues as discussed above (you will need
-             * to declare and initialize two new queues)
-             */
-            Queue<T> front = this.newInstance();
-            Queue<T> back = this.newInstance();
-
-            /*
-             * Recursively sort the two queues
-             */
-            partition(this, x, front, back, order);
-            front.sort(order);
-            back.sort(order);
-            /*
-             * Reconstruct this by combining the two sorted queues and the
-             * partitioning entry in the proper order
-             */
-            this.append(front);
-            this.enqueue(x);
-            this.append(back);
+            @SuppressWarnings("unchecked")
+            T[] array = (T[]) (new Object[this.length()]);
+            for (int i = 0; i < array.length; i++) {
+                array[i] = this.dequeue();
+            }
+            ArrayIntrosort.sort(array, order);
+            for (int i = 0; i < array.length; i++) {
+                this.enqueue(array[i]);
+            }
 
         }
     }
@@ -1,3 +1,10 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Comparator;
 
 import components.simplereader.SimpleReader;
@@ -8,21 +15,25 @@ import components.sortingmachine.SortingMachine;
 
 /**
  * Program to sort lines from an input file in lexicographic order by using
- * insertion sort on {@code Queue<String>}.
+ * three-way radix quicksort ({@code RadixSortingMachine}, which recognizes
+ * natural {@code String} order). Run with no arguments, it prompts for the
+ * input file and prints the sorted lines; run with an input and an output file
+ * name, it reads and writes the files through large NIO buffers and reports
+ * the time spent reading, sorting and writing.
  *
  * @author Paolo Bucci
  */
 public final class QueueSortMain {
 
     /**
-     * Compare {@code String}s in lexicographic order.
+     * Size of the buffers used to read and write files in batch mode.
      */
-    private static class StringLT implements Comparator<String> {
-        @Override
-        public int compare(String o1, String o2) {
-            return o1.compareTo(o2);
-        }
-    }
+    static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1e6;
 
     /**
      * Private constructor so this utility class cannot be instantiated.
@@ -32,12 +43,190 @@ public final class QueueSortMain {
     }
 
     /**
-     * Main method.
+     * Returns the UTF-8 decoding of {@code bytes[0, length)}, without a
+     * trailing carriage return.
      *
-     * @param args
-     *            the command line arguments; unused here
+     * @param bytes
+     *            the encoded line
+     * @param length
+     *            the number of bytes in the line
+     * @return the line
+     * @requires 0 <= length <= |bytes|
      */
-    public static void main(String[] args) {
+    static String decodeLine(byte[] bytes, int length) {
+        int end = length;
+        if (end > 0 && bytes[end - 1] == '\r') {
+            end--;
+        }
+        return new String(bytes, 0, end, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the lines of the file named {@code fileName} through a
+     * {@code bufferSize}-byte buffer and adds each of them to {@code sm}.
+     * Lines end with "\n" or "\r\n"; a last line without a terminator is
+     * still read.
+     *
+     * @param fileName
+     *            the name of the file to read
+     * @param sm
+     *            the sorting machine
+     * @param bufferSize
+     *            the size of the read buffer in bytes
+     * @return the number of lines read
+     * @throws IOException
+     *             if the file cannot be read
+     * @updates sm
+     * @requires sm.insertion_mode  and  bufferSize > 0
+     * @ensures <pre>
+     * sm.contents = #sm.contents union [the lines of the file]  and
+     * readLines = [the number of lines of the file]
+     * </pre>
+     */
+    static int readLines(String fileName, SortingMachine<String> sm,
+            int bufferSize) throws IOException {
+        assert bufferSize > 0 : "Violation of: bufferSize > 0";
+
+        int count = 0;
+        try (FileChannel in = FileChannel.open(Paths.get(fileName),
+                StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+            byte[] line = new byte[bufferSize];
+            int length = 0;
+            while (in.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '\n') {
+                        sm.add(decodeLine(line, length));
+                        count++;
+                        length = 0;
+                    } else {
+                        if (length == line.length) {
+                            line = Arrays.copyOf(line, 2 * length);
+                        }
+                        line[length] = b;
+                        length++;
+                    }
+                }
+                buffer.clear();
+            }
+            if (length > 0) {
+                sm.add(decodeLine(line, length));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Removes the entries of {@code sm} in order and writes each, followed by
+     * "\n", to the file named {@code fileName} through a
+     * {@code bufferSize}-byte buffer.
+     *
+     * @param sm
+     *            the sorting machine
+     * @param fileName
+     *            the name of the file to write
+     * @param bufferSize
+     *            the size of the write buffer in bytes
+     * @return the number of lines written
+     * @throws IOException
+     *             if the file cannot be written
+     * @updates sm
+     * @requires not sm.insertion_mode  and  bufferSize > 0
+     * @ensures <pre>
+     * sm.contents = {}  and
+     * [the file holds the entries of #sm.contents, one per line, in the
+     *  order they were removed]  and
+     * writeLines = |#sm.contents|
+     * </pre>
+     */
+    static int writeLines(SortingMachine<String> sm, String fileName,
+            int bufferSize) throws IOException {
+        assert bufferSize > 0 : "Violation of: bufferSize > 0";
+
+        int count = 0;
+        try (FileChannel out = FileChannel.open(Paths.get(fileName),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+            while (sm.size() > 0) {
+                byte[] line = sm.removeFirst().getBytes(StandardCharsets.UTF_8);
+                if (buffer.remaining() < line.length + 1) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                if (line.length + 1 > buffer.capacity()) {
+                    /*
+                     * Line longer than the buffer: write it on its own
+                     */
+                    ByteBuffer longLine = ByteBuffer.wrap(
+                            Arrays.copyOf(line, line.length + 1));
+                    longLine.put(line.length, (byte) '\n');
+                    while (longLine.hasRemaining()) {
+                        out.write(longLine);
+                    }
+                } else {
+                    buffer.put(line);
+                    buffer.put((byte) '\n');
+                }
+                count++;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sorts the lines of the file named {@code inputFileName} into the file
+     * named {@code outputFileName}, and reports on {@code out} the number of
+     * lines and the time taken by each of the read, sort and write phases.
+     *
+     * @param inputFileName
+     *            the name of the input file
+     * @param outputFileName
+     *            the name of the output file
+     * @param out
+     *            the output stream for the report
+     * @throws IOException
+     *             if a file cannot be read or written
+     * @updates out.content
+     * @requires out.is_open
+     */
+    private static void sortFile(String inputFileName, String outputFileName,
+            SimpleWriter out) throws IOException {
+        SortingMachine<String> sm = new RadixSortingMachine(
+                Comparator.naturalOrder());
+
+        long start = System.nanoTime();
+        int count = readLines(inputFileName, sm, BUFFER_SIZE);
+        long read = System.nanoTime();
+        sm.changeToExtractionMode();
+        long sorted = System.nanoTime();
+        writeLines(sm, outputFileName, BUFFER_SIZE);
+        long written = System.nanoTime();
+
+        out.println("Number of lines sorted: " + count);
+        out.println(String.format("read  %10.1f ms",
+                (read - start) / NANOS_PER_MILLI));
+        out.println(String.format("sort  %10.1f ms",
+                (sorted - read) / NANOS_PER_MILLI));
+        out.println(String.format("write %10.1f ms",
+                (written - sorted) / NANOS_PER_MILLI));
+    }
+
+    /**
+     * Prompts for an input file name, and prints the lines of that file in
+     * sorted order with the line counts.
+     */
+    private static void sortInteractively() {
         SimpleReader in = new SimpleReader1L();
         SimpleWriter out = new SimpleWriter1L();
 
@@ -52,8 +241,8 @@ public final class QueueSortMain {
          * Get lines from input
          */
         int count = 0;
-        Comparator<String> cs = new StringLT();
-        SortingMachine<String> sm = new SortingMachine4<String>(cs);
+        Comparator<String> cs = Comparator.naturalOrder();
+        SortingMachine<String> sm = new RadixSortingMachine(cs);
 
         while (!file.atEOS()) {
             String str = file.nextLine();
@@ -94,4 +283,25 @@ public final class QueueSortMain {
         out.close();
     }
 
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments: none to run interactively, or the
+     *            input and output file names to sort one file into another
+     */
+    public static void main(String[] args) {
+        if (args.length >= 2) {
+            SimpleWriter out = new SimpleWriter1L();
+            try {
+                sortFile(args[0], args[1], out);
+            } catch (IOException e) {
+                out.println("Error: " + e.getMessage());
+            }
+            out.close();
+        } else {
+            sortInteractively();
+        }
+    }
+
 }
@@ -0,0 +1,478 @@
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine<String>} represented as a growable array, with
+ * implementations of primary methods. If the machine order is
+ * {@code Comparator.naturalOrder()}, {@code changeToExtractionMode} sorts the
+ * entries with three-way radix quicksort, which examines each character of a
+ * common prefix once per partitioning step instead of once per comparison;
+ * for any other order it falls back to {@code ArrayIntrosort}.
+ *
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * IS_SORTED (
+ *   s: string of T,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y: T where (<x, y> is substring of s) (r(x, y))
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method])  and
+ * 0 <= $this.first <= $this.last <= |$this.entries|  and
+ * for all i: integer
+ *     where ($this.first <= i  and  i < $this.last)
+ *   ([entry at position i in $this.entries is not null])  and
+ * if $this.insertionMode then
+ *   $this.first = 0
+ * else
+ *   IS_SORTED($this.entries[$this.first, $this.last),
+ *     [relation computed by $this.machineOrder.compare method])
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.entries[$this.first, $this.last)))
+ * </pre>
+ */
+public class RadixSortingMachine extends SortingMachineSecondary<String> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Order.
+     */
+    private Comparator<String> machineOrder;
+
+    /**
+     * Initial length of the entries array.
+     */
+    private static final int INITIAL_LENGTH = 16;
+
+    /**
+     * Ranges at most this long are sorted by insertion sort.
+     */
+    private static final int INSERTION_THRESHOLD = 16;
+
+    /**
+     * Entries, in positions [first, last).
+     */
+    private String[] entries;
+
+    /**
+     * Index of the first live entry.
+     */
+    private int first;
+
+    /**
+     * One past the index of the last live entry.
+     */
+    private int last;
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    private void createNewRep(Comparator<String> order) {
+        this.insertionMode = true;
+        this.machineOrder = order;
+        this.entries = new String[INITIAL_LENGTH];
+        this.first = 0;
+        this.last = 0;
+    }
+
+    /**
+     * Returns the character at position {@code d} of {@code s}, or -1 if
+     * {@code s} has no such position.
+     *
+     * @param s
+     *            the {@code String}
+     * @param d
+     *            the position
+     * @return the character at position d, or -1 if d >= |s|
+     * @requires 0 <= d
+     */
+    private static int charAt(String s, int d) {
+        int c = -1;
+        if (d < s.length()) {
+            c = s.charAt(d);
+        }
+        return c;
+    }
+
+    /**
+     * Exchanges entries at indices {@code i} and {@code j} of {@code array}.
+     *
+     * @param array
+     *            the array whose entries are to be exchanged
+     * @param i
+     *            one index
+     * @param j
+     *            the other index
+     * @updates array
+     * @requires 0 <= i < |array| and 0 <= j < |array|
+     * @ensures array = [#array with entries at indices i and j exchanged]
+     */
+    private static void exchangeEntries(String[] array, int i, int j) {
+        String tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    /**
+     * Reports whether {@code v} comes strictly before {@code w} in natural
+     * order, given that they have the same first {@code d} characters.
+     *
+     * @param v
+     *            one {@code String}
+     * @param w
+     *            the other {@code String}
+     * @param d
+     *            the length of their common prefix
+     * @return true iff v.compareTo(w) < 0
+     * @requires <pre>
+     * 0 <= d <= min(|v|, |w|)  and  v[0, d) = w[0, d)
+     * </pre>
+     */
+    private static boolean lessFrom(String v, String w, int d) {
+        int n = Math.min(v.length(), w.length());
+        int i = d;
+        while (i < n && v.charAt(i) == w.charAt(i)) {
+            i++;
+        }
+        boolean less;
+        if (i < n) {
+            less = v.charAt(i) < w.charAt(i);
+        } else {
+            less = v.length() < w.length();
+        }
+        return less;
+    }
+
+    /**
+     * Sorts {@code array[lo, hi]} in natural order with insertion sort,
+     * skipping the first {@code d} characters, which all of its entries share.
+     *
+     * @param array
+     *            the array
+     * @param lo
+     *            the first index of the range
+     * @param hi
+     *            the last index of the range
+     * @param d
+     *            the length of the common prefix of the range
+     * @updates array
+     * @requires <pre>
+     * 0 <= lo  and  hi < |array|  and
+     * [all entries of array[lo, hi + 1) have the same first d characters]
+     * </pre>
+     * @ensures <pre>
+     * perms(array[lo, hi + 1), #array[lo, hi + 1))  and
+     * IS_SORTED(array[lo, hi + 1), [natural order])  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static void insertionSort(String[] array, int lo, int hi, int d) {
+        for (int i = lo + 1; i <= hi; i++) {
+            String x = array[i];
+            int j = i - 1;
+            while (j >= lo && lessFrom(x, array[j], d)) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = x;
+        }
+    }
+
+    /**
+     * Sorts {@code array[lo, hi]} in natural order with three-way radix
+     * quicksort, skipping the first {@code d} characters, which all of its
+     * entries share. The entries are partitioned into those whose character
+     * at position {@code d} is less than, equal to, or greater than that of a
+     * median-of-three pivot; the equal part is then sorted from position
+     * {@code d + 1}. The largest part is handled by the loop and the other two
+     * by recursion, so the stack depth stays O(log n) even for long common
+     * prefixes.
+     *
+     * @param array
+     *            the array
+     * @param lo
+     *            the first index of the range
+     * @param hi
+     *            the last index of the range
+     * @param d
+     *            the length of the common prefix of the range
+     * @updates array
+     * @requires <pre>
+     * 0 <= lo  and  hi < |array|  and
+     * [all entries of array[lo, hi + 1) have the same first d characters]
+     * </pre>
+     * @ensures <pre>
+     * perms(array[lo, hi + 1), #array[lo, hi + 1))  and
+     * IS_SORTED(array[lo, hi + 1), [natural order])  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static void radixQuicksort(String[] array, int lo, int hi,
+            int d) {
+        int low = lo;
+        int high = hi;
+        int depth = d;
+        while (high - low + 1 > INSERTION_THRESHOLD) {
+            /*
+             * Move the entry with the median of the first, middle and last
+             * characters at position depth to the front, as the pivot
+             */
+            int mid = low + (high - low) / 2;
+            int a = charAt(array[low], depth);
+            int b = charAt(array[mid], depth);
+            int c = charAt(array[high], depth);
+            if ((a < b) == (b < c)) {
+                exchangeEntries(array, low, mid);
+            } else if ((a < c) == (c < b)) {
+                exchangeEntries(array, low, high);
+            }
+            int v = charAt(array[low], depth);
+
+            /*
+             * Three-way partition: [low, lt) < v, [lt, gt] = v, (gt, high] > v
+             */
+            int lt = low;
+            int gt = high;
+            int i = low + 1;
+            while (i <= gt) {
+                int t = charAt(array[i], depth);
+                if (t < v) {
+                    exchangeEntries(array, lt, i);
+                    lt++;
+                    i++;
+                } else if (t > v) {
+                    exchangeEntries(array, i, gt);
+                    gt--;
+                } else {
+                    i++;
+                }
+            }
+
+            /*
+             * If v = -1 the equal part holds copies of the same string and is
+             * already sorted
+             */
+            int sizeLo = lt - low;
+            int sizeHi = high - gt;
+            int sizeEq = 0;
+            if (v >= 0) {
+                sizeEq = gt - lt + 1;
+            }
+            if (v >= 0 && sizeEq >= sizeLo && sizeEq >= sizeHi) {
+                radixQuicksort(array, low, lt - 1, depth);
+                radixQuicksort(array, gt + 1, high, depth);
+                low = lt;
+                high = gt;
+                depth++;
+            } else if (sizeLo >= sizeHi) {
+                if (v >= 0) {
+                    radixQuicksort(array, lt, gt, depth + 1);
+                }
+                radixQuicksort(array, gt + 1, high, depth);
+                high = lt - 1;
+            } else {
+                radixQuicksort(array, low, lt - 1, depth);
+                if (v >= 0) {
+                    radixQuicksort(array, lt, gt, depth + 1);
+                }
+                low = gt + 1;
+            }
+        }
+        insertionSort(array, low, high, depth);
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    public RadixSortingMachine(Comparator<String> order) {
+        this.createNewRep(order);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<String> newInstance() {
+        try {
+            Constructor<?> c = this.getClass().getConstructor(Comparator.class);
+            return (SortingMachine<String>) c.newInstance(this.machineOrder);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder);
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<String> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof RadixSortingMachine : ""
+                + "Violation of: source is of dynamic type RadixSortingMachine";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        RadixSortingMachine localSource = (RadixSortingMachine) source;
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.entries = localSource.entries;
+        this.first = localSource.first;
+        this.last = localSource.last;
+        localSource.createNewRep(localSource.machineOrder);
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(String x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        if (this.last == this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries, 2 * this.last);
+        }
+        this.entries[this.last] = x;
+        this.last++;
+
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        this.insertionMode = false;
+        if (this.machineOrder == Comparator.<String>naturalOrder()) {
+            radixQuicksort(this.entries, 0, this.last - 1, 0);
+        } else {
+            this.entries = Arrays.copyOf(this.entries, this.last);
+            ArrayIntrosort.sort(this.entries, this.machineOrder);
+        }
+
+    }
+
+    @Override
+    public final String removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        String result = this.entries[this.first];
+        this.entries[this.first] = null;
+        this.first++;
+        return result;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<String> order() {
+
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+
+        return this.last - this.first;
+    }
+
+    @Override
+    public final Iterator<String> iterator() {
+        return new RadixSortingMachineIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code RadixSortingMachine}.
+     */
+    private final class RadixSortingMachineIterator
+            implements Iterator<String> {
+
+        /**
+         * Index of the next entry to return.
+         */
+        private int currentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private RadixSortingMachineIterator() {
+            this.currentIndex = RadixSortingMachine.this.first;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.currentIndex < RadixSortingMachine.this.last;
+        }
+
+        @Override
+        public String next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            String next = RadixSortingMachine.this.entries[this.currentIndex];
+            this.currentIndex++;
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,176 @@
+import java.lang.reflect.Constructor;
+import java.util.Comparator;
+import java.util.Random;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+import components.sortingmachine.SortingMachine;
+
+/**
+ * Program to compare {@code RadixSortingMachine} with {@code SortingMachine4}
+ * and, if it is on the class path, {@code SortingMachine5a} (from the
+ * SortingMachineWithHeapsort project), on random strings in natural order.
+ * Each machine is timed over a full cycle of adds, changeToExtractionMode and
+ * removeFirst until empty. Two inputs are used: short random words, and
+ * path-like strings with long shared prefixes, where comparison sorts repeat
+ * the most work. Run it without {@code -ea}.
+ *
+ * @author Chris Zhao, Ko Lim
+ */
+public final class RadixSortingMachineBenchmark {
+
+    /**
+     * Numbers of entries to sort.
+     */
+    private static final int[] SIZES = { 1_000_000, 5_000_000 };
+
+    /**
+     * Timed repetitions per (machine, input); the best one is reported.
+     */
+    private static final int REPETITIONS = 3;
+
+    /**
+     * Seed for the pseudo-random strings, so every run sees the same input.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private RadixSortingMachineBenchmark() {
+        // no code needed here
+    }
+
+    /**
+     * Returns a random lowercase word of 4 to 16 characters.
+     *
+     * @param rnd
+     *            the source of randomness
+     * @return the word
+     */
+    private static String randomWord(Random rnd) {
+        final int minLength = 4;
+        final int extraLength = 13;
+        int length = minLength + rnd.nextInt(extraLength);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + rnd.nextInt('z' - 'a' + 1)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns a random path-like string, such as
+     * "/home/user/projects/src/main/java/...", whose leading directories come
+     * from a small set so many strings share long prefixes.
+     *
+     * @param rnd
+     *            the source of randomness
+     * @return the path
+     */
+    private static String randomPath(Random rnd) {
+        final String[] dirs = { "home", "user", "projects", "src", "main",
+            "java", "components", "sortingmachine" };
+        final int depth = 6;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            sb.append('/').append(dirs[rnd.nextInt(2) + i]);
+        }
+        sb.append('/').append(randomWord(rnd));
+        return sb.toString();
+    }
+
+    /**
+     * Returns a new {@code SortingMachine<String>} of the class named
+     * {@code className}, with natural order, or null if that class is not on
+     * the class path.
+     *
+     * @param className
+     *            the name of the {@code SortingMachine} class
+     * @return the new machine, or null
+     */
+    @SuppressWarnings("unchecked")
+    private static SortingMachine<String> newMachine(String className) {
+        SortingMachine<String> sm = null;
+        try {
+            Constructor<?> c = Class.forName(className)
+                    .getConstructor(Comparator.class);
+            sm = (SortingMachine<String>) c
+                    .newInstance(Comparator.<String>naturalOrder());
+        } catch (ReflectiveOperationException e) {
+            sm = null;
+        }
+        return sm;
+    }
+
+    /**
+     * Sorts {@code keys} with {@code sm}: adds them all, switches to
+     * extraction mode and removes them all.
+     *
+     * @param sm
+     *            the empty sorting machine, in insertion mode
+     * @param keys
+     *            the entries
+     * @return elapsed time in nanoseconds
+     */
+    private static long timeCycle(SortingMachine<String> sm, String[] keys) {
+        long start = System.nanoTime();
+        for (String k : keys) {
+            sm.add(k);
+        }
+        sm.changeToExtractionMode();
+        while (sm.size() > 0) {
+            sm.removeFirst();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; unused here
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        final String[] machines = { "RadixSortingMachine", "SortingMachine4",
+            "SortingMachine5a" };
+        final String[] inputs = { "words", "paths" };
+
+        Random rnd = new Random(SEED);
+        for (int size : SIZES) {
+            for (String input : inputs) {
+                String[] keys = new String[size];
+                for (int i = 0; i < size; i++) {
+                    if (input.equals("words")) {
+                        keys[i] = randomWord(rnd);
+                    } else {
+                        keys[i] = randomPath(rnd);
+                    }
+                }
+                for (String machine : machines) {
+                    if (newMachine(machine) == null) {
+                        out.println(machine + " is not on the class path");
+                    } else {
+                        long best = Long.MAX_VALUE;
+                        for (int r = 0; r < REPETITIONS; r++) {
+                            best = Math.min(best,
+                                    timeCycle(newMachine(machine), keys));
+                        }
+                        out.println(String.format("size %d, %s, %s: %.3f s",
+                                size, input, machine,
+                                best / NANOS_PER_SECOND));
+                    }
+                }
+            }
+        }
+
+        out.close();
+    }
+
+}
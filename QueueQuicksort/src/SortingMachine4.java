@@ -1,6 +1,7 @@
 import java.lang.reflect.Constructor;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
 
 import components.queue.Queue;
 import components.queue.Queue1L;
@@ -9,7 +10,11 @@ import components.sortingmachine.SortingMachineSecondary;
 
 /**
  * {@code SortingMachine} represented as a {@code Queue} (using an embedding of
- * quicksort), with implementations of primary methods.
+ * quicksort, as an array-based introsort), with implementations of primary
+ * methods. If constructed with a {@code ForkJoinPool}, the sort in
+ * {@code changeToExtractionMode} runs in that pool, forking the two sides of
+ * every partition longer than a given threshold; the entries come out in
+ * exactly the same order as with the sequential sort.
  *
  * @param <T>
  *            type of {@code SortingMachine} entries
@@ -59,53 +64,14 @@ public class SortingMachine4<T> extends SortingMachineSecondary<T> {
     private Queue<T> entries;
 
     /**
-     * Partitions {@code q} into two parts: entries no larger than
-     * {@code partitioner} are put in {@code front}, and the rest are put in
-     * {@code back}.
-     *
-     * @param <T>
-     *            type of {@code Queue} entries
-     * @param q
-     *            the {@code Queue} to be partitioned
-     * @param partitioner
-     *            the partitioning value
-     * @param front
-     *            upon return, the entries no larger than {@code partitioner}
-     * @param back
-     *            upon return, the entries larger than {@code partitioner}
-     * @param order
-     *            ordering by which to separate entries
-     * @clears q
-     * @replaces front, back
-     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method])
-     * @ensures <pre>
-     * perms(#q, front * back)  and
-     * for all x: T where (<x> is substring of front)
-     *  ([relation computed by order.compare method](x, partitioner))  and
-     * for all x: T where (<x> is substring of back)
-     *  (not [relation computed by order.compare method](x, partitioner))
-     * </pre>
+     * Pool in which to sort, or null to sort on the calling thread.
      */
-    private static <T> void partition(Queue<T> q, T partitioner, Queue<T> front,
-            Queue<T> back, Comparator<T> order) {
-        assert q != null : "Violation of: q is not null";
-        assert partitioner != null : "Violation of: partitioner is not null";
-        assert front != null : "Violation of: front is not null";
-        assert back != null : "Violation of: back is not null";
-        assert order != null : "Violation of: order is not null";
-
-        while (q.length() > 0) {
-
-            T x = q.dequeue();
-
-            if (order.compare(x, partitioner) > 0) {
-                back.enqueue(x);
-            } else {
-                front.enqueue(x);
-            }
-        }
+    private final ForkJoinPool pool;
 
-    }
+    /**
+     * Partitions at most this long are sorted by a single task.
+     */
+    private final int parallelThreshold;
 
     /**
      * Sorts {@code q} according to the ordering provided by the {@code compare}
@@ -117,40 +83,40 @@ public class SortingMachine4<T> extends SortingMachineSecondary<T> {
      *            the {@code Queue} to be sorted
      * @param order
      *            ordering by which to sort
+     * @param pool
+     *            pool in which to sort, or null to sort on the calling thread
+     * @param threshold
+     *            partitions at most this long are sorted by a single task
      * @updates q
-     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])  and
+     * 1 <= threshold
+     * </pre>
      * @ensures IS_SORTED(q, [relation computed by order.compare method])
      */
-    private static <T> void sort(Queue<T> q, Comparator<T> order) {
+    private static <T> void sort(Queue<T> q, Comparator<T> order,
+            ForkJoinPool pool, int threshold) {
         assert order != null : "Violation of: order is not null";
 
         if (q.length() > 1) {
 
             /*
-             * Dequeue the partitioning entry from this
-             */
-            T x = q.dequeue();
-
-            /*
-             * Partition this into two queues as discussed above (you will need
-             * to declare and initialize two new queues)
+             * Copy the entries to an array once, sort it in place with
+             * introsort, and rebuild q in one pass
              */
-            Queue<T> front = q.newInstance();
-            Queue<T> back = q.newInstance();
-
-            /*
-             * Recursively sort the two queues
-             */
-            partition(q, x, front, back, order);
-            front.sort(order);
-            back.sort(order);
-            /*
-             * Reconstruct this by combining the two sorted queues and the
-             * partitioning entry in the proper order
-             */
-            q.append(front);
-            q.enqueue(x);
-            q.append(back);
+            @SuppressWarnings("unchecked")
+            T[] array = (T[]) (new Object[q.length()]);
+            for (int i = 0; i < array.length; i++) {
+                array[i] = q.dequeue();
+            }
+            if (pool == null) {
+                ArrayIntrosort.sort(array, order);
+            } else {
+                ArrayIntrosort.parallelSort(array, order, pool, threshold);
+            }
+            for (int i = 0; i < array.length; i++) {
+                q.enqueue(array[i]);
+            }
         }
 
     }
@@ -178,6 +144,31 @@ public class SortingMachine4<T> extends SortingMachineSecondary<T> {
      *            total preorder for sorting
      */
     public SortingMachine4(Comparator<T> order) {
+        this.pool = null;
+        this.parallelThreshold = 1;
+        this.createNewRep(order);
+    }
+
+    /**
+     * Constructor from order, pool and threshold; {@code changeToExtractionMode}
+     * sorts in {@code pool}, and partitions of at most {@code threshold}
+     * entries are sorted by a single task.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param pool
+     *            pool in which to sort
+     * @param threshold
+     *            partitions at most this long are sorted by a single task
+     * @requires 1 <= threshold
+     */
+    public SortingMachine4(Comparator<T> order, ForkJoinPool pool,
+            int threshold) {
+        assert pool != null : "Violation of: pool is not null";
+        assert 1 <= threshold : "Violation of: 1 <= threshold";
+
+        this.pool = pool;
+        this.parallelThreshold = threshold;
         this.createNewRep(order);
     }
 
@@ -189,8 +180,15 @@ public class SortingMachine4<T> extends SortingMachineSecondary<T> {
     @Override
     public final SortingMachine<T> newInstance() {
         try {
-            Constructor<?> c = this.getClass().getConstructor(Comparator.class);
-            return (SortingMachine<T>) c.newInstance(this.machineOrder);
+            if (this.pool == null) {
+                Constructor<?> c = this.getClass()
+                        .getConstructor(Comparator.class);
+                return (SortingMachine<T>) c.newInstance(this.machineOrder);
+            }
+            Constructor<?> c = this.getClass().getConstructor(Comparator.class,
+                    ForkJoinPool.class, int.class);
+            return (SortingMachine<T>) c.newInstance(this.machineOrder,
+                    this.pool, this.parallelThreshold);
         } catch (ReflectiveOperationException e) {
             throw new AssertionError(
                     "Cannot construct object of type " + this.getClass());
@@ -239,7 +237,8 @@ public class SortingMachine4<T> extends SortingMachineSecondary<T> {
         assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
 
         this.insertionMode = false;
-        sort(this.entries, this.machineOrder);
+        sort(this.entries, this.machineOrder, this.pool,
+                this.parallelThreshold);
 
     }
 
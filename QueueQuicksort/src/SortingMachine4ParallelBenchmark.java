@@ -0,0 +1,127 @@
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+import components.sortingmachine.SortingMachine;
+
+/**
+ * Program to compare the time {@code SortingMachine4} spends in
+ * {@code changeToExtractionMode} when sorting on the calling thread and when
+ * sorting in the common {@code ForkJoinPool}, on 1M and 10M random strings.
+ *
+ * @author Chris Zhao, Ko Lim
+ */
+public final class SortingMachine4ParallelBenchmark {
+
+    /**
+     * Numbers of entries to sort.
+     */
+    private static final int[] SIZES = { 1_000_000, 10_000_000 };
+
+    /**
+     * Partitions at most this long are sorted by a single task.
+     */
+    private static final int THRESHOLD = 8192;
+
+    /**
+     * Length of each random string.
+     */
+    private static final int STRING_LENGTH = 12;
+
+    /**
+     * Timed repetitions per (mode, size); the best one is reported.
+     */
+    private static final int REPETITIONS = 3;
+
+    /**
+     * Seed for the pseudo-random strings, so every run sees the same input.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private SortingMachine4ParallelBenchmark() {
+        // no code needed here
+    }
+
+    /**
+     * Returns a random lowercase string of length {@code STRING_LENGTH}.
+     *
+     * @param rnd
+     *            the source of randomness
+     * @return the string
+     */
+    private static String randomString(Random rnd) {
+        StringBuilder sb = new StringBuilder(STRING_LENGTH);
+        for (int i = 0; i < STRING_LENGTH; i++) {
+            sb.append((char) ('a' + rnd.nextInt('z' - 'a' + 1)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Adds {@code keys} to {@code sm} and times its switch to extraction mode.
+     *
+     * @param sm
+     *            the empty sorting machine, in insertion mode
+     * @param keys
+     *            the entries
+     * @return elapsed time in nanoseconds for changeToExtractionMode
+     */
+    private static long timeSort(SortingMachine<String> sm, String[] keys) {
+        for (String k : keys) {
+            sm.add(k);
+        }
+        long start = System.nanoTime();
+        sm.changeToExtractionMode();
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; unused here
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        Comparator<String> order = Comparator.naturalOrder();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        out.println("parallelism " + pool.getParallelism() + ", threshold "
+                + THRESHOLD);
+        Random rnd = new Random(SEED);
+        for (int size : SIZES) {
+            String[] keys = new String[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = randomString(rnd);
+            }
+            long sequential = Long.MAX_VALUE;
+            long parallel = Long.MAX_VALUE;
+            for (int r = 0; r < REPETITIONS; r++) {
+                sequential = Math.min(sequential,
+                        timeSort(new SortingMachine4<String>(order), keys));
+                parallel = Math.min(parallel, timeSort(
+                        new SortingMachine4<String>(order, pool, THRESHOLD),
+                        keys));
+            }
+            out.println("size " + size + ": "
+                    + String.format(
+                            "sequential %.3f s, parallel %.3f s, speedup %.2f",
+                            sequential / NANOS_PER_SECOND,
+                            parallel / NANOS_PER_SECOND,
+                            (double) sequential / parallel));
+        }
+
+        out.close();
+    }
+
+}
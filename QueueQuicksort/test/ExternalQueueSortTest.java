@@ -0,0 +1,221 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.simplereader.SimpleReader;
+import components.simplereader.SimpleReader1L;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * JUnit test fixture for {@code ExternalQueueSort}.
+ */
+public final class ExternalQueueSortTest {
+
+    /**
+     * Lexicographic order.
+     */
+    private static final Comparator<String> ORDER = Comparator
+            .naturalOrder();
+
+    /**
+     * System property that enables the 2 GB test.
+     */
+    private static final String LARGE_PROPERTY = "externalSort.large";
+
+    /**
+     * Size of the generated input in the 2 GB test.
+     */
+    private static final long LARGE_BYTES = 2L << 30;
+
+    /**
+     * Maximum heap size of the JVM that sorts the 2 GB input.
+     */
+    private static final String LARGE_XMX = "-Xmx256m";
+
+    /**
+     * Creates a new temporary file, to be deleted when the JVM exits.
+     *
+     * @return the file
+     * @throws IOException
+     *             if the file cannot be created
+     */
+    private static File tempFile() throws IOException {
+        File f = File.createTempFile("ExternalQueueSortTest", ".txt");
+        f.deleteOnExit();
+        return f;
+    }
+
+    /**
+     * Writes {@code lines} to {@code file}, one per line.
+     *
+     * @param file
+     *            the file
+     * @param lines
+     *            the lines
+     */
+    private static void writeLines(File file, String[] lines) {
+        SimpleWriter out = new SimpleWriter1L(file.getPath());
+        for (String line : lines) {
+            out.println(line);
+        }
+        out.close();
+    }
+
+    /**
+     * Sorts {@code lines} through {@code ExternalQueueSort} with the given
+     * chunk budget and checks the output file against {@code Arrays.sort}.
+     *
+     * @param lines
+     *            the input lines
+     * @param chunkBytes
+     *            the chunk budget
+     * @throws IOException
+     *             if a temporary file cannot be created
+     */
+    private static void checkSort(String[] lines, long chunkBytes)
+            throws IOException {
+        File input = tempFile();
+        File output = tempFile();
+        writeLines(input, lines);
+        long count = ExternalQueueSort.sort(input.getPath(), output.getPath(),
+                ORDER, chunkBytes);
+        assertEquals(lines.length, count);
+
+        String[] expected = lines.clone();
+        Arrays.sort(expected, ORDER);
+        SimpleReader in = new SimpleReader1L(output.getPath());
+        for (String e : expected) {
+            assertTrue(!in.atEOS());
+            assertEquals(e, in.nextLine());
+        }
+        assertTrue(in.atEOS());
+        in.close();
+        input.delete();
+        output.delete();
+    }
+
+    /**
+     * Returns {@code n} pseudo-random lines of up to 20 characters, some of
+     * them empty and many of them repeated.
+     *
+     * @param n
+     *            the number of lines
+     * @return the lines
+     */
+    private static String[] randomLines(int n) {
+        final long seed = 42L;
+        final int maxLength = 20;
+        final int distinct = n / 2 + 1;
+        Random rnd = new Random(seed);
+        String[] lines = new String[n];
+        for (int i = 0; i < n; i++) {
+            Random lineRnd = new Random(rnd.nextInt(distinct));
+            int length = lineRnd.nextInt(maxLength + 1);
+            StringBuilder sb = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) ('a' + lineRnd.nextInt('z' - 'a' + 1)));
+            }
+            lines[i] = sb.toString();
+        }
+        return lines;
+    }
+
+    @Test
+    public final void testEmptyFile() throws IOException {
+        checkSort(new String[0], ExternalQueueSort.defaultChunkBytes());
+    }
+
+    @Test
+    public final void testOneLine() throws IOException {
+        checkSort(new String[] { "red" }, ExternalQueueSort.defaultChunkBytes());
+    }
+
+    @Test
+    public final void testSingleChunk() throws IOException {
+        checkSort(randomLines(1000), ExternalQueueSort.defaultChunkBytes());
+    }
+
+    @Test
+    public final void testSeveralRuns() throws IOException {
+        final long chunkBytes = 10_000;
+        checkSort(randomLines(10_000), chunkBytes);
+    }
+
+    @Test
+    public final void testOneLinePerRunNeedsSeveralMergePasses()
+            throws IOException {
+        /*
+         * A budget of 1 byte puts every line in its own run, so there are
+         * more runs than a single merge pass takes
+         */
+        checkSort(randomLines(20_000), 1);
+    }
+
+    /*
+     * Sorts a generated 2 GB file in a child JVM limited to a 256 MB heap,
+     * then checks that the output is sorted and holds the same lines (by
+     * count and an order-independent checksum). It needs about 6 GB of free
+     * disk space and several minutes, so it only runs when the system property
+     * externalSort.large is true.
+     */
+
+    @Test
+    public final void testSortTwoGigabytesIn256MegabyteHeap()
+            throws IOException, InterruptedException {
+        assumeTrue(Boolean.getBoolean(LARGE_PROPERTY));
+        File input = tempFile();
+        File output = tempFile();
+
+        final long seed = 42L;
+        final int length = 31;
+        Random rnd = new Random(seed);
+        long lines = 0;
+        long checksum = 0;
+        SimpleWriter out = new SimpleWriter1L(input.getPath());
+        char[] chars = new char[length];
+        for (long bytes = 0; bytes < LARGE_BYTES; bytes += length + 1) {
+            for (int j = 0; j < length; j++) {
+                chars[j] = (char) ('a' + rnd.nextInt('z' - 'a' + 1));
+            }
+            String line = new String(chars);
+            out.println(line);
+            lines++;
+            checksum += line.hashCode();
+        }
+        out.close();
+
+        String java = System.getProperty("java.home") + File.separator + "bin"
+                + File.separator + "java";
+        Process p = new ProcessBuilder(java, LARGE_XMX, "-cp",
+                System.getProperty("java.class.path"), "ExternalQueueSort",
+                input.getPath(), output.getPath()).inheritIO().start();
+        assertEquals(0, p.waitFor());
+        input.delete();
+
+        long outLines = 0;
+        long outChecksum = 0;
+        String previous = "";
+        SimpleReader in = new SimpleReader1L(output.getPath());
+        while (!in.atEOS()) {
+            String line = in.nextLine();
+            assertTrue(ORDER.compare(previous, line) <= 0);
+            previous = line;
+            outLines++;
+            outChecksum += line.hashCode();
+        }
+        in.close();
+        output.delete();
+        assertEquals(lines, outLines);
+        assertEquals(checksum, outChecksum);
+    }
+
+}
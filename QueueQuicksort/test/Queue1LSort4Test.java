@@ -0,0 +1,128 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.queue.Queue;
+
+/**
+ * JUnit test fixture for {@code Queue1LSort4}'s {@code sort} method.
+ */
+public final class Queue1LSort4Test {
+
+    /**
+     * Size of the large inputs.
+     */
+    private static final int LARGE_SIZE = 1_000_000;
+
+    /**
+     * Compare {@code Integer}s in increasing order.
+     */
+    private static final Comparator<Integer> ORDER = Integer::compare;
+
+    /**
+     * Checks that {@code q} has {@code expectedLength} entries in
+     * non-decreasing order and that their sum is {@code expectedSum}.
+     *
+     * @param q
+     *            the queue to check
+     * @param expectedLength
+     *            the expected length
+     * @param expectedSum
+     *            the expected sum of the entries
+     */
+    private static void assertSorted(Queue<Integer> q, int expectedLength,
+            long expectedSum) {
+        assertEquals(expectedLength, q.length());
+        long sum = 0;
+        Integer previous = null;
+        for (Integer x : q) {
+            if (previous != null) {
+                assertTrue(previous <= x);
+            }
+            sum += x;
+            previous = x;
+        }
+        assertEquals(expectedSum, sum);
+    }
+
+    @Test
+    public final void testSortEmpty() {
+        Queue<Integer> q = new Queue1LSort4<>();
+        q.sort(ORDER);
+        assertEquals(0, q.length());
+    }
+
+    @Test
+    public final void testSortOne() {
+        Queue<Integer> q = new Queue1LSort4<>();
+        q.enqueue(7);
+        q.sort(ORDER);
+        assertSorted(q, 1, 7);
+    }
+
+    @Test
+    public final void testSortSmallWithDuplicates() {
+        Queue<Integer> q = new Queue1LSort4<>();
+        int[] values = { 5, 3, 9, 3, 1, 5, 0, 9, 2 };
+        long sum = 0;
+        for (int v : values) {
+            q.enqueue(v);
+            sum += v;
+        }
+        q.sort(ORDER);
+        assertSorted(q, values.length, sum);
+    }
+
+    @Test
+    public final void testSortLargeShuffled() {
+        Queue<Integer> q = new Queue1LSort4<>();
+        final int multiplier = 7919;
+        long sum = 0;
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            int x = (int) (((long) i * multiplier) % LARGE_SIZE);
+            q.enqueue(x);
+            sum += x;
+        }
+        q.sort(ORDER);
+        assertSorted(q, LARGE_SIZE, sum);
+    }
+
+    @Test
+    public final void testSortLargeSorted() {
+        Queue<Integer> q = new Queue1LSort4<>();
+        long sum = 0;
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            q.enqueue(i);
+            sum += i;
+        }
+        q.sort(ORDER);
+        assertSorted(q, LARGE_SIZE, sum);
+    }
+
+    @Test
+    public final void testSortLargeReverseSorted() {
+        Queue<Integer> q = new Queue1LSort4<>();
+        long sum = 0;
+        for (int i = LARGE_SIZE - 1; i >= 0; i--) {
+            q.enqueue(i);
+            sum += i;
+        }
+        q.sort(ORDER);
+        assertSorted(q, LARGE_SIZE, sum);
+    }
+
+    @Test
+    public final void testSortLargeAllEqual() {
+        Queue<Integer> q = new Queue1LSort4<>();
+        Integer x = 42;
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            q.enqueue(x);
+        }
+        q.sort(ORDER);
+        assertSorted(q, LARGE_SIZE, 42L * LARGE_SIZE);
+    }
+
+}
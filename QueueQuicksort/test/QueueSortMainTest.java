@@ -0,0 +1,293 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
+
+import components.simplereader.SimpleReader;
+import components.simplereader.SimpleReader1L;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+import components.sortingmachine.SortingMachine;
+
+/**
+ * JUnit test fixture for the file reading and writing of
+ * {@code QueueSortMain}, checked against {@code SimpleReader1L} and
+ * {@code SimpleWriter1L} on the same files. Small buffer sizes make lines and
+ * multi-byte characters straddle buffer reads and writes.
+ */
+public final class QueueSortMainTest {
+
+    /**
+     * Lexicographic order.
+     */
+    private static final Comparator<String> ORDER = Comparator
+            .naturalOrder();
+
+    /**
+     * Buffer sizes tried by each test besides {@code BUFFER_SIZE}.
+     */
+    private static final int[] SMALL_BUFFER_SIZES = { 1, 2, 3, 5, 7, 64 };
+
+    /**
+     * Lines with characters of two, three and four bytes in UTF-8.
+     */
+    private static final String[] MULTI_BYTE_LINES = { "h\u00e9llo",
+        "w\u00f6rld", "\u65e5\u672c\u8a9e", "\ud83d\ude00 smile",
+        "a\u00e9\u65e5\ud83d\ude00z" };
+
+    /**
+     * Creates a new temporary file, to be deleted when the JVM exits.
+     *
+     * @return the file
+     * @throws IOException
+     *             if the file cannot be created
+     */
+    private static File tempFile() throws IOException {
+        File f = File.createTempFile("QueueSortMainTest", ".txt");
+        f.deleteOnExit();
+        return f;
+    }
+
+    /**
+     * Returns the lines of {@code file} as read by {@code SimpleReader1L}.
+     *
+     * @param file
+     *            the file
+     * @return the lines of file, in order
+     */
+    private static List<String> simpleRead(File file) {
+        List<String> lines = new ArrayList<>();
+        SimpleReader in = new SimpleReader1L(file.getPath());
+        while (!in.atEOS()) {
+            lines.add(in.nextLine());
+        }
+        in.close();
+        return lines;
+    }
+
+    /**
+     * Drains {@code sm} into a list.
+     *
+     * @param sm
+     *            the sorting machine
+     * @return the entries of #sm in the order they were removed
+     * @updates sm
+     * @requires not sm.insertion_mode
+     * @ensures sm.contents = {}
+     */
+    private static List<String> drain(SortingMachine<String> sm) {
+        List<String> lines = new ArrayList<>();
+        while (sm.size() > 0) {
+            lines.add(sm.removeFirst());
+        }
+        return lines;
+    }
+
+    /**
+     * Writes {@code content} to a file as UTF-8 and checks that
+     * {@code readLines} reads the same lines from it as
+     * {@code SimpleReader1L}, with {@code BUFFER_SIZE} and with each of the
+     * small buffer sizes.
+     *
+     * @param content
+     *            the content of the file
+     * @throws IOException
+     *             if the file cannot be written or read
+     */
+    private static void checkRead(String content) throws IOException {
+        File file = tempFile();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        List<String> expected = simpleRead(file);
+        Collections.sort(expected, ORDER);
+
+        List<Integer> sizes = new ArrayList<>();
+        sizes.add(QueueSortMain.BUFFER_SIZE);
+        for (int size : SMALL_BUFFER_SIZES) {
+            sizes.add(size);
+        }
+        for (int size : sizes) {
+            SortingMachine<String> sm = new RadixSortingMachine(ORDER);
+            int count = QueueSortMain.readLines(file.getPath(), sm, size);
+            assertEquals("buffer size " + size, expected.size(), count);
+            sm.changeToExtractionMode();
+            assertEquals("buffer size " + size, expected, drain(sm));
+        }
+        file.delete();
+    }
+
+    /**
+     * Checks that {@code writeLines} writes {@code lines} in sorted order so
+     * that {@code SimpleReader1L} reads back the same lines as from a file
+     * written by {@code SimpleWriter1L}, with {@code BUFFER_SIZE} and with
+     * each of the small buffer sizes.
+     *
+     * @param lines
+     *            the lines, none of which contains a line terminator
+     * @throws IOException
+     *             if a file cannot be written or read
+     */
+    private static void checkWrite(String... lines) throws IOException {
+        List<String> sorted = new ArrayList<>();
+        Collections.addAll(sorted, lines);
+        Collections.sort(sorted, ORDER);
+        File reference = tempFile();
+        SimpleWriter out = new SimpleWriter1L(reference.getPath());
+        for (String line : sorted) {
+            out.println(line);
+        }
+        out.close();
+        List<String> expected = simpleRead(reference);
+        reference.delete();
+
+        List<Integer> sizes = new ArrayList<>();
+        sizes.add(QueueSortMain.BUFFER_SIZE);
+        for (int size : SMALL_BUFFER_SIZES) {
+            sizes.add(size);
+        }
+        for (int size : sizes) {
+            SortingMachine<String> sm = new RadixSortingMachine(ORDER);
+            for (String line : lines) {
+                sm.add(line);
+            }
+            sm.changeToExtractionMode();
+            File file = tempFile();
+            int count = QueueSortMain.writeLines(sm, file.getPath(), size);
+            assertEquals("buffer size " + size, lines.length, count);
+            assertEquals(0, sm.size());
+            assertEquals("buffer size " + size, expected, simpleRead(file));
+            file.delete();
+        }
+    }
+
+    /**
+     * Returns a line of {@code length} characters cycling through the lower
+     * case letters.
+     *
+     * @param length
+     *            the length of the line
+     * @return the line
+     */
+    private static String longLine(int length) {
+        final int letters = 26;
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + i % letters));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public final void testDecodeLineStripsOnlyTrailingCarriageReturn() {
+        byte[] bytes = "a\rb\r".getBytes(StandardCharsets.UTF_8);
+        assertEquals("a\rb", QueueSortMain.decodeLine(bytes, bytes.length));
+        assertEquals("a\rb", QueueSortMain.decodeLine(bytes, 3));
+        assertEquals("a", QueueSortMain.decodeLine(bytes, 2));
+        assertEquals("", QueueSortMain.decodeLine(bytes, 0));
+    }
+
+    @Test
+    public final void testReadEmptyFile() throws IOException {
+        checkRead("");
+    }
+
+    @Test
+    public final void testReadLfLines() throws IOException {
+        checkRead("red\ngreen\nblue\n");
+    }
+
+    @Test
+    public final void testReadCrLfLines() throws IOException {
+        checkRead("red\r\ngreen\r\nblue\r\n");
+    }
+
+    @Test
+    public final void testReadMixedTerminators() throws IOException {
+        checkRead("red\r\ngreen\nblue\r\nyellow");
+    }
+
+    @Test
+    public final void testReadLastLineWithoutNewline() throws IOException {
+        checkRead("red\ngreen\nblue");
+        checkRead("x");
+        checkRead("red\r\nblue");
+    }
+
+    @Test
+    public final void testReadEmptyLines() throws IOException {
+        checkRead("\n");
+        checkRead("\n\n\n");
+        checkRead("\r\n\r\n");
+        checkRead("\nred\n\n\ngreen\n\n");
+    }
+
+    @Test
+    public final void testReadLineLongerThanBuffer() throws IOException {
+        final int length = 3 * QueueSortMain.BUFFER_SIZE / 2;
+        checkRead("short\n" + longLine(length) + "\r\nlast");
+    }
+
+    @Test
+    public final void testReadMultiByteCharacters() throws IOException {
+        assumeTrue(Charset.defaultCharset().equals(StandardCharsets.UTF_8));
+        checkRead(String.join("\n", MULTI_BYTE_LINES) + "\n");
+        checkRead(String.join("\r\n", MULTI_BYTE_LINES));
+    }
+
+    @Test
+    public final void testWriteEmpty() throws IOException {
+        checkWrite();
+    }
+
+    @Test
+    public final void testWriteLinesAndEmptyLines() throws IOException {
+        checkWrite("red", "", "green", "", "blue");
+    }
+
+    @Test
+    public final void testWriteLineLongerThanBuffer() throws IOException {
+        final int length = QueueSortMain.BUFFER_SIZE + 1;
+        checkWrite("short", longLine(length), "last",
+                longLine(QueueSortMain.BUFFER_SIZE - 1));
+    }
+
+    @Test
+    public final void testWriteMultiByteCharacters() throws IOException {
+        assumeTrue(Charset.defaultCharset().equals(StandardCharsets.UTF_8));
+        checkWrite(MULTI_BYTE_LINES);
+    }
+
+    @Test
+    public final void testWriteThenReadRoundTrip() throws IOException {
+        final int size = 3;
+        String[] lines = { "red", "", "green", longLine(size * size), "blue",
+            "" };
+        SortingMachine<String> sm = new RadixSortingMachine(ORDER);
+        for (String line : lines) {
+            sm.add(line);
+        }
+        sm.changeToExtractionMode();
+        File file = tempFile();
+        QueueSortMain.writeLines(sm, file.getPath(), size);
+        sm = new RadixSortingMachine(ORDER);
+        assertEquals(lines.length,
+                QueueSortMain.readLines(file.getPath(), sm, size));
+        sm.changeToExtractionMode();
+        List<String> expected = new ArrayList<>();
+        Collections.addAll(expected, lines);
+        Collections.sort(expected, ORDER);
+        assertEquals(expected, drain(sm));
+        assertTrue(file.delete());
+    }
+
+}
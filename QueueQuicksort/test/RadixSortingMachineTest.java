@@ -0,0 +1,159 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code RadixSortingMachine}. The inherited
+ * test cases use their own comparator, so they exercise the comparison-sort
+ * fallback; the cases below use {@code Comparator.naturalOrder()} and so
+ * exercise the radix sort.
+ */
+public final class RadixSortingMachineTest extends SortingMachineTest {
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new RadixSortingMachine(order);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /**
+     * Natural {@code String} order, for which the machine uses radix sort.
+     */
+    private static final Comparator<String> NATURAL = Comparator
+            .naturalOrder();
+
+    /**
+     * Adds {@code keys} to a new {@code RadixSortingMachine} in natural order,
+     * switches it to extraction mode, and checks that the entries come out as
+     * {@code keys} sorted by {@code Arrays.sort}.
+     *
+     * @param keys
+     *            the entries
+     */
+    private static void checkNaturalSort(String[] keys) {
+        SortingMachine<String> m = new RadixSortingMachine(NATURAL);
+        for (String k : keys) {
+            m.add(k);
+        }
+        m.changeToExtractionMode();
+        String[] expected = keys.clone();
+        Arrays.sort(expected);
+        for (String e : expected) {
+            assertEquals(e, m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Returns {@code n} pseudo-random strings of up to {@code maxLength}
+     * characters drawn from {@code alphabet}.
+     *
+     * @param n
+     *            the number of strings
+     * @param maxLength
+     *            the maximum length
+     * @param alphabet
+     *            the characters to draw from
+     * @return the strings
+     */
+    private static String[] randomStrings(int n, int maxLength,
+            String alphabet) {
+        final long seed = 42L;
+        Random rnd = new Random(seed);
+        String[] keys = new String[n];
+        for (int i = 0; i < n; i++) {
+            int length = rnd.nextInt(maxLength + 1);
+            StringBuilder sb = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                sb.append(alphabet.charAt(rnd.nextInt(alphabet.length())));
+            }
+            keys[i] = sb.toString();
+        }
+        return keys;
+    }
+
+    @Test
+    public final void testNaturalEmpty() {
+        checkNaturalSort(new String[0]);
+    }
+
+    @Test
+    public final void testNaturalSmall() {
+        checkNaturalSort(new String[] { "red", "", "green", "re", "blue",
+                "Red", "redder", "" });
+    }
+
+    @Test
+    public final void testNaturalRandomFewCharacters() {
+        checkNaturalSort(randomStrings(100_000, 8, "ab"));
+    }
+
+    @Test
+    public final void testNaturalRandomWide() {
+        /*
+         * Includes characters above 0x7F and a surrogate pair, which must
+         * sort by UTF-16 code unit as String.compareTo does
+         */
+        checkNaturalSort(randomStrings(100_000, 12,
+                "aZ09 ~\u00E9\u00FF\u4E2D\uD83D\uDE00\uFFFF"));
+    }
+
+    @Test
+    public final void testNaturalAllEqual() {
+        String[] keys = new String[10_000];
+        Arrays.fill(keys, "same");
+        checkNaturalSort(keys);
+    }
+
+    @Test
+    public final void testNaturalLongCommonPrefix() {
+        /*
+         * Every key shares a 100,000-character prefix, so the sort must not
+         * recurse once per prefix character
+         */
+        final int prefixLength = 100_000;
+        char[] prefix = new char[prefixLength];
+        Arrays.fill(prefix, 'p');
+        String p = new String(prefix);
+        String[] suffixes = randomStrings(1000, 4, "xyz");
+        String[] keys = new String[suffixes.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = p + suffixes[i];
+        }
+        checkNaturalSort(keys);
+    }
+
+    @Test
+    public final void testNaturalLarge() {
+        checkNaturalSort(randomStrings(1_000_000, 20,
+                "abcdefghijklmnopqrstuvwxyz"));
+    }
+
+    @Test
+    public final void testNaturalNewInstanceAndTransferFrom() {
+        SortingMachine<String> m = new RadixSortingMachine(NATURAL);
+        m.add("red");
+        m.add("blue");
+        SortingMachine<String> n = m.newInstance();
+        n.transferFrom(m);
+        assertEquals(0, m.size());
+        n.add("green");
+        n.changeToExtractionMode();
+        assertEquals(NATURAL, n.order());
+        assertEquals("blue", n.removeFirst());
+        assertEquals("green", n.removeFirst());
+        assertEquals("red", n.removeFirst());
+    }
+
+}
@@ -0,0 +1,105 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine4} sorting in a
+ * {@code ForkJoinPool}.
+ */
+public final class SortingMachine4ParallelTest extends SortingMachineTest {
+
+    /**
+     * Threshold small enough that even the short inherited test cases fork.
+     */
+    private static final int THRESHOLD = 2;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine4<String>(order, ForkJoinPool.commonPool(),
+                THRESHOLD);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /**
+     * Adds the same {@code n} pseudo-random strings, with many entries equal
+     * ignoring case, to a sequential and a parallel {@code SortingMachine4}
+     * and checks that both produce the very same objects in the same order.
+     *
+     * @param n
+     *            the number of entries
+     * @param threshold
+     *            the parallel threshold
+     */
+    private static void checkParallelMatchesSequential(int n, int threshold) {
+        SortingMachine<String> sequential = new SortingMachine4<String>(
+                String.CASE_INSENSITIVE_ORDER);
+        SortingMachine<String> parallel = new SortingMachine4<String>(
+                String.CASE_INSENSITIVE_ORDER, ForkJoinPool.commonPool(),
+                threshold);
+        final long seed = 42L;
+        final int distinct = 1000;
+        Random rnd = new Random(seed);
+        for (int i = 0; i < n; i++) {
+            String s = Integer.toString(rnd.nextInt(distinct),
+                    Character.MAX_RADIX);
+            if (rnd.nextBoolean()) {
+                s = s.toUpperCase();
+            }
+            sequential.add(s);
+            parallel.add(s);
+        }
+        sequential.changeToExtractionMode();
+        parallel.changeToExtractionMode();
+        assertEquals(sequential.size(), parallel.size());
+        while (sequential.size() > 0) {
+            assertSame(sequential.removeFirst(), parallel.removeFirst());
+        }
+        assertEquals(0, parallel.size());
+    }
+
+    @Test
+    public final void testParallelMatchesSequentialSmallThreshold() {
+        checkParallelMatchesSequential(10_000, THRESHOLD);
+    }
+
+    @Test
+    public final void testParallelMatchesSequentialLarge() {
+        final int threshold = 8192;
+        checkParallelMatchesSequential(1_000_000, threshold);
+    }
+
+    @Test
+    public final void testParallelSmallSizes() {
+        for (int n = 0; n <= 40; n++) {
+            checkParallelMatchesSequential(n, THRESHOLD);
+        }
+    }
+
+    @Test
+    public final void testNewInstanceKeepsPool() {
+        SortingMachine<String> m = new SortingMachine4<String>(
+                String.CASE_INSENSITIVE_ORDER, ForkJoinPool.commonPool(),
+                THRESHOLD);
+        SortingMachine<String> n = m.newInstance();
+        n.add("red");
+        n.add("blue");
+        n.add("green");
+        n.changeToExtractionMode();
+        assertEquals("blue", n.removeFirst());
+        assertEquals("green", n.removeFirst());
+        assertEquals("red", n.removeFirst());
+    }
+
+}
@@ -1,5 +1,10 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
 import java.util.Comparator;
 
+import org.junit.Test;
+
 import components.sortingmachine.SortingMachine;
 import components.sortingmachine.SortingMachine1L;
 
@@ -18,4 +23,60 @@ public final class SortingMachine4Test extends SortingMachineTest {
         return new SortingMachine1L<String>(order);
     }
 
+    /**
+     * Size of the large inputs.
+     */
+    private static final int LARGE_SIZE = 1_000_000;
+
+    /**
+     * Adds {@code keys} to a new {@code SortingMachine4}, switches it to
+     * extraction mode, and checks that the entries come out as {@code keys}
+     * sorted.
+     *
+     * @param keys
+     *            the entries
+     */
+    private static void checkLargeSort(Integer[] keys) {
+        SortingMachine<Integer> m = new SortingMachine4<Integer>(
+                Integer::compare);
+        for (Integer k : keys) {
+            m.add(k);
+        }
+        m.changeToExtractionMode();
+        Integer[] expected = keys.clone();
+        Arrays.sort(expected);
+        for (Integer e : expected) {
+            assertEquals(e, m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public final void testChangeToExtractionModeLargeSorted() {
+        Integer[] keys = new Integer[LARGE_SIZE];
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            keys[i] = i;
+        }
+        checkLargeSort(keys);
+    }
+
+    @Test
+    public final void testChangeToExtractionModeLargeReverseSorted() {
+        Integer[] keys = new Integer[LARGE_SIZE];
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            keys[i] = LARGE_SIZE - i;
+        }
+        checkLargeSort(keys);
+    }
+
+    @Test
+    public final void testChangeToExtractionModeLargeAllEqual() {
+        Integer[] keys = new Integer[LARGE_SIZE];
+        Integer x = 42;
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            keys[i] = x;
+        }
+        checkLargeSort(keys);
+    }
+
 }
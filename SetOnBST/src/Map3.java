@@ -0,0 +1,766 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.map.Map;
+import components.map.MapSecondary;
+
+/**
+ * {@code Map} represented as a linked binary search tree of its own nodes,
+ * ordered by key and kept AVL-balanced, with implementations of primary
+ * methods. It uses the same representation as {@code Set3c}, with a value
+ * stored beside each key, so {@code add}, {@code remove}, {@code value} and
+ * {@code hasKey} take O(log n) time. Because the keys are kept in order it
+ * also offers {@code firstKey}, {@code floorKey}, {@code ceilingKey} and
+ * {@code rangeIterator}, which find a key or a run of k consecutive pairs in
+ * O(log n + k) time rather than by scanning the whole map.
+ *
+ * @param <K>
+ *            type of {@code Map} domain (key) entries
+ * @param <V>
+ *            type of {@code Map} range (associated value) entries
+ * @mathdefinitions <pre>
+ * IS_BST(
+ *   tree: binary tree of (key: K, value: V)
+ *  ): boolean satisfies
+ *  [tree satisfies the binary search tree properties as described in the
+ *   slides with the ordering reported by compareTo for K on the key
+ *   components of its labels, including that no two labels have the same
+ *   key]
+ *
+ * TREE(
+ *   n: Node
+ *  ): binary tree of (key: K, value: V) satisfies
+ *  [the binary tree of (key, value) pairs reachable from n through left and
+ *   right, or the empty tree if n = null]
+ * </pre>
+ * @convention <pre>
+ * IS_BST(TREE($this.root))  and
+ * $this.size = |TREE($this.root)|  and
+ * [if $this.root /= null then $this.root.parent = null]  and
+ * [for every node n in TREE($this.root), n.key and n.value are not null,
+ *  n.left and n.right, if not null, have parent n, and
+ *  n.height = ht(TREE(n))]  and
+ * [for every node n in TREE($this.root), the heights of TREE(n.left) and
+ *  TREE(n.right) differ by at most one]
+ * </pre>
+ * @correspondence this = labels(TREE($this.root))
+ *
+ * @author Ko lim, Chris Zhao
+ *
+ */
+public class Map3<K extends Comparable<K>, V> extends MapSecondary<K, V> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Node of the tree.
+     *
+     * @param <K>
+     *            type of key
+     * @param <V>
+     *            type of value
+     */
+    private static final class Node<K, V> {
+
+        /**
+         * The key.
+         */
+        private K key;
+
+        /**
+         * The value associated with the key.
+         */
+        private V value;
+
+        /**
+         * Left child, or null.
+         */
+        private Node<K, V> left;
+
+        /**
+         * Right child, or null.
+         */
+        private Node<K, V> right;
+
+        /**
+         * Parent, or null for the root.
+         */
+        private Node<K, V> parent;
+
+        /**
+         * Height of the subtree rooted at this node.
+         */
+        private int height;
+
+        /**
+         * Constructor from key, value and parent; the new node is a leaf.
+         *
+         * @param key
+         *            the key
+         * @param value
+         *            the value
+         * @param parent
+         *            the parent, or null for the root
+         */
+        private Node(K key, V value, Node<K, V> parent) {
+            this.key = key;
+            this.value = value;
+            this.parent = parent;
+            this.height = 1;
+        }
+
+    }
+
+    /**
+     * Root of the tree, or null if {@code this} is empty.
+     */
+    private Node<K, V> root;
+
+    /**
+     * Number of pairs.
+     */
+    private int size;
+
+    /**
+     * Returns the height of the subtree rooted at {@code n}.
+     *
+     * @param <K>
+     *            type of key
+     * @param <V>
+     *            type of value
+     * @param n
+     *            the node, or null
+     * @return the height of TREE(n)
+     */
+    private static <K, V> int height(Node<K, V> n) {
+        int height = 0;
+        if (n != null) {
+            height = n.height;
+        }
+        return height;
+    }
+
+    /**
+     * Sets the height of {@code n} from the heights of its children.
+     *
+     * @param <K>
+     *            type of key
+     * @param <V>
+     *            type of value
+     * @param n
+     *            the node
+     * @updates n.height
+     * @requires n /= null
+     * @ensures n.height = 1 + max(height(n.left), height(n.right))
+     */
+    private static <K, V> void updateHeight(Node<K, V> n) {
+        n.height = 1 + Math.max(height(n.left), height(n.right));
+    }
+
+    /**
+     * Returns the leftmost node of the subtree rooted at {@code n}.
+     *
+     * @param <K>
+     *            type of key
+     * @param <V>
+     *            type of value
+     * @param n
+     *            the root of the subtree
+     * @return the node with the smallest key in TREE(n)
+     * @requires n /= null
+     */
+    private static <K, V> Node<K, V> leftmost(Node<K, V> n) {
+        Node<K, V> current = n;
+        while (current.left != null) {
+            current = current.left;
+        }
+        return current;
+    }
+
+    /**
+     * Returns the node that follows {@code n} in increasing order of keys, or
+     * null if {@code n} has the largest key.
+     *
+     * @param <K>
+     *            type of key
+     * @param <V>
+     *            type of value
+     * @param n
+     *            the node
+     * @return the in-order successor of n, or null
+     * @requires n /= null
+     */
+    private static <K, V> Node<K, V> successor(Node<K, V> n) {
+        Node<K, V> current = n;
+        if (current.right != null) {
+            current = leftmost(current.right);
+        } else {
+            while (current.parent != null && current.parent.right == current) {
+                current = current.parent;
+            }
+            current = current.parent;
+        }
+        return current;
+    }
+
+    /**
+     * Returns the node of {@code this} whose key equals {@code key}, or null
+     * if there is none.
+     *
+     * @param key
+     *            the key to be searched for
+     * @return the node holding key, or null
+     * @ensures <pre>
+     * if key is in DOMAIN(this) then find.key = key else find = null
+     * </pre>
+     */
+    private Node<K, V> find(K key) {
+        Node<K, V> n = this.root;
+        boolean found = false;
+        while (!found && n != null) {
+            int check = n.key.compareTo(key);
+            if (check == 0) {
+                found = true;
+            } else if (check > 0) {
+                n = n.left;
+            } else {
+                n = n.right;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Returns the node of {@code this} with the smallest key not less than
+     * {@code key}, or null if there is none.
+     *
+     * @param key
+     *            the lower bound
+     * @return the node holding the ceiling of key, or null
+     */
+    private Node<K, V> ceilingNode(K key) {
+        Node<K, V> n = this.root;
+        Node<K, V> best = null;
+        while (n != null) {
+            int check = n.key.compareTo(key);
+            if (check == 0) {
+                best = n;
+                n = null;
+            } else if (check > 0) {
+                best = n;
+                n = n.left;
+            } else {
+                n = n.right;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the node of {@code this} with the largest key not greater than
+     * {@code key}, or null if there is none.
+     *
+     * @param key
+     *            the upper bound
+     * @return the node holding the floor of key, or null
+     */
+    private Node<K, V> floorNode(K key) {
+        Node<K, V> n = this.root;
+        Node<K, V> best = null;
+        while (n != null) {
+            int check = n.key.compareTo(key);
+            if (check == 0) {
+                best = n;
+                n = null;
+            } else if (check < 0) {
+                best = n;
+                n = n.right;
+            } else {
+                n = n.left;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Makes {@code newChild} take the place of {@code oldChild} as a child of
+     * {@code parent}, or as the root if {@code parent} is null.
+     *
+     * @param parent
+     *            the parent of oldChild, or null
+     * @param oldChild
+     *            the child being replaced
+     * @param newChild
+     *            the replacement, or null
+     * @updates this
+     */
+    private void replaceChild(Node<K, V> parent, Node<K, V> oldChild,
+            Node<K, V> newChild) {
+        if (parent == null) {
+            this.root = newChild;
+        } else if (parent.left == oldChild) {
+            parent.left = newChild;
+        } else {
+            parent.right = newChild;
+        }
+        if (newChild != null) {
+            newChild.parent = parent;
+        }
+    }
+
+    /**
+     * Rotates the subtree rooted at {@code n} to the right, so that its left
+     * child takes its place, and returns the new root of the subtree.
+     *
+     * @param n
+     *            the root of the subtree
+     * @return the new root of the subtree
+     * @updates this
+     * @requires n /= null and n.left /= null
+     */
+    private Node<K, V> rotateRight(Node<K, V> n) {
+        Node<K, V> l = n.left;
+        this.replaceChild(n.parent, n, l);
+        n.left = l.right;
+        if (l.right != null) {
+            l.right.parent = n;
+        }
+        l.right = n;
+        n.parent = l;
+        updateHeight(n);
+        updateHeight(l);
+        return l;
+    }
+
+    /**
+     * Rotates the subtree rooted at {@code n} to the left, so that its right
+     * child takes its place, and returns the new root of the subtree.
+     *
+     * @param n
+     *            the root of the subtree
+     * @return the new root of the subtree
+     * @updates this
+     * @requires n /= null and n.right /= null
+     */
+    private Node<K, V> rotateLeft(Node<K, V> n) {
+        Node<K, V> r = n.right;
+        this.replaceChild(n.parent, n, r);
+        n.right = r.left;
+        if (r.left != null) {
+            r.left.parent = n;
+        }
+        r.left = n;
+        n.parent = r;
+        updateHeight(n);
+        updateHeight(r);
+        return r;
+    }
+
+    /**
+     * Walks from {@code n} up to the root, updating heights and rotating
+     * wherever the heights of the two subtrees of a node differ by two.
+     *
+     * @param n
+     *            the lowest node whose subtree may have changed, or null
+     * @updates this
+     * @requires <pre>
+     * [the convention holds except for heights and balance on the path from n
+     *  to the root, where the heights of the two subtrees differ by at most
+     *  two]
+     * </pre>
+     * @ensures [the convention holds]
+     */
+    private void rebalanceUp(Node<K, V> n) {
+        Node<K, V> current = n;
+        while (current != null) {
+            int balance = height(current.left) - height(current.right);
+            if (balance > 1) {
+                if (height(current.left.right) > height(current.left.left)) {
+                    this.rotateLeft(current.left);
+                }
+                current = this.rotateRight(current);
+            } else if (balance < -1) {
+                if (height(current.right.left) > height(current.right.right)) {
+                    this.rotateRight(current.right);
+                }
+                current = this.rotateLeft(current);
+            } else {
+                updateHeight(current);
+            }
+            current = current.parent;
+        }
+    }
+
+    /**
+     * Removes node {@code n} from the tree and returns the pair it held.
+     *
+     * @param n
+     *            the node to remove
+     * @return the pair held by n
+     * @updates this
+     * @requires n is a node of TREE($this.root)
+     * @ensures <pre>
+     * removeNode = (#n.key, #n.value)  and
+     * this = #this \ {(#n.key, #n.value)}
+     * </pre>
+     */
+    private Pair<K, V> removeNode(Node<K, V> n) {
+        Pair<K, V> ans = new SimplePair(n.key, n.value);
+        Node<K, V> target = n;
+        if (target.left != null && target.right != null) {
+
+            /*
+             * Move the pair of the in-order successor, which has no left
+             * child, into n and remove the successor's node instead
+             */
+            Node<K, V> successor = leftmost(target.right);
+            target.key = successor.key;
+            target.value = successor.value;
+            target = successor;
+        }
+        Node<K, V> child = target.left;
+        if (child == null) {
+            child = target.right;
+        }
+        Node<K, V> parent = target.parent;
+        this.replaceChild(parent, target, child);
+        this.size--;
+        this.rebalanceUp(parent);
+        return ans;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        this.root = null;
+        this.size = 0;
+
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public Map3() {
+
+        this.createNewRep();
+
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Map<K, V> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(Map<K, V> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Map3<?, ?> : ""
+                + "Violation of: source is of dynamic type Map3<?,?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Map3<?,?>, and
+         * the ?,? must be K,V or the call would not have compiled.
+         */
+        Map3<K, V> localSource = (Map3<K, V>) source;
+        this.root = localSource.root;
+        this.size = localSource.size;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(K key, V value) {
+        assert key != null : "Violation of: key is not null";
+        assert value != null : "Violation of: value is not null";
+        assert !this.hasKey(key) : "Violation of: key is not in DOMAIN(this)";
+
+        if (this.root == null) {
+            this.root = new Node<K, V>(key, value, null);
+        } else {
+            Node<K, V> parent = this.root;
+            boolean placed = false;
+            while (!placed) {
+                if (parent.key.compareTo(key) > 0) {
+                    if (parent.left == null) {
+                        parent.left = new Node<K, V>(key, value, parent);
+                        placed = true;
+                    } else {
+                        parent = parent.left;
+                    }
+                } else {
+                    if (parent.right == null) {
+                        parent.right = new Node<K, V>(key, value, parent);
+                        placed = true;
+                    } else {
+                        parent = parent.right;
+                    }
+                }
+            }
+            this.rebalanceUp(parent);
+        }
+        this.size++;
+
+    }
+
+    @Override
+    public final Pair<K, V> remove(K key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        return this.removeNode(this.find(key));
+    }
+
+    @Override
+    public final Pair<K, V> removeAny() {
+        assert this.size() > 0 : "Violation of: this /= empty_set";
+
+        /*
+         * Remove the pair with the smallest key; its node has no left child,
+         * so it is unlinked directly
+         */
+        return this.removeNode(leftmost(this.root));
+    }
+
+    @Override
+    public final V value(K key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        return this.find(key).value;
+    }
+
+    @Override
+    public final boolean hasKey(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        return this.find(key) != null;
+    }
+
+    @Override
+    public final int size() {
+
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<Pair<K, V>> iterator() {
+        Node<K, V> first = null;
+        if (this.root != null) {
+            first = leftmost(this.root);
+        }
+        return new Map3Iterator(first, null);
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    /**
+     * Reports the smallest key in {@code DOMAIN(this)}.
+     *
+     * @return the smallest key
+     * @requires |this| > 0
+     * @ensures <pre>
+     * firstKey is in DOMAIN(this)  and
+     * for all key: K where (key is in DOMAIN(this))
+     *   (firstKey <= key)
+     * </pre>
+     */
+    public final K firstKey() {
+        assert this.size() > 0 : "Violation of: this /= empty_set";
+
+        return leftmost(this.root).key;
+    }
+
+    /**
+     * Reports the largest key in {@code DOMAIN(this)} that is not greater
+     * than {@code key}, or null if there is none.
+     *
+     * @param key
+     *            the upper bound
+     * @return the largest key <= key, or null
+     * @ensures <pre>
+     * if there exists k: K (k is in DOMAIN(this)  and  k <= key)
+     *  then (floorKey is in DOMAIN(this)  and  floorKey <= key  and
+     *        for all k: K where (k is in DOMAIN(this)  and  k <= key)
+     *          (k <= floorKey))
+     *  else floorKey = null
+     * </pre>
+     */
+    public final K floorKey(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        Node<K, V> n = this.floorNode(key);
+        K ans = null;
+        if (n != null) {
+            ans = n.key;
+        }
+        return ans;
+    }
+
+    /**
+     * Reports the smallest key in {@code DOMAIN(this)} that is not less than
+     * {@code key}, or null if there is none.
+     *
+     * @param key
+     *            the lower bound
+     * @return the smallest key >= key, or null
+     * @ensures <pre>
+     * if there exists k: K (k is in DOMAIN(this)  and  k >= key)
+     *  then (ceilingKey is in DOMAIN(this)  and  ceilingKey >= key  and
+     *        for all k: K where (k is in DOMAIN(this)  and  k >= key)
+     *          (k >= ceilingKey))
+     *  else ceilingKey = null
+     * </pre>
+     */
+    public final K ceilingKey(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        Node<K, V> n = this.ceilingNode(key);
+        K ans = null;
+        if (n != null) {
+            ans = n.key;
+        }
+        return ans;
+    }
+
+    /**
+     * Returns an iterator over the pairs of {@code this} whose keys lie in
+     * [{@code low}, {@code high}), in increasing order of keys. Finding the
+     * first pair takes O(log n) time and each further pair O(1) amortized
+     * time. {@code this} must not be changed while the iterator is in use.
+     *
+     * @param low
+     *            the smallest key to include
+     * @param high
+     *            the bound below which keys are included
+     * @return the iterator
+     * @requires low <= high
+     * @ensures <pre>
+     * ~rangeIterator.seen = <>  and
+     * ~rangeIterator.unseen = [the pairs of this with low <= key < high, in
+     *   increasing order of keys]
+     * </pre>
+     */
+    public final Iterator<Pair<K, V>> rangeIterator(K low, K high) {
+        assert low != null : "Violation of: low is not null";
+        assert high != null : "Violation of: high is not null";
+        assert low.compareTo(high) <= 0 : "Violation of: low <= high";
+
+        return new Map3Iterator(this.ceilingNode(low), high);
+    }
+
+    /**
+     * Reports the height of the tree representing {@code this}.
+     *
+     * @return the height of the tree
+     * @ensures <pre>
+     * height = [the height of the tree representing this]  and
+     * height <= 1.45 * log2(|this| + 2)
+     * </pre>
+     */
+    public final int height() {
+        return height(this.root);
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Map3}, which
+     * returns the pairs in increasing order of keys, starting from a given
+     * node and stopping before a given bound, by following parent references
+     * from each node to its in-order successor.
+     */
+    private final class Map3Iterator implements Iterator<Pair<K, V>> {
+
+        /**
+         * Node holding the next pair to return, or null.
+         */
+        private Node<K, V> next;
+
+        /**
+         * Bound below which keys are returned, or null for no bound.
+         */
+        private final K high;
+
+        /**
+         * Constructor from first node and bound.
+         *
+         * @param first
+         *            the node holding the first pair to return, or null
+         * @param high
+         *            the bound below which keys are returned, or null
+         */
+        private Map3Iterator(Node<K, V> first, K high) {
+            this.high = high;
+            this.next = first;
+            this.stopAtBound();
+        }
+
+        /**
+         * Sets {@code next} to null if its key is not below {@code high}.
+         */
+        private void stopAtBound() {
+            if (this.next != null && this.high != null
+                    && this.next.key.compareTo(this.high) >= 0) {
+                this.next = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public Pair<K, V> next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            Node<K, V> n = this.next;
+            Pair<K, V> result = new SimplePair(n.key, n.value);
+            this.next = successor(n);
+            this.stopAtBound();
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,555 @@
+import java.util.Iterator;
+
+import components.binarytree.BinaryTree;
+import components.binarytree.BinaryTree1;
+import components.set.Set;
+import components.set.SetSecondary;
+
+/**
+ * {@code Set} represented as a {@code BinaryTree} (maintained as an AVL tree,
+ * i.e., a binary search tree in which the heights of the two subtrees of every
+ * node differ by at most one) of elements with implementations of primary
+ * methods. This is the balanced variant of {@code Set3a}: its height is at
+ * most about 1.44 log2(n + 2), so {@code add}, {@code remove} and
+ * {@code contains} take O(log n) time even when elements arrive in sorted
+ * order.
+ *
+ * @param <T>
+ *            type of {@code Set} elements
+ * @mathdefinitions <pre>
+ * IS_BST(
+ *   tree: binary tree of T
+ *  ): boolean satisfies
+ *  [tree satisfies the binary search tree properties as described in the
+ *   slides with the ordering reported by compareTo for T, including that
+ *   it has no duplicate labels]
+ *
+ * IS_AVL(
+ *   tree: binary tree of Node
+ *  ): boolean satisfies
+ *  [every node of tree is labeled with the height of the subtree rooted at
+ *   that node, and the heights of the left and right subtrees of every node
+ *   differ by at most one]
+ *
+ * VALUES(
+ *   tree: binary tree of Node
+ *  ): binary tree of T satisfies
+ *  [VALUES(tree) has the shape of tree, with each label n replaced by
+ *   n.value]
+ * </pre>
+ * @convention IS_BST(VALUES($this.tree)) and IS_AVL($this.tree)
+ * @correspondence this = labels(VALUES($this.tree))
+ *
+ * @author Ko lim, Chris Zhao
+ *
+ */
+public class Set3b<T extends Comparable<T>> extends SetSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Label of a node of the tree: an element and the height of the subtree
+     * rooted at the node.
+     *
+     * @param <T>
+     *            type of element
+     */
+    private static final class Node<T> {
+
+        /**
+         * The element.
+         */
+        private final T value;
+
+        /**
+         * Height of the subtree rooted at this node.
+         */
+        private int height;
+
+        /**
+         * Constructor from element; the height starts at 1.
+         *
+         * @param value
+         *            the element
+         */
+        private Node(T value) {
+            this.value = value;
+            this.height = 1;
+        }
+
+    }
+
+    /**
+     * Elements included in {@code this}.
+     */
+    private BinaryTree<Node<T>> tree;
+
+    /**
+     * Returns the height of {@code t}, read from the label of its root.
+     *
+     * @param <T>
+     *            type of elements
+     * @param t
+     *            the {@code BinaryTree}
+     * @return the height of t
+     * @requires IS_AVL(t)
+     * @ensures height = ht(t)
+     */
+    private static <T> int height(BinaryTree<Node<T>> t) {
+        int height = 0;
+        if (t.size() != 0) {
+            height = t.root().height;
+        }
+        return height;
+    }
+
+    /**
+     * Assembles {@code t} from {@code root}, {@code left} and {@code right},
+     * setting the height in {@code root}.
+     *
+     * @param <T>
+     *            type of elements
+     * @param t
+     *            the {@code BinaryTree} to assemble
+     * @param root
+     *            the root label
+     * @param left
+     *            the left subtree
+     * @param right
+     *            the right subtree
+     * @replaces t
+     * @updates root
+     * @clears left, right
+     * @requires <pre>
+     * IS_AVL(left)  and  IS_AVL(right)  and
+     * |ht(left) - ht(right)| <= 1
+     * </pre>
+     * @ensures <pre>
+     * t = compose(root, #left, #right)  and  IS_AVL(t)
+     * </pre>
+     */
+    private static <T> void assembleNode(BinaryTree<Node<T>> t, Node<T> root,
+            BinaryTree<Node<T>> left, BinaryTree<Node<T>> right) {
+        root.height = 1 + Math.max(height(left), height(right));
+        t.assemble(root, left, right);
+    }
+
+    /**
+     * Assembles {@code t} from {@code root}, {@code left} and {@code right},
+     * rotating once or twice if the heights of {@code left} and {@code right}
+     * differ by two.
+     *
+     * @param <T>
+     *            type of elements
+     * @param t
+     *            the {@code BinaryTree} to assemble
+     * @param root
+     *            the root label
+     * @param left
+     *            the left subtree
+     * @param right
+     *            the right subtree
+     * @replaces t
+     * @updates root
+     * @clears left, right
+     * @requires <pre>
+     * IS_AVL(left)  and  IS_AVL(right)  and
+     * |ht(left) - ht(right)| <= 2
+     * </pre>
+     * @ensures <pre>
+     * IS_AVL(t)  and
+     * [the in-order traversal of t is that of compose(root, #left, #right)]
+     * </pre>
+     */
+    private static <T> void rebalance(BinaryTree<Node<T>> t, Node<T> root,
+            BinaryTree<Node<T>> left, BinaryTree<Node<T>> right) {
+        int balance = height(left) - height(right);
+        if (balance > 1) {
+            BinaryTree<Node<T>> leftLeft = left.newInstance();
+            BinaryTree<Node<T>> leftRight = left.newInstance();
+            Node<T> leftRoot = left.disassemble(leftLeft, leftRight);
+            if (height(leftRight) > height(leftLeft)) {
+
+                /*
+                 * Left-right case: the root of leftRight becomes the root
+                 */
+                BinaryTree<Node<T>> lrLeft = left.newInstance();
+                BinaryTree<Node<T>> lrRight = left.newInstance();
+                Node<T> lrRoot = leftRight.disassemble(lrLeft, lrRight);
+                assembleNode(left, leftRoot, leftLeft, lrLeft);
+                assembleNode(leftRight, root, lrRight, right);
+                assembleNode(t, lrRoot, left, leftRight);
+
+            } else {
+
+                /*
+                 * Left-left case: the root of left becomes the root
+                 */
+                assembleNode(left, root, leftRight, right);
+                assembleNode(t, leftRoot, leftLeft, left);
+            }
+        } else if (balance < -1) {
+            BinaryTree<Node<T>> rightLeft = right.newInstance();
+            BinaryTree<Node<T>> rightRight = right.newInstance();
+            Node<T> rightRoot = right.disassemble(rightLeft, rightRight);
+            if (height(rightLeft) > height(rightRight)) {
+
+                /*
+                 * Right-left case: the root of rightLeft becomes the root
+                 */
+                BinaryTree<Node<T>> rlLeft = right.newInstance();
+                BinaryTree<Node<T>> rlRight = right.newInstance();
+                Node<T> rlRoot = rightLeft.disassemble(rlLeft, rlRight);
+                assembleNode(right, rightRoot, rlRight, rightRight);
+                assembleNode(rightLeft, root, left, rlLeft);
+                assembleNode(t, rlRoot, rightLeft, right);
+
+            } else {
+
+                /*
+                 * Right-right case: the root of right becomes the root
+                 */
+                assembleNode(right, root, left, rightLeft);
+                assembleNode(t, rightRoot, right, rightRight);
+            }
+        } else {
+            assembleNode(t, root, left, right);
+        }
+    }
+
+    /**
+     * Returns whether {@code x} is in {@code t}.
+     *
+     * @param <T>
+     *            type of elements
+     * @param t
+     *            the {@code BinaryTree} to be searched
+     * @param x
+     *            the element to be searched for
+     * @return true if t contains x, false otherwise
+     * @requires IS_BST(VALUES(t))
+     * @ensures isInTree = (x is in labels(VALUES(t)))
+     */
+    private static <T extends Comparable<T>> boolean isInTree(
+            BinaryTree<Node<T>> t, T x) {
+        assert t != null : "Violation of: t is not null";
+        assert x != null : "Violation of: x is not null";
+
+        boolean ans = false;
+        if (t.size() != 0) {
+            BinaryTree<Node<T>> left = t.newInstance();
+            BinaryTree<Node<T>> right = t.newInstance();
+            Node<T> root = t.disassemble(left, right);
+            int check = root.value.compareTo(x);
+            if (check == 0) {
+                ans = true;
+            } else if (check > 0) {
+                ans = isInTree(left, x);
+            } else {
+                ans = isInTree(right, x);
+            }
+            t.assemble(root, left, right);
+        }
+        return ans;
+    }
+
+    /**
+     * Inserts {@code x} in {@code t}.
+     *
+     * @param <T>
+     *            type of elements
+     * @param t
+     *            the {@code BinaryTree} to be searched
+     * @param x
+     *            the element to be inserted
+     * @aliases reference {@code x}
+     * @updates t
+     * @requires <pre>
+     * IS_BST(VALUES(t))  and  IS_AVL(t)  and
+     * x is not in labels(VALUES(t))
+     * </pre>
+     * @ensures <pre>
+     * IS_BST(VALUES(t))  and  IS_AVL(t)  and
+     * labels(VALUES(t)) = labels(VALUES(#t)) union {x}
+     * </pre>
+     */
+    private static <T extends Comparable<T>> void insertInTree(
+            BinaryTree<Node<T>> t, T x) {
+        assert t != null : "Violation of: t is not null";
+        assert x != null : "Violation of: x is not null";
+
+        BinaryTree<Node<T>> left = t.newInstance();
+        BinaryTree<Node<T>> right = t.newInstance();
+        if (t.size() != 0) {
+            Node<T> root = t.disassemble(left, right);
+            if (root.value.compareTo(x) > 0) {
+                insertInTree(left, x);
+            } else {
+                insertInTree(right, x);
+            }
+            rebalance(t, root, left, right);
+        } else {
+            t.assemble(new Node<T>(x), left, right);
+        }
+    }
+
+    /**
+     * Removes and returns the node with the smallest (left-most) element in
+     * {@code t}.
+     *
+     * @param <T>
+     *            type of elements
+     * @param t
+     *            the {@code BinaryTree} from which to remove the node
+     * @return the node with the smallest element in the given
+     *         {@code BinaryTree}
+     * @updates t
+     * @requires IS_BST(VALUES(t)) and IS_AVL(t) and |t| > 0
+     * @ensures <pre>
+     * IS_BST(VALUES(t))  and  IS_AVL(t)  and
+     * removeSmallest.value = [the smallest element in VALUES(#t)]  and
+     * labels(VALUES(t)) = labels(VALUES(#t)) \ {removeSmallest.value}
+     * </pre>
+     */
+    private static <T> Node<T> removeSmallest(BinaryTree<Node<T>> t) {
+        assert t != null : "Violation of: t is not null";
+
+        BinaryTree<Node<T>> left = t.newInstance();
+        BinaryTree<Node<T>> right = t.newInstance();
+        Node<T> root = t.disassemble(left, right);
+        Node<T> ans = root;
+        if (left.size() != 0) {
+            ans = removeSmallest(left);
+            rebalance(t, root, left, right);
+        } else {
+
+            /*
+             * The root is the smallest; its right subtree (of height at most
+             * 1) takes its place
+             */
+            t.transferFrom(right);
+        }
+        return ans;
+    }
+
+    /**
+     * Finds element {@code x} in {@code t}, removes it from {@code t}, and
+     * returns it.
+     *
+     * @param <T>
+     *            type of elements
+     * @param t
+     *            the {@code BinaryTree} from which to remove element {@code x}
+     * @param x
+     *            the element to be removed
+     * @return the removed element
+     * @updates t
+     * @requires <pre>
+     * IS_BST(VALUES(t))  and  IS_AVL(t)  and
+     * x is in labels(VALUES(t))
+     * </pre>
+     * @ensures <pre>
+     * IS_BST(VALUES(t))  and  IS_AVL(t)  and  removeFromTree = x  and
+     * labels(VALUES(t)) = labels(VALUES(#t)) \ {x}
+     * </pre>
+     */
+    private static <T extends Comparable<T>> T removeFromTree(
+            BinaryTree<Node<T>> t, T x) {
+        assert t != null : "Violation of: t is not null";
+        assert x != null : "Violation of: x is not null";
+
+        BinaryTree<Node<T>> left = t.newInstance();
+        BinaryTree<Node<T>> right = t.newInstance();
+        Node<T> root = t.disassemble(left, right);
+        T ans;
+        int check = root.value.compareTo(x);
+        if (check == 0) {
+            ans = root.value;
+            if (right.size() != 0) {
+
+                /*
+                 * The smallest node of the right subtree takes the place of
+                 * the root
+                 */
+                Node<T> successor = removeSmallest(right);
+                rebalance(t, successor, left, right);
+
+            } else {
+
+                /*
+                 * The left subtree (of height at most 1) takes the place of
+                 * the root
+                 */
+                t.transferFrom(left);
+            }
+        } else {
+            if (check > 0) {
+                ans = removeFromTree(left, x);
+            } else {
+                ans = removeFromTree(right, x);
+            }
+            rebalance(t, root, left, right);
+        }
+        return ans;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        this.tree = new BinaryTree1<Node<T>>();
+
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public Set3b() {
+
+        this.createNewRep();
+
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Set<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(Set<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Set3b<?> : ""
+                + "Violation of: source is of dynamic type Set3b<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Set3b<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        Set3b<T> localSource = (Set3b<T>) source;
+        this.tree = localSource.tree;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert !this.contains(x) : "Violation of: x is not in this";
+
+        insertInTree(this.tree, x);
+
+    }
+
+    @Override
+    public final T remove(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.contains(x) : "Violation of: x is in this";
+
+        return removeFromTree(this.tree, x);
+    }
+
+    @Override
+    public final T removeAny() {
+        assert this.size() > 0 : "Violation of: this /= empty_set";
+
+        return removeSmallest(this.tree).value;
+    }
+
+    @Override
+    public final boolean contains(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        return isInTree(this.tree, x);
+    }
+
+    @Override
+    public final int size() {
+
+        return this.tree.size();
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new Set3bIterator();
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    /**
+     * Reports the height of the tree representing {@code this}.
+     *
+     * @return the height of the tree
+     * @ensures <pre>
+     * height = [the height of the tree representing this]  and
+     * height <= 1.45 * log2(|this| + 2)
+     * </pre>
+     */
+    public final int height() {
+        return height(this.tree);
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Set3b}, which
+     * returns the elements in increasing order.
+     */
+    private final class Set3bIterator implements Iterator<T> {
+
+        /**
+         * Iterator over the nodes of the tree, in order.
+         */
+        private final Iterator<Node<T>> nodes;
+
+        /**
+         * No-argument constructor.
+         */
+        private Set3bIterator() {
+            this.nodes = Set3b.this.tree.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nodes.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return this.nodes.next().value;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,539 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.set.Set;
+import components.set.SetSecondary;
+
+/**
+ * {@code Set} represented as a linked binary search tree of its own nodes,
+ * kept AVL-balanced, with implementations of primary methods. Unlike
+ * {@code Set3a} and {@code Set3b}, which disassemble and reassemble a
+ * {@code BinaryTree} at every level, this walks the nodes iteratively through
+ * child and parent references: {@code contains} allocates nothing,
+ * {@code add} allocates only the new node, and {@code remove} and
+ * {@code removeAny} allocate nothing.
+ *
+ * @param <T>
+ *            type of {@code Set} elements
+ * @mathdefinitions <pre>
+ * IS_BST(
+ *   tree: binary tree of T
+ *  ): boolean satisfies
+ *  [tree satisfies the binary search tree properties as described in the
+ *   slides with the ordering reported by compareTo for T, including that
+ *   it has no duplicate labels]
+ *
+ * TREE(
+ *   n: Node
+ *  ): binary tree of T satisfies
+ *  [the binary tree of values reachable from n through left and right, or
+ *   the empty tree if n = null]
+ * </pre>
+ * @convention <pre>
+ * IS_BST(TREE($this.root))  and
+ * $this.size = |TREE($this.root)|  and
+ * [if $this.root /= null then $this.root.parent = null]  and
+ * [for every node n in TREE($this.root), n.left and n.right, if not null,
+ *  have parent n, and n.height = ht(TREE(n))]  and
+ * [for every node n in TREE($this.root), the heights of TREE(n.left) and
+ *  TREE(n.right) differ by at most one]
+ * </pre>
+ * @correspondence this = labels(TREE($this.root))
+ *
+ * @author Ko lim, Chris Zhao
+ *
+ */
+public class Set3c<T extends Comparable<T>> extends SetSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Node of the tree.
+     *
+     * @param <T>
+     *            type of element
+     */
+    private static final class Node<T> {
+
+        /**
+         * The element.
+         */
+        private T value;
+
+        /**
+         * Left child, or null.
+         */
+        private Node<T> left;
+
+        /**
+         * Right child, or null.
+         */
+        private Node<T> right;
+
+        /**
+         * Parent, or null for the root.
+         */
+        private Node<T> parent;
+
+        /**
+         * Height of the subtree rooted at this node.
+         */
+        private int height;
+
+        /**
+         * Constructor from element and parent; the new node is a leaf.
+         *
+         * @param value
+         *            the element
+         * @param parent
+         *            the parent, or null for the root
+         */
+        private Node(T value, Node<T> parent) {
+            this.value = value;
+            this.parent = parent;
+            this.height = 1;
+        }
+
+    }
+
+    /**
+     * Root of the tree, or null if {@code this} is empty.
+     */
+    private Node<T> root;
+
+    /**
+     * Number of elements.
+     */
+    private int size;
+
+    /**
+     * Returns the height of the subtree rooted at {@code n}.
+     *
+     * @param <T>
+     *            type of element
+     * @param n
+     *            the node, or null
+     * @return the height of TREE(n)
+     */
+    private static <T> int height(Node<T> n) {
+        int height = 0;
+        if (n != null) {
+            height = n.height;
+        }
+        return height;
+    }
+
+    /**
+     * Sets the height of {@code n} from the heights of its children.
+     *
+     * @param <T>
+     *            type of element
+     * @param n
+     *            the node
+     * @updates n.height
+     * @requires n /= null
+     * @ensures n.height = 1 + max(height(n.left), height(n.right))
+     */
+    private static <T> void updateHeight(Node<T> n) {
+        n.height = 1 + Math.max(height(n.left), height(n.right));
+    }
+
+    /**
+     * Returns the node of {@code this} whose element equals {@code x}, or
+     * null if there is none.
+     *
+     * @param x
+     *            the element to be searched for
+     * @return the node holding x, or null
+     * @ensures <pre>
+     * if x is in this then find.value = x else find = null
+     * </pre>
+     */
+    private Node<T> find(T x) {
+        Node<T> n = this.root;
+        boolean found = false;
+        while (!found && n != null) {
+            int check = n.value.compareTo(x);
+            if (check == 0) {
+                found = true;
+            } else if (check > 0) {
+                n = n.left;
+            } else {
+                n = n.right;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Makes {@code newChild} take the place of {@code oldChild} as a child of
+     * {@code parent}, or as the root if {@code parent} is null.
+     *
+     * @param parent
+     *            the parent of oldChild, or null
+     * @param oldChild
+     *            the child being replaced
+     * @param newChild
+     *            the replacement, or null
+     * @updates this
+     */
+    private void replaceChild(Node<T> parent, Node<T> oldChild,
+            Node<T> newChild) {
+        if (parent == null) {
+            this.root = newChild;
+        } else if (parent.left == oldChild) {
+            parent.left = newChild;
+        } else {
+            parent.right = newChild;
+        }
+        if (newChild != null) {
+            newChild.parent = parent;
+        }
+    }
+
+    /**
+     * Rotates the subtree rooted at {@code n} to the right, so that its left
+     * child takes its place, and returns the new root of the subtree.
+     *
+     * @param n
+     *            the root of the subtree
+     * @return the new root of the subtree
+     * @updates this
+     * @requires n /= null and n.left /= null
+     */
+    private Node<T> rotateRight(Node<T> n) {
+        Node<T> l = n.left;
+        this.replaceChild(n.parent, n, l);
+        n.left = l.right;
+        if (l.right != null) {
+            l.right.parent = n;
+        }
+        l.right = n;
+        n.parent = l;
+        updateHeight(n);
+        updateHeight(l);
+        return l;
+    }
+
+    /**
+     * Rotates the subtree rooted at {@code n} to the left, so that its right
+     * child takes its place, and returns the new root of the subtree.
+     *
+     * @param n
+     *            the root of the subtree
+     * @return the new root of the subtree
+     * @updates this
+     * @requires n /= null and n.right /= null
+     */
+    private Node<T> rotateLeft(Node<T> n) {
+        Node<T> r = n.right;
+        this.replaceChild(n.parent, n, r);
+        n.right = r.left;
+        if (r.left != null) {
+            r.left.parent = n;
+        }
+        r.left = n;
+        n.parent = r;
+        updateHeight(n);
+        updateHeight(r);
+        return r;
+    }
+
+    /**
+     * Walks from {@code n} up to the root, updating heights and rotating
+     * wherever the heights of the two subtrees of a node differ by two.
+     *
+     * @param n
+     *            the lowest node whose subtree may have changed, or null
+     * @updates this
+     * @requires <pre>
+     * [the convention holds except for heights and balance on the path from n
+     *  to the root, where the heights of the two subtrees differ by at most
+     *  two]
+     * </pre>
+     * @ensures [the convention holds]
+     */
+    private void rebalanceUp(Node<T> n) {
+        Node<T> current = n;
+        while (current != null) {
+            int balance = height(current.left) - height(current.right);
+            if (balance > 1) {
+                if (height(current.left.right) > height(current.left.left)) {
+                    this.rotateLeft(current.left);
+                }
+                current = this.rotateRight(current);
+            } else if (balance < -1) {
+                if (height(current.right.left) > height(current.right.right)) {
+                    this.rotateRight(current.right);
+                }
+                current = this.rotateLeft(current);
+            } else {
+                updateHeight(current);
+            }
+            current = current.parent;
+        }
+    }
+
+    /**
+     * Removes node {@code n} from the tree.
+     *
+     * @param n
+     *            the node to remove
+     * @updates this
+     * @requires n is a node of TREE($this.root)
+     * @ensures this = #this \ {n.value}
+     */
+    private void removeNode(Node<T> n) {
+        Node<T> target = n;
+        if (target.left != null && target.right != null) {
+
+            /*
+             * Move the value of the in-order successor, which has no left
+             * child, into n and remove the successor's node instead
+             */
+            Node<T> successor = target.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            target.value = successor.value;
+            target = successor;
+        }
+        Node<T> child = target.left;
+        if (child == null) {
+            child = target.right;
+        }
+        Node<T> parent = target.parent;
+        this.replaceChild(parent, target, child);
+        this.size--;
+        this.rebalanceUp(parent);
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        this.root = null;
+        this.size = 0;
+
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public Set3c() {
+
+        this.createNewRep();
+
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Set<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(Set<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Set3c<?> : ""
+                + "Violation of: source is of dynamic type Set3c<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Set3c<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        Set3c<T> localSource = (Set3c<T>) source;
+        this.root = localSource.root;
+        this.size = localSource.size;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert !this.contains(x) : "Violation of: x is not in this";
+
+        if (this.root == null) {
+            this.root = new Node<T>(x, null);
+        } else {
+            Node<T> parent = this.root;
+            boolean placed = false;
+            while (!placed) {
+                if (parent.value.compareTo(x) > 0) {
+                    if (parent.left == null) {
+                        parent.left = new Node<T>(x, parent);
+                        placed = true;
+                    } else {
+                        parent = parent.left;
+                    }
+                } else {
+                    if (parent.right == null) {
+                        parent.right = new Node<T>(x, parent);
+                        placed = true;
+                    } else {
+                        parent = parent.right;
+                    }
+                }
+            }
+            this.rebalanceUp(parent);
+        }
+        this.size++;
+
+    }
+
+    @Override
+    public final T remove(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.contains(x) : "Violation of: x is in this";
+
+        Node<T> n = this.find(x);
+        T ans = n.value;
+        this.removeNode(n);
+        return ans;
+    }
+
+    @Override
+    public final T removeAny() {
+        assert this.size() > 0 : "Violation of: this /= empty_set";
+
+        /*
+         * Remove the smallest element, as Set3a does; its node has no left
+         * child, so it is unlinked directly
+         */
+        Node<T> n = this.root;
+        while (n.left != null) {
+            n = n.left;
+        }
+        T ans = n.value;
+        this.removeNode(n);
+        return ans;
+    }
+
+    @Override
+    public final boolean contains(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        return this.find(x) != null;
+    }
+
+    @Override
+    public final int size() {
+
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new Set3cIterator();
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    /**
+     * Reports the height of the tree representing {@code this}.
+     *
+     * @return the height of the tree
+     * @ensures <pre>
+     * height = [the height of the tree representing this]  and
+     * height <= 1.45 * log2(|this| + 2)
+     * </pre>
+     */
+    public final int height() {
+        return height(this.root);
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Set3c}, which
+     * returns the elements in increasing order by following parent references
+     * from each node to its in-order successor.
+     */
+    private final class Set3cIterator implements Iterator<T> {
+
+        /**
+         * Node holding the next element to return, or null.
+         */
+        private Node<T> next;
+
+        /**
+         * No-argument constructor.
+         */
+        private Set3cIterator() {
+            Node<T> n = Set3c.this.root;
+            if (n != null) {
+                while (n.left != null) {
+                    n = n.left;
+                }
+            }
+            this.next = n;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            Node<T> n = this.next;
+            T result = n.value;
+            if (n.right != null) {
+                n = n.right;
+                while (n.left != null) {
+                    n = n.left;
+                }
+            } else {
+                while (n.parent != null && n.parent.right == n) {
+                    n = n.parent;
+                }
+                n = n.parent;
+            }
+            this.next = n;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
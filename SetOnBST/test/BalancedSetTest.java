@@ -0,0 +1,122 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.set.Set;
+import components.set.Set1L;
+
+/**
+ * JUnit test fixture for the balanced {@code Set} implementations: on top of
+ * the cases in {@code SetTest}, large ascending, descending and random runs
+ * that check the order, the contents, and that the height stays logarithmic.
+ */
+public abstract class BalancedSetTest extends SetTest {
+
+    /**
+     * Invokes the appropriate {@code Set} constructor for the implementation
+     * under test, with {@code Integer} elements, and returns the result.
+     *
+     * @return the new set
+     * @ensures constructorIntegerTest = {}
+     */
+    protected abstract Set<Integer> constructorIntegerTest();
+
+    /**
+     * Returns the height of the tree representing {@code s}.
+     *
+     * @param s
+     *            a set made by {@code constructorIntegerTest}
+     * @return the height of the tree representing s
+     */
+    protected abstract int height(Set<Integer> s);
+
+    /**
+     * Number of keys in the large tests.
+     */
+    private static final int LARGE_SIZE = 1_000_000;
+
+    /**
+     * Returns 2 * log2(n).
+     *
+     * @param n
+     *            the number of elements
+     * @return 2 * log2(n)
+     * @requires n > 0
+     */
+    private static double twiceLog2(int n) {
+        return 2 * Math.log(n) / Math.log(2);
+    }
+
+    @Test
+    public final void testHeightAfterAscendingInserts() {
+        Set<Integer> s = this.constructorIntegerTest();
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            s.add(i);
+        }
+        assertEquals(LARGE_SIZE, s.size());
+        assertTrue("height " + this.height(s),
+                this.height(s) <= twiceLog2(LARGE_SIZE));
+        int expected = 0;
+        for (Integer x : s) {
+            assertEquals(Integer.valueOf(expected), x);
+            expected++;
+        }
+        assertEquals(LARGE_SIZE, expected);
+    }
+
+    @Test
+    public final void testHeightAfterDescendingInsertsAndRemoves() {
+        Set<Integer> s = this.constructorIntegerTest();
+        for (int i = LARGE_SIZE - 1; i >= 0; i--) {
+            s.add(i);
+        }
+        /*
+         * Remove every even key, then the smallest half of what is left
+         */
+        for (int i = 0; i < LARGE_SIZE; i += 2) {
+            assertEquals(Integer.valueOf(i), s.remove(i));
+        }
+        final int half = LARGE_SIZE / 4;
+        for (int i = 0; i < half; i++) {
+            s.removeAny();
+        }
+        assertEquals(LARGE_SIZE / 2 - half, s.size());
+        assertTrue("height " + this.height(s),
+                this.height(s) <= twiceLog2(s.size()));
+        assertFalse(s.contains(LARGE_SIZE / 2 - 1));
+        assertTrue(s.contains(LARGE_SIZE - 1));
+        int previous = -1;
+        for (Integer x : s) {
+            assertTrue(previous < x);
+            assertTrue(x % 2 == 1);
+            previous = x;
+        }
+    }
+
+    @Test
+    public final void testRandomOperationsMatchReference() {
+        Set<Integer> s = this.constructorIntegerTest();
+        Set<Integer> ref = new Set1L<Integer>();
+        final long seed = 42L;
+        final int operations = 100_000;
+        final int range = 1000;
+        Random rnd = new Random(seed);
+        for (int i = 0; i < operations; i++) {
+            Integer x = rnd.nextInt(range);
+            if (ref.contains(x)) {
+                assertTrue(s.contains(x));
+                assertEquals(ref.remove(x), s.remove(x));
+            } else {
+                assertFalse(s.contains(x));
+                s.add(x);
+                ref.add(x);
+            }
+        }
+        assertEquals(ref, s);
+    }
+
+}
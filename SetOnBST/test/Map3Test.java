@@ -0,0 +1,188 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import components.map.Map;
+import components.map.Map.Pair;
+import components.map.Map1L;
+
+/**
+ * Customized JUnit test fixture for {@code Map3}.
+ */
+public class Map3Test extends MapTest {
+
+    @Override
+    protected final Map<String, String> constructorTest() {
+        return new Map3<String, String>();
+    }
+
+    @Override
+    protected final Map<String, String> constructorRef() {
+        return new Map1L<String, String>();
+    }
+
+    /**
+     * Number of keys in the large tests.
+     */
+    private static final int LARGE_SIZE = 1_000_000;
+
+    /**
+     * Returns 2 * log2(n).
+     *
+     * @param n
+     *            the number of pairs
+     * @return 2 * log2(n)
+     * @requires n > 0
+     */
+    private static double twiceLog2(int n) {
+        return 2 * Math.log(n) / Math.log(2);
+    }
+
+    /**
+     * Returns a {@code Map3} whose keys are the multiples of 10 from 10 to
+     * 100, each mapped to its own string form.
+     *
+     * @return the map
+     */
+    private static Map3<Integer, String> tens() {
+        final int ten = 10;
+        Map3<Integer, String> m = new Map3<Integer, String>();
+        for (int k = ten * ten; k >= ten; k -= ten) {
+            m.add(k, Integer.toString(k));
+        }
+        return m;
+    }
+
+    @Test
+    public final void testFirstKey() {
+        Map3<Integer, String> m = tens();
+        assertEquals(Integer.valueOf(10), m.firstKey());
+        m.remove(10);
+        assertEquals(Integer.valueOf(20), m.firstKey());
+    }
+
+    @Test
+    public final void testFloorKey() {
+        Map3<Integer, String> m = tens();
+        assertNull(m.floorKey(9));
+        assertEquals(Integer.valueOf(10), m.floorKey(10));
+        assertEquals(Integer.valueOf(40), m.floorKey(45));
+        assertEquals(Integer.valueOf(100), m.floorKey(1000));
+    }
+
+    @Test
+    public final void testCeilingKey() {
+        Map3<Integer, String> m = tens();
+        assertEquals(Integer.valueOf(10), m.ceilingKey(-5));
+        assertEquals(Integer.valueOf(50), m.ceilingKey(50));
+        assertEquals(Integer.valueOf(50), m.ceilingKey(41));
+        assertNull(m.ceilingKey(101));
+    }
+
+    @Test
+    public final void testFloorAndCeilingKeyEmpty() {
+        Map3<Integer, String> m = new Map3<Integer, String>();
+        assertNull(m.floorKey(0));
+        assertNull(m.ceilingKey(0));
+    }
+
+    @Test
+    public final void testRangeIterator() {
+        Map3<Integer, String> m = tens();
+        Iterator<Pair<Integer, String>> it = m.rangeIterator(25, 60);
+        for (int k = 30; k < 60; k += 10) {
+            assertTrue(it.hasNext());
+            Pair<Integer, String> p = it.next();
+            assertEquals(Integer.valueOf(k), p.key());
+            assertEquals(Integer.toString(k), p.value());
+        }
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    public final void testRangeIteratorEmptyRanges() {
+        Map3<Integer, String> m = tens();
+        assertFalse(m.rangeIterator(50, 50).hasNext());
+        assertFalse(m.rangeIterator(51, 59).hasNext());
+        assertFalse(m.rangeIterator(101, 200).hasNext());
+        assertFalse(new Map3<Integer, String>().rangeIterator(0, 1).hasNext());
+    }
+
+    @Test
+    public final void testIteratorIsInKeyOrder() {
+        Map3<Integer, String> m = tens();
+        int expected = 10;
+        for (Pair<Integer, String> p : m) {
+            assertEquals(Integer.valueOf(expected), p.key());
+            expected += 10;
+        }
+        assertEquals(110, expected);
+    }
+
+    @Test
+    public final void testHeightAfterAscendingInserts() {
+        Map3<Integer, Integer> m = new Map3<Integer, Integer>();
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            m.add(i, -i);
+        }
+        assertEquals(LARGE_SIZE, m.size());
+        assertTrue("height " + m.height(),
+                m.height() <= twiceLog2(LARGE_SIZE));
+        int expected = 0;
+        for (Pair<Integer, Integer> p : m) {
+            assertEquals(Integer.valueOf(expected), p.key());
+            assertEquals(Integer.valueOf(-expected), p.value());
+            expected++;
+        }
+        assertEquals(LARGE_SIZE, expected);
+    }
+
+    @Test
+    public final void testRandomOperationsMatchReference() {
+        Map3<Integer, Integer> m = new Map3<Integer, Integer>();
+        TreeMap<Integer, Integer> ref = new TreeMap<Integer, Integer>();
+        final long seed = 42L;
+        final int operations = 100_000;
+        final int range = 1000;
+        final int maxWidth = 50;
+        Random rnd = new Random(seed);
+        for (int i = 0; i < operations; i++) {
+            Integer k = rnd.nextInt(range);
+            if (ref.containsKey(k)) {
+                assertTrue(m.hasKey(k));
+                assertEquals(ref.get(k), m.value(k));
+                Pair<Integer, Integer> p = m.remove(k);
+                assertEquals(k, p.key());
+                assertEquals(ref.remove(k), p.value());
+            } else {
+                assertFalse(m.hasKey(k));
+                m.add(k, i);
+                ref.put(k, i);
+            }
+            assertEquals(ref.floorKey(k), m.floorKey(k));
+            assertEquals(ref.ceilingKey(k), m.ceilingKey(k));
+            if (!ref.isEmpty()) {
+                assertEquals(ref.firstKey(), m.firstKey());
+            }
+            Integer high = k + rnd.nextInt(maxWidth);
+            Iterator<Pair<Integer, Integer>> it = m.rangeIterator(k, high);
+            for (java.util.Map.Entry<Integer, Integer> e : ref
+                    .subMap(k, high).entrySet()) {
+                assertTrue(it.hasNext());
+                Pair<Integer, Integer> p = it.next();
+                assertEquals(e.getKey(), p.key());
+                assertEquals(e.getValue(), p.value());
+            }
+            assertFalse(it.hasNext());
+        }
+        assertEquals(ref.size(), m.size());
+    }
+
+}
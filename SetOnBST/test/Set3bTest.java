@@ -0,0 +1,29 @@
+import components.set.Set;
+import components.set.Set1L;
+
+/**
+ * Customized JUnit test fixture for {@code Set3b}.
+ */
+public class Set3bTest extends BalancedSetTest {
+
+    @Override
+    protected final Set<String> constructorTest() {
+        return new Set3b<String>();
+    }
+
+    @Override
+    protected final Set<String> constructorRef() {
+        return new Set1L<String>();
+    }
+
+    @Override
+    protected final Set<Integer> constructorIntegerTest() {
+        return new Set3b<Integer>();
+    }
+
+    @Override
+    protected final int height(Set<Integer> s) {
+        return ((Set3b<Integer>) s).height();
+    }
+
+}
@@ -0,0 +1,242 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import components.set.Set;
+import components.set.Set1L;
+
+/**
+ * Customized JUnit test fixture for {@code Set3c}.
+ */
+public class Set3cTest extends BalancedSetTest {
+
+    @Override
+    protected final Set<String> constructorTest() {
+        return new Set3c<String>();
+    }
+
+    @Override
+    protected final Set<String> constructorRef() {
+        return new Set1L<String>();
+    }
+
+    @Override
+    protected final Set<Integer> constructorIntegerTest() {
+        return new Set3c<Integer>();
+    }
+
+    @Override
+    protected final int height(Set<Integer> s) {
+        return ((Set3c<Integer>) s).height();
+    }
+
+    /**
+     * Returns the elements of {@code s} in iteration order, as a string.
+     *
+     * @param s
+     *            the set
+     * @return the elements of s, separated by spaces
+     */
+    private static String order(Set<Integer> s) {
+        StringBuilder sb = new StringBuilder();
+        Iterator<Integer> it = s.iterator();
+        while (it.hasNext()) {
+            sb.append(it.next());
+            if (it.hasNext()) {
+                sb.append(' ');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Checks that iterating over {@code s} gives the elements of {@code ref}
+     * in increasing order.
+     *
+     * @param ref
+     *            the expected elements
+     * @param s
+     *            the set to check
+     */
+    private static void assertSameOrder(TreeSet<Integer> ref,
+            Set<Integer> s) {
+        assertEquals(ref.size(), s.size());
+        Iterator<Integer> it = s.iterator();
+        for (Integer y : ref) {
+            assertTrue(it.hasNext());
+            assertEquals(y, it.next());
+        }
+        assertFalse(it.hasNext());
+    }
+
+    /**
+     * Returns a {@code Set3c} holding {@code args}, added in that order.
+     *
+     * @param args
+     *            the elements
+     * @return the set
+     * @requires [the entries of args are distinct]
+     */
+    private static Set3c<Integer> createFromArgs(Integer... args) {
+        Set3c<Integer> s = new Set3c<Integer>();
+        for (Integer x : args) {
+            s.add(x);
+        }
+        return s;
+    }
+
+    @Test
+    public final void testRemoveWithSingleRotation() {
+        /*
+         * Ascending inserts of 1 to 7 give the perfect tree rooted at 4;
+         * removing 1, 2 and 3 leaves the root's left subtree empty and its
+         * right subtree of height 2, so the root is rotated left
+         */
+        final int n = 7;
+        Set3c<Integer> s = createFromArgs(1, 2, 3, 4, 5, 6, n);
+        assertEquals(3, s.height());
+        s.remove(1);
+        s.remove(2);
+        assertEquals("3 4 5 6 7", order(s));
+        s.remove(3);
+        assertEquals("4 5 6 7", order(s));
+        assertEquals(3, s.height());
+        s.remove(n);
+        s.remove(4);
+        assertEquals("5 6", order(s));
+        assertEquals(2, s.height());
+    }
+
+    @Test
+    public final void testRemoveWithDoubleRotation() {
+        /*
+         * Removing 10 leaves 20 with an empty left subtree and a right child
+         * 30 whose only child is its left child 25: a right-left case
+         */
+        final Integer[] args = { 20, 10, 30, 25 };
+        Set3c<Integer> s = createFromArgs(args);
+        assertEquals(3, s.height());
+        s.remove(args[1]);
+        assertEquals("20 25 30", order(s));
+        assertEquals(2, s.height());
+        s.add(args[1]);
+        assertEquals("10 20 25 30", order(s));
+        assertEquals(3, s.height());
+    }
+
+    @Test
+    public final void testRemoveTwoChildNodes() {
+        /*
+         * Ascending inserts of 0 to 62 build the perfect tree, in which every
+         * odd element has two children; removing those in turn exercises the
+         * successor copy and the parent links around it
+         */
+        final int n = 63;
+        Set3c<Integer> s = new Set3c<Integer>();
+        TreeSet<Integer> ref = new TreeSet<Integer>();
+        for (int i = 0; i < n; i++) {
+            s.add(i);
+            ref.add(i);
+        }
+        for (int i = 1; i < n; i += 2) {
+            assertEquals(Integer.valueOf(i), s.remove(i));
+            ref.remove(i);
+            assertSameOrder(ref, s);
+        }
+    }
+
+    @Test
+    public final void testIterationAndHeightAfterRandomRemoves() {
+        final long seed = 42L;
+        final int operations = 200_000;
+        final int range = 5_000;
+        final int checkEvery = 10_000;
+        final double avlFactor = 1.45;
+        Random rnd = new Random(seed);
+        Set3c<Integer> s = new Set3c<Integer>();
+        TreeSet<Integer> ref = new TreeSet<Integer>();
+        for (int i = 1; i <= operations; i++) {
+            Integer x = rnd.nextInt(range);
+            if (ref.contains(x)) {
+                assertEquals(x, s.remove(x));
+                ref.remove(x);
+            } else {
+                s.add(x);
+                ref.add(x);
+            }
+            if (i % checkEvery == 0) {
+                assertSameOrder(ref, s);
+                double log2 = Math.log(ref.size() + 2) / Math.log(2);
+                assertTrue("height " + s.height(),
+                        s.height() <= avlFactor * log2);
+            }
+        }
+    }
+
+    /**
+     * Looks up {@code keys}, cycling through them, {@code lookups} times in
+     * {@code s} and returns how many were found.
+     *
+     * @param s
+     *            the set
+     * @param keys
+     *            the keys to look up
+     * @param lookups
+     *            the number of lookups
+     * @return the number of lookups that found their key
+     * @requires |keys| > 0
+     */
+    private static int countHits(Set<Integer> s, Integer[] keys,
+            int lookups) {
+        int hits = 0;
+        for (int i = 0; i < lookups; i++) {
+            if (s.contains(keys[i % keys.length])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Test
+    public final void testContainsAllocatesNothing() {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        /*
+         * Per-thread allocation counts are a HotSpot extension; without
+         * them there is nothing to measure
+         */
+        if (mx instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean =
+                    (com.sun.management.ThreadMXBean) mx;
+            final int size = 10_000;
+            final int lookups = 1_000_000;
+            Set3c<Integer> s = new Set3c<Integer>();
+            Integer[] keys = new Integer[2 * size];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = i;
+                if (i < size) {
+                    s.add(keys[i]);
+                }
+            }
+            long id = Thread.currentThread().getId();
+            /*
+             * The first pass is not measured: one-time work by the JVM, such
+             * as compiling the loop, can allocate on this thread
+             */
+            assertEquals(lookups / 2, countHits(s, keys, lookups));
+            long before = bean.getThreadAllocatedBytes(id);
+            int hits = countHits(s, keys, lookups);
+            long allocated = bean.getThreadAllocatedBytes(id) - before;
+            assertEquals(lookups / 2, hits);
+            assertEquals(0, allocated);
+        }
+    }
+
+}
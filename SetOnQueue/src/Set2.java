@@ -1,4 +1,5 @@
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 import components.queue.Queue;
 import components.queue.Queue1L;
@@ -6,24 +7,155 @@ import components.set.Set;
 import components.set.SetSecondary;
 
 /**
- * {@code Set} represented as a {@code Queue} of elements with implementations
- * of primary methods.
+ * {@code Set} represented as a {@code Queue} of cells holding elements, with
+ * implementations of primary methods. The queue is kept as a self-organizing
+ * list: {@code contains} scans it from the front, stops at the first match,
+ * and then moves the element found forward according to a {@code Heuristic}
+ * chosen at construction. An element is moved by shifting the contents of the
+ * cells it passes, so the queue itself is never rotated and the work done is
+ * proportional to the position of the element found. Under skewed access
+ * patterns the most used elements gather near the front, where lookups cost
+ * almost nothing; the numbers of hits and misses are counted.
  *
  * @param <T>
  *            type of {@code Set} elements
- * @convention |$this.elements| = |entries($this.elements)|
- * @correspondence this = entries($this.elements)
+ * @mathdefinitions <pre>
+ * ELEMENTS(
+ *   q: string of Cell
+ *  ): string of T satisfies
+ *  [the string of the entry fields of the cells of q, in the same order]
+ * </pre>
+ * @convention <pre>
+ * [the cells of $this.elements are distinct objects with non-null entry
+ *  fields]  and
+ * |ELEMENTS($this.elements)| = |entries(ELEMENTS($this.elements))|  and
+ * $this.hits >= 0  and  $this.misses >= 0
+ * </pre>
+ * @correspondence this = entries(ELEMENTS($this.elements))
  */
 public class Set2<T> extends SetSecondary<T> {
 
+    /**
+     * How an element found by a lookup is moved forward in the list.
+     */
+    public enum Heuristic {
+        /**
+         * The element stays where it is.
+         */
+        NONE,
+        /**
+         * The element is moved to the front of the list.
+         */
+        MOVE_TO_FRONT,
+        /**
+         * The element trades places with the one just before it.
+         */
+        TRANSPOSE
+    }
+
     /*
      * Private members --------------------------------------------------------
      */
 
     /**
-     * Elements included in {@code this}.
+     * Mutable holder of one entry of the list, so that entries can be moved
+     * between positions without changing the {@code Queue}.
+     *
+     * @param <E>
+     *            type of entry
+     */
+    private static final class Cell<E> {
+
+        /**
+         * The entry.
+         */
+        private E entry;
+
+        /**
+         * Constructor from entry.
+         *
+         * @param entry
+         *            the entry
+         */
+        private Cell(E entry) {
+            this.entry = entry;
+        }
+
+    }
+
+    /**
+     * Cells holding the elements included in {@code this}.
+     */
+    private Queue<Cell<T>> elements;
+
+    /**
+     * How elements found by lookups are moved forward.
+     */
+    private final Heuristic heuristic;
+
+    /**
+     * Number of lookups that found their element.
+     */
+    private long hits;
+
+    /**
+     * Number of lookups that did not find their element.
+     */
+    private long misses;
+
+    /**
+     * Moves the entry of cell {@code target} to the first cell of {@code q},
+     * shifting the entries of the cells before it back by one.
+     *
+     * @param <E>
+     *            type of entry
+     * @param q
+     *            the {@code Queue} of cells
+     * @param target
+     *            the cell whose entry is moved
+     * @updates q
+     * @requires target is one of the cells of q
+     * @ensures <pre>
+     * [the entry fields of the cells of q, from the front, are #target.entry
+     *  followed by those of the cells of #q other than target, in order]
+     * </pre>
      */
-    private Queue<T> elements;
+    private static <E> void shiftToFront(Queue<Cell<E>> q, Cell<E> target) {
+        Iterator<Cell<E>> it = q.iterator();
+        Cell<E> c = it.next();
+        E carry = target.entry;
+        while (c != target) {
+            E t = c.entry;
+            c.entry = carry;
+            carry = t;
+            c = it.next();
+        }
+        c.entry = carry;
+    }
+
+    /**
+     * Returns the cell of {@code q} holding {@code x}, or null if there is
+     * none, scanning from the front and stopping at the first match.
+     *
+     * @param <T>
+     *            type of {@code Queue} entries
+     * @param q
+     *            the {@code Queue} to be searched
+     * @param x
+     *            the entry to be searched for
+     * @return the cell holding x, or null
+     */
+    private static <T> Cell<T> find(Queue<Cell<T>> q, T x) {
+        Iterator<Cell<T>> it = q.iterator();
+        Cell<T> found = null;
+        while (found == null && it.hasNext()) {
+            Cell<T> c = it.next();
+            if (c.entry.equals(x)) {
+                found = c;
+            }
+        }
+        return found;
+    }
 
     /**
      * Finds {@code x} in {@code q} and, if such exists, moves it to the front
@@ -37,18 +169,17 @@ public class Set2<T> extends SetSecondary<T> {
      *            the entry to be searched for
      * @updates q
      * @ensures <pre>
-     * perms(q, #q)  and
-     * if <x> is substring of q
-     *  then <x> is prefix of q
+     * perms(ELEMENTS(q), ELEMENTS(#q))  and
+     * if <x> is substring of ELEMENTS(q)
+     *  then <x> is prefix of ELEMENTS(q)
      * </pre>
      */
-    private static <T> void moveToFront(Queue<T> q, T x) {
+    private static <T> void moveToFront(Queue<Cell<T>> q, T x) {
         assert q != null : "Violation of: q is not null";
 
-        for (int i = 0; i < q.length() && !q.front().equals(x); i++) {
-
-            q.rotate(1);
-
+        Cell<T> found = find(q, x);
+        if (found != null) {
+            shiftToFront(q, found);
         }
 
     }
@@ -57,7 +188,9 @@ public class Set2<T> extends SetSecondary<T> {
      * Creator of initial representation.
      */
     private void createNewRep() {
-        this.elements = new Queue1L<T>();
+        this.elements = new Queue1L<Cell<T>>();
+        this.hits = 0;
+        this.misses = 0;
     }
 
     /*
@@ -65,9 +198,21 @@ public class Set2<T> extends SetSecondary<T> {
      */
 
     /**
-     * No-argument constructor.
+     * No-argument constructor; lookups move the element found to the front.
      */
     public Set2() {
+        this(Heuristic.MOVE_TO_FRONT);
+    }
+
+    /**
+     * Constructor from heuristic.
+     *
+     * @param heuristic
+     *            how lookups move the element found
+     */
+    public Set2(Heuristic heuristic) {
+        assert heuristic != null : "Violation of: heuristic is not null";
+        this.heuristic = heuristic;
         this.createNewRep();
     }
 
@@ -79,7 +224,8 @@ public class Set2<T> extends SetSecondary<T> {
     @Override
     public final Set<T> newInstance() {
         try {
-            return this.getClass().getConstructor().newInstance();
+            return this.getClass().getConstructor(Heuristic.class)
+                    .newInstance(this.heuristic);
         } catch (ReflectiveOperationException e) {
             throw new AssertionError(
                     "Cannot construct object of type " + this.getClass());
@@ -104,6 +250,8 @@ public class Set2<T> extends SetSecondary<T> {
          */
         Set2<T> localSource = (Set2<T>) source;
         this.elements = localSource.elements;
+        this.hits = localSource.hits;
+        this.misses = localSource.misses;
         localSource.createNewRep();
     }
 
@@ -114,20 +262,21 @@ public class Set2<T> extends SetSecondary<T> {
     @Override
     public final void add(T x) {
         assert x != null : "Violation of: x is not null";
-        assert !this.contains(x) : "Violation of: x is not in this";
+        assert find(this.elements, x) == null : ""
+                + "Violation of: x is not in this";
 
-        this.elements.enqueue(x);
+        this.elements.enqueue(new Cell<T>(x));
 
     }
 
     @Override
     public final T remove(T x) {
         assert x != null : "Violation of: x is not null";
-        assert this.contains(x) : "Violation of: x is in this";
+        assert find(this.elements, x) != null : "Violation of: x is in this";
 
         moveToFront(this.elements, x);
 
-        return this.elements.dequeue();
+        return this.elements.dequeue().entry;
 
     }
 
@@ -135,21 +284,40 @@ public class Set2<T> extends SetSecondary<T> {
     public final T removeAny() {
         assert this.size() > 0 : "Violation of: this /= empty_set";
 
-        return this.elements.dequeue();
+        return this.elements.dequeue().entry;
     }
 
     @Override
     public final boolean contains(T x) {
         assert x != null : "Violation of: x is not null";
 
-        boolean ans = false;
-
-        if (this.elements.length() != 0) {
-            moveToFront(this.elements, x);
-            ans = this.elements.front().equals(x);
+        Iterator<Cell<T>> it = this.elements.iterator();
+        Cell<T> previous = null;
+        Cell<T> found = null;
+        while (found == null && it.hasNext()) {
+            Cell<T> c = it.next();
+            if (c.entry.equals(x)) {
+                found = c;
+            } else {
+                previous = c;
+            }
+        }
+        if (found == null) {
+            this.misses++;
+        } else {
+            this.hits++;
+            if (previous != null) {
+                if (this.heuristic == Heuristic.MOVE_TO_FRONT) {
+                    shiftToFront(this.elements, found);
+                } else if (this.heuristic == Heuristic.TRANSPOSE) {
+                    T t = found.entry;
+                    found.entry = previous.entry;
+                    previous.entry = t;
+                }
+            }
         }
 
-        return ans;
+        return found != null;
     }
 
     @Override
@@ -161,7 +329,75 @@ public class Set2<T> extends SetSecondary<T> {
 
     @Override
     public final Iterator<T> iterator() {
-        return this.elements.iterator();
+        return new Set2Iterator();
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    /**
+     * Reports the number of calls to {@code contains} that found their
+     * element since {@code this} was created or cleared.
+     *
+     * @return the number of hits
+     */
+    public final long hits() {
+        return this.hits;
+    }
+
+    /**
+     * Reports the number of calls to {@code contains} that did not find their
+     * element since {@code this} was created or cleared.
+     *
+     * @return the number of misses
+     */
+    public final long misses() {
+        return this.misses;
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Set2}.
+     */
+    private final class Set2Iterator implements Iterator<T> {
+
+        /**
+         * Iterator over the cells of the representation.
+         */
+        private final Iterator<Cell<T>> cells;
+
+        /**
+         * No-argument constructor.
+         */
+        private Set2Iterator() {
+            this.cells = Set2.this.elements.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.cells.hasNext();
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            return this.cells.next().entry;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
     }
 
 }
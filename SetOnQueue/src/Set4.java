@@ -0,0 +1,400 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.set.Set;
+import components.set.SetSecondary;
+
+/**
+ * {@code Set} represented as a hash table with open addressing (using linear
+ * probing) over a dense array of elements, with implementations of primary
+ * methods. The elements themselves are kept packed at the front of an array,
+ * so {@code removeAny} and iteration cost O(1) per element; the table holds
+ * indices into that array. {@code add}, {@code contains} and {@code remove}
+ * take amortized O(1) time: the table is doubled whenever it would become
+ * more than half full, and deletion shifts later entries of a probe sequence
+ * back rather than leaving tombstones.
+ *
+ * @param <T>
+ *            type of {@code Set} elements
+ * @mathdefinitions <pre>
+ * HOME(
+ *   h: integer,
+ *   m: integer
+ *  ): integer satisfies
+ *  [the slot in a table of 2^m slots at which the probe sequence for hash
+ *   code h starts]
+ * </pre>
+ * @convention <pre>
+ * 0 <= $this.size <= |$this.elements| = |$this.hashes|  and
+ * |$this.slots| = 2^$this.log2Capacity  and  2 * $this.size <= |$this.slots|  and
+ * [the entries of $this.elements[0, $this.size) are not null and no two of
+ *  them are equal]  and
+ * for all i: integer where (0 <= i < $this.size)
+ *   ($this.hashes[i] = [$this.elements[i].hashCode()])  and
+ * [the nonzero entries of $this.slots are exactly 1 to $this.size, each
+ *  once]  and
+ * [for each slot s with $this.slots[s] = i + 1, no slot on the cyclic path
+ *  from HOME($this.hashes[i], $this.log2Capacity) to s is 0]
+ * </pre>
+ * @correspondence this = entries($this.elements[0, $this.size))
+ */
+public class Set4<T> extends SetSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial number of table slots (a power of 2).
+     */
+    private static final int INITIAL_LOG2_CAPACITY = 4;
+
+    /**
+     * Multiplier for Fibonacci hashing: 2^32 divided by the golden ratio.
+     */
+    private static final int GOLDEN = 0x9E3779B9;
+
+    /**
+     * Number of bits in an {@code int}.
+     */
+    private static final int INT_BITS = 32;
+
+    /**
+     * Elements, packed in positions [0, size).
+     */
+    private T[] elements;
+
+    /**
+     * Hash codes of the elements, parallel to {@code elements}.
+     */
+    private int[] hashes;
+
+    /**
+     * Hash table: each slot holds 0 if empty, or i + 1 for the element at
+     * position i of {@code elements}.
+     */
+    private int[] slots;
+
+    /**
+     * Base-2 logarithm of the number of slots.
+     */
+    private int log2Capacity;
+
+    /**
+     * Number of elements.
+     */
+    private int size;
+
+    /**
+     * Returns the slot at which the probe sequence for hash code {@code h}
+     * starts, in a table of 2^{@code log2Capacity} slots.
+     *
+     * @param h
+     *            the hash code
+     * @param log2Capacity
+     *            base-2 logarithm of the number of slots
+     * @return the home slot
+     * @requires 1 <= log2Capacity <= 30
+     * @ensures home = HOME(h, log2Capacity)
+     */
+    private static int home(int h, int log2Capacity) {
+        return (h * GOLDEN) >>> (INT_BITS - log2Capacity);
+    }
+
+    /**
+     * Returns the slot of the table holding {@code x}, or -1 if {@code x} is
+     * not in {@code this}.
+     *
+     * @param x
+     *            the element to look for
+     * @param h
+     *            the hash code of x
+     * @return the slot holding x, or -1
+     * @requires h = x.hashCode()
+     */
+    private int findSlot(T x, int h) {
+        int mask = this.slots.length - 1;
+        int s = home(h, this.log2Capacity);
+        int found = -1;
+        while (found < 0 && this.slots[s] != 0) {
+            int i = this.slots[s] - 1;
+            if (this.hashes[i] == h && this.elements[i].equals(x)) {
+                found = s;
+            } else {
+                s = (s + 1) & mask;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Puts {@code i + 1} into the first empty slot of the probe sequence for
+     * hash code {@code h}.
+     *
+     * @param i
+     *            the position in elements
+     * @param h
+     *            the hash code of elements[i]
+     * @updates this.slots
+     * @requires [the table has an empty slot]
+     */
+    private void insertSlot(int i, int h) {
+        int mask = this.slots.length - 1;
+        int s = home(h, this.log2Capacity);
+        while (this.slots[s] != 0) {
+            s = (s + 1) & mask;
+        }
+        this.slots[s] = i + 1;
+    }
+
+    /**
+     * Empties slot {@code s}, shifting back later entries of the probe run so
+     * that every entry is still reachable from its home slot.
+     *
+     * @param s
+     *            the slot to empty
+     * @updates this.slots
+     * @requires this.slots[s] /= 0
+     */
+    private void deleteSlot(int s) {
+        int mask = this.slots.length - 1;
+        int hole = s;
+        int j = (s + 1) & mask;
+        while (this.slots[j] != 0) {
+            int k = home(this.hashes[this.slots[j] - 1], this.log2Capacity);
+            /*
+             * The entry at j may move to the hole unless its home slot lies
+             * cyclically in (hole, j]
+             */
+            boolean stays;
+            if (hole <= j) {
+                stays = hole < k && k <= j;
+            } else {
+                stays = hole < k || k <= j;
+            }
+            if (!stays) {
+                this.slots[hole] = this.slots[j];
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        this.slots[hole] = 0;
+    }
+
+    /**
+     * Removes the element at position {@code i} of {@code elements}, whose
+     * slot has already been emptied, by moving the last element into its
+     * place.
+     *
+     * @param i
+     *            the position to remove
+     * @updates this
+     * @requires 0 <= i < this.size and [no slot holds i + 1]
+     */
+    private void removeAt(int i) {
+        int last = this.size - 1;
+        if (i != last) {
+            int mask = this.slots.length - 1;
+            int s = home(this.hashes[last], this.log2Capacity);
+            while (this.slots[s] != last + 1) {
+                s = (s + 1) & mask;
+            }
+            this.slots[s] = i + 1;
+            this.elements[i] = this.elements[last];
+            this.hashes[i] = this.hashes[last];
+        }
+        this.elements[last] = null;
+        this.size = last;
+    }
+
+    /**
+     * Doubles the number of slots and reinserts every element.
+     *
+     * @updates this.slots, this.log2Capacity
+     */
+    private void growTable() {
+        this.log2Capacity++;
+        this.slots = new int[1 << this.log2Capacity];
+        for (int i = 0; i < this.size; i++) {
+            this.insertSlot(i, this.hashes[i]);
+        }
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep() {
+        this.log2Capacity = INITIAL_LOG2_CAPACITY;
+        this.slots = new int[1 << INITIAL_LOG2_CAPACITY];
+        this.elements = (T[]) (new Object[this.slots.length / 2]);
+        this.hashes = new int[this.slots.length / 2];
+        this.size = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public Set4() {
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Set<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(Set<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Set4<?> : ""
+                + "Violation of: source is of dynamic type Set4<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Set4<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        Set4<T> localSource = (Set4<T>) source;
+        this.elements = localSource.elements;
+        this.hashes = localSource.hashes;
+        this.slots = localSource.slots;
+        this.log2Capacity = localSource.log2Capacity;
+        this.size = localSource.size;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert !this.contains(x) : "Violation of: x is not in this";
+
+        if (2 * (this.size + 1) > this.slots.length) {
+            this.growTable();
+        }
+        if (this.size == this.elements.length) {
+            this.elements = Arrays.copyOf(this.elements, 2 * this.size);
+            this.hashes = Arrays.copyOf(this.hashes, 2 * this.size);
+        }
+        int h = x.hashCode();
+        this.elements[this.size] = x;
+        this.hashes[this.size] = h;
+        this.insertSlot(this.size, h);
+        this.size++;
+
+    }
+
+    @Override
+    public final T remove(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.contains(x) : "Violation of: x is in this";
+
+        int s = this.findSlot(x, x.hashCode());
+        int i = this.slots[s] - 1;
+        T ans = this.elements[i];
+        this.deleteSlot(s);
+        this.removeAt(i);
+        return ans;
+    }
+
+    @Override
+    public final T removeAny() {
+        assert this.size() > 0 : "Violation of: this /= empty_set";
+
+        int last = this.size - 1;
+        T ans = this.elements[last];
+        this.deleteSlot(this.findSlot(ans, this.hashes[last]));
+        this.removeAt(last);
+        return ans;
+    }
+
+    @Override
+    public final boolean contains(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        return this.findSlot(x, x.hashCode()) >= 0;
+    }
+
+    @Override
+    public final int size() {
+
+        return this.size;
+
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new Set4Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Set4}.
+     */
+    private final class Set4Iterator implements Iterator<T> {
+
+        /**
+         * Position in elements of the next element to return.
+         */
+        private int currentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private Set4Iterator() {
+            this.currentIndex = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.currentIndex < Set4.this.size;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next = Set4.this.elements[this.currentIndex];
+            this.currentIndex++;
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
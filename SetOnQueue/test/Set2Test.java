@@ -1,3 +1,11 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+
+import org.junit.Test;
+
 import components.set.Set;
 import components.set.Set1L;
 
@@ -16,4 +24,141 @@ public class Set2Test extends SetTest {
         return new Set1L<String>();
     }
 
+    @Override
+    protected final Set<Integer> constructorIntegerTest() {
+        return new Set2<Integer>();
+    }
+
+    /**
+     * Returns a {@code Set2} with the given heuristic holding 0 to
+     * {@code n - 1}, in that order.
+     *
+     * @param heuristic
+     *            the heuristic
+     * @param n
+     *            the number of elements
+     * @return the set
+     */
+    private static Set2<Integer> ascending(Set2.Heuristic heuristic, int n) {
+        Set2<Integer> s = new Set2<Integer>(heuristic);
+        for (int i = 0; i < n; i++) {
+            s.add(i);
+        }
+        return s;
+    }
+
+    /**
+     * Returns the elements of {@code s} in iteration order, as a string.
+     *
+     * @param s
+     *            the set
+     * @return the elements of s, separated by spaces
+     */
+    private static String order(Set<Integer> s) {
+        StringBuilder sb = new StringBuilder();
+        Iterator<Integer> it = s.iterator();
+        while (it.hasNext()) {
+            sb.append(it.next());
+            if (it.hasNext()) {
+                sb.append(' ');
+            }
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public final void testMoveToFrontKeepsOrderOfOthers() {
+        final int n = 5;
+        Set2<Integer> s = ascending(Set2.Heuristic.MOVE_TO_FRONT, n);
+        assertTrue(s.contains(3));
+        assertEquals("3 0 1 2 4", order(s));
+        assertTrue(s.contains(4));
+        assertEquals("4 3 0 1 2", order(s));
+        assertTrue(s.contains(4));
+        assertEquals("4 3 0 1 2", order(s));
+    }
+
+    @Test
+    public final void testTransposeMovesForwardOne() {
+        final int n = 5;
+        Set2<Integer> s = ascending(Set2.Heuristic.TRANSPOSE, n);
+        assertTrue(s.contains(3));
+        assertEquals("0 1 3 2 4", order(s));
+        assertTrue(s.contains(3));
+        assertEquals("0 3 1 2 4", order(s));
+        assertTrue(s.contains(0));
+        assertEquals("0 3 1 2 4", order(s));
+    }
+
+    @Test
+    public final void testNoneKeepsOrder() {
+        final int n = 5;
+        Set2<Integer> s = ascending(Set2.Heuristic.NONE, n);
+        assertTrue(s.contains(3));
+        assertTrue(s.contains(4));
+        assertEquals("0 1 2 3 4", order(s));
+    }
+
+    @Test
+    public final void testRemoveKeepsOrderOfOthers() {
+        final int n = 5;
+        Set2<Integer> s = ascending(Set2.Heuristic.NONE, n);
+        assertEquals(Integer.valueOf(2), s.remove(2));
+        assertEquals("0 1 3 4", order(s));
+    }
+
+    @Test
+    public final void testHitAndMissCounters() {
+        final int n = 10;
+        Set2<Integer> s = ascending(Set2.Heuristic.MOVE_TO_FRONT, n);
+        long hits = s.hits();
+        long misses = s.misses();
+        assertTrue(s.contains(7));
+        assertFalse(s.contains(n));
+        assertFalse(s.contains(-1));
+        assertEquals(hits + 1, s.hits());
+        assertEquals(misses + 2, s.misses());
+        s.clear();
+        assertEquals(0, s.hits());
+        assertEquals(0, s.misses());
+    }
+
+    @Test
+    public final void testCountersCountOnlyClientLookups() {
+        final int n = 10;
+        Set2<Integer> s = ascending(Set2.Heuristic.TRANSPOSE, n);
+        assertEquals(0, s.hits());
+        assertEquals(0, s.misses());
+        assertTrue(s.contains(7));
+        assertEquals(1, s.hits());
+        assertEquals(0, s.misses());
+        s.add(n);
+        assertEquals(1, s.hits());
+        assertEquals(0, s.misses());
+        s.remove(3);
+        assertEquals(1, s.hits());
+        assertEquals(0, s.misses());
+        assertEquals("0 1 2 4 5 7 6 8 9 10", order(s));
+    }
+
+    @Test
+    public final void testNewInstanceKeepsHeuristic() {
+        Set2<Integer> s = new Set2<Integer>(Set2.Heuristic.TRANSPOSE);
+        Set<Integer> t = s.newInstance();
+        final int size = 3;
+        for (int i = 0; i < size; i++) {
+            t.add(i);
+        }
+        assertTrue(t.contains(2));
+        assertEquals("0 2 1", order(t));
+    }
+
+    @Test
+    public final void testRandomOperationsWithOtherHeuristics() {
+        assertRandomOperationsMatchReference(
+                new Set2<Integer>(Set2.Heuristic.NONE));
+        assertRandomOperationsMatchReference(
+                new Set2<Integer>(Set2.Heuristic.TRANSPOSE));
+    }
+
 }
@@ -0,0 +1,116 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import components.set.Set;
+import components.set.Set1L;
+
+/**
+ * Customized JUnit test fixture for {@code Set4}.
+ */
+public class Set4Test extends SetTest {
+
+    @Override
+    protected final Set<String> constructorTest() {
+        return new Set4<String>();
+    }
+
+    @Override
+    protected final Set<String> constructorRef() {
+        return new Set1L<String>();
+    }
+
+    @Override
+    protected final Set<Integer> constructorIntegerTest() {
+        return new Set4<Integer>();
+    }
+
+    /**
+     * Number of elements in the large tests.
+     */
+    private static final int LARGE_SIZE = 200_000;
+
+    @Test
+    public final void testLargeAddContainsRemove() {
+        Set<Integer> s = new Set4<Integer>();
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            s.add(i);
+        }
+        assertEquals(LARGE_SIZE, s.size());
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            assertTrue(s.contains(i));
+        }
+        assertFalse(s.contains(-1));
+        assertFalse(s.contains(LARGE_SIZE));
+        for (int i = 0; i < LARGE_SIZE; i += 2) {
+            assertEquals(Integer.valueOf(i), s.remove(i));
+        }
+        assertEquals(LARGE_SIZE / 2, s.size());
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            assertEquals(i % 2 == 1, s.contains(i));
+        }
+    }
+
+    @Test
+    public final void testIteratorAndRemoveAnyVisitEachElementOnce() {
+        Set<Integer> s = new Set4<Integer>();
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            s.add(i);
+        }
+        for (int i = 0; i < LARGE_SIZE; i += 3) {
+            s.remove(i);
+        }
+        boolean[] seen = new boolean[LARGE_SIZE];
+        int count = 0;
+        for (Integer x : s) {
+            assertFalse(seen[x]);
+            seen[x] = true;
+            count++;
+        }
+        assertEquals(s.size(), count);
+        while (s.size() > 0) {
+            Integer x = s.removeAny();
+            assertTrue(seen[x]);
+            seen[x] = false;
+            assertFalse(s.contains(x));
+        }
+        for (boolean b : seen) {
+            assertFalse(b);
+        }
+    }
+
+    @Test
+    public final void testCollidingHashCodes() {
+        /*
+         * "Aa" and "BB" have the same hashCode, so all strings made of 10 of
+         * these blocks collide
+         */
+        final int blocks = 10;
+        Set<String> s = new Set4<String>();
+        Set<String> ref = new Set1L<String>();
+        for (int bits = 0; bits < (1 << blocks); bits++) {
+            StringBuilder sb = new StringBuilder();
+            for (int b = 0; b < blocks; b++) {
+                if ((bits & (1 << b)) == 0) {
+                    sb.append("Aa");
+                } else {
+                    sb.append("BB");
+                }
+            }
+            s.add(sb.toString());
+            ref.add(sb.toString());
+        }
+        assertEquals(ref, s);
+        for (String x : ref) {
+            if (x.startsWith("Aa")) {
+                s.remove(x);
+            }
+        }
+        for (String x : ref) {
+            assertEquals(!x.startsWith("Aa"), s.contains(x));
+        }
+    }
+
+}
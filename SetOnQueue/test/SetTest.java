@@ -1,8 +1,13 @@
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
 
 import org.junit.Test;
 
 import components.set.Set;
+import components.set.Set1L;
 
 /**
  * JUnit test fixture for {@code Set<String>}'s constructor and kernel methods.
@@ -28,6 +33,53 @@ public abstract class SetTest {
      */
     protected abstract Set<String> constructorRef();
 
+    /**
+     * Invokes the appropriate {@code Set} constructor for the implementation
+     * under test, with {@code Integer} elements, and returns the result.
+     *
+     * @return the new set
+     * @ensures constructorIntegerTest = {}
+     */
+    protected abstract Set<Integer> constructorIntegerTest();
+
+    /**
+     * Applies the same pseudo-random sequence of {@code add}, {@code remove},
+     * {@code removeAny} and {@code contains} calls to {@code s} and to a
+     * {@code Set1L}, checking that they agree throughout.
+     *
+     * @param s
+     *            the set under test
+     * @updates s
+     * @requires s = {}
+     */
+    protected static void assertRandomOperationsMatchReference(
+            Set<Integer> s) {
+        final long seed = 42L;
+        final int operations = 50_000;
+        final int range = 1_000;
+        Set<Integer> ref = new Set1L<Integer>();
+        Random rnd = new Random(seed);
+        for (int i = 0; i < operations; i++) {
+            Integer x = rnd.nextInt(range);
+            if (rnd.nextInt(10) == 0 && s.size() > 0) {
+                Integer y = s.removeAny();
+                assertTrue(ref.contains(y));
+                ref.remove(y);
+            } else if (ref.contains(x)) {
+                assertTrue(s.contains(x));
+                if (rnd.nextBoolean()) {
+                    assertEquals(ref.remove(x), s.remove(x));
+                }
+            } else {
+                assertFalse(s.contains(x));
+                s.add(x);
+                ref.add(x);
+            }
+            assertEquals(ref.size(), s.size());
+        }
+        assertEquals(ref, s);
+    }
+
     /**
      * Creates and returns a {@code Set<String>} of the implementation under
      * test type with the given entries.
@@ -204,4 +256,12 @@ public abstract class SetTest {
         assertEquals(4, s.size());
         assertEquals(sExpected, s);
     }
+
+    /**
+     * Test random add, remove, removeAny and contains against a reference.
+     */
+    @Test
+    public final void testRandomOperationsMatchReference() {
+        assertRandomOperationsMatchReference(this.constructorIntegerTest());
+    }
 }
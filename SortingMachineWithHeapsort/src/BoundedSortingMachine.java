@@ -0,0 +1,565 @@
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} that keeps only the {@code capacity} "smallest"
+ * entries added to it, represented as an array (using an embedding of heap
+ * sort). While in insertion mode the kept entries form a heap with the
+ * <em>largest</em> kept entry at the root, so an {@code add} either evicts that
+ * root or discards {@code x} in O(log capacity) time and memory stays
+ * O(capacity). When at most {@code capacity} entries are added it behaves
+ * exactly like any other {@code SortingMachine}.
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * SUBTREE_IS_MAX_HEAP (
+ *   a: string of T,
+ *   start: integer,
+ *   stop: integer,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  [the subtree of a (when a is interpreted as a complete binary tree) rooted
+ *   at index start and only through entry stop of a has every entry related
+ *   by r to its parent, i.e., the root holds a "largest" entry]
+ *
+ * IS_SORTED (
+ *   s: string of T,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y: T where (<x, y> is substring of s) (r(x, y))
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method])  and
+ * 1 <= $this.capacity  and
+ * 0 <= $this.first <= $this.last <= |$this.entries| <= $this.capacity  and
+ * for all i: integer
+ *     where ($this.first <= i  and  i < $this.last)
+ *   ([entry at position i in $this.entries is not null])  and
+ * if $this.insertionMode then
+ *   $this.first = 0  and
+ *   SUBTREE_IS_MAX_HEAP($this.entries, 0, $this.last - 1,
+ *     [relation computed by $this.machineOrder.compare method])
+ * else
+ *   IS_SORTED($this.entries[$this.first, $this.last),
+ *     [relation computed by $this.machineOrder.compare method])
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.entries[$this.first, $this.last)))
+ * </pre>
+ *
+ * @author Chris Zhao, Ko Lim
+ *
+ */
+public class BoundedSortingMachine<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Largest initial length of the entries array; it then grows on demand up
+     * to the capacity.
+     */
+    private static final int INITIAL_LENGTH = 16;
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Maximum number of entries kept.
+     */
+    private int capacity;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Entries: a max-heap in insertion mode, sorted in extraction mode.
+     */
+    private T[] entries;
+
+    /**
+     * Index of the first live entry.
+     */
+    private int first;
+
+    /**
+     * One past the index of the last live entry.
+     */
+    private int last;
+
+    /**
+     * Given an array that represents a complete binary tree and an index
+     * referring to the root of a subtree that would be a max-heap except for
+     * its root, sifts the root down to turn that whole subtree into a
+     * max-heap.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete binary tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param bottom
+     *            the index of the last entry in the heap
+     * @param order
+     *            total preorder for sorting
+     * @updates array
+     * @requires <pre>
+     * 0 <= top  and  bottom < |array|  and
+     * SUBTREE_IS_MAX_HEAP(array, 2 * top + 1, bottom,
+     *     [relation computed by order.compare method])  and
+     * SUBTREE_IS_MAX_HEAP(array, 2 * top + 2, bottom,
+     *     [relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * SUBTREE_IS_MAX_HEAP(array, top, bottom,
+     *     [relation computed by order.compare method])  and
+     * perms(array, #array)  and
+     * [the entries of array outside the subtree are the same as in #array]
+     * </pre>
+     */
+    private static <T> void siftDown(T[] array, int top, int bottom,
+            Comparator<T> order) {
+        assert array != null : "Violation of: array is not null";
+        assert order != null : "Violation of: order is not null";
+        assert 0 <= top : "Violation of: 0 <= top";
+        assert bottom < array.length : "Violation of: bottom < |array|";
+
+        T root = array[top];
+        int hole = top;
+        int child = 2 * hole + 1;
+        boolean done = false;
+        while (!done && child <= bottom) {
+            int right = child + 1;
+            if (right <= bottom
+                    && order.compare(array[right], array[child]) > 0) {
+                child = right;
+            }
+            if (order.compare(array[child], root) > 0) {
+                array[hole] = array[child];
+                hole = child;
+                child = 2 * hole + 1;
+            } else {
+                done = true;
+            }
+        }
+        array[hole] = root;
+    }
+
+    /**
+     * Given an array that represents a complete binary tree that would be a
+     * max-heap through index {@code bottom} except that the entry at
+     * {@code bottom} may be larger than its ancestors, sifts that entry up to
+     * turn the whole tree into a max-heap.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete binary tree
+     * @param bottom
+     *            the index of the last entry in the heap, the one to sift up
+     * @param order
+     *            total preorder for sorting
+     * @updates array
+     * @requires <pre>
+     * 0 <= bottom < |array|  and
+     * SUBTREE_IS_MAX_HEAP(array, 0, bottom - 1,
+     *     [relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * SUBTREE_IS_MAX_HEAP(array, 0, bottom,
+     *     [relation computed by order.compare method])  and
+     * perms(array, #array)  and
+     * [the entries of array after index bottom are the same as in #array]
+     * </pre>
+     */
+    private static <T> void siftUp(T[] array, int bottom,
+            Comparator<T> order) {
+        assert array != null : "Violation of: array is not null";
+        assert order != null : "Violation of: order is not null";
+        assert 0 <= bottom : "Violation of: 0 <= bottom";
+        assert bottom < array.length : "Violation of: bottom < |array|";
+
+        T x = array[bottom];
+        int hole = bottom;
+        boolean done = false;
+        while (!done && hole > 0) {
+            int parent = (hole - 1) / 2;
+            if (order.compare(x, array[parent]) > 0) {
+                array[hole] = array[parent];
+                hole = parent;
+            } else {
+                done = true;
+            }
+        }
+        array[hole] = x;
+    }
+
+    /**
+     * Checks if the subtree of the given {@code array} rooted at the given
+     * {@code top} is a max-heap.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete binary tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param bottom
+     *            the index of the last entry in the heap
+     * @param order
+     *            total preorder for sorting
+     * @return true if the subtree of the given {@code array} rooted at the
+     *         given {@code top} is a max-heap; false otherwise
+     * @requires 0 <= top and bottom < |array|
+     * @ensures <pre>
+     * isMaxHeap = SUBTREE_IS_MAX_HEAP(array, top, bottom,
+     *     [relation computed by order.compare method])
+     * </pre>
+     */
+    private static <T> boolean isMaxHeap(T[] array, int top, int bottom,
+            Comparator<T> order) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= top : "Violation of: 0 <= top";
+        assert bottom < array.length : "Violation of: bottom < |array|";
+
+        int left = 2 * top + 1;
+        boolean isHeap = true;
+        if (left <= bottom) {
+            isHeap = (order.compare(array[top], array[left]) >= 0)
+                    && isMaxHeap(array, left, bottom, order);
+            int right = left + 1;
+            if (isHeap && (right <= bottom)) {
+                isHeap = (order.compare(array[top], array[right]) >= 0)
+                        && isMaxHeap(array, right, bottom, order);
+            }
+        }
+        return isHeap;
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 1 <= $this.capacity  and
+     * 0 <= $this.first <= $this.last <= |$this.entries| <= $this.capacity  and
+     * for all i: integer
+     *     where ($this.first <= i  and  i < $this.last)
+     *   ([entry at position i in $this.entries is not null])  and
+     * if $this.insertionMode then
+     *   $this.first = 0  and
+     *   SUBTREE_IS_MAX_HEAP($this.entries, 0, $this.last - 1,
+     *     [relation computed by $this.machineOrder.compare method])
+     * else
+     *   IS_SORTED($this.entries[$this.first, $this.last),
+     *     [relation computed by $this.machineOrder.compare method])
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert 1 <= this.capacity : "Violation of: 1 <= $this.capacity";
+        assert 0 <= this.first : "Violation of: 0 <= $this.first";
+        assert this.first <= this.last : ""
+                + "Violation of: $this.first <= $this.last";
+        assert this.last <= this.entries.length : ""
+                + "Violation of: $this.last <= |$this.entries|";
+        assert this.entries.length <= this.capacity : ""
+                + "Violation of: |$this.entries| <= $this.capacity";
+        for (int i = this.first; i < this.last; i++) {
+            assert this.entries[i] != null : ""
+                    + "Violation of: all live entries are not null";
+        }
+        if (this.insertionMode) {
+            assert this.first == 0 : ""
+                    + "Violation of: if $this.insertionMode then $this.first = 0";
+            assert isMaxHeap(this.entries, 0, this.last - 1,
+                    this.machineOrder) : ""
+                            + "Violation of: if $this.insertionMode then"
+                            + " SUBTREE_IS_MAX_HEAP($this.entries, 0,"
+                            + " $this.last - 1, [relation computed by"
+                            + " $this.machineOrder.compare method])";
+        } else {
+            for (int i = this.first + 1; i < this.last; i++) {
+                assert this.machineOrder.compare(this.entries[i - 1],
+                        this.entries[i]) <= 0 : ""
+                                + "Violation of: if not $this.insertionMode"
+                                + " then IS_SORTED($this.entries[$this.first,"
+                                + " $this.last), [relation computed by"
+                                + " $this.machineOrder.compare method])";
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param cap
+     *            maximum number of entries kept
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])  and
+     * 1 <= cap
+     * </pre>
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.capacity = cap  and
+     * $this.first = 0  and
+     * $this.last = 0
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(Comparator<T> order, int cap) {
+
+        this.insertionMode = true;
+        this.machineOrder = order;
+        this.capacity = cap;
+        this.entries = (T[]) (new Object[Math.min(INITIAL_LENGTH, cap)]);
+        this.first = 0;
+        this.last = 0;
+
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order and capacity.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param capacity
+     *            maximum number of entries kept; once it is reached, each
+     *            {@code add} keeps only the {@code capacity} smallest entries
+     * @requires 1 <= capacity
+     */
+    public BoundedSortingMachine(Comparator<T> order, int capacity) {
+        assert 1 <= capacity : "Violation of: 1 <= capacity";
+        this.createNewRep(order, capacity);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            Constructor<?> c = this.getClass().getConstructor(Comparator.class,
+                    int.class);
+            return (SortingMachine<T>) c.newInstance(this.machineOrder,
+                    this.capacity);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder, this.capacity);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof BoundedSortingMachine<?> : ""
+                + "Violation of: source is of dynamic type"
+                + " BoundedSortingMachine<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * BoundedSortingMachine<?>, and the ? must be T or the call would not
+         * have compiled.
+         */
+        BoundedSortingMachine<T> localSource = (BoundedSortingMachine<T>) source;
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.capacity = localSource.capacity;
+        this.entries = localSource.entries;
+        this.first = localSource.first;
+        this.last = localSource.last;
+        localSource.createNewRep(localSource.machineOrder,
+                localSource.capacity);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If {@code this} already holds {@code capacity} entries, {@code x} is
+     * kept only if it is smaller than the largest entry held, which is then
+     * evicted.
+     */
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        if (this.last < this.capacity) {
+            if (this.last == this.entries.length) {
+                this.entries = Arrays.copyOf(this.entries,
+                        Math.min(2 * this.entries.length, this.capacity));
+            }
+            this.entries[this.last] = x;
+            siftUp(this.entries, this.last, this.machineOrder);
+            this.last++;
+        } else if (this.machineOrder.compare(x, this.entries[0]) < 0) {
+            this.entries[0] = x;
+            siftDown(this.entries, 0, this.last - 1, this.machineOrder);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        /*
+         * Heapsort the kept entries in place: repeatedly move the largest
+         * remaining entry to the end of the shrinking heap
+         */
+        for (int bottom = this.last - 1; bottom > 0; bottom--) {
+            T largest = this.entries[0];
+            this.entries[0] = this.entries[bottom];
+            this.entries[bottom] = largest;
+            siftDown(this.entries, 0, bottom - 1, this.machineOrder);
+        }
+        this.insertionMode = false;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        T result = this.entries[this.first];
+        this.entries[this.first] = null;
+        this.first++;
+
+        assert this.conventionHolds();
+        return result;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.last - this.first;
+    }
+
+    /**
+     * Reports the maximum number of entries {@code this} keeps.
+     *
+     * @return the capacity of {@code this}
+     */
+    public final int capacity() {
+        assert this.conventionHolds();
+        return this.capacity;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new BoundedSortingMachineIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code BoundedSortingMachine}.
+     */
+    private final class BoundedSortingMachineIterator implements Iterator<T> {
+
+        /**
+         * Index of the next entry to return.
+         */
+        private int currentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private BoundedSortingMachineIterator() {
+            this.currentIndex = BoundedSortingMachine.this.first;
+            assert BoundedSortingMachine.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            assert BoundedSortingMachine.this.conventionHolds();
+            return this.currentIndex < BoundedSortingMachine.this.last;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next = BoundedSortingMachine.this.entries[this.currentIndex];
+            this.currentIndex++;
+            assert BoundedSortingMachine.this.conventionHolds();
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
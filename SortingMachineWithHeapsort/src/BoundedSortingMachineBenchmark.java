@@ -0,0 +1,111 @@
+import java.util.Comparator;
+import java.util.Random;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+import components.sortingmachine.SortingMachine;
+
+/**
+ * Program to compare selecting the K smallest of many entries with a
+ * {@code BoundedSortingMachine} against filling a {@code SortingMachine5a},
+ * calling {@code removeFirst} K times and clearing it. Run it without
+ * {@code -ea}: with assertion checking on, every kernel call re-checks the
+ * whole representation.
+ *
+ * @author Chris Zhao, Ko Lim
+ */
+public final class BoundedSortingMachineBenchmark {
+
+    /**
+     * Compare {@code Integer}s in increasing order.
+     */
+    private static class IntegerLT implements Comparator<Integer> {
+        @Override
+        public int compare(Integer o1, Integer o2) {
+            return o1.compareTo(o2);
+        }
+    }
+
+    /**
+     * Number of entries kept.
+     */
+    private static final int K = 100;
+
+    /**
+     * Number of entries added.
+     */
+    private static final int N = 10_000_000;
+
+    /**
+     * Seed for the pseudo-random entries, so every run sees the same input.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private BoundedSortingMachineBenchmark() {
+        // no code needed here
+    }
+
+    /**
+     * Adds all of {@code keys} to {@code sm}, removes the first {@code K}
+     * entries, clears it, and returns the elapsed time.
+     *
+     * @param sm
+     *            the machine to exercise
+     * @param keys
+     *            the entries
+     * @return elapsed time in nanoseconds
+     * @updates sm
+     * @requires sm.insertion_mode and |keys| >= K
+     * @ensures sm = (true, sm.order, {})
+     */
+    private static long timeTopK(SortingMachine<Integer> sm, Integer[] keys) {
+        long start = System.nanoTime();
+        for (Integer k : keys) {
+            sm.add(k);
+        }
+        sm.changeToExtractionMode();
+        for (int i = 0; i < K; i++) {
+            sm.removeFirst();
+        }
+        sm.clear();
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; unused here
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        Random rnd = new Random(SEED);
+        Integer[] keys = new Integer[N];
+        for (int i = 0; i < N; i++) {
+            keys[i] = rnd.nextInt();
+        }
+        Comparator<Integer> order = new IntegerLT();
+
+        long bounded = timeTopK(new BoundedSortingMachine<Integer>(order, K),
+                keys);
+        long full = timeTopK(new SortingMachine5a<Integer>(order), keys);
+
+        out.println("top " + K + " of " + N + " entries");
+        out.println(String.format("  BoundedSortingMachine: %.3f s",
+                bounded / NANOS_PER_SECOND));
+        out.println(String.format("  SortingMachine5a:      %.3f s",
+                full / NANOS_PER_SECOND));
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,385 @@
+import java.util.Arrays;
+
+/**
+ * Sorting machine for {@code long} entries in ascending order, represented as a
+ * single growable array (using an embedding of heap sort). It follows the
+ * {@code SortingMachine} kernel contract with {@code <=} as the machine order,
+ * but stores and returns primitive {@code long}s so no entry is ever boxed.
+ *
+ * @mathmodel <pre>
+ * type LongSortingMachineModel is (
+ *   insertion_mode: boolean,
+ *   contents: finite multiset of integer
+ *  )
+ * </pre>
+ * @initially <pre>
+ * ():
+ *  ensures
+ *   this = (true, {})
+ * </pre>
+ * @mathdefinitions <pre>
+ * SUBTREE_IS_HEAP (
+ *   a: string of integer,
+ *   start: integer,
+ *   stop: integer,
+ *   r: binary relation on integer
+ *  ) : boolean is
+ *  [the subtree of a (when a is interpreted as a complete binary tree) rooted
+ *   at index start and only through entry stop of a satisfies the heap
+ *   ordering property according to the relation r]
+ * </pre>
+ * @convention <pre>
+ * 0 <= $this.size <= |$this.entries|  and
+ * if not $this.insertionMode then
+ *   SUBTREE_IS_HEAP($this.entries, 0, $this.size - 1, <=)
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode,
+ *         multiset_entries($this.entries[0, $this.size)))
+ * </pre>
+ *
+ * @author Chris Zhao, Ko Lim
+ *
+ */
+public class LongSortingMachine {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial capacity of the entries array.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Entries; in extraction mode, the prefix of length size is a heap.
+     */
+    private long[] entries;
+
+    /**
+     * Number of live entries.
+     */
+    private int size;
+
+    /**
+     * Checks if the subtree of the given {@code array} rooted at the given
+     * {@code top} is a heap.
+     *
+     * @param array
+     *            the complete binary tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param last
+     *            the index of the last entry in the heap
+     * @return true if the subtree of the given {@code array} rooted at the
+     *         given {@code top} is a heap; false otherwise
+     * @requires <pre>
+     * 0 <= top  and  last < |array|  and
+     * [subtree rooted at {@code top} is a complete binary tree]
+     * </pre>
+     * @ensures isHeap = SUBTREE_IS_HEAP(array, top, last, <=)
+     */
+    private static boolean isHeap(long[] array, int top, int last) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= top : "Violation of: 0 <= top";
+        assert last < array.length : "Violation of: last < |array|";
+
+        int left = 2 * top + 1;
+        boolean isHeap = true;
+        if (left <= last) {
+            isHeap = (array[top] <= array[left]) && isHeap(array, left, last);
+            int right = left + 1;
+            if (isHeap && (right <= last)) {
+                isHeap = (array[top] <= array[right])
+                        && isHeap(array, right, last);
+            }
+        }
+        return isHeap;
+    }
+
+    /**
+     * Given an array that represents a complete binary tree and an index
+     * referring to the root of a subtree that would be a heap except for its
+     * root, sifts the root down to turn that whole subtree into a heap.
+     *
+     * @param array
+     *            the complete binary tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param last
+     *            the index of the last entry in the heap
+     * @updates array
+     * @requires <pre>
+     * 0 <= top  and  last < |array|  and
+     * SUBTREE_IS_HEAP(array, 2 * top + 1, last, <=)  and
+     * SUBTREE_IS_HEAP(array, 2 * top + 2, last, <=)
+     * </pre>
+     * @ensures <pre>
+     * SUBTREE_IS_HEAP(array, top, last, <=)  and
+     * perms(array, #array)  and
+     * [the entries of array outside the subtree are the same as in #array]
+     * </pre>
+     */
+    private static void siftDown(long[] array, int top, int last) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= top : "Violation of: 0 <= top";
+        assert last < array.length : "Violation of: last < |array|";
+
+        long root = array[top];
+        int hole = top;
+        int child = 2 * hole + 1;
+        boolean done = false;
+        while (!done && child <= last) {
+            int right = child + 1;
+            if (right <= last && array[right] < array[child]) {
+                child = right;
+            }
+            if (array[child] < root) {
+                array[hole] = array[child];
+                hole = child;
+                child = 2 * hole + 1;
+            } else {
+                done = true;
+            }
+        }
+        array[hole] = root;
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 0 <= $this.size <= |$this.entries|  and
+     * if not $this.insertionMode then
+     *   SUBTREE_IS_HEAP($this.entries, 0, $this.size - 1, <=)
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert 0 <= this.size : "Violation of: 0 <= $this.size";
+        assert this.size <= this.entries.length : ""
+                + "Violation of: $this.size <= |$this.entries|";
+        if (!this.insertionMode) {
+            assert isHeap(this.entries, 0, this.size - 1) : ""
+                    + "Violation of: if not $this.insertionMode then"
+                    + " SUBTREE_IS_HEAP($this.entries, 0, $this.size - 1, <=)";
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        this.insertionMode = true;
+        this.entries = new long[INITIAL_CAPACITY];
+        this.size = 0;
+
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public LongSortingMachine() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    /**
+     * Returns a new object with the same dynamic type as {@code this}, having
+     * an initial value.
+     *
+     * @return new object "like" {@code this} with an initial value
+     * @ensures is_initial(newInstance)
+     */
+    public final LongSortingMachine newInstance() {
+        return new LongSortingMachine();
+    }
+
+    /**
+     * Resets {@code this} to an initial value.
+     *
+     * @clears this
+     */
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Sets {@code this} to the incoming value of {@code source}, and resets
+     * {@code source} to an initial value.
+     *
+     * @param source
+     *            object whose value is to be transferred
+     * @replaces this
+     * @clears source
+     * @requires source is not this
+     * @ensures this = #source
+     */
+    public final void transferFrom(LongSortingMachine source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+
+        this.insertionMode = source.insertionMode;
+        this.entries = source.entries;
+        this.size = source.size;
+        source.createNewRep();
+        assert this.conventionHolds();
+        assert source.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    /**
+     * Adds {@code x} to the contents of {@code this}.
+     *
+     * @param x
+     *            the element to be added
+     * @updates this.contents
+     * @requires this.insertion_mode
+     * @ensures this.contents = #this.contents union {x}
+     */
+    public final void add(long x) {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        if (this.size == this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries, 2 * this.size);
+        }
+        this.entries[this.size] = x;
+        this.size++;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Changes the mode of {@code this} from insertion to extraction.
+     *
+     * @updates this.insertion_mode
+     * @requires this.insertion_mode
+     * @ensures not this.insertion_mode
+     */
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        for (int top = this.size / 2 - 1; top >= 0; top--) {
+            siftDown(this.entries, top, this.size - 1);
+        }
+        this.insertionMode = false;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Removes and returns some "first" ("smallest") entry from the contents of
+     * {@code this}.
+     *
+     * @return the entry removed
+     * @updates this.contents
+     * @requires not this.insertion_mode and this.contents /= {}
+     * @ensures <pre>
+     * removeFirst is in #this.contents  and
+     * this.contents = #this.contents \ {removeFirst}  and
+     * for all x: integer where (x is in this.contents)
+     *   (removeFirst <= x)
+     * </pre>
+     */
+    public final long removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        long result = this.entries[0];
+        this.size--;
+        this.entries[0] = this.entries[this.size];
+        siftDown(this.entries, 0, this.size - 1);
+
+        assert this.conventionHolds();
+        return result;
+    }
+
+    /**
+     * Reports whether this is in insertion mode.
+     *
+     * @return true iff {@code this} is in insertion mode
+     * @ensures isInInsertionMode = this.insertion_mode
+     */
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    /**
+     * Reports the number of entries in {@code this}.
+     *
+     * @return the (multiset) size of {@code this.contents}
+     * @ensures size = |this.contents|
+     */
+    public final int size() {
+        assert this.conventionHolds();
+        return this.size;
+    }
+
+    /*
+     * Common methods ---------------------------------------------------------
+     */
+
+    /**
+     * Returns the entries of {@code this} in ascending order, without changing
+     * {@code this}.
+     *
+     * @return the sorted entries
+     */
+    private long[] sortedEntries() {
+        long[] sorted = Arrays.copyOf(this.entries, this.size);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    @Override
+    public final boolean equals(Object obj) {
+        boolean result = false;
+        if (obj == this) {
+            result = true;
+        } else if (obj instanceof LongSortingMachine) {
+            LongSortingMachine m = (LongSortingMachine) obj;
+            result = this.insertionMode == m.insertionMode
+                    && this.size == m.size
+                    && Arrays.equals(this.sortedEntries(), m.sortedEntries());
+        }
+        return result;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Arrays.hashCode(this.sortedEntries())
+                + (this.insertionMode ? 1 : 0);
+    }
+
+    @Override
+    public final String toString() {
+        String entriesText = Arrays.toString(this.sortedEntries());
+        return "(" + this.insertionMode + ",{"
+                + entriesText.substring(1, entriesText.length() - 1) + "})";
+    }
+
+}
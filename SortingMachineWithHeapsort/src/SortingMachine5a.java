@@ -1,4 +1,5 @@
 import java.lang.reflect.Constructor;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -10,7 +11,13 @@ import components.sortingmachine.SortingMachineSecondary;
 
 /**
  * {@code SortingMachine} represented as a {@code Queue} and an array (using an
- * embedding of heap sort), with implementations of primary methods.
+ * embedding of heap sort), with implementations of primary methods. The heap
+ * is d-ary: the children of the entry at index i are at indices d * i + 1
+ * through d * i + d, where the arity d is fixed at construction (2 by default;
+ * 4 or 8 keep more of each sift-down level in one cache line on large heaps).
+ * By default entries are queued and the heap is built in one pass by
+ * {@code changeToExtractionMode}; an "eager" machine instead sifts each entry
+ * up into the heap as it is added, so the mode switch is constant-time.
  *
  * @param <T>
  *            type of {@code SortingMachine} entries
@@ -24,41 +31,43 @@ import components.sortingmachine.SortingMachineSecondary;
  *
  * SUBTREE_IS_HEAP (
  *   a: string of T,
+ *   d: integer,
  *   start: integer,
  *   stop: integer,
  *   r: binary relation on T
  *  ) : boolean is
- *  [the subtree of a (when a is interpreted as a complete binary tree) rooted
+ *  [the subtree of a (when a is interpreted as a complete d-ary tree) rooted
  *   at index start and only through entry stop of a satisfies the heap
  *   ordering property according to the relation r]
  *
  * SUBTREE_ARRAY_ENTRIES (
  *   a: string of T,
+ *   d: integer,
  *   start: integer,
  *   stop: integer
  *  ) : finite multiset of T is
  *  [the multiset of entries in a that belong to the subtree of a
- *   (when a is interpreted as a complete binary tree) rooted at
+ *   (when a is interpreted as a complete d-ary tree) rooted at
  *   index start and only through entry stop]
  * </pre>
  * @convention <pre>
  * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
- * if $this.insertionMode then
+ * 2 <= $this.arity  and
+ * 0 <= $this.heapSize <= |$this.heap|  and
+ * for all i: integer
+ *     where (0 <= i  and  i < $this.heapSize)
+ *   ([entry at position i in $this.heap is not null])  and
+ * if $this.insertionMode  and  not $this.eager then
  *   $this.heapSize = 0
  * else
  *   $this.entries = <>  and
- *   for all i: integer
- *       where (0 <= i  and  i < |$this.heap|)
- *     ([entry at position i in $this.heap is not null])  and
- *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
- *     [relation computed by $this.machineOrder.compare method])  and
- *   0 <= $this.heapSize <= |$this.heap|
+ *   SUBTREE_IS_HEAP($this.heap, $this.arity, 0, $this.heapSize - 1,
+ *     [relation computed by $this.machineOrder.compare method])
  * </pre>
  * @correspondence <pre>
- * if $this.insertionMode then
- *   this = (true, $this.machineOrder, multiset_entries($this.entries))
- * else
- *   this = (false, $this.machineOrder, multiset_entries($this.heap[0, $this.heapSize)))
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.entries) union
+ *         multiset_entries($this.heap[0, $this.heapSize)))
  * </pre>
  *
  * @author Chris Zhao, Ko Lim
@@ -70,11 +79,31 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * Private members --------------------------------------------------------
      */
 
+    /**
+     * Arity used by the single-argument constructor.
+     */
+    private static final int DEFAULT_ARITY = 2;
+
+    /**
+     * Capacity of the heap array on the first eager {@code add}.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
     /**
      * Order.
      */
     private Comparator<T> machineOrder;
 
+    /**
+     * Number of children of each interior heap node.
+     */
+    private int arity;
+
+    /**
+     * Whether {@code add} inserts directly into the heap.
+     */
+    private boolean eager;
+
     /**
      * Insertion mode.
      */
@@ -121,14 +150,16 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     }
 
     /**
-     * Given an array that represents a complete binary tree and an index
+     * Given an array that represents a complete d-ary tree and an index
      * referring to the root of a subtree that would be a heap except for its
      * root, sifts the root down to turn that whole subtree into a heap.
      *
      * @param <T>
      *            type of array entries
      * @param array
-     *            the complete binary tree
+     *            the complete d-ary tree
+     * @param arity
+     *            the number of children d of each interior node
      * @param top
      *            the index of the root of the "subtree"
      * @param last
@@ -137,116 +168,184 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      *            total preorder for sorting
      * @updates array
      * @requires <pre>
-     * 0 <= top  and  last < |array|  and
+     * 2 <= arity  and  0 <= top  and  last < |array|  and
      * for all i: integer
-     *     where (0 <= i  and  i < |array|)
+     *     where (0 <= i  and  i <= last)
      *   ([entry at position i in array is not null])  and
-     * [subtree rooted at {@code top} is a complete binary tree]  and
-     * SUBTREE_IS_HEAP(array, 2 * top + 1, last,
-     *     [relation computed by order.compare method])  and
-     * SUBTREE_IS_HEAP(array, 2 * top + 2, last,
-     *     [relation computed by order.compare method])  and
+     * [subtree rooted at {@code top} is a complete d-ary tree]  and
+     * for all c: integer
+     *     where (arity * top + 1 <= c  and  c <= arity * top + arity)
+     *   (SUBTREE_IS_HEAP(array, arity, c, last,
+     *     [relation computed by order.compare method]))  and
      * IS_TOTAL_PREORDER([relation computed by order.compare method])
      * </pre>
      * @ensures <pre>
-     * SUBTREE_IS_HEAP(array, top, last,
+     * SUBTREE_IS_HEAP(array, arity, top, last,
      *     [relation computed by order.compare method])  and
      * perms(array, #array)  and
-     * SUBTREE_ARRAY_ENTRIES(array, top, last) =
-     *  SUBTREE_ARRAY_ENTRIES(#array, top, last)  and
+     * SUBTREE_ARRAY_ENTRIES(array, arity, top, last) =
+     *  SUBTREE_ARRAY_ENTRIES(#array, arity, top, last)  and
      * [the other entries in array are the same as in #array]
      * </pre>
      */
-    private static <T> void siftDown(T[] array, int top, int last,
-            Comparator<T> order) {
+    private static <T> void siftDown(T[] array, int arity, int top,
+            int last, Comparator<T> order) {
         assert array != null : "Violation of: array is not null";
         assert order != null : "Violation of: order is not null";
+        assert 2 <= arity : "Violation of: 2 <= arity";
         assert 0 <= top : "Violation of: 0 <= top";
         assert last < array.length : "Violation of: last < |array|";
-        for (int i = 0; i < array.length; i++) {
+        for (int i = 0; i <= last; i++) {
             assert array[i] != null : ""
-                    + "Violation of: all entries in array are not null";
+                    + "Violation of: all entries in array through last"
+                    + " are not null";
+        }
+        for (int c = arity * top + 1; c <= arity * top + arity; c++) {
+            assert isHeap(array, arity, c, last, order) : ""
+                    + "Violation of: SUBTREE_IS_HEAP(array, arity, c, last,"
+                    + " [relation computed by order.compare method])"
+                    + " for each child c of top";
         }
-        assert isHeap(array, 2 * top + 1, last, order) : ""
-                + "Violation of: SUBTREE_IS_HEAP(array, 2 * top + 1, last,"
-                + " [relation computed by order.compare method])";
-        assert isHeap(array, 2 * top + 2, last, order) : ""
-                + "Violation of: SUBTREE_IS_HEAP(array, 2 * top + 2, last,"
-                + " [relation computed by order.compare method])";
         /*
          * Impractical to check last requires clause; no need to check the other
          * requires clause, because it must be true when using the array
          * representation for a complete binary tree.
          */
 
-        int left, right;
-
-        left = top * 2 + 1;
-        right = top * 2 + 2;
-        int smallPos = top;
-        if (left <= last && order.compare(array[left], array[smallPos]) < 0) {
-            smallPos = left;
-        }
-        if (right <= last && order.compare(array[right], array[smallPos]) < 0) {
-            smallPos = right;
+        /*
+         * Iterative "hole" sift-down: the root entry is held aside while the
+         * smallest child of the hole is moved up, and is written back once, at
+         * the position where it no longer exceeds any child.
+         */
+        T root = array[top];
+        int hole = top;
+        int child = arity * hole + 1;
+        boolean done = false;
+        while (!done && child <= last) {
+            int smallPos = child;
+            int lastChild = Math.min(child + arity - 1, last);
+            for (int c = child + 1; c <= lastChild; c++) {
+                if (order.compare(array[c], array[smallPos]) < 0) {
+                    smallPos = c;
+                }
+            }
+            if (order.compare(array[smallPos], root) < 0) {
+                array[hole] = array[smallPos];
+                hole = smallPos;
+                child = arity * hole + 1;
+            } else {
+                done = true;
+            }
         }
+        array[hole] = root;
+    }
+
+    /**
+     * Given an array that represents a complete d-ary tree and the index of
+     * its last entry, where the whole tree would be a heap except that the last
+     * entry may be smaller than its ancestors, sifts that entry up to turn the
+     * whole tree into a heap.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete d-ary tree
+     * @param arity
+     *            the number of children d of each interior node
+     * @param last
+     *            the index of the last entry in the heap, the one to sift up
+     * @param order
+     *            total preorder for sorting
+     * @updates array
+     * @requires <pre>
+     * 2 <= arity  and  0 <= last < |array|  and
+     * for all i: integer
+     *     where (0 <= i  and  i <= last)
+     *   ([entry at position i in array is not null])  and
+     * SUBTREE_IS_HEAP(array, arity, 0, last - 1,
+     *     [relation computed by order.compare method])  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * SUBTREE_IS_HEAP(array, arity, 0, last,
+     *     [relation computed by order.compare method])  and
+     * perms(array, #array)  and
+     * [the entries of array after index last are the same as in #array]
+     * </pre>
+     */
+    private static <T> void siftUp(T[] array, int arity, int last,
+            Comparator<T> order) {
+        assert array != null : "Violation of: array is not null";
+        assert order != null : "Violation of: order is not null";
+        assert 2 <= arity : "Violation of: 2 <= arity";
+        assert 0 <= last : "Violation of: 0 <= last";
+        assert last < array.length : "Violation of: last < |array|";
+        /*
+         * Impractical to check the remaining requires clauses.
+         */
 
-        if (smallPos != top) {
-            exchangeEntries(array, smallPos, top);
-            siftDown(array, smallPos, last, order);
+        T bottom = array[last];
+        int hole = last;
+        boolean done = false;
+        while (!done && hole > 0) {
+            int parent = (hole - 1) / arity;
+            if (order.compare(bottom, array[parent]) < 0) {
+                array[hole] = array[parent];
+                hole = parent;
+            } else {
+                done = true;
+            }
         }
+        array[hole] = bottom;
     }
 
     /**
-     * Heapifies the subtree of the given array rooted at the given {@code top}.
+     * Heapifies the given array bottom-up (Floyd's method): every non-leaf
+     * index, from the last one back to the root, is sifted down in turn.
      *
      * @param <T>
      *            type of array entries
      * @param array
-     *            the complete binary tree
-     * @param top
-     *            the index of the root of the "subtree" to heapify
+     *            the complete d-ary tree
+     * @param arity
+     *            the number of children d of each interior node
      * @param order
      *            the total preorder for sorting
      * @updates array
      * @requires <pre>
-     * 0 <= top  and
+     * 2 <= arity  and
      * for all i: integer
      *     where (0 <= i  and  i < |array|)
      *   ([entry at position i in array is not null])  and
-     * [subtree rooted at {@code top} is a complete binary tree]  and
      * IS_TOTAL_PREORDER([relation computed by order.compare method])
      * </pre>
      * @ensures <pre>
-     * SUBTREE_IS_HEAP(array, top, |array| - 1,
+     * SUBTREE_IS_HEAP(array, arity, 0, |array| - 1,
      *     [relation computed by order.compare method])  and
      * perms(array, #array)
      * </pre>
      */
-    private static <T> void heapify(T[] array, int top, Comparator<T> order) {
+    private static <T> void heapify(T[] array, int arity,
+            Comparator<T> order) {
         assert array != null : "Violation of: array is not null";
         assert order != null : "Violation of: order is not null";
-        assert 0 <= top : "Violation of: 0 <= top";
+        assert 2 <= arity : "Violation of: 2 <= arity";
         for (int i = 0; i < array.length; i++) {
             assert array[i] != null : ""
                     + "Violation of: all entries in array are not null";
         }
         /*
-         * Impractical to check last requires clause; no need to check the other
-         * requires clause, because it must be true when using the array
-         * representation for a complete binary tree.
+         * Impractical to check last requires clause.
          */
 
-        // TODO - fill in body
-        // *** you must use the recursive algorithm discussed in class ***
-        int left, right;
-
-        left = top * 2 + 1;
-        right = top * 2 + 2;
-        if (top < array.length) {
-            heapify(array, left, order);
-            heapify(array, right, order);
-            siftDown(array, top, array.length - 1, order);
+        /*
+         * The last non-leaf is the parent of the last entry; lastParent is
+         * written so that it is -1 for arrays of length 0 or 1
+         */
+        int last = array.length - 1;
+        int lastParent = (array.length + arity - 2) / arity - 1;
+        for (int top = lastParent; top >= 0; top--) {
+            siftDown(array, arity, top, last, order);
         }
 
     }
@@ -259,13 +358,18 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      *            type of {@code Queue} and array entries
      * @param q
      *            the {@code Queue} with the entries for the heap
+     * @param arity
+     *            the number of children d of each interior node
      * @param order
      *            the total preorder for sorting
      * @return the array representation of a heap
      * @clears q
-     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * @requires <pre>
+     * 2 <= arity  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * </pre>
      * @ensures <pre>
-     * SUBTREE_IS_HEAP(buildHeap, 0, |buildHeap| - 1)  and
+     * SUBTREE_IS_HEAP(buildHeap, arity, 0, |buildHeap| - 1)  and
      * perms(buildHeap, #q)  and
      * for all i: integer
      *     where (0 <= i  and  i < |buildHeap|)
@@ -273,7 +377,8 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * </pre>
      */
     @SuppressWarnings("unchecked")
-    private static <T> T[] buildHeap(Queue<T> q, Comparator<T> order) {
+    private static <T> T[] buildHeap(Queue<T> q, int arity,
+            Comparator<T> order) {
         assert q != null : "Violation of: q is not null";
         assert order != null : "Violation of: order is not null";
         /*
@@ -290,8 +395,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
             heap[i] = q.dequeue();
         }
 
-        int top = 0;
-        heapify(heap, top, order);
+        heapify(heap, arity, order);
 
         return heap;
     }
@@ -303,7 +407,9 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * @param <T>
      *            type of array entries
      * @param array
-     *            the complete binary tree
+     *            the complete d-ary tree
+     * @param arity
+     *            the number of children d of each interior node
      * @param top
      *            the index of the root of the "subtree"
      * @param last
@@ -313,40 +419,38 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * @return true if the subtree of the given {@code array} rooted at the
      *         given {@code top} is a heap; false otherwise
      * @requires <pre>
-     * 0 <= top  and  last < |array|  and
+     * 2 <= arity  and  0 <= top  and  last < |array|  and
      * for all i: integer
-     *     where (0 <= i  and  i < |array|)
+     *     where (0 <= i  and  i <= last)
      *   ([entry at position i in array is not null])  and
-     * [subtree rooted at {@code top} is a complete binary tree]
+     * [subtree rooted at {@code top} is a complete d-ary tree]
      * </pre>
      * @ensures <pre>
-     * isHeap = SUBTREE_IS_HEAP(array, top, last,
+     * isHeap = SUBTREE_IS_HEAP(array, arity, top, last,
      *     [relation computed by order.compare method])
      * </pre>
      */
-    private static <T> boolean isHeap(T[] array, int top, int last,
-            Comparator<T> order) {
+    private static <T> boolean isHeap(T[] array, int arity, int top,
+            int last, Comparator<T> order) {
         assert array != null : "Violation of: array is not null";
+        assert 2 <= arity : "Violation of: 2 <= arity";
         assert 0 <= top : "Violation of: 0 <= top";
         assert last < array.length : "Violation of: last < |array|";
-        for (int i = 0; i < array.length; i++) {
+        for (int i = 0; i <= last; i++) {
             assert array[i] != null : ""
-                    + "Violation of: all entries in array are not null";
+                    + "Violation of: all entries in array through last"
+                    + " are not null";
         }
         /*
          * No need to check the other requires clause, because it must be true
          * when using the Array representation for a complete binary tree.
          */
-        int left = 2 * top + 1;
         boolean isHeap = true;
-        if (left <= last) {
-            isHeap = (order.compare(array[top], array[left]) <= 0)
-                    && isHeap(array, left, last, order);
-            int right = left + 1;
-            if (isHeap && (right <= last)) {
-                isHeap = (order.compare(array[top], array[right]) <= 0)
-                        && isHeap(array, right, last, order);
-            }
+        int firstChild = arity * top + 1;
+        int lastChild = Math.min(firstChild + arity - 1, last);
+        for (int c = firstChild; isHeap && c <= lastChild; c++) {
+            isHeap = (order.compare(array[top], array[c]) <= 0)
+                    && isHeap(array, arity, c, last, order);
         }
         return isHeap;
     }
@@ -358,39 +462,43 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * @return true if the convention holds (or if assertion checking is off);
      *         otherwise reports a violated assertion
      * @convention <pre>
-     * if $this.insertionMode then
+     * 2 <= $this.arity  and
+     * 0 <= $this.heapSize <= |$this.heap|  and
+     * for all i: integer
+     *     where (0 <= i  and  i < $this.heapSize)
+     *   ([entry at position i in $this.heap is not null])  and
+     * if $this.insertionMode  and  not $this.eager then
      *   $this.heapSize = 0
      * else
      *   $this.entries = <>  and
-     *   for all i: integer
-     *       where (0 <= i  and  i < |$this.heap|)
-     *     ([entry at position i in $this.heap is not null])  and
-     *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
-     *     [relation computed by $this.machineOrder.compare method])  and
-     *   0 <= $this.heapSize <= |$this.heap|
+     *   SUBTREE_IS_HEAP($this.heap, $this.arity, 0, $this.heapSize - 1,
+     *     [relation computed by $this.machineOrder.compare method])
      * </pre>
      */
     private boolean conventionHolds() {
-        if (this.insertionMode) {
+        assert 2 <= this.arity : "Violation of: 2 <= $this.arity";
+        assert 0 <= this.heapSize : "Violation of: 0 <= $this.heapSize";
+        assert this.heapSize <= this.heap.length : ""
+                + "Violation of: $this.heapSize <= |$this.heap|";
+        for (int i = 0; i < this.heapSize; i++) {
+            assert this.heap[i] != null : ""
+                    + "Violation of: all entries in"
+                    + " $this.heap[0, $this.heapSize) are not null";
+        }
+        if (this.insertionMode && !this.eager) {
             assert this.heapSize == 0 : ""
-                    + "Violation of: if $this.insertionMode then $this.heapSize = 0";
+                    + "Violation of: if $this.insertionMode and not $this.eager"
+                    + " then $this.heapSize = 0";
         } else {
             assert this.entries.length() == 0 : ""
-                    + "Violation of: if not $this.insertionMode then $this.entries = <>";
-            assert 0 <= this.heapSize : ""
-                    + "Violation of: if not $this.insertionMode then 0 <= $this.heapSize";
-            assert this.heapSize <= this.heap.length : ""
-                    + "Violation of: if not $this.insertionMode then"
-                    + " $this.heapSize <= |$this.heap|";
-            for (int i = 0; i < this.heap.length; i++) {
-                assert this.heap[i] != null : ""
-                        + "Violation of: if not $this.insertionMode then"
-                        + " all entries in $this.heap are not null";
-            }
-            assert isHeap(this.heap, 0, this.heapSize - 1,
+                    + "Violation of: if not $this.insertionMode or $this.eager"
+                    + " then $this.entries = <>";
+            assert isHeap(this.heap, this.arity, 0, this.heapSize - 1,
                     this.machineOrder) : ""
-                            + "Violation of: if not $this.insertionMode then"
-                            + " SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,"
+                            + "Violation of: if not $this.insertionMode or"
+                            + " $this.eager then"
+                            + " SUBTREE_IS_HEAP($this.heap, $this.arity, 0,"
+                            + " $this.heapSize - 1,"
                             + " [relation computed by $this.machineOrder.compare"
                             + " method])";
         }
@@ -402,19 +510,33 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      *
      * @param order
      *            total preorder for sorting
-     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method]
+     * @param arity
+     *            number of children of each interior heap node
+     * @param eager
+     *            whether {@code add} inserts directly into the heap
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method]  and
+     * 2 <= arity
+     * </pre>
      * @ensures <pre>
      * $this.insertionMode = true  and
      * $this.machineOrder = order  and
+     * $this.arity = arity  and
+     * $this.eager = eager  and
      * $this.entries = <>  and
+     * $this.heap = <>  and
      * $this.heapSize = 0
      * </pre>
      */
-    private void createNewRep(Comparator<T> order) {
+    @SuppressWarnings("unchecked")
+    private void createNewRep(Comparator<T> order, int arity, boolean eager) {
 
         this.insertionMode = true;
         this.machineOrder = order;
+        this.arity = arity;
+        this.eager = eager;
         this.entries = new Queue1L<T>();
+        this.heap = (T[]) (new Object[0]);
         this.heapSize = 0;
 
     }
@@ -430,7 +552,44 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      *            total preorder for sorting
      */
     public SortingMachine5a(Comparator<T> order) {
-        this.createNewRep(order);
+        this.createNewRep(order, DEFAULT_ARITY, false);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from order and heap arity.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param arity
+     *            number of children of each interior heap node (typically 2,
+     *            4 or 8)
+     * @requires 2 <= arity
+     */
+    public SortingMachine5a(Comparator<T> order, int arity) {
+        assert 2 <= arity : "Violation of: 2 <= arity";
+        this.createNewRep(order, arity, false);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from order, heap arity and insertion strategy.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param arity
+     *            number of children of each interior heap node (typically 2,
+     *            4 or 8)
+     * @param eager
+     *            if true, {@code add} sifts each entry up into the heap, so
+     *            {@code add} is O(log n) and {@code changeToExtractionMode}
+     *            is O(1); if false, the heap is built in
+     *            {@code changeToExtractionMode}
+     * @requires 2 <= arity
+     */
+    public SortingMachine5a(Comparator<T> order, int arity, boolean eager) {
+        assert 2 <= arity : "Violation of: 2 <= arity";
+        this.createNewRep(order, arity, eager);
         assert this.conventionHolds();
     }
 
@@ -442,8 +601,10 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     @Override
     public final SortingMachine<T> newInstance() {
         try {
-            Constructor<?> c = this.getClass().getConstructor(Comparator.class);
-            return (SortingMachine<T>) c.newInstance(this.machineOrder);
+            Constructor<?> c = this.getClass().getConstructor(Comparator.class,
+                    int.class, boolean.class);
+            return (SortingMachine<T>) c.newInstance(this.machineOrder,
+                    this.arity, this.eager);
         } catch (ReflectiveOperationException e) {
             throw new AssertionError(
                     "Cannot construct object of type " + this.getClass());
@@ -452,7 +613,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
 
     @Override
     public final void clear() {
-        this.createNewRep(this.machineOrder);
+        this.createNewRep(this.machineOrder, this.arity, this.eager);
         assert this.conventionHolds();
     }
 
@@ -471,10 +632,13 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         SortingMachine5a<T> localSource = (SortingMachine5a<T>) source;
         this.insertionMode = localSource.insertionMode;
         this.machineOrder = localSource.machineOrder;
+        this.arity = localSource.arity;
+        this.eager = localSource.eager;
         this.entries = localSource.entries;
         this.heap = localSource.heap;
         this.heapSize = localSource.heapSize;
-        localSource.createNewRep(localSource.machineOrder);
+        localSource.createNewRep(localSource.machineOrder, localSource.arity,
+                localSource.eager);
         assert this.conventionHolds();
         assert localSource.conventionHolds();
     }
@@ -488,7 +652,17 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         assert x != null : "Violation of: x is not null";
         assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
 
-        this.entries.enqueue(x);
+        if (this.eager) {
+            if (this.heapSize == this.heap.length) {
+                this.heap = Arrays.copyOf(this.heap,
+                        Math.max(INITIAL_CAPACITY, 2 * this.heap.length));
+            }
+            this.heap[this.heapSize] = x;
+            siftUp(this.heap, this.arity, this.heapSize, this.machineOrder);
+            this.heapSize++;
+        } else {
+            this.entries.enqueue(x);
+        }
 
         assert this.conventionHolds();
     }
@@ -498,8 +672,10 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
 
         this.insertionMode = false;
-        this.heap = buildHeap(this.entries, this.machineOrder);
-        this.heapSize = this.heap.length;
+        if (!this.eager) {
+            this.heap = buildHeap(this.entries, this.arity, this.machineOrder);
+            this.heapSize = this.heap.length;
+        }
         assert this.conventionHolds();
     }
 
@@ -510,13 +686,15 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         assert this.size() > 0 : "Violation of: this.contents /= {}";
 
         T result = this.heap[0];
-
-        for (int i = 1; i < this.heapSize; i++) {
-            this.entries.enqueue(this.heap[i]);
-        }
-
-        this.heap = buildHeap(this.entries, this.machineOrder);
         this.heapSize--;
+        exchangeEntries(this.heap, 0, this.heapSize);
+        /*
+         * Clear the slot the removed entry was moved to, so the array does
+         * not keep it reachable
+         */
+        this.heap[this.heapSize] = null;
+        siftDown(this.heap, this.arity, 0, this.heapSize - 1,
+                this.machineOrder);
 
         assert this.conventionHolds();
         // Fix this line to return the result after checking the convention.
@@ -539,7 +717,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     public final int size() {
 
         int size;
-        if (this.insertionMode) {
+        if (this.insertionMode && !this.eager) {
             size = this.entries.length();
         } else {
             size = this.heapSize;
@@ -574,7 +752,8 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
          * No-argument constructor.
          */
         private SortingMachine5aIterator() {
-            if (SortingMachine5a.this.insertionMode) {
+            if (SortingMachine5a.this.insertionMode
+                    && !SortingMachine5a.this.eager) {
                 this.queueIterator = SortingMachine5a.this.entries.iterator();
             } else {
                 this.arrayCurrentIndex = 0;
@@ -585,7 +764,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         @Override
         public boolean hasNext() {
             boolean hasNext;
-            if (SortingMachine5a.this.insertionMode) {
+            if (this.queueIterator != null) {
                 hasNext = this.queueIterator.hasNext();
             } else {
                 hasNext = this.arrayCurrentIndex < SortingMachine5a.this.heapSize;
@@ -606,7 +785,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
                 throw new NoSuchElementException();
             }
             T next;
-            if (SortingMachine5a.this.insertionMode) {
+            if (this.queueIterator != null) {
                 next = this.queueIterator.next();
             } else {
                 next = SortingMachine5a.this.heap[this.arrayCurrentIndex];
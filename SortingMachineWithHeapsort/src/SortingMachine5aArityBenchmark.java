@@ -0,0 +1,120 @@
+import java.util.Comparator;
+import java.util.Random;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+import components.sortingmachine.SortingMachine;
+
+/**
+ * Program to compare full-drain throughput of {@code SortingMachine5a} with
+ * binary, 4-ary and 8-ary heaps. Run it without {@code -ea}: with assertion
+ * checking on, every kernel call re-checks the whole heap.
+ *
+ * @author Chris Zhao, Ko Lim
+ */
+public final class SortingMachine5aArityBenchmark {
+
+    /**
+     * Compare {@code Integer}s in increasing order.
+     */
+    private static class IntegerLT implements Comparator<Integer> {
+        @Override
+        public int compare(Integer o1, Integer o2) {
+            return o1.compareTo(o2);
+        }
+    }
+
+    /**
+     * Heap arities to compare.
+     */
+    private static final int[] ARITIES = { 2, 4, 8 };
+
+    /**
+     * Numbers of entries to drain.
+     */
+    private static final int[] SIZES = { 1_000_000, 10_000_000 };
+
+    /**
+     * Timed repetitions per (arity, size); the best one is reported.
+     */
+    private static final int REPETITIONS = 3;
+
+    /**
+     * Seed for the pseudo-random entries, so every run sees the same input.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Entries per million, for reporting throughput.
+     */
+    private static final double MILLION = 1e6;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private SortingMachine5aArityBenchmark() {
+        // no code needed here
+    }
+
+    /**
+     * Fills a {@code SortingMachine5a} of the given arity with {@code keys},
+     * switches it to extraction mode and drains it.
+     *
+     * @param keys
+     *            the entries
+     * @param arity
+     *            the heap arity
+     * @return elapsed time in nanoseconds for changeToExtractionMode plus the
+     *         full drain
+     * @requires 2 <= arity
+     */
+    private static long timeDrain(Integer[] keys, int arity) {
+        SortingMachine<Integer> sm = new SortingMachine5a<Integer>(
+                new IntegerLT(), arity);
+        for (Integer k : keys) {
+            sm.add(k);
+        }
+        long start = System.nanoTime();
+        sm.changeToExtractionMode();
+        while (sm.size() > 0) {
+            sm.removeFirst();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; unused here
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        Random rnd = new Random(SEED);
+        for (int size : SIZES) {
+            Integer[] keys = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = rnd.nextInt();
+            }
+            for (int arity : ARITIES) {
+                long best = Long.MAX_VALUE;
+                for (int r = 0; r < REPETITIONS; r++) {
+                    best = Math.min(best, timeDrain(keys, arity));
+                }
+                double seconds = best / NANOS_PER_SECOND;
+                out.println("size " + size + ", arity " + arity + ": "
+                        + String.format("%.3f s, %.2f M entries/s", seconds,
+                                size / seconds / MILLION));
+            }
+        }
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,101 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code BoundedSortingMachine}. The
+ * inherited cases never add more than {@code CAPACITY} entries, so they check
+ * plain {@code SortingMachine} behavior; the cases below check eviction.
+ */
+public final class BoundedSortingMachineTest extends SortingMachineTest {
+
+    /**
+     * Capacity of the machines under test in the inherited cases.
+     */
+    private static final int CAPACITY = 100;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new BoundedSortingMachine<String>(order, CAPACITY);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    @Test
+    public final void testAddEvictsLargest() {
+        SortingMachine<String> m = new BoundedSortingMachine<String>(
+                String.CASE_INSENSITIVE_ORDER, 3);
+        SortingMachine<String> mExpected = new SortingMachine1L<String>(
+                String.CASE_INSENSITIVE_ORDER);
+        mExpected.add("blue");
+        mExpected.add("green");
+        mExpected.add("purple");
+        m.add("yellow");
+        m.add("red");
+        m.add("blue");
+        m.add("purple");
+        m.add("green");
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testAddDiscardsLarger() {
+        SortingMachine<String> m = new BoundedSortingMachine<String>(
+                String.CASE_INSENSITIVE_ORDER, 2);
+        m.add("blue");
+        m.add("green");
+        m.add("red");
+        m.add("yellow");
+        m.changeToExtractionMode();
+        assertEquals(2, m.size());
+        assertEquals("blue", m.removeFirst());
+        assertEquals("green", m.removeFirst());
+    }
+
+    @Test
+    public final void testTopKOfMany() {
+        final int k = 10;
+        final int n = 10_000;
+        final int multiplier = 7919;
+        BoundedSortingMachine<Integer> m = new BoundedSortingMachine<Integer>(
+                Integer::compare, k);
+        for (int i = 0; i < n; i++) {
+            m.add((int) (((long) i * multiplier) % n));
+        }
+        assertEquals(k, m.size());
+        m.changeToExtractionMode();
+        for (int i = 0; i < k; i++) {
+            assertEquals(Integer.valueOf(i), m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public final void testCapacityOne() {
+        BoundedSortingMachine<Integer> m = new BoundedSortingMachine<Integer>(
+                Integer::compare, 1);
+        m.add(5);
+        m.add(3);
+        m.add(8);
+        m.changeToExtractionMode();
+        assertEquals(1, m.size());
+        assertEquals(Integer.valueOf(3), m.removeFirst());
+    }
+
+    @Test
+    public final void testNewInstanceKeepsCapacity() {
+        BoundedSortingMachine<String> m = new BoundedSortingMachine<String>(
+                String.CASE_INSENSITIVE_ORDER, 7);
+        SortingMachine<String> n = m.newInstance();
+        assertEquals(7, ((BoundedSortingMachine<String>) n).capacity());
+    }
+
+}
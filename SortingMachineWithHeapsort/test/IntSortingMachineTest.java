@@ -0,0 +1,265 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code IntSortingMachine}'s constructor and kernel
+ * methods, adapted from {@code SortingMachineTest}.
+ *
+ * @author Chris Zhao, Ko Lim
+ *
+ */
+public final class IntSortingMachineTest {
+
+    /**
+     *
+     * Creates and returns an {@code IntSortingMachine} with the given entries
+     * and mode.
+     *
+     * @param insertionMode
+     *            flag indicating the machine mode
+     * @param args
+     *            the entries for the {@code IntSortingMachine}
+     * @return the constructed {@code IntSortingMachine}
+     * @ensures <pre>
+     * createFromArgs = (insertionMode, [multiset of entries in args])
+     * </pre>
+     */
+    private static IntSortingMachine createFromArgs(boolean insertionMode,
+            int... args) {
+        IntSortingMachine sm = new IntSortingMachine();
+        for (int i = 0; i < args.length; i++) {
+            sm.add(args[i]);
+        }
+        if (!insertionMode) {
+            sm.changeToExtractionMode();
+        }
+        return sm;
+    }
+
+    /**
+     * Removes every entry of {@code m} and checks that they come out in the
+     * order {@code Arrays.sort} puts {@code args} in, so the check does not
+     * depend on {@code IntSortingMachine} itself.
+     *
+     * @param m
+     *            the machine to drain
+     * @param args
+     *            the entries expected in {@code m}
+     * @updates m
+     * @requires <pre>
+     * not m.insertion_mode  and  m.contents = [multiset of entries in args]
+     * </pre>
+     * @ensures m.contents = {}
+     */
+    private static void assertDrainsSorted(IntSortingMachine m, int... args) {
+        int[] expected = Arrays.copyOf(args, args.length);
+        Arrays.sort(expected);
+        assertEquals(expected.length, m.size());
+        for (int x : expected) {
+            assertEquals(x, m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public final void testConstructor() {
+        IntSortingMachine m = new IntSortingMachine();
+        IntSortingMachine mExpected = createFromArgs(true);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testAddEmpty() {
+        IntSortingMachine m = createFromArgs(true);
+        IntSortingMachine mExpected = createFromArgs(true, 7);
+        m.add(7);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testAddNonEmpty() {
+        IntSortingMachine m = createFromArgs(true, 2, 9, 5, 4);
+        IntSortingMachine mExpected = createFromArgs(true, 2, 9, 5, 4, 7);
+        m.add(7);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testAddEmptyToNonEmpty() {
+        IntSortingMachine m = createFromArgs(true);
+        IntSortingMachine mExpected = createFromArgs(true, 2, 9, 5, 4, 7);
+        m.add(2);
+        m.add(9);
+        m.add(5);
+        m.add(4);
+        m.add(7);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testAddPastInitialCapacity() {
+        IntSortingMachine m = createFromArgs(true);
+        final int count = 100;
+        for (int i = count; i > 0; i--) {
+            m.add(i);
+        }
+        m.changeToExtractionMode();
+        for (int i = 1; i <= count; i++) {
+            assertEquals(i, m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public final void testAddNegativeAndExtremes() {
+        IntSortingMachine m = createFromArgs(false, 0, Integer.MAX_VALUE, -3,
+                Integer.MIN_VALUE, -3);
+        assertEquals(Integer.MIN_VALUE, m.removeFirst());
+        assertEquals(-3, m.removeFirst());
+        assertEquals(-3, m.removeFirst());
+        assertEquals(0, m.removeFirst());
+        assertEquals(Integer.MAX_VALUE, m.removeFirst());
+    }
+
+    @Test
+    public final void testChangeToExtractionMode() {
+        IntSortingMachine m = createFromArgs(true);
+        IntSortingMachine mExpected = createFromArgs(false);
+        m.changeToExtractionMode();
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testChangeToExtractionMode2() {
+        IntSortingMachine m = createFromArgs(true, 2, 9, 5, 4, 7);
+        IntSortingMachine mExpected = createFromArgs(false, 2, 9, 5, 4, 7);
+        m.changeToExtractionMode();
+        assertEquals(mExpected, m);
+        assertDrainsSorted(m, 2, 9, 5, 4, 7);
+    }
+
+    @Test
+    public final void testRemoveFirstLeavingNonEmpty() {
+        IntSortingMachine m = createFromArgs(false, 9, 5, 2, 4, 7);
+        IntSortingMachine mExpected = createFromArgs(false, 9, 5, 4, 7);
+        int ans = m.removeFirst();
+        assertEquals(mExpected, m);
+        assertEquals(2, ans);
+    }
+
+    @Test
+    public final void testRemoveFirstLeavingEmpty() {
+        IntSortingMachine m = createFromArgs(false, 2);
+        IntSortingMachine mExpected = createFromArgs(false);
+        int ans = m.removeFirst();
+        assertEquals(mExpected, m);
+        assertEquals(2, ans);
+    }
+
+    @Test
+    public final void testRemoveFirstDuplicates() {
+        IntSortingMachine m = createFromArgs(false, 4, 2, 4, 2);
+        assertEquals(2, m.removeFirst());
+        assertEquals(2, m.removeFirst());
+        assertEquals(4, m.removeFirst());
+        assertEquals(4, m.removeFirst());
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public final void testIsInInsertionModeTrue() {
+        IntSortingMachine m = createFromArgs(true, 2, 9, 5, 4, 7);
+        IntSortingMachine mExpected = createFromArgs(true, 2, 9, 5, 4, 7);
+        assertEquals(mExpected, m);
+        assertEquals(true, m.isInInsertionMode());
+    }
+
+    @Test
+    public final void testIsInInsertionModeFalse() {
+        IntSortingMachine m = createFromArgs(false, 2, 9, 5, 4, 7);
+        IntSortingMachine mExpected = createFromArgs(false, 2, 9, 5, 4, 7);
+        assertEquals(mExpected, m);
+        assertEquals(false, m.isInInsertionMode());
+    }
+
+    @Test
+    public final void testSizeInsertionModeEmpty() {
+        IntSortingMachine m = createFromArgs(true);
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public final void testSizeInsertionModeNonEmpty() {
+        IntSortingMachine m = createFromArgs(true, 2, 9, 5, 4, 7);
+        assertEquals(5, m.size());
+    }
+
+    @Test
+    public final void testSizeExtractionModeEmpty() {
+        IntSortingMachine m = createFromArgs(false);
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public final void testSizeExtractionModeNonEmpty() {
+        IntSortingMachine m = createFromArgs(false, 2, 9, 5, 4, 7);
+        assertEquals(5, m.size());
+    }
+
+    @Test
+    public final void testTransferFrom() {
+        IntSortingMachine m = createFromArgs(true);
+        IntSortingMachine source = createFromArgs(false, 2, 9, 5);
+        IntSortingMachine mExpected = createFromArgs(false, 2, 9, 5);
+        IntSortingMachine sourceExpected = createFromArgs(true);
+        m.transferFrom(source);
+        assertEquals(mExpected, m);
+        assertEquals(sourceExpected, source);
+        assertDrainsSorted(m, 2, 9, 5);
+    }
+
+    @Test
+    public final void testClear() {
+        IntSortingMachine m = createFromArgs(false, 2, 9, 5);
+        IntSortingMachine mExpected = createFromArgs(true);
+        m.clear();
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testRandomAgainstArraysSort() {
+        final long seed = 42L;
+        final int[] sizes = { 1, 2, 3, 10, 100, 1_000, 10_000 };
+        Random rnd = new Random(seed);
+        for (int size : sizes) {
+            int[] args = new int[size];
+            for (int i = 0; i < size; i++) {
+                args[i] = rnd.nextInt();
+            }
+            assertDrainsSorted(createFromArgs(false, args), args);
+        }
+    }
+
+    @Test
+    public final void testRandomDuplicatesAgainstArraysSort() {
+        final long seed = 42L;
+        final int size = 5_000;
+        final int range = 10;
+        Random rnd = new Random(seed);
+        int[] args = new int[size];
+        for (int i = 0; i < size; i++) {
+            args[i] = rnd.nextInt(range) - range / 2;
+        }
+        IntSortingMachine m = createFromArgs(true);
+        for (int x : args) {
+            m.add(x);
+        }
+        m.changeToExtractionMode();
+        assertDrainsSorted(m, args);
+    }
+
+}
@@ -0,0 +1,274 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code LongSortingMachine}'s constructor and kernel
+ * methods, adapted from {@code SortingMachineTest}.
+ *
+ * @author Chris Zhao, Ko Lim
+ *
+ */
+public final class LongSortingMachineTest {
+
+    /**
+     *
+     * Creates and returns an {@code LongSortingMachine} with the given entries
+     * and mode.
+     *
+     * @param insertionMode
+     *            flag indicating the machine mode
+     * @param args
+     *            the entries for the {@code LongSortingMachine}
+     * @return the constructed {@code LongSortingMachine}
+     * @ensures <pre>
+     * createFromArgs = (insertionMode, [multiset of entries in args])
+     * </pre>
+     */
+    private static LongSortingMachine createFromArgs(boolean insertionMode,
+            long... args) {
+        LongSortingMachine sm = new LongSortingMachine();
+        for (int i = 0; i < args.length; i++) {
+            sm.add(args[i]);
+        }
+        if (!insertionMode) {
+            sm.changeToExtractionMode();
+        }
+        return sm;
+    }
+
+    /**
+     * Removes every entry of {@code m} and checks that they come out in the
+     * order {@code Arrays.sort} puts {@code args} in, so the check does not
+     * depend on {@code LongSortingMachine} itself.
+     *
+     * @param m
+     *            the machine to drain
+     * @param args
+     *            the entries expected in {@code m}
+     * @updates m
+     * @requires <pre>
+     * not m.insertion_mode  and  m.contents = [multiset of entries in args]
+     * </pre>
+     * @ensures m.contents = {}
+     */
+    private static void assertDrainsSorted(LongSortingMachine m, long... args) {
+        long[] expected = Arrays.copyOf(args, args.length);
+        Arrays.sort(expected);
+        assertEquals(expected.length, m.size());
+        for (long x : expected) {
+            assertEquals(x, m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public final void testConstructor() {
+        LongSortingMachine m = new LongSortingMachine();
+        LongSortingMachine mExpected = createFromArgs(true);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testAddEmpty() {
+        LongSortingMachine m = createFromArgs(true);
+        LongSortingMachine mExpected = createFromArgs(true, 7);
+        m.add(7);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testAddNonEmpty() {
+        LongSortingMachine m = createFromArgs(true, 2, 9, 5, 4);
+        LongSortingMachine mExpected = createFromArgs(true, 2, 9, 5, 4, 7);
+        m.add(7);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testAddEmptyToNonEmpty() {
+        LongSortingMachine m = createFromArgs(true);
+        LongSortingMachine mExpected = createFromArgs(true, 2, 9, 5, 4, 7);
+        m.add(2);
+        m.add(9);
+        m.add(5);
+        m.add(4);
+        m.add(7);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testAddPastInitialCapacity() {
+        LongSortingMachine m = createFromArgs(true);
+        final int count = 100;
+        for (int i = count; i > 0; i--) {
+            m.add(i);
+        }
+        m.changeToExtractionMode();
+        for (int i = 1; i <= count; i++) {
+            assertEquals(i, m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public final void testAddNegativeAndExtremes() {
+        LongSortingMachine m = createFromArgs(false, 0, Long.MAX_VALUE, -3,
+                Long.MIN_VALUE, -3);
+        assertEquals(Long.MIN_VALUE, m.removeFirst());
+        assertEquals(-3, m.removeFirst());
+        assertEquals(-3, m.removeFirst());
+        assertEquals(0, m.removeFirst());
+        assertEquals(Long.MAX_VALUE, m.removeFirst());
+    }
+
+    @Test
+    public final void testAddBeyondIntRange() {
+        final long big = 1L << 40;
+        LongSortingMachine m = createFromArgs(false, big, -big, 0);
+        assertEquals(-big, m.removeFirst());
+        assertEquals(0, m.removeFirst());
+        assertEquals(big, m.removeFirst());
+    }
+
+    @Test
+    public final void testChangeToExtractionMode() {
+        LongSortingMachine m = createFromArgs(true);
+        LongSortingMachine mExpected = createFromArgs(false);
+        m.changeToExtractionMode();
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testChangeToExtractionMode2() {
+        LongSortingMachine m = createFromArgs(true, 2, 9, 5, 4, 7);
+        LongSortingMachine mExpected = createFromArgs(false, 2, 9, 5, 4, 7);
+        m.changeToExtractionMode();
+        assertEquals(mExpected, m);
+        assertDrainsSorted(m, 2, 9, 5, 4, 7);
+    }
+
+    @Test
+    public final void testRemoveFirstLeavingNonEmpty() {
+        LongSortingMachine m = createFromArgs(false, 9, 5, 2, 4, 7);
+        LongSortingMachine mExpected = createFromArgs(false, 9, 5, 4, 7);
+        long ans = m.removeFirst();
+        assertEquals(mExpected, m);
+        assertEquals(2, ans);
+    }
+
+    @Test
+    public final void testRemoveFirstLeavingEmpty() {
+        LongSortingMachine m = createFromArgs(false, 2);
+        LongSortingMachine mExpected = createFromArgs(false);
+        long ans = m.removeFirst();
+        assertEquals(mExpected, m);
+        assertEquals(2, ans);
+    }
+
+    @Test
+    public final void testRemoveFirstDuplicates() {
+        LongSortingMachine m = createFromArgs(false, 4, 2, 4, 2);
+        assertEquals(2, m.removeFirst());
+        assertEquals(2, m.removeFirst());
+        assertEquals(4, m.removeFirst());
+        assertEquals(4, m.removeFirst());
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public final void testIsInInsertionModeTrue() {
+        LongSortingMachine m = createFromArgs(true, 2, 9, 5, 4, 7);
+        LongSortingMachine mExpected = createFromArgs(true, 2, 9, 5, 4, 7);
+        assertEquals(mExpected, m);
+        assertEquals(true, m.isInInsertionMode());
+    }
+
+    @Test
+    public final void testIsInInsertionModeFalse() {
+        LongSortingMachine m = createFromArgs(false, 2, 9, 5, 4, 7);
+        LongSortingMachine mExpected = createFromArgs(false, 2, 9, 5, 4, 7);
+        assertEquals(mExpected, m);
+        assertEquals(false, m.isInInsertionMode());
+    }
+
+    @Test
+    public final void testSizeInsertionModeEmpty() {
+        LongSortingMachine m = createFromArgs(true);
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public final void testSizeInsertionModeNonEmpty() {
+        LongSortingMachine m = createFromArgs(true, 2, 9, 5, 4, 7);
+        assertEquals(5, m.size());
+    }
+
+    @Test
+    public final void testSizeExtractionModeEmpty() {
+        LongSortingMachine m = createFromArgs(false);
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public final void testSizeExtractionModeNonEmpty() {
+        LongSortingMachine m = createFromArgs(false, 2, 9, 5, 4, 7);
+        assertEquals(5, m.size());
+    }
+
+    @Test
+    public final void testTransferFrom() {
+        LongSortingMachine m = createFromArgs(true);
+        LongSortingMachine source = createFromArgs(false, 2, 9, 5);
+        LongSortingMachine mExpected = createFromArgs(false, 2, 9, 5);
+        LongSortingMachine sourceExpected = createFromArgs(true);
+        m.transferFrom(source);
+        assertEquals(mExpected, m);
+        assertEquals(sourceExpected, source);
+        assertDrainsSorted(m, 2, 9, 5);
+    }
+
+    @Test
+    public final void testClear() {
+        LongSortingMachine m = createFromArgs(false, 2, 9, 5);
+        LongSortingMachine mExpected = createFromArgs(true);
+        m.clear();
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public final void testRandomAgainstArraysSort() {
+        final long seed = 42L;
+        final int[] sizes = { 1, 2, 3, 10, 100, 1_000, 10_000 };
+        Random rnd = new Random(seed);
+        for (int size : sizes) {
+            long[] args = new long[size];
+            for (int i = 0; i < size; i++) {
+                args[i] = rnd.nextLong();
+            }
+            assertDrainsSorted(createFromArgs(false, args), args);
+        }
+    }
+
+    @Test
+    public final void testRandomDuplicatesAgainstArraysSort() {
+        final long seed = 42L;
+        final int size = 5_000;
+        final int range = 10;
+        Random rnd = new Random(seed);
+        long[] args = new long[size];
+        for (int i = 0; i < size; i++) {
+            args[i] = rnd.nextInt(range) - range / 2;
+        }
+        LongSortingMachine m = createFromArgs(true);
+        for (long x : args) {
+            m.add(x);
+        }
+        m.changeToExtractionMode();
+        assertDrainsSorted(m, args);
+    }
+
+}
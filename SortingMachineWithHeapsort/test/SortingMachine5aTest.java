@@ -1,5 +1,14 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Comparator;
 
+import org.junit.Test;
+
 import components.sortingmachine.SortingMachine;
 import components.sortingmachine.SortingMachine1L;
 
@@ -18,4 +27,339 @@ public final class SortingMachine5aTest extends SortingMachineTest {
         return new SortingMachine1L<String>(order);
     }
 
+    /**
+     * Number of entries drained in the large-n regression test.
+     */
+    private static final int LARGE_SIZE = 200_000;
+
+    /**
+     * Number of entries heapified in the stress test.
+     */
+    private static final int STRESS_SIZE = 10_000_000;
+
+    /**
+     * Comparator<Integer> that counts how many times it has been called.
+     */
+    private static final class CountingIntegerLT
+            implements Comparator<Integer> {
+
+        /**
+         * Number of calls to {@code compare} so far.
+         */
+        private long count = 0;
+
+        @Override
+        public int compare(Integer i1, Integer i2) {
+            this.count++;
+            return i1.compareTo(i2);
+        }
+
+    }
+
+    /**
+     * Class loader that loads its own copy of {@code SortingMachine5a}, with
+     * assertion checking disabled for it whatever the command line says, and
+     * leaves every other class to its parent.
+     */
+    private static final class NoAssertionsLoader extends ClassLoader {
+
+        /**
+         * Name of the class loaded without assertions.
+         */
+        private static final String NAME = "SortingMachine5a";
+
+        /**
+         * No-argument constructor.
+         */
+        private NoAssertionsLoader() {
+            super(SortingMachine5aTest.class.getClassLoader());
+            this.setClassAssertionStatus(NAME, false);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve)
+                throws ClassNotFoundException {
+            synchronized (this.getClassLoadingLock(name)) {
+                Class<?> c = this.findLoadedClass(name);
+                if (c == null && (name.equals(NAME)
+                        || name.startsWith(NAME + "$"))) {
+                    c = this.findClass(name);
+                } else if (c == null) {
+                    c = super.loadClass(name, false);
+                }
+                if (resolve) {
+                    this.resolveClass(c);
+                }
+                return c;
+            }
+        }
+
+        @Override
+        protected Class<?> findClass(String name)
+                throws ClassNotFoundException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (InputStream in = this.getParent()
+                    .getResourceAsStream(name + ".class")) {
+                if (in == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                final int bufferSize = 4096;
+                byte[] buffer = new byte[bufferSize];
+                int n = in.read(buffer);
+                while (n >= 0) {
+                    bytes.write(buffer, 0, n);
+                    n = in.read(buffer);
+                }
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+            return this.defineClass(name, bytes.toByteArray(), 0,
+                    bytes.size());
+        }
+
+    }
+
+    /**
+     * Returns a new {@code SortingMachine5a} with the given order whose class
+     * has assertion checking disabled, so that {@code conventionHolds} does
+     * not walk the whole heap on every call even when the tests run with
+     * {@code -ea}.
+     *
+     * @param order
+     *            the order
+     * @return the new sorting machine
+     */
+    @SuppressWarnings("unchecked")
+    private static SortingMachine<Integer> withoutAssertions(
+            Comparator<Integer> order) {
+        try {
+            Class<?> c = new NoAssertionsLoader()
+                    .loadClass(NoAssertionsLoader.NAME);
+            assertFalse(c.desiredAssertionStatus());
+            return (SortingMachine<Integer>) c
+                    .getConstructor(Comparator.class).newInstance(order);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError("Cannot load SortingMachine5a", e);
+        }
+    }
+
+    /*
+     * Large-n regression test: draining n entries must cost O(n log n)
+     * comparisons, not the O(n^2) of rebuilding the heap on every removeFirst.
+     * Comparisons are counted rather than timed so the test is deterministic.
+     * The machine is loaded without assertions, because conventionHolds
+     * walks the whole heap on every call.
+     */
+
+    @Test
+    public final void testRemoveFirstLargeDrainIsLinearithmic() {
+        CountingIntegerLT order = new CountingIntegerLT();
+        SortingMachine<Integer> m = withoutAssertions(order);
+        /*
+         * Multiplicative hash spreads the keys over [0, LARGE_SIZE)
+         */
+        final int multiplier = 7919;
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            m.add((int) (((long) i * multiplier) % LARGE_SIZE));
+        }
+        m.changeToExtractionMode();
+        double budget = 2 * LARGE_SIZE * Math.log(LARGE_SIZE) / Math.log(2);
+        order.count = 0;
+        int previous = Integer.MIN_VALUE;
+        /*
+         * Check the budget after every call, so a quadratic drain fails after
+         * a few calls instead of running for minutes
+         */
+        for (int i = 0; i < LARGE_SIZE; i++) {
+            int x = m.removeFirst();
+            assertTrue(previous <= x);
+            previous = x;
+            assertTrue("drain used " + order.count + " comparisons after "
+                    + (i + 1) + " calls", order.count <= budget);
+        }
+        assertEquals(0, m.size());
+    }
+
+    /*
+     * Stress test: building a heap of STRESS_SIZE entries must not exhaust
+     * the stack. The machine is loaded without assertions for the same reason
+     * as above (siftDown checks its whole array on every call).
+     */
+
+    @Test
+    public final void testChangeToExtractionModeStress() {
+        /*
+         * Share a small pool of boxed keys so memory goes to the heap itself
+         */
+        final int distinct = 1024;
+        Integer[] keys = new Integer[distinct];
+        for (int i = 0; i < distinct; i++) {
+            keys[i] = i;
+        }
+        final int multiplier = 7919;
+        SortingMachine<Integer> m = withoutAssertions(new CountingIntegerLT());
+        for (int i = 0; i < STRESS_SIZE; i++) {
+            m.add(keys[(int) (((long) i * multiplier) % distinct)]);
+        }
+        m.changeToExtractionMode();
+        assertEquals(STRESS_SIZE, m.size());
+        final int sample = 10_000;
+        int previous = Integer.MIN_VALUE;
+        for (int i = 0; i < sample; i++) {
+            int x = m.removeFirst();
+            assertTrue(previous <= x);
+            previous = x;
+        }
+        assertEquals(STRESS_SIZE - sample, m.size());
+    }
+
+    /**
+     * Adds the first {@code n} entries of a fixed pseudo-random sequence to a
+     * {@code SortingMachine5a} of the given arity, drains it, and checks that
+     * the entries come out in order.
+     *
+     * @param arity
+     *            the heap arity
+     * @param n
+     *            the number of entries
+     */
+    private static void checkDrainInOrder(int arity, int n) {
+        SortingMachine<Integer> m = new SortingMachine5a<Integer>(
+                new CountingIntegerLT(), arity);
+        final int multiplier = 7919;
+        for (int i = 0; i < n; i++) {
+            m.add((int) (((long) i * multiplier) % n));
+        }
+        m.changeToExtractionMode();
+        assertEquals(n, m.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(Integer.valueOf(i), m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public final void testDrainArity2() {
+        checkDrainInOrder(2, 1000);
+    }
+
+    @Test
+    public final void testDrainArity4() {
+        checkDrainInOrder(4, 1000);
+    }
+
+    @Test
+    public final void testDrainArity8() {
+        checkDrainInOrder(8, 1000);
+    }
+
+    @Test
+    public final void testDrainArity8SmallSizes() {
+        for (int n = 1; n <= 20; n++) {
+            checkDrainInOrder(8, n);
+        }
+    }
+
+    @Test
+    public final void testNewInstanceKeepsArity() {
+        SortingMachine<String> m = new SortingMachine5a<String>(
+                String.CASE_INSENSITIVE_ORDER, 4);
+        SortingMachine<String> n = m.newInstance();
+        n.add("red");
+        n.add("blue");
+        n.add("green");
+        n.changeToExtractionMode();
+        assertEquals("blue", n.removeFirst());
+        assertEquals("green", n.removeFirst());
+        assertEquals("red", n.removeFirst());
+    }
+
+    /**
+     * Adds the same entries to a batch-mode and an eager-mode
+     * {@code SortingMachine5a} of the given arity and checks that both drain
+     * in the same order.
+     *
+     * @param arity
+     *            the heap arity
+     * @param n
+     *            the number of entries
+     */
+    private static void checkEagerMatchesBatch(int arity, int n) {
+        SortingMachine<Integer> batch = new SortingMachine5a<Integer>(
+                new CountingIntegerLT(), arity, false);
+        SortingMachine<Integer> eager = new SortingMachine5a<Integer>(
+                new CountingIntegerLT(), arity, true);
+        final int multiplier = 7919;
+        for (int i = 0; i < n; i++) {
+            Integer x = (int) (((long) i * multiplier) % n);
+            batch.add(x);
+            eager.add(x);
+        }
+        assertEquals(batch, eager);
+        batch.changeToExtractionMode();
+        eager.changeToExtractionMode();
+        assertEquals(batch, eager);
+        while (batch.size() > 0) {
+            assertEquals(batch.removeFirst(), eager.removeFirst());
+        }
+        assertEquals(0, eager.size());
+    }
+
+    @Test
+    public final void testEagerMatchesBatchArity2() {
+        checkEagerMatchesBatch(2, 200);
+    }
+
+    @Test
+    public final void testEagerMatchesBatchArity4() {
+        checkEagerMatchesBatch(4, 200);
+    }
+
+    @Test
+    public final void testEagerMatchesBatchSmallSizes() {
+        for (int n = 0; n <= 20; n++) {
+            checkEagerMatchesBatch(8, n);
+        }
+    }
+
+    @Test
+    public final void testEagerMatchesBatchWithTies() {
+        SortingMachine<String> batch = new SortingMachine5a<String>(
+                String.CASE_INSENSITIVE_ORDER, 2, false);
+        SortingMachine<String> eager = new SortingMachine5a<String>(
+                String.CASE_INSENSITIVE_ORDER, 2, true);
+        String[] words = { "red", "Blue", "GREEN", "blue", "Red", "green",
+                "BLUE", "yellow" };
+        for (String w : words) {
+            batch.add(w);
+            eager.add(w);
+        }
+        batch.changeToExtractionMode();
+        eager.changeToExtractionMode();
+        while (batch.size() > 0) {
+            assertEquals(0, String.CASE_INSENSITIVE_ORDER
+                    .compare(batch.removeFirst(), eager.removeFirst()));
+        }
+        assertEquals(0, eager.size());
+    }
+
+    @Test
+    public final void testEagerTransferFromAndClear() {
+        SortingMachine<String> m = new SortingMachine5a<String>(
+                String.CASE_INSENSITIVE_ORDER, 4, true);
+        m.add("red");
+        m.add("blue");
+        SortingMachine<String> n = m.newInstance();
+        n.transferFrom(m);
+        assertEquals(0, m.size());
+        assertEquals(2, n.size());
+        m.add("green");
+        n.clear();
+        n.add("yellow");
+        n.add("purple");
+        n.changeToExtractionMode();
+        assertEquals("purple", n.removeFirst());
+        assertEquals("yellow", n.removeFirst());
+    }
+
 }
@@ -11,6 +11,13 @@ import components.stack.StackSecondary;
  * <p>
  * Execution-time performance of all methods implemented in this class is O(1).
  *
+ * <p>
+ * A {@code Stack2} can be made to recycle its nodes: {@code pop} then keeps
+ * the node it unlinks, with its data cleared, on a free list of at most a
+ * given number of nodes, and {@code push} takes a node from that list before
+ * allocating a new one. A stack that is pushed and popped many times within
+ * a bounded depth then allocates nothing once its free list has filled up.
+ *
  * @param <T>
  *            type of Stack entries
  * @convention <pre>
@@ -21,7 +28,12 @@ import components.stack.StackSecondary;
  *   [$this.top is not null]  and
  *   [$this.top points to the first node of a singly linked list
  *    containing $this.length nodes]  and
- *   [next in the last node of that list is null]
+ *   [next in the last node of that list is null]  and
+ * 0 <= $this.freeLength <= $this.maxFree  and
+ * [$this.free is null or points to the first node of a singly linked list
+ *  containing $this.freeLength nodes, none of them in the list starting at
+ *  $this.top, each with null data]  and
+ * [next in the last node of that list is null]
  * </pre>
  * @correspondence this = [data in $this.length nodes starting at $this.top]
  */
@@ -58,6 +70,22 @@ public class Stack2<T> extends StackSecondary<T> {
      */
     private int length;
 
+    /**
+     * Top node of singly linked list of nodes kept for reuse, or null.
+     */
+    private Node free;
+
+    /**
+     * Number of nodes in the free list.
+     */
+    private int freeLength;
+
+    /**
+     * Largest number of nodes the free list may hold; 0 if nodes are not
+     * recycled.
+     */
+    private final int maxFree;
+
     /**
      * Checks that the part of the convention repeated below holds for the
      * current representation.
@@ -97,6 +125,19 @@ public class Stack2<T> extends StackSecondary<T> {
                     + "linked list containing $this.length nodes] and "
                     + "[next in the last node of that list is null]";
         }
+        assert 0 <= this.freeLength && this.freeLength <= this.maxFree : ""
+                + "Violation of: 0 <= $this.freeLength <= $this.maxFree";
+        int freeCount = 0;
+        Node tmp = this.free;
+        while ((tmp != null) && (freeCount < this.freeLength)) {
+            assert tmp.data == null : ""
+                    + "Violation of: [free list nodes have null data]";
+            freeCount++;
+            tmp = tmp.next;
+        }
+        assert this.freeLength == freeCount && tmp == null : ""
+                + "Violation of: [$this.free points to the first node of a "
+                + "singly linked list containing $this.freeLength nodes]";
         return true;
     }
 
@@ -115,9 +156,23 @@ public class Stack2<T> extends StackSecondary<T> {
      */
 
     /**
-     * No-argument constructor.
+     * No-argument constructor; nodes are not recycled.
      */
     public Stack2() {
+        this(0);
+    }
+
+    /**
+     * Constructor from free list capacity.
+     *
+     * @param maxFree
+     *            the largest number of popped nodes to keep for reuse; 0 if
+     *            nodes are not to be recycled
+     * @requires maxFree >= 0
+     */
+    public Stack2(int maxFree) {
+        assert maxFree >= 0 : "Violation of: maxFree >= 0";
+        this.maxFree = maxFree;
         this.createNewRep();
         assert this.conventionHolds();
     }
@@ -130,7 +185,8 @@ public class Stack2<T> extends StackSecondary<T> {
     @Override
     public final Stack<T> newInstance() {
         try {
-            return this.getClass().getConstructor().newInstance();
+            return this.getClass().getConstructor(int.class)
+                    .newInstance(this.maxFree);
         } catch (ReflectiveOperationException e) {
             throw new AssertionError(
                     "Cannot construct object of type " + this.getClass());
@@ -170,7 +226,13 @@ public class Stack2<T> extends StackSecondary<T> {
     public final void push(T x) {
         assert x != null : "Violation of: x is not null";
 
-        Node newNode = new Node();
+        Node newNode = this.free;
+        if (newNode != null) {
+            this.free = newNode.next;
+            this.freeLength--;
+        } else {
+            newNode = new Node();
+        }
         newNode.data = x;
         newNode.next = this.top;
         this.top = newNode;
@@ -183,9 +245,19 @@ public class Stack2<T> extends StackSecondary<T> {
     public final T pop() {
         assert this.length() > 0 : "Violation of: this /= <>";
 
-        T result = this.top.data;
+        Node oldTop = this.top;
+        T result = oldTop.data;
         this.length--;
-        this.top = this.top.next;
+        this.top = oldTop.next;
+        if (this.freeLength < this.maxFree) {
+            /*
+             * Clear the data so the free list does not keep it reachable
+             */
+            oldTop.data = null;
+            oldTop.next = this.free;
+            this.free = oldTop;
+            this.freeLength++;
+        }
 
         assert this.conventionHolds();
         // Fix this line to return the result after checking the convention.
@@ -1,3 +1,10 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
 import components.stack.Stack;
 import components.stack.Stack1L;
 
@@ -16,4 +23,99 @@ public class Stack2Test extends StackTest {
         return new Stack1L<String>();
     }
 
+    /**
+     * Pushes and pops {@code operations} random strings on {@code s} and
+     * {@code ref}, checking that they agree throughout.
+     *
+     * @param s
+     *            the stack under test
+     * @param ref
+     *            the reference stack
+     * @param operations
+     *            the number of pushes and pops
+     * @param rnd
+     *            the source of randomness
+     * @updates s, ref
+     * @requires s = ref
+     * @ensures s = ref
+     */
+    private static void pushAndPop(Stack<String> s, Stack<String> ref,
+            int operations, Random rnd) {
+        final int range = 100;
+        for (int i = 0; i < operations; i++) {
+            if (ref.length() > 0 && rnd.nextInt(2) == 0) {
+                assertEquals(ref.pop(), s.pop());
+            } else {
+                String x = String.valueOf(rnd.nextInt(range));
+                s.push(x);
+                ref.push(x);
+            }
+            assertEquals(ref.length(), s.length());
+        }
+        assertEquals(ref, s);
+    }
+
+    @Test
+    public final void testRecyclingMatchesReference() {
+        final long seed = 42L;
+        final int operations = 20_000;
+        final int[] capacities = { 0, 1, 16, 1_000 };
+        for (int maxFree : capacities) {
+            Random rnd = new Random(seed);
+            Stack<String> s = new Stack2<String>(maxFree);
+            Stack<String> ref = this.constructorRef();
+            pushAndPop(s, ref, operations, rnd);
+        }
+    }
+
+    @Test
+    public final void testRecyclingPopThenPushReturnsNewEntries() {
+        final int depth = 10;
+        Stack<String> s = new Stack2<String>(depth);
+        for (int i = 0; i < depth; i++) {
+            s.push("old" + i);
+        }
+        for (int i = depth - 1; i >= 0; i--) {
+            assertEquals("old" + i, s.pop());
+        }
+        assertEquals(0, s.length());
+        Stack<String> sExpected = this.constructorRef();
+        for (int i = 0; i < depth + depth; i++) {
+            s.push("new" + i);
+            sExpected.push("new" + i);
+        }
+        assertEquals(sExpected, s);
+    }
+
+    @Test
+    public final void testRecyclingAfterClearAndTransfer() {
+        final long seed = 42L;
+        final int operations = 2_000;
+        final int maxFree = 8;
+        Random rnd = new Random(seed);
+        Stack<String> s = new Stack2<String>(maxFree);
+        Stack<String> t = new Stack2<String>(maxFree);
+        Stack<String> ref = this.constructorRef();
+        pushAndPop(s, ref, operations, rnd);
+        s.clear();
+        ref.clear();
+        pushAndPop(s, ref, operations, rnd);
+        t.transferFrom(s);
+        assertEquals(0, s.length());
+        pushAndPop(t, ref, operations, rnd);
+        Stack<String> empty = this.constructorRef();
+        pushAndPop(s, empty, operations, rnd);
+    }
+
+    @Test
+    public final void testRecyclingNewInstance() {
+        final long seed = 42L;
+        final int operations = 2_000;
+        final int maxFree = 8;
+        Stack<String> s = new Stack2<String>(maxFree).newInstance();
+        assertTrue(s instanceof Stack2<?>);
+        assertEquals(0, s.length());
+        pushAndPop(s, this.constructorRef(), operations, new Random(seed));
+    }
+
 }